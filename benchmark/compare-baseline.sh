@@ -0,0 +1,16 @@
+#!/bin/sh
+# Runs all benchmarks and compares the results with baseline/jmh-baseline.json.
+# Usage: compare-baseline.sh [thresholdPercent] [additional JMH options]
+# Without JMH options the benchmarks are run with the same options the baseline was recorded with.
+set -e
+cd "$(dirname "$0")"
+
+THRESHOLD=${1:-10}
+[ $# -gt 0 ] && shift
+if [ $# -eq 0 ]; then
+  set -- -f 3 -wi 5 -w 1s -i 5 -r 1s
+fi
+
+java -jar target/benchmarks.jar -rf json -rff target/jmh-result.json "$@"
+java -cp target/benchmarks.jar io.wcm.devops.conga.benchmark.BaselineComparator \
+  baseline/jmh-baseline.json target/jmh-result.json "$THRESHOLD"
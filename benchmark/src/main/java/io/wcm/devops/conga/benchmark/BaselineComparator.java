@@ -0,0 +1,180 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares a JMH JSON result file with a baseline JSON result file and fails if a benchmark got slower
+ * than the given threshold.
+ * <p>
+ * Usage: <code>BaselineComparator &lt;baseline.json&gt; &lt;result.json&gt; [thresholdPercent]</code>
+ * </p>
+ * <p>
+ * The score errors (99.9% confidence intervals) reported by JMH are taken into account: a benchmark is only reported
+ * as regression if the lower bound of the result exceeds the upper bound of the baseline by more than the threshold.
+ * Only benchmarks with a time-per-operation score mode (lower is better) are supported.
+ * Benchmarks missing in either file are reported, but do not fail the comparison.
+ * </p>
+ */
+public final class BaselineComparator {
+
+  private static final double DEFAULT_THRESHOLD_PERCENT = 10d;
+
+  private BaselineComparator() {
+    // main method only
+  }
+
+  /**
+   * @param args Baseline file, result file and optional threshold in percent
+   * @throws IOException I/O exception
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: BaselineComparator <baseline.json> <result.json> [thresholdPercent]");
+      System.exit(2);
+    }
+    double thresholdPercent = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+    Map<String, Score> baseline = readScores(new File(args[0]));
+    Map<String, Score> result = readScores(new File(args[1]));
+
+    int regressions = 0;
+    for (Map.Entry<String, Score> entry : result.entrySet()) {
+      Score baselineScore = baseline.get(entry.getKey());
+      if (baselineScore == null) {
+        System.out.println(String.format("NEW        %s: %s", entry.getKey(), entry.getValue()));
+        continue;
+      }
+      double deltaPercent = getDeltaPercent(baselineScore, entry.getValue());
+      boolean regression = deltaPercent > thresholdPercent;
+      if (regression) {
+        regressions++;
+      }
+      System.out.println(String.format("%-10s %s: %s -> %s (%+.1f%%)",
+          regression ? "REGRESSION" : "OK", entry.getKey(), baselineScore, entry.getValue(), deltaPercent));
+    }
+    for (String key : baseline.keySet()) {
+      if (!result.containsKey(key)) {
+        System.out.println(String.format("MISSING    %s", key));
+      }
+    }
+
+    if (regressions > 0) {
+      System.out.println(regressions + " benchmark(s) exceed regression threshold of " + thresholdPercent + "%.");
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Calculates the slowdown of the result compared to the baseline in percent, based on the gap between the
+   * confidence intervals. Returns 0 if the confidence intervals overlap.
+   * @param baseline Baseline score
+   * @param result Result score
+   * @return Slowdown in percent of the baseline score
+   */
+  static double getDeltaPercent(Score baseline, Score result) {
+    double gap = (result.getScore() - result.getError()) - (baseline.getScore() + baseline.getError());
+    if (gap <= 0) {
+      return 0d;
+    }
+    return gap / baseline.getScore() * 100d;
+  }
+
+  /**
+   * Reads the primary metric score and score error of all benchmarks from a JMH JSON result file.
+   * @param file JMH result file
+   * @return Scores keyed by benchmark name and parameters
+   * @throws IOException I/O exception
+   */
+  static Map<String, Score> readScores(File file) throws IOException {
+    Map<String, Score> scores = new TreeMap<>();
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      JsonArray benchmarks = new JsonParser().parse(reader).getAsJsonArray();
+      for (JsonElement element : benchmarks) {
+        JsonObject benchmark = element.getAsJsonObject();
+        StringBuilder key = new StringBuilder(benchmark.get("benchmark").getAsString());
+        if (benchmark.has("params")) {
+          // sort params to get a stable key
+          Map<String, String> params = new TreeMap<>();
+          for (Map.Entry<String, JsonElement> param : benchmark.getAsJsonObject("params").entrySet()) {
+            params.put(param.getKey(), param.getValue().getAsString());
+          }
+          key.append(params.toString());
+        }
+        JsonObject primaryMetric = benchmark.getAsJsonObject("primaryMetric");
+        double score = primaryMetric.get("score").getAsDouble();
+        // JMH reports NaN as score error if there is only a single measurement
+        double error = primaryMetric.has("scoreError") ? parseDouble(primaryMetric.get("scoreError").getAsString()) : 0d;
+        scores.put(key.toString(), new Score(score, Double.isNaN(error) ? 0d : error));
+      }
+    }
+    return scores;
+  }
+
+  private static double parseDouble(String value) {
+    try {
+      return Double.parseDouble(value);
+    }
+    catch (NumberFormatException ex) {
+      return Double.NaN;
+    }
+  }
+
+  /**
+   * Benchmark score with score error.
+   */
+  static final class Score {
+
+    private final double score;
+    private final double error;
+
+    Score(double score, double error) {
+      this.score = score;
+      this.error = error;
+    }
+
+    double getScore() {
+      return this.score;
+    }
+
+    double getError() {
+      return this.error;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%.3f +/- %.3f", score, error);
+    }
+
+  }
+
+}
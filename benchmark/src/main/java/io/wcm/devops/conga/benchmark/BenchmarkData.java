@@ -0,0 +1,241 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+/**
+ * Builds synthetic configuration data for the benchmarks.
+ * All data is created deterministically so results are comparable between runs.
+ */
+final class BenchmarkData {
+
+  static final String MERGE_TOKEN = "_merge_";
+
+  private BenchmarkData() {
+    // static methods only
+  }
+
+  /**
+   * @return Value provider context with default plugin manager
+   */
+  static ValueProviderGlobalContext valueProviderGlobalContext() {
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(new PluginManagerImpl());
+    return new ValueProviderGlobalContext()
+        .pluginContextOptions(pluginContextOptions);
+  }
+
+  /**
+   * Creates a nested configuration map.
+   * @param depth Nesting depth
+   * @param width Number of entries per level
+   * @param prefix Prefix for keys and values to distinguish different maps
+   * @return Configuration map
+   */
+  static Map<String, Object> deepConfig(int depth, int width, String prefix) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < width; i++) {
+      String key = "key" + i;
+      if (depth > 1) {
+        map.put(key, deepConfig(depth - 1, width, prefix));
+      }
+      else {
+        map.put(key, prefix + "-value" + i);
+      }
+    }
+    map.put("list", list(width, prefix));
+    return map;
+  }
+
+  /**
+   * Creates a list of string values.
+   * @param size List size
+   * @param prefix Value prefix
+   * @return List
+   */
+  static List<Object> list(int size, String prefix) {
+    List<Object> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(prefix + "-item" + i);
+    }
+    return list;
+  }
+
+  /**
+   * Creates a list of string values with a _merge_ token in the middle.
+   * @param size List size
+   * @param prefix Value prefix
+   * @return List
+   */
+  static List<Object> mergeList(int size, String prefix) {
+    List<Object> list = list(size, prefix);
+    list.add(size / 2, MERGE_TOKEN);
+    return list;
+  }
+
+  /**
+   * Creates a flat variable map with the given number of variables var0..varN.
+   * @param count Number of variables
+   * @return Variables
+   */
+  static Map<String, Object> variables(int count) {
+    Map<String, Object> variables = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      variables.put("var" + i, "value" + i);
+    }
+    return variables;
+  }
+
+  /**
+   * Creates a string with the given number of variable references to var0..varN.
+   * @param count Number of variable references
+   * @return String with variable references
+   */
+  static String stringWithVariables(int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append("text").append(i).append(" ${var").append(i).append("} ");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a string with the given number of expression references combining var0..varN.
+   * @param count Number of expression references
+   * @return String with expressions
+   */
+  static String stringWithExpressions(int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append("text").append(i).append(" ${var").append(i).append(" + '-' + var").append(i).append("} ");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a configuration map where values reference other variables, including chained references.
+   * Chains are limited to 10 references to stay below the maximum number of replacement iterations.
+   * @param count Number of entries
+   * @return Configuration map
+   */
+  static Map<String, Object> configWithReferences(int count) {
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("base", "baseValue");
+    for (int i = 0; i < count; i++) {
+      if (i % 10 == 0) {
+        config.put("ref" + i, "${base}/" + i);
+      }
+      else {
+        config.put("ref" + i, "${ref" + (i - 1) + "}/" + i);
+      }
+      Map<String, Object> nested = new LinkedHashMap<>();
+      nested.put("value", "prefix-${base}-" + i);
+      nested.put("list", list(3, "${base}"));
+      config.put("nested" + i, nested);
+    }
+    return config;
+  }
+
+  /**
+   * Creates a configuration map with dot-notation keys.
+   * @param count Number of keys
+   * @param depth Number of key segments
+   * @return Configuration map
+   */
+  static Map<String, Object> dottedConfig(int count, int depth) {
+    Map<String, Object> config = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      StringBuilder key = new StringBuilder();
+      for (int d = 0; d < depth; d++) {
+        if (d > 0) {
+          key.append('.');
+        }
+        key.append("seg").append(i % (d + 2)).append(d);
+      }
+      key.append(".leaf").append(i);
+      config.put(key.toString(), "value" + i);
+    }
+    return config;
+  }
+
+  /**
+   * Creates a text with characters that have to be escaped in XML and JSON.
+   * @param length Approximate length
+   * @return Text
+   */
+  static String textToEscape(int length) {
+    StringBuilder sb = new StringBuilder(length + 64);
+    int i = 0;
+    while (sb.length() < length) {
+      sb.append("Value ").append(i++).append(" with <tag attr=\"x\"> & 'quotes' \\ path\täöü\n");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a handlebars template that renders the given number of entries, each with nested loops and conditions.
+   * @param entries Number of template blocks
+   * @return Template source
+   */
+  static String template(int entries) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<config>\n");
+    for (int i = 0; i < entries; i++) {
+      sb.append("  <entry name=\"entry").append(i).append("\" value=\"{{entries.key").append(i % 10).append(".value}}\">\n")
+          .append("{{#each entries.key").append(i % 10).append(".list}}")
+          .append("    <item index=\"{{@index}}\">{{this}}</item>\n")
+          .append("{{/each}}")
+          .append("{{#if entries.key").append(i % 10).append(".enabled}}")
+          .append("    <enabled/>\n")
+          .append("{{/if}}")
+          .append("  </entry>\n");
+    }
+    sb.append("</config>\n");
+    return sb.toString();
+  }
+
+  /**
+   * Creates a configuration matching the template created by {@link #template(int)}.
+   * @param listSize Size of lists iterated in template
+   * @return Configuration
+   */
+  static Map<String, Object> templateConfig(int listSize) {
+    Map<String, Object> entries = new LinkedHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("value", "value<" + i + ">");
+      entry.put("list", list(listSize, "item&" + i));
+      entry.put("enabled", i % 2 == 0);
+      entries.put("key" + i, entry);
+    }
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("entries", entries);
+    return config;
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wcm.devops.conga.generator.plugins.handlebars.escaping.JsonEscapingStrategy;
+import io.wcm.devops.conga.generator.plugins.handlebars.escaping.NoneEscapingStrategy;
+import io.wcm.devops.conga.generator.plugins.handlebars.escaping.XmlEscapingStrategy;
+import io.wcm.devops.conga.generator.spi.handlebars.EscapingStrategyPlugin;
+import io.wcm.devops.conga.generator.spi.handlebars.context.EscapingStrategyContext;
+
+/**
+ * Benchmarks the handlebars escaping strategies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EscapingStrategyBenchmark {
+
+  @Param({ "64", "4096" })
+  private int length;
+
+  private final EscapingStrategyPlugin xml = new XmlEscapingStrategy();
+  private final EscapingStrategyPlugin json = new JsonEscapingStrategy();
+  private final EscapingStrategyPlugin none = new NoneEscapingStrategy();
+  private final EscapingStrategyContext context = new EscapingStrategyContext();
+  private String text;
+
+  @Setup
+  public void setUp() {
+    text = BenchmarkData.textToEscape(length);
+  }
+
+  @Benchmark
+  public CharSequence escapeXml() {
+    return xml.escape(text, context);
+  }
+
+  @Benchmark
+  public CharSequence escapeJson() {
+    return json.escape(text, context);
+  }
+
+  @Benchmark
+  public CharSequence escapeNone() {
+    return none.escape(text, context);
+  }
+
+}
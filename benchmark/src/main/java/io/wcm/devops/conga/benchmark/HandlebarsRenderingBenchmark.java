@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.google.common.collect.ImmutableList;
+
+import io.wcm.devops.conga.generator.handlebars.CharsetAwareTemplateLoader;
+import io.wcm.devops.conga.generator.handlebars.HandlebarsManager;
+import io.wcm.devops.conga.generator.plugins.handlebars.escaping.XmlEscapingStrategy;
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+import io.wcm.devops.conga.resource.ResourceCollection;
+import io.wcm.devops.conga.resource.ResourceLoader;
+
+/**
+ * Benchmarks compiling and rendering large handlebars templates with XML escaping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlebarsRenderingBenchmark {
+
+  private static final String TEMPLATE_FILE = "benchmark.xml.hbs";
+
+  @Param({ "50", "500" })
+  private int entries;
+
+  @Param({ "10" })
+  private int listSize;
+
+  private File templateDir;
+  private Handlebars uncachedHandlebars;
+  private Template template;
+  private Map<String, Object> config;
+
+  @Setup
+  public void setUp() throws IOException {
+    templateDir = new File(FileUtils.getTempDirectory(), "conga-benchmark-" + System.nanoTime());
+    FileUtils.write(new File(templateDir, TEMPLATE_FILE), BenchmarkData.template(entries), StandardCharsets.UTF_8);
+
+    List<ResourceCollection> templateDirs = ImmutableList.of(
+        new ResourceLoader().getResourceCollection(ResourceLoader.FILE_PREFIX + templateDir.getAbsolutePath()));
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(new PluginManagerImpl());
+    HandlebarsManager handlebarsManager = new HandlebarsManager(templateDirs, pluginContextOptions);
+    template = handlebarsManager.get(XmlEscapingStrategy.NAME, StandardCharsets.UTF_8.name()).compile(TEMPLATE_FILE);
+
+    // handlebars manager caches compiled templates - use plain handlebars instance to measure template compilation
+    uncachedHandlebars = new Handlebars(new CharsetAwareTemplateLoader(templateDirs, StandardCharsets.UTF_8.name()));
+    config = BenchmarkData.templateConfig(listSize);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(templateDir);
+  }
+
+  @Benchmark
+  public Template compile() throws IOException {
+    return uncachedHandlebars.compile(TEMPLATE_FILE);
+  }
+
+  @Benchmark
+  public String render() throws IOException {
+    return template.apply(config);
+  }
+
+}
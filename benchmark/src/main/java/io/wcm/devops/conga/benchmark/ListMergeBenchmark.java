@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wcm.devops.conga.model.util.MapMerger;
+
+/**
+ * Benchmarks merging of long parameter lists with and without _merge_ tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListMergeBenchmark {
+
+  @Param({ "100", "1000" })
+  private int listSize;
+
+  private Map<String, Object> plainConfig1;
+  private Map<String, Object> plainConfig2;
+  private Map<String, Object> mergeConfig1;
+  private Map<String, Object> mergeConfig2;
+
+  @Setup
+  public void setUp() {
+    plainConfig1 = listConfig(BenchmarkData.list(listSize, "a"));
+    plainConfig2 = listConfig(BenchmarkData.list(listSize, "b"));
+    mergeConfig1 = listConfig(BenchmarkData.mergeList(listSize, "a"));
+    mergeConfig2 = listConfig(BenchmarkData.mergeList(listSize, "b"));
+  }
+
+  private static Map<String, Object> listConfig(Object list) {
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("list", list);
+    return config;
+  }
+
+  @Benchmark
+  public Map<String, Object> mergePlainLists() {
+    return MapMerger.merge(plainConfig1, plainConfig2);
+  }
+
+  @Benchmark
+  public Map<String, Object> mergeListsWithMergeToken() {
+    return MapMerger.merge(mergeConfig1, mergeConfig2);
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wcm.devops.conga.model.util.MapExpander;
+
+/**
+ * Benchmarks expansion of dot-notation keys and deep map lookups.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapExpanderBenchmark {
+
+  @Param({ "100", "1000" })
+  private int keys;
+
+  @Param({ "4" })
+  private int depth;
+
+  private Map<String, Object> dottedConfig;
+  private Map<String, Object> deepConfig;
+
+  @Setup
+  public void setUp() {
+    dottedConfig = BenchmarkData.dottedConfig(keys, depth);
+    deepConfig = BenchmarkData.deepConfig(depth, 5, "a");
+  }
+
+  @Benchmark
+  public Map<String, Object> expand() {
+    return MapExpander.expand(dottedConfig);
+  }
+
+  @Benchmark
+  public Object getDeep() {
+    return MapExpander.getDeep(deepConfig, "key1.key2.key3.key4");
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wcm.devops.conga.generator.util.VariableMapResolver;
+import io.wcm.devops.conga.generator.util.VariableStringResolver;
+
+/**
+ * Benchmarks variable resolution in strings and configuration maps, including JEXL expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariableResolverBenchmark {
+
+  @Param({ "10", "100" })
+  private int references;
+
+  private VariableStringResolver stringResolver;
+  private VariableMapResolver mapResolver;
+  private Map<String, Object> variables;
+  private String stringWithVariables;
+  private String stringWithExpressions;
+  private Map<String, Object> configWithReferences;
+
+  @Setup
+  public void setUp() {
+    stringResolver = new VariableStringResolver(BenchmarkData.valueProviderGlobalContext());
+    mapResolver = new VariableMapResolver(BenchmarkData.valueProviderGlobalContext());
+    variables = BenchmarkData.variables(references);
+    stringWithVariables = BenchmarkData.stringWithVariables(references);
+    stringWithExpressions = BenchmarkData.stringWithExpressions(references);
+    configWithReferences = BenchmarkData.configWithReferences(references);
+  }
+
+  @Benchmark
+  public String resolveStringVariables() {
+    return stringResolver.resolveString(stringWithVariables, variables);
+  }
+
+  @Benchmark
+  public String resolveStringExpressions() {
+    return stringResolver.resolveString(stringWithExpressions, variables);
+  }
+
+  @Benchmark
+  public Map<String, Object> resolveMap() {
+    return mapResolver.resolve(configWithReferences, false);
+  }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.helpers.NOPLogger;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import io.wcm.devops.conga.generator.Generator;
+import io.wcm.devops.conga.generator.GeneratorOptions;
+import io.wcm.devops.conga.generator.export.ModelExport;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+/**
+ * End-to-end scale benchmark: generates synthetic definitions via {@link SyntheticDefinitions} and runs the
+ * {@link Generator} on them, reporting throughput in files per second, peak heap usage and GC time per run.
+ * <p>
+ * Arguments are given as <code>name=value</code> pairs. Supported are all options of {@link SyntheticDefinitions}
+ * and additionally:
+ * </p>
+ * <ul>
+ * <li><code>scale</code>: Multiply environments and nodes by this factor</li>
+ * <li><code>warmups</code>: Number of warmup runs (default: 1)</li>
+ * <li><code>runs</code>: Number of measured runs (default: 3)</li>
+ * <li><code>workDir</code>: Working directory for definitions and output (default: target/scale-benchmark)</li>
+ * <li><code>resultFile</code>: Optional JSON file to write the results to</li>
+ * </ul>
+ * <p>
+ * Run with a fixed heap size (e.g. <code>-Xms2g -Xmx2g</code>) to get comparable numbers.
+ * </p>
+ */
+public final class ScaleBenchmark {
+
+  private final SyntheticDefinitions definitions;
+  private final File workDir;
+
+  /**
+   * @param definitions Synthetic definitions options
+   * @param workDir Working directory
+   */
+  public ScaleBenchmark(SyntheticDefinitions definitions, File workDir) {
+    this.definitions = definitions;
+    this.workDir = workDir;
+  }
+
+  /**
+   * Writes the synthetic definitions to the working directory.
+   * @throws IOException I/O exception
+   */
+  public void prepare() throws IOException {
+    definitions.write(getDefinitionsDir());
+  }
+
+  /**
+   * Runs the generator once for all environments.
+   * @return Run result
+   */
+  public Result run() {
+    File definitionsDir = getDefinitionsDir();
+    File outputDir = new File(workDir, "output");
+
+    ModelExport modelExport = new ModelExport();
+    modelExport.setNode(ImmutableList.of("yaml"));
+
+    GeneratorOptions options = new GeneratorOptions()
+        .baseDir(definitionsDir)
+        .roleDir(new File(definitionsDir, SyntheticDefinitions.ROLES_DIR))
+        .templateDir(new File(definitionsDir, SyntheticDefinitions.TEMPLATES_DIR))
+        .environmentDir(new File(definitionsDir, SyntheticDefinitions.ENVIRONMENTS_DIR))
+        .destDir(outputDir)
+        .deleteBeforeGenerate(true)
+        .modelExport(modelExport)
+        .pluginManager(new PluginManagerImpl())
+        .logger(NOPLogger.NOP_LOGGER);
+
+    System.gc();
+    resetPeakHeapUsage();
+    long gcCountBefore = getGcCount();
+    long gcMillisBefore = getGcMillis();
+    long start = System.nanoTime();
+
+    new Generator(options).generate();
+
+    long durationNanos = System.nanoTime() - start;
+    Result result = new Result();
+    result.durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    result.files = FileUtils.listFiles(outputDir, null, true).size();
+    result.filesPerSecond = result.files / (durationNanos / 1_000_000_000d);
+    result.peakHeapBytes = getPeakHeapUsage();
+    result.gcCount = getGcCount() - gcCountBefore;
+    result.gcMillis = getGcMillis() - gcMillisBefore;
+    return result;
+  }
+
+  private File getDefinitionsDir() {
+    return new File(workDir, "definitions");
+  }
+
+  private static void resetPeakHeapUsage() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /**
+   * Sum of the peak usages of all heap pools - this is an upper bound, because the pools do not necessarily
+   * reach their peaks at the same time.
+   */
+  private static long getPeakHeapUsage() {
+    long sum = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        sum += pool.getPeakUsage().getUsed();
+      }
+    }
+    return sum;
+  }
+
+  private static long getGcCount() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sum += Math.max(0, gc.getCollectionCount());
+    }
+    return sum;
+  }
+
+  private static long getGcMillis() {
+    long sum = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      sum += Math.max(0, gc.getCollectionTime());
+    }
+    return sum;
+  }
+
+  /**
+   * Result of a single generator run.
+   */
+  public static final class Result {
+
+    private long durationMillis;
+    private int files;
+    private double filesPerSecond;
+    private long peakHeapBytes;
+    private long gcCount;
+    private long gcMillis;
+
+    /**
+     * @return Wall time of the generator run
+     */
+    public long getDurationMillis() {
+      return this.durationMillis;
+    }
+
+    /**
+     * @return Number of generated files (including model export files)
+     */
+    public int getFiles() {
+      return this.files;
+    }
+
+    /**
+     * @return Throughput
+     */
+    public double getFilesPerSecond() {
+      return this.filesPerSecond;
+    }
+
+    /**
+     * @return Peak heap usage
+     */
+    public long getPeakHeapBytes() {
+      return this.peakHeapBytes;
+    }
+
+    /**
+     * @return Number of garbage collections
+     */
+    public long getGcCount() {
+      return this.gcCount;
+    }
+
+    /**
+     * @return Accumulated garbage collection time
+     */
+    public long getGcMillis() {
+      return this.gcMillis;
+    }
+
+    JsonObject toJson() {
+      JsonObject json = new JsonObject();
+      json.addProperty("durationMillis", durationMillis);
+      json.addProperty("files", files);
+      json.addProperty("filesPerSecond", filesPerSecond);
+      json.addProperty("peakHeapBytes", peakHeapBytes);
+      json.addProperty("gcCount", gcCount);
+      json.addProperty("gcMillis", gcMillis);
+      return json;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%,d files in %,d ms: %,.1f files/s, peak heap %,d MB, GC %d x / %,d ms",
+          files, durationMillis, filesPerSecond, peakHeapBytes / (1024 * 1024), gcCount, gcMillis);
+    }
+
+  }
+
+  /**
+   * Command line entry point.
+   * @param args Arguments as name=value pairs
+   * @throws IOException I/O exception
+   */
+  public static void main(String[] args) throws IOException {
+    SyntheticDefinitions definitions = new SyntheticDefinitions();
+    int scale = 1;
+    int warmups = 1;
+    int runs = 3;
+    File workDir = new File("target/scale-benchmark");
+    File resultFile = null;
+
+    for (String arg : args) {
+      String name = StringUtils.substringBefore(arg, "=");
+      String value = StringUtils.substringAfter(arg, "=");
+      switch (name) {
+        case "scale":
+          scale = Integer.parseInt(value);
+          break;
+        case "warmups":
+          warmups = Integer.parseInt(value);
+          break;
+        case "runs":
+          runs = Integer.parseInt(value);
+          break;
+        case "workDir":
+          workDir = new File(value);
+          break;
+        case "resultFile":
+          resultFile = new File(value);
+          break;
+        default:
+          definitions.option(name, Integer.parseInt(value));
+      }
+    }
+    definitions.scale(scale);
+
+    System.out.println("Synthetic definitions: " + definitions);
+    ScaleBenchmark benchmark = new ScaleBenchmark(definitions, workDir);
+    benchmark.prepare();
+
+    for (int i = 0; i < warmups; i++) {
+      System.out.println("Warmup " + (i + 1) + ": " + benchmark.run());
+    }
+    List<Result> results = new ArrayList<>();
+    for (int i = 0; i < runs; i++) {
+      Result result = benchmark.run();
+      results.add(result);
+      System.out.println("Run " + (i + 1) + ":    " + result);
+    }
+
+    if (resultFile != null && !results.isEmpty()) {
+      writeResults(resultFile, definitions, results);
+    }
+  }
+
+  private static void writeResults(File file, SyntheticDefinitions definitions, List<Result> results) throws IOException {
+    JsonObject json = new JsonObject();
+    json.addProperty("definitions", definitions.toString());
+    JsonArray runs = new JsonArray();
+    double filesPerSecondSum = 0;
+    long peakHeapMax = 0;
+    long gcMillisSum = 0;
+    for (Result result : results) {
+      runs.add(result.toJson());
+      filesPerSecondSum += result.getFilesPerSecond();
+      peakHeapMax = Math.max(peakHeapMax, result.getPeakHeapBytes());
+      gcMillisSum += result.getGcMillis();
+    }
+    json.addProperty("avgFilesPerSecond", filesPerSecondSum / results.size());
+    json.addProperty("maxPeakHeapBytes", peakHeapMax);
+    json.addProperty("avgGcMillis", gcMillisSum / results.size());
+    json.add("runs", runs);
+    try (Writer writer = new OutputStreamWriter(FileUtils.openOutputStream(file), StandardCharsets.UTF_8)) {
+      new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create().toJson(json, writer);
+    }
+  }
+
+}
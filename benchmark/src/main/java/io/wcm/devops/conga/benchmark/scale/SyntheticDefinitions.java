@@ -0,0 +1,492 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Generates synthetic CONGA definitions (roles, templates, environments and URL files) of configurable size.
+ * <p>
+ * Each role inherits from a chain of super roles, defines variants, templates for text, XML and JSON files,
+ * a file multiplied per tenant and URL-based files. Configuration parameters include nested maps, variable references,
+ * lists with _merge_ tokens and <code>_iterate_</code> lists. Nodes are defined in groups via <code>nodes</code>
+ * lists.
+ * </p>
+ * <p>
+ * The generated definitions are deterministic for the same options.
+ * </p>
+ */
+public final class SyntheticDefinitions {
+
+  static final String ROLES_DIR = "roles";
+  static final String TEMPLATES_DIR = "templates";
+  static final String ENVIRONMENTS_DIR = "environments";
+  static final String FILES_DIR = "files";
+
+  private static final String[] FILE_EXTENSIONS = { "txt", "xml", "json" };
+
+  private int environments = 10;
+  private int nodes = 20;
+  private int nodesPerGroup = 5;
+  private int roles = 10;
+  private int rolesPerNode = 3;
+  private int inheritanceDepth = 2;
+  private int variants = 3;
+  private int tenants = 5;
+  private int filesPerRole = 4;
+  private int urlFilesPerRole = 1;
+  private int listSize = 10;
+  private int configGroups = 5;
+
+  /**
+   * @param value Number of environments
+   * @return this
+   */
+  public SyntheticDefinitions environments(int value) {
+    this.environments = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of nodes per environment
+   * @return this
+   */
+  public SyntheticDefinitions nodes(int value) {
+    this.nodes = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of nodes sharing the same definition via a <code>nodes</code> list
+   * @return this
+   */
+  public SyntheticDefinitions nodesPerGroup(int value) {
+    this.nodesPerGroup = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of roles (excluding super roles)
+   * @return this
+   */
+  public SyntheticDefinitions roles(int value) {
+    this.roles = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of roles assigned to each node
+   * @return this
+   */
+  public SyntheticDefinitions rolesPerNode(int value) {
+    this.rolesPerNode = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of super roles each role inherits from (as chain)
+   * @return this
+   */
+  public SyntheticDefinitions inheritanceDepth(int value) {
+    this.inheritanceDepth = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of variants per role
+   * @return this
+   */
+  public SyntheticDefinitions variants(int value) {
+    this.variants = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of tenants per environment
+   * @return this
+   */
+  public SyntheticDefinitions tenants(int value) {
+    this.tenants = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of template-based files per role (excluding the file multiplied per tenant)
+   * @return this
+   */
+  public SyntheticDefinitions filesPerRole(int value) {
+    this.filesPerRole = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of URL-based files per role
+   * @return this
+   */
+  public SyntheticDefinitions urlFilesPerRole(int value) {
+    this.urlFilesPerRole = value;
+    return this;
+  }
+
+  /**
+   * @param value Size of list parameters
+   * @return this
+   */
+  public SyntheticDefinitions listSize(int value) {
+    this.listSize = value;
+    return this;
+  }
+
+  /**
+   * @param value Number of nested configuration parameter groups per role
+   * @return this
+   */
+  public SyntheticDefinitions configGroups(int value) {
+    this.configGroups = value;
+    return this;
+  }
+
+  /**
+   * Applies an option by name. Used for parsing command line arguments.
+   * @param name Option name (same as the setter method name)
+   * @param value Option value
+   * @return this
+   */
+  public SyntheticDefinitions option(String name, int value) {
+    switch (name) {
+      case "environments":
+        return environments(value);
+      case "nodes":
+        return nodes(value);
+      case "nodesPerGroup":
+        return nodesPerGroup(value);
+      case "roles":
+        return roles(value);
+      case "rolesPerNode":
+        return rolesPerNode(value);
+      case "inheritanceDepth":
+        return inheritanceDepth(value);
+      case "variants":
+        return variants(value);
+      case "tenants":
+        return tenants(value);
+      case "filesPerRole":
+        return filesPerRole(value);
+      case "urlFilesPerRole":
+        return urlFilesPerRole(value);
+      case "listSize":
+        return listSize(value);
+      case "configGroups":
+        return configGroups(value);
+      default:
+        throw new IllegalArgumentException("Unknown option: " + name);
+    }
+  }
+
+  /**
+   * Multiplies the number of environments and nodes by the given factor.
+   * @param factor Scale factor
+   * @return this
+   */
+  public SyntheticDefinitions scale(int factor) {
+    this.environments = this.environments * factor;
+    this.nodes = this.nodes * factor;
+    return this;
+  }
+
+  /**
+   * Writes all definitions to the given directory. Existing content is deleted.
+   * @param baseDir Base directory, subdirectories for roles, templates, environments and files are created
+   * @throws IOException I/O exception
+   */
+  public void write(File baseDir) throws IOException {
+    if (baseDir.exists()) {
+      FileUtils.deleteDirectory(baseDir);
+    }
+    File filesDir = new File(baseDir, FILES_DIR);
+    for (int u = 0; u < urlFilesPerRole; u++) {
+      FileUtils.write(new File(filesDir, "url-file" + u + ".txt"), StringUtils.repeat("URL file content " + u + "\n", 100),
+          StandardCharsets.UTF_8);
+    }
+    for (int r = 0; r < roles; r++) {
+      writeRole(baseDir, r);
+    }
+    for (int e = 0; e < environments; e++) {
+      writeYaml(new File(baseDir, ENVIRONMENTS_DIR + "/env" + e + ".yaml"), environment(e));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "environments=" + environments
+        + ", nodes=" + nodes
+        + ", nodesPerGroup=" + nodesPerGroup
+        + ", roles=" + roles
+        + ", rolesPerNode=" + rolesPerNode
+        + ", inheritanceDepth=" + inheritanceDepth
+        + ", variants=" + variants
+        + ", tenants=" + tenants
+        + ", filesPerRole=" + filesPerRole
+        + ", urlFilesPerRole=" + urlFilesPerRole
+        + ", listSize=" + listSize
+        + ", configGroups=" + configGroups;
+  }
+
+  private void writeRole(File baseDir, int roleIndex) throws IOException {
+    String roleName = roleName(roleIndex);
+
+    // chain of super roles: role -> role-super1 -> role-super2 ...
+    for (int d = 1; d <= inheritanceDepth; d++) {
+      String superRoleName = roleName + "-super" + d;
+      Map<String, Object> superRole = new LinkedHashMap<>();
+      if (d < inheritanceDepth) {
+        superRole.put("inherits", list(map("role", roleName + "-super" + (d + 1))));
+      }
+      superRole.put("variants", variantDefinitions(superRoleName));
+      superRole.put("templateDir", superRoleName);
+      superRole.put("files", list(map(
+          "file", "super" + d + "-${node}.txt",
+          "dir", roleName,
+          "template", "super.txt.hbs")));
+      Map<String, Object> superConfig = new LinkedHashMap<>();
+      superConfig.put("superValue" + d, "super" + d + "-${environment}");
+      superConfig.put("listParam", mergeList(superRoleName));
+      superRole.put("config", superConfig);
+      writeYaml(new File(baseDir, ROLES_DIR + "/" + superRoleName + ".yaml"), superRole);
+      writeTemplate(baseDir, superRoleName, "super.txt.hbs",
+          "# {{nodeRole}} super role " + d + " on {{node}}\n"
+          + "superValue={{superValue" + d + "}}\n"
+          + "{{#each listParam}}list={{this}}\n{{/each}}");
+    }
+
+    Map<String, Object> role = new LinkedHashMap<>();
+    if (inheritanceDepth > 0) {
+      role.put("inherits", list(map("role", roleName + "-super1")));
+    }
+    role.put("variants", variantDefinitions(roleName));
+    role.put("templateDir", roleName);
+
+    List<Object> files = new ArrayList<>();
+    for (int f = 0; f < filesPerRole; f++) {
+      String extension = FILE_EXTENSIONS[f % FILE_EXTENSIONS.length];
+      Map<String, Object> file = map(
+          "file", "file" + f + "-${node}." + extension,
+          "dir", roleName,
+          "template", "file" + f + "." + extension + ".hbs");
+      // restrict the last file to the first variant
+      if (variants > 0 && f == filesPerRole - 1 && f > 0) {
+        file.put("variants", list("variant0"));
+      }
+      files.add(file);
+    }
+    files.add(map(
+        "file", "tenant-${tenant}.conf",
+        "dir", roleName + "/tenants",
+        "template", "tenant.conf.hbs",
+        "multiply", "tenant"));
+    for (int u = 0; u < urlFilesPerRole; u++) {
+      files.add(map(
+          "url", "file:" + new File(baseDir, FILES_DIR + "/url-file" + u + ".txt").getAbsolutePath(),
+          "dir", roleName + "/files"));
+    }
+    role.put("files", files);
+    role.put("config", roleConfig(roleName));
+    writeYaml(new File(baseDir, ROLES_DIR + "/" + roleName + ".yaml"), role);
+
+    for (int f = 0; f < filesPerRole; f++) {
+      String extension = FILE_EXTENSIONS[f % FILE_EXTENSIONS.length];
+      writeTemplate(baseDir, roleName, "file" + f + "." + extension + ".hbs", template(extension));
+    }
+    writeTemplate(baseDir, roleName, "tenant.conf.hbs",
+        "# tenant {{tenant}} on {{node}}\n"
+        + "{{#each tenantRoles}}role={{this}}\n{{/each}}"
+        + "tenantValue={{tenantValue}}\n"
+        + "group0={{group0.key0}}\n");
+  }
+
+  private static String template(String extension) {
+    switch (extension) {
+      case "xml":
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<config node=\"{{node}}\" role=\"{{nodeRole}}\" variant=\"{{nodeRoleVariant}}\">\n"
+            + "{{#each endpoints}}  <endpoint host=\"{{host}}\" port=\"{{port}}\" url=\"{{url}}\"/>\n{{/each}}"
+            + "{{#each listParam}}  <item>{{this}}</item>\n{{/each}}"
+            + "{{#each group0}}  <param name=\"{{@key}}\">{{this}}</param>\n{{/each}}"
+            + "</config>\n";
+      case "json":
+        return "{\n"
+            + "  \"node\": \"{{node}}\",\n"
+            + "  \"role\": \"{{nodeRole}}\",\n"
+            + "  \"endpoints\": [{{#each endpoints}}\"{{url}}\"{{#unless @last}}, {{/unless}}{{/each}}],\n"
+            + "  \"items\": [{{#each listParam}}\"{{this}}\"{{#unless @last}}, {{/unless}}{{/each}}]\n"
+            + "}\n";
+      default:
+        return "# {{nodeRole}} on {{node}} in {{environment}}\n"
+            + "{{#each endpoints}}endpoint.{{@index}}={{url}}\n{{/each}}"
+            + "{{#each group0}}{{@key}}={{this}}\n{{/each}}"
+            + "{{#each group1}}{{@key}}={{this}}\n{{/each}}"
+            + "{{#each listParam}}list={{this}}\n{{/each}}"
+            + "{{#if enabled}}enabled=true\n{{/if}}";
+    }
+  }
+
+  private List<Object> variantDefinitions(String roleName) {
+    List<Object> result = new ArrayList<>();
+    for (int v = 0; v < variants; v++) {
+      result.add(map(
+          "variant", "variant" + v,
+          "config", map("variantValue", roleName + "-variant" + v, "enabled", v % 2 == 0)));
+    }
+    return result;
+  }
+
+  private Map<String, Object> roleConfig(String roleName) {
+    Map<String, Object> config = new LinkedHashMap<>();
+    config.put("basePort", 8000);
+    config.put("domain", roleName + ".${environment}.example.com");
+    for (int g = 0; g < configGroups; g++) {
+      Map<String, Object> group = new LinkedHashMap<>();
+      for (int k = 0; k < 5; k++) {
+        group.put("key" + k, "${domain}/g" + g + "/k" + k + "/${node}");
+      }
+      config.put("group" + g, group);
+    }
+    config.put("hosts", listOf(listSize, roleName + "-host"));
+    config.put("endpoints", map(
+        "_iterate_", "${hosts}",
+        "host", "${_item_}",
+        "port", "${basePort}",
+        "url", "http://${_item_}:${basePort}/${nodeRole}/${_itemIndex_}"));
+    config.put("listParam", mergeList(roleName));
+    config.put("tenantValue", "default");
+    return config;
+  }
+
+  private Map<String, Object> environment(int environmentIndex) {
+    Map<String, Object> environment = new LinkedHashMap<>();
+
+    List<Object> nodeDefinitions = new ArrayList<>();
+    int groupIndex = 0;
+    for (int n = 0; n < nodes; n += Math.max(1, nodesPerGroup)) {
+      List<Object> nodeNames = new ArrayList<>();
+      for (int i = n; i < Math.min(nodes, n + Math.max(1, nodesPerGroup)); i++) {
+        nodeNames.add("node" + i + ".env" + environmentIndex);
+      }
+      List<Object> nodeRoles = new ArrayList<>();
+      for (int r = 0; r < Math.min(rolesPerNode, roles); r++) {
+        int roleIndex = (groupIndex + r) % roles;
+        Map<String, Object> nodeRole = map("role", roleName(roleIndex));
+        if (variants > 0) {
+          nodeRole.put("variant", "variant" + ((groupIndex + r) % variants));
+        }
+        nodeRole.put("config", map("nodeGroupValue", "group" + groupIndex));
+        nodeRoles.add(nodeRole);
+      }
+      Map<String, Object> node = new LinkedHashMap<>();
+      node.put("nodes", nodeNames);
+      node.put("roles", nodeRoles);
+      node.put("config", map("listParam", mergeList("nodegroup" + groupIndex)));
+      nodeDefinitions.add(node);
+      groupIndex++;
+    }
+    environment.put("nodes", nodeDefinitions);
+
+    List<Object> roleConfigs = new ArrayList<>();
+    for (int r = 0; r < roles; r += 2) {
+      roleConfigs.add(map("role", roleName(r), "config", map("basePort", 9000 + r)));
+    }
+    environment.put("roleConfig", roleConfigs);
+
+    List<Object> tenantDefinitions = new ArrayList<>();
+    for (int t = 0; t < tenants; t++) {
+      tenantDefinitions.add(map(
+          "tenant", "tenant" + t,
+          "roles", list("tenantRole" + (t % 2)),
+          "config", map("tenantValue", "tenant" + t + "-${environment}")));
+    }
+    environment.put("tenants", tenantDefinitions);
+
+    environment.put("config", map(
+        "environmentValue", "env" + environmentIndex,
+        "listParam", mergeList("env" + environmentIndex)));
+    return environment;
+  }
+
+  private List<Object> mergeList(String prefix) {
+    List<Object> list = listOf(listSize, prefix);
+    list.add(list.size() / 2, "_merge_");
+    return list;
+  }
+
+  private static String roleName(int roleIndex) {
+    return "role" + roleIndex;
+  }
+
+  private static List<Object> listOf(int size, String prefix) {
+    List<Object> list = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      list.add(prefix + "-" + i);
+    }
+    return list;
+  }
+
+  private static List<Object> list(Object... items) {
+    List<Object> list = new ArrayList<>();
+    for (Object item : items) {
+      list.add(item);
+    }
+    return list;
+  }
+
+  private static Map<String, Object> map(Object... keysAndValues) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      map.put((String)keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return map;
+  }
+
+  private static void writeTemplate(File baseDir, String templateDir, String fileName, String content) throws IOException {
+    FileUtils.write(new File(baseDir, TEMPLATES_DIR + "/" + templateDir + "/" + fileName), content, StandardCharsets.UTF_8);
+  }
+
+  private static void writeYaml(File file, Map<String, Object> content) throws IOException {
+    file.getParentFile().mkdirs();
+    DumperOptions dumperOptions = new DumperOptions();
+    dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+    try (Writer writer = new OutputStreamWriter(FileUtils.openOutputStream(file), StandardCharsets.UTF_8)) {
+      new Yaml(dumperOptions).dump(content, writer);
+    }
+  }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.wcm.devops.conga.benchmark.BaselineComparator.Score;
+
+public class BaselineComparatorTest {
+
+  private static final double DELTA = 0.0001d;
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testDeltaPercent() {
+    // overlapping confidence intervals
+    assertEquals(0d, BaselineComparator.getDeltaPercent(new Score(100d, 10d), new Score(115d, 10d)), DELTA);
+    // faster
+    assertEquals(0d, BaselineComparator.getDeltaPercent(new Score(100d, 10d), new Score(50d, 10d)), DELTA);
+    // gap between confidence intervals
+    assertEquals(20d, BaselineComparator.getDeltaPercent(new Score(100d, 10d), new Score(140d, 10d)), DELTA);
+    // without score errors
+    assertEquals(15d, BaselineComparator.getDeltaPercent(new Score(100d, 0d), new Score(115d, 0d)), DELTA);
+  }
+
+  @Test
+  public void testReadScores() throws IOException {
+    File file = tempFolder.newFile("result.json");
+    FileUtils.write(file, "["
+        + "{\"benchmark\":\"b1\",\"params\":{\"size\":\"10\",\"mode\":\"a\"},"
+        + "\"primaryMetric\":{\"score\":100.5,\"scoreError\":2.5}},"
+        + "{\"benchmark\":\"b2\",\"primaryMetric\":{\"score\":50.0,\"scoreError\":\"NaN\"}}"
+        + "]", StandardCharsets.UTF_8);
+
+    Map<String, Score> scores = BaselineComparator.readScores(file);
+    assertEquals(2, scores.size());
+
+    Score score1 = scores.get("b1{mode=a, size=10}");
+    assertEquals(100.5d, score1.getScore(), DELTA);
+    assertEquals(2.5d, score1.getError(), DELTA);
+
+    Score score2 = scores.get("b2");
+    assertEquals(50d, score2.getScore(), DELTA);
+    assertEquals(0d, score2.getError(), DELTA);
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.benchmark.scale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScaleBenchmarkTest {
+
+  private File workDir;
+
+  @Before
+  public void setUp() throws IOException {
+    workDir = new File("target/scale-benchmark-test");
+    FileUtils.deleteDirectory(workDir);
+  }
+
+  @Test
+  public void testRun() throws IOException {
+    SyntheticDefinitions definitions = new SyntheticDefinitions()
+        .environments(1)
+        .nodes(2)
+        .nodesPerGroup(2)
+        .roles(2)
+        .rolesPerNode(1)
+        .inheritanceDepth(1)
+        .variants(1)
+        .tenants(2)
+        .filesPerRole(2)
+        .urlFilesPerRole(1);
+    ScaleBenchmark underTest = new ScaleBenchmark(definitions, workDir);
+    underTest.prepare();
+
+    ScaleBenchmark.Result result = underTest.run();
+
+    // per node: 2 files + 2 tenant files + 1 URL file + 1 super role file + model export
+    assertEquals(14, result.getFiles());
+    assertTrue(result.getFilesPerSecond() > 0);
+
+    File nodeDir = new File(workDir, "output/env0/node1.env0/role0");
+    String xml = FileUtils.readFileToString(new File(nodeDir, "file1-node1.env0.xml"), StandardCharsets.UTF_8);
+    assertTrue(xml.contains("<endpoint host=\"role0-host-9\" port=\"9000\" url=\"http://role0-host-9:9000/role0/9\"/>"));
+    assertTrue(new File(nodeDir, "tenants/tenant-tenant1.conf").exists());
+    assertTrue(new File(nodeDir, "super1-node1.env0.txt").exists());
+  }
+
+}
@@ -36,6 +36,7 @@ import static io.wcm.devops.conga.generator.ContextProperties.VERSION;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -48,6 +49,7 @@ import io.wcm.devops.conga.model.environment.Environment;
 import io.wcm.devops.conga.model.environment.Node;
 import io.wcm.devops.conga.model.environment.NodeRole;
 import io.wcm.devops.conga.model.environment.Tenant;
+import io.wcm.devops.conga.model.util.ImmutableValue;
 import io.wcm.devops.conga.model.util.MapMerger;
 
 /**
@@ -100,7 +102,7 @@ public final class ContextPropertiesBuilder {
     variableObjectTreeResolver.resolve(clonedEnvironemnt);
 
     // list of nodes
-    map.put(NODES, clonedEnvironemnt.getNodes());
+    map.put(NODES, ImmutableValue.list(clonedEnvironemnt.getNodes()));
     Map<String, List<Node>> nodesByRole = new HashMap<>();
     Map<String, Map<String, List<Node>>> nodesByRoleVariant = new HashMap<>();
     for (Node node : clonedEnvironemnt.getNodes()) {
@@ -128,11 +130,11 @@ public final class ContextPropertiesBuilder {
         }
       }
     }
-    map.put(NODES_BY_ROLE, nodesByRole);
-    map.put(NODES_BY_ROLE_VARIANT, nodesByRoleVariant);
+    map.put(NODES_BY_ROLE, immutableValue(nodesByRole));
+    map.put(NODES_BY_ROLE_VARIANT, immutableValue(nodesByRoleVariant));
 
     // list of tenants
-    map.put(TENANTS, clonedEnvironemnt.getTenants());
+    map.put(TENANTS, ImmutableValue.list(clonedEnvironemnt.getTenants()));
     Map<String, List<Tenant>> tenantsByRole = new HashMap<>();
     for (Tenant tenant : clonedEnvironemnt.getTenants()) {
 
@@ -150,11 +152,31 @@ public final class ContextPropertiesBuilder {
         tenants.add(tenant);
       }
     }
-    map.put(TENANTS_BY_ROLE, tenantsByRole);
+    map.put(TENANTS_BY_ROLE, immutableValue(tenantsByRole));
 
     return map;
   }
 
+  /**
+   * Converts maps and lists to immutable values recursively. The environment context properties are resolved only
+   * once, as immutable values they are shared by reference and skipped by resolvers, mergers and cloners
+   * for each node and role.
+   * @param value Value
+   * @return Immutable value
+   */
+  @SuppressWarnings("unchecked")
+  private static Object immutableValue(Object value) {
+    if (value instanceof Map) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      ((Map<String, Object>)value).forEach((key, item) -> map.put(key, immutableValue(item)));
+      return ImmutableValue.map(map);
+    }
+    else if (value instanceof List) {
+      return ImmutableValue.list((List<Object>)value);
+    }
+    return value;
+  }
+
   /**
    * Build context variables specific for a node and role/variant.
    * @param node Node
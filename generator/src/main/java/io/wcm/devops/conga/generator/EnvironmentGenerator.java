@@ -21,25 +21,46 @@ package io.wcm.devops.conga.generator;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 
 import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.TagType;
 import com.github.jknack.handlebars.Template;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import io.wcm.devops.conga.generator.export.NodeModelExport;
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
 import io.wcm.devops.conga.generator.handlebars.HandlebarsManager;
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvent;
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvents;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics.Measurement;
+import io.wcm.devops.conga.generator.metrics.GenerationPhase;
+import io.wcm.devops.conga.generator.output.FileSystemOutputSink;
+import io.wcm.devops.conga.generator.output.OutputSink;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
+import io.wcm.devops.conga.generator.plan.GenerationTimings;
+import io.wcm.devops.conga.generator.plan.PlannedFile;
 import io.wcm.devops.conga.generator.plugins.handlebars.escaping.NoneEscapingStrategy;
 import io.wcm.devops.conga.generator.plugins.multiply.NoneMultiply;
 import io.wcm.devops.conga.generator.spi.MultiplyPlugin;
@@ -52,22 +73,22 @@ import io.wcm.devops.conga.generator.spi.export.context.ExportNodeRoleData;
 import io.wcm.devops.conga.generator.spi.export.context.GeneratedFileContext;
 import io.wcm.devops.conga.generator.spi.handlebars.EscapingStrategyPlugin;
 import io.wcm.devops.conga.generator.spi.handlebars.context.EscapingStrategyContext;
-import io.wcm.devops.conga.generator.util.EnvironmentExpander;
 import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.generator.util.LazyVariableMap;
 import io.wcm.devops.conga.generator.util.RoleUtil;
+import io.wcm.devops.conga.generator.util.ValueProviderCache;
+import io.wcm.devops.conga.generator.util.ValueProviderVariableCollector;
 import io.wcm.devops.conga.generator.util.VariableMapResolver;
 import io.wcm.devops.conga.generator.util.VariableObjectTreeResolver;
+import io.wcm.devops.conga.generator.util.VariableResolver;
 import io.wcm.devops.conga.generator.util.VariableStringResolver;
 import io.wcm.devops.conga.model.environment.Environment;
 import io.wcm.devops.conga.model.environment.Node;
 import io.wcm.devops.conga.model.environment.NodeRole;
-import io.wcm.devops.conga.model.reader.RoleReader;
 import io.wcm.devops.conga.model.role.Role;
 import io.wcm.devops.conga.model.role.RoleFile;
 import io.wcm.devops.conga.model.role.RoleVariant;
 import io.wcm.devops.conga.model.util.MapMerger;
-import io.wcm.devops.conga.resource.ResourceCollection;
-import io.wcm.devops.conga.resource.ResourceLoader;
 
 /**
  * Generates file for one environment.
@@ -83,80 +104,275 @@ class EnvironmentGenerator {
   private final UrlFileManager urlFileManager;
   private final MultiplyPlugin defaultMultiplyPlugin;
   private final Logger log;
+  private final VariableResolver variableResolver;
   private final VariableStringResolver variableStringResolver;
   private final VariableMapResolver variableMapResolver;
   private final VariableObjectTreeResolver variableObjectTreeResolver;
-  private final Collection<String> dependencyVersions;
+  private Collection<String> dependencyVersions;
+  private final OutputSink outputSink;
+  private final GenerationTimings generationTimings;
+  private final GenerationMetrics metrics;
+  private final GenerationFilter filter;
+  private final EnvironmentResources resources;
 
   private final Map<String, Role> roles;
-  private final Map<String, Object> environmentContextProperties;
+  private Map<String, Object> environmentContextProperties;
   private final Set<String> generatedFilePaths = new HashSet<>();
+  private final Map<String, String> escapingStrategyByFileExtension = new ConcurrentHashMap<>();
+  private final Map<Template, Set<String>> templateVariableNames = new HashMap<>();
+  // configurations are shared by all files of a node role - compare by identity to avoid hashing the whole configuration
+  private final Set<Map<String, Object>> fullyResolvedConfigs = Collections.newSetFromMap(new IdentityHashMap<>());
 
   EnvironmentGenerator(String environmentName, Environment environment, File destDir,
-      GeneratorOptions options) {
+      GeneratorOptions options, EnvironmentResources resources, GenerationTimings generationTimings,
+      ValueProviderCache runValueCache) {
+    this(environmentName, environment, destDir, options, resources, generationTimings, runValueCache,
+        options.getOutputSink() != null ? options.getOutputSink() : new FileSystemOutputSink(options.getDestDir()));
+  }
+
+  EnvironmentGenerator(String environmentName, Environment environment, File destDir,
+      GeneratorOptions options, EnvironmentResources resources, GenerationTimings generationTimings,
+      ValueProviderCache runValueCache, OutputSink outputSink) {
     this.options = options;
     this.environmentName = environmentName;
-    this.environment = EnvironmentExpander.expandNodes(environment, environmentName);
+    this.resources = resources;
+    this.environment = resources.getExpandedEnvironment();
     this.destDir = destDir;
     this.log = options.getLogger();
-
-    this.pluginContextOptions = new PluginContextOptions()
-        .pluginManager(options.getPluginManager())
-        .valueProviderConfig(options.getValueProviderConfig())
-        .genericPluginConfig(options.getGenericPluginConfig())
-        .containerContext(options.getContainerContext())
-        .logger(this.log);
+    this.generationTimings = generationTimings;
+    this.metrics = options.getGenerationMetrics();
+    this.filter = options.getGenerationFilter();
+    this.pluginContextOptions = resources.getPluginContextOptions();
 
     // prepare variable resolvers
     ValueProviderGlobalContext valueProviderGlobalContext = new ValueProviderGlobalContext()
-        .pluginContextOptions(this.pluginContextOptions);
+        .pluginContextOptions(this.pluginContextOptions)
+        .runValueCache(runValueCache);
+    this.variableResolver = new VariableResolver(valueProviderGlobalContext);
     this.variableStringResolver = new VariableStringResolver(valueProviderGlobalContext);
     this.variableMapResolver = new VariableMapResolver(valueProviderGlobalContext);
     this.variableObjectTreeResolver = new VariableObjectTreeResolver(valueProviderGlobalContext);
 
-    // build resource loaded based on combined dependency lists of environment and container
-    List<URL> combindedClasspathUrls = ResourceLoaderUtil.getEnvironmentClasspathUrls(environment.getDependencies(), this.variableStringResolver, options);
-    ClassLoader resourceClassLoader = ResourceLoaderUtil.buildClassLoader(combindedClasspathUrls);
-    ResourceLoader resourceLoader = new ResourceLoader(resourceClassLoader);
-
-    // prepare template and role directories
-    List<ResourceCollection> templateDirs = ImmutableList.of(
-        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getTemplateDir()),
-        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_TEMPLATES_DIR));
-    List<ResourceCollection> roleDirs = ImmutableList.of(
-        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getRoleDir()),
-        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_ROLES_DIR));
-
-    this.roles = ResourceLoaderUtil.readModels(roleDirs, new RoleReader());
+    // class loader, roles and compiled templates are reused across generation runs
+    this.roles = resources.getRoles();
+    this.handlebarsManager = resources.getHandlebarsManager();
 
     UrlFilePluginContext urlFilePluginContext = new UrlFilePluginContext()
         .pluginContextOptions(pluginContextOptions)
         .baseDir(options.getBaseDir())
-        .resourceClassLoader(resourceClassLoader)
+        .resourceClassLoader(resources.getResourceClassLoader())
         .environment(environment);
     this.urlFileManager = new UrlFileManager(options.getPluginManager(), urlFilePluginContext);
 
-    this.handlebarsManager = new HandlebarsManager(templateDirs, this.pluginContextOptions);
-
     this.defaultMultiplyPlugin = options.getPluginManager().get(NoneMultiply.NAME, MultiplyPlugin.class);
-    this.environmentContextProperties = ImmutableMap.copyOf(
+
+    this.outputSink = outputSink;
+  }
+
+  private Map<String, Object> buildEnvironmentContextProperties() {
+    return ImmutableMap.copyOf(
         ContextPropertiesBuilder.buildEnvironmentContextVariables(environmentName, this.environment, options.getVersion(),
             variableObjectTreeResolver, variableStringResolver));
+  }
 
-    this.dependencyVersions = options.getDependencyVersionBuilder() != null ? options.getDependencyVersionBuilder().apply(environment) : ImmutableList.of();
+  /**
+   * Plan and render reuse the environment context properties of previous runs, they are resolved only if
+   * there are none yet.
+   */
+  private void useCachedEnvironmentContextProperties() {
+    environmentContextProperties = resources.getEnvironmentContextProperties(this::buildEnvironmentContextProperties);
   }
 
   public void generate() {
     log.info("");
     log.info("===== Environment '{}' =====", environmentName);
 
-    for (Node node : environment.getNodes()) {
-      generateNode(node);
+    try (FlightRecorderEvent event = FlightRecorderEvents.environment(environmentName)) {
+      // prefetch values from value providers before resolving any variables
+      if (options.getValueProviderPrefetchThreads() > 0) {
+        prefetchValueProviderValues();
+      }
+
+      // generation runs always resolve the environment context properties, value provider values may have changed
+      environmentContextProperties = buildEnvironmentContextProperties();
+      resources.setEnvironmentContextProperties(environmentContextProperties);
+
+      if (options.getUrlFilePrefetchThreads() > 0) {
+        prefetchUrlFiles();
+      }
+
+      for (Node node : getSelectedNodes()) {
+        try (FlightRecorderEvent nodeEvent = FlightRecorderEvents.node(environmentName, node.getNode())) {
+          generateNode(node);
+        }
+      }
+    }
+    finally {
+      // remove downloaded files, they are fetched again on next generation run
+      urlFileManager.close();
+    }
+
+    // remove environment directory if all files were published to output sink
+    if (!outputSink.isDestinationDirectory()) {
+      destDir.delete();
     }
 
     log.info("");
   }
 
+  /**
+   * Dependency versions for file headers are only built when files are generated, not for generation plans.
+   * @return Dependency versions
+   */
+  private Collection<String> getDependencyVersions() {
+    if (dependencyVersions == null) {
+      dependencyVersions = options.getDependencyVersionBuilder() != null
+          ? options.getDependencyVersionBuilder().apply(environment)
+          : ImmutableList.of();
+    }
+    return dependencyVersions;
+  }
+
+  /**
+   * Adds all files that would be generated for this environment to the plan, without rendering templates,
+   * copying URL files or applying any plugins.
+   * @param plan Generation plan
+   */
+  public void plan(GenerationPlan plan) {
+    useCachedEnvironmentContextProperties();
+    for (Node node : getSelectedNodes()) {
+      if (StringUtils.isEmpty(node.getNode())) {
+        throw new GeneratorException("Missing node name in " + environmentName + ".");
+      }
+      File nodeDir = new File(destDir, node.getNode());
+      for (NodeRole nodeRole : node.getRoles()) {
+        List<String> variants = nodeRole.getAggregatedVariants();
+        if (!filter.isNodeRoleSelected(nodeRole.getRole(), variants)) {
+          continue;
+        }
+        Map<String, Role> resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles);
+        for (Map.Entry<String, Role> resolvedRole : resolvedRoles.entrySet()) {
+          String roleName = resolvedRole.getKey();
+          Role role = resolvedRole.getValue();
+          List<RoleFile> roleFiles = getSelectedRoleFiles(nodeRole, roleName, role, nodeDir);
+          if (roleFiles.isEmpty()) {
+            continue;
+          }
+          Map<String, Object> mergedConfig = buildMergedConfig(node, nodeRole, roleName, role);
+          for (RoleFile roleFile : roleFiles) {
+            planFiles(role, roleFile, mergedConfig, nodeDir, roleName, variants, plan);
+          }
+        }
+      }
+    }
+  }
+
+  private void planFiles(Role role, RoleFile roleFile, Map<String, Object> config, File nodeDir,
+      String roleName, List<String> roleVariantNames, GenerationPlan plan) {
+    String templatePath = FileUtil.getTemplatePath(role, roleFile);
+    if (StringUtils.isEmpty(templatePath) && StringUtils.isEmpty(roleFile.getUrl())) {
+      throw new GeneratorException("No template defined for file: " + FileUtil.getFileInfo(roleName, roleFile));
+    }
+    List<Map<String, Object>> muliplyConfigs = getMultiplyPlugin(roleFile).multiply(buildMultiplyContext(role, roleFile, config));
+    for (Map<String, Object> muliplyConfig : muliplyConfigs) {
+      Map<String, Object> resolvedConfig = variableMapResolver.resolveLazy(muliplyConfig);
+      if (!isSkipped(roleFile, resolvedConfig)) {
+        String dir = variableStringResolver.resolveString(roleFile.getDir(), resolvedConfig);
+        String file = variableStringResolver.resolveString(roleFile.getFile(), resolvedConfig);
+        String url = variableStringResolver.resolveString(roleFile.getUrl(), resolvedConfig);
+        if (!isFileSelected(nodeDir, dir, file, url)) {
+          continue;
+        }
+
+        FileGenerator fileGenerator = createFileGenerator(roleFile, dir, file, url, resolvedConfig, nodeDir, null,
+            roleName, roleVariantNames, roleFile.getTemplate(), ImmutableList.of());
+        PlannedFile plannedFile = fileGenerator.plan(StringUtils.defaultIfEmpty(templatePath, null));
+        if (generationTimings != null) {
+          plannedFile.estimatedMicros(generationTimings.get(plannedFile.getPath()));
+        }
+        plan.file(plannedFile);
+      }
+    }
+  }
+
+  /**
+   * Generates only the file with the given path for a single node, skipping all other nodes, roles and files
+   * and the model export. Template compilation, file header, validator and post processor plugins are applied
+   * only to the requested file.
+   * @param nodeName Node name
+   * @param roleName Role name as assigned to the node (includes files of inherited roles), or null for all roles
+   * @param path File path relative to node directory
+   */
+  public void render(String nodeName, String roleName, String path) {
+    Node node = environment.getNodes().stream()
+        .filter(item -> StringUtils.equals(item.getNode(), nodeName))
+        .findFirst()
+        .orElseThrow(() -> new GeneratorException("Node '" + nodeName + "' does not exist in " + environmentName + "."));
+    try {
+      useCachedEnvironmentContextProperties();
+      renderNode(node, roleName, FilenameUtils.separatorsToUnix(path));
+    }
+    finally {
+      // remove downloaded files
+      urlFileManager.close();
+    }
+  }
+
+  private void renderNode(Node node, String roleName, String normalizedPath) {
+    // node directory is created only if a file has to be materialized
+    File nodeDir = new File(destDir, node.getNode());
+
+    boolean found = false;
+    for (NodeRole nodeRole : node.getRoles()) {
+      if (roleName != null && !StringUtils.equals(nodeRole.getRole(), roleName)) {
+        continue;
+      }
+      Map<String, Role> resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles);
+      for (Map.Entry<String, Role> resolvedRole : resolvedRoles.entrySet()) {
+        List<String> variants = nodeRole.getAggregatedVariants();
+        Map<String, Object> mergedConfig = buildMergedConfig(node, nodeRole, resolvedRole.getKey(), resolvedRole.getValue());
+        for (RoleFile roleFile : resolvedRole.getValue().getFiles()) {
+          if (RoleUtil.matchesRoleFile(roleFile, variants)
+              && renderFile(resolvedRole.getValue(), roleFile, nodeRole, mergedConfig, nodeDir, resolvedRole.getKey(), variants, normalizedPath)) {
+            found = true;
+          }
+        }
+      }
+    }
+    if (!found) {
+      throw new GeneratorException("File '" + normalizedPath + "' is not generated for "
+          + environmentName + "/" + node.getNode() + (roleName != null ? " and role '" + roleName + "'" : "") + ".");
+    }
+
+    if (!outputSink.isDestinationDirectory() && nodeDir.exists()) {
+      publishMaterializedFiles(nodeDir, environmentName + "/" + node.getNode());
+    }
+  }
+
+  private boolean renderFile(Role role, RoleFile roleFile, NodeRole nodeRole, Map<String, Object> config, File nodeDir,
+      String roleName, List<String> roleVariantNames, String path) {
+    boolean found = false;
+    Template template = null;
+    List<Map<String, Object>> muliplyConfigs = getMultiplyPlugin(roleFile).multiply(buildMultiplyContext(role, roleFile, config));
+    for (Map<String, Object> muliplyConfig : muliplyConfigs) {
+      Map<String, Object> resolvedConfig = variableMapResolver.resolveLazy(muliplyConfig);
+      if (!isSkipped(roleFile, resolvedConfig)) {
+        String dir = variableStringResolver.resolveString(roleFile.getDir(), resolvedConfig);
+        String file = variableStringResolver.resolveString(roleFile.getFile(), resolvedConfig);
+        String url = variableStringResolver.resolveString(roleFile.getUrl(), resolvedConfig);
+        if (StringUtils.equals(path, FileUtil.getRelativePath(nodeDir, getFile(nodeDir, dir, file, url)))) {
+          // compile template only if the file is actually generated
+          if (template == null) {
+            template = getHandlebarsTemplate(role, roleFile, nodeRole);
+          }
+          generateFile(roleFile, dir, file, url, resolvedConfig, nodeDir, template, roleName, roleVariantNames, roleFile.getTemplate());
+          found = true;
+        }
+      }
+    }
+    return found;
+  }
+
   private void generateNode(Node node) {
     if (StringUtils.isEmpty(node.getNode())) {
       throw new GeneratorException("Missing node name in " + environmentName + ".");
@@ -164,54 +380,290 @@ class EnvironmentGenerator {
 
     log.info("");
     log.info("----- Node '{}' -----", node.getNode());
+    fullyResolvedConfigs.clear();
 
     File nodeDir = FileUtil.ensureDirExistsAutocreate(new File(destDir, node.getNode()));
     NodeModelExport exportModelGenerator = new NodeModelExport(nodeDir, node, environment, options.getModelExport(), options.getPluginManager(),
         variableStringResolver, variableMapResolver);
 
     for (NodeRole nodeRole : node.getRoles()) {
+      List<String> variants = nodeRole.getAggregatedVariants();
+      if (!filter.isNodeRoleSelected(nodeRole.getRole(), variants)) {
+        continue;
+      }
+
       // get role and resolve all inheritance relations
-      Map<String, Role> resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles);
+      Map<String, Role> resolvedRoles;
+      try (Measurement measurement = metrics.start(GenerationPhase.ROLE_RESOLUTION, environmentName, node.getNode(), nodeRole.getRole(), null)) {
+        resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles);
+      }
       for (Map.Entry<String, Role> resolvedRole : resolvedRoles.entrySet()) {
         String roleName = resolvedRole.getKey();
         Role role = resolvedRole.getValue();
 
-        // merge default values to config
-        List<String> variants = nodeRole.getAggregatedVariants();
-        Map<String, Object> mergedConfig = nodeRole.getConfig();
-        if (variants.isEmpty()) {
-          mergedConfig = MapMerger.merge(mergedConfig, role.getConfig());
-        }
-        else {
-          for (String variant : variants) {
-            RoleVariant roleVariant = getRoleVariant(role, variant, roleName, node);
-            mergedConfig = MapMerger.merge(mergedConfig, roleVariant.getConfig());
-          }
+        // generate file if no variant is required, or at least one of the given variants is defined for the node/role
+        List<RoleFile> roleFiles = getSelectedRoleFiles(nodeRole, roleName, role, nodeDir);
+        if (roleFiles.isEmpty() && filter.isActive()) {
+          continue;
         }
 
-        // additionally set context variables
-        mergedConfig.putAll(environmentContextProperties);
-        mergedConfig.putAll(ContextPropertiesBuilder.buildCurrentContextVariables(node, nodeRole));
+        Map<String, Object> mergedConfig;
+        try (Measurement measurement = metrics.start(GenerationPhase.CONFIG_RESOLUTION, environmentName, node.getNode(), roleName, null)) {
+          mergedConfig = buildMergedConfig(node, nodeRole, roleName, role);
+        }
 
         // collect role and tenant information for export model
         ExportNodeRoleData exportNodeRoleData = exportModelGenerator.addRole(roleName, variants, mergedConfig);
 
         // generate files
         List<GeneratedFileContext> allFiles = new ArrayList<>();
-        for (RoleFile roleFile : role.getFiles()) {
-          // generate file if no variant is required, or at least one of the given variants is defined for the node/role
-          if (RoleUtil.matchesRoleFile(roleFile, variants)) {
-            Template template = getHandlebarsTemplate(role, roleFile, nodeRole);
-            multiplyFiles(role, roleFile, mergedConfig, nodeDir, template,
-                roleName, variants, roleFile.getTemplate(), allFiles);
-          }
+        for (RoleFile roleFile : roleFiles) {
+          multiplyFiles(role, roleFile, nodeRole, mergedConfig, nodeDir,
+              roleName, variants, roleFile.getTemplate(), allFiles);
         }
         exportNodeRoleData.files(allFiles);
       }
     }
 
-    // save export model
-    exportModelGenerator.generate();
+    // save export model - skipped if only a subset of the roles or files of the node is generated
+    if (!filter.isRoleFilterActive() && !filter.isFileFilterActive()) {
+      try (Measurement measurement = metrics.start(GenerationPhase.MODEL_EXPORT, environmentName, node.getNode(), null, null)) {
+        exportModelGenerator.generate();
+      }
+    }
+
+    // publish files materialized in node directory to output sink
+    if (!outputSink.isDestinationDirectory()) {
+      publishMaterializedFiles(nodeDir, environmentName + "/" + node.getNode());
+    }
+  }
+
+  private void publishMaterializedFiles(File nodeDir, String nodeOutputPath) {
+    try {
+      List<File> files = new ArrayList<>(FileUtils.listFiles(nodeDir, null, true));
+      Collections.sort(files);
+      for (File file : files) {
+        String relativePath = StringUtils.substringAfter(FileUtil.getCanonicalPath(file), FileUtil.getCanonicalPath(nodeDir) + File.separator);
+        outputSink.publishFile(nodeOutputPath + "/" + FilenameUtils.separatorsToUnix(relativePath), file);
+      }
+      FileUtils.deleteDirectory(nodeDir);
+    }
+    catch (IOException ex) {
+      throw new GeneratorException("Unable to publish generated files from " + FileUtil.getCanonicalPath(nodeDir), ex);
+    }
+  }
+
+  /**
+   * Merge role and variant default values to node role config and set context variables.
+   * @param node Node
+   * @param nodeRole Node role
+   * @param roleName Role name
+   * @param role Resolved role
+   * @return Merged configuration
+   */
+  private Map<String, Object> buildMergedConfig(Node node, NodeRole nodeRole, String roleName, Role role) {
+    // merge default values to config
+    List<String> variants = nodeRole.getAggregatedVariants();
+    Map<String, Object> mergedConfig = nodeRole.getConfig();
+    if (variants.isEmpty()) {
+      mergedConfig = MapMerger.merge(mergedConfig, role.getConfig());
+    }
+    else {
+      for (String variant : variants) {
+        RoleVariant roleVariant = getRoleVariant(role, variant, roleName, node);
+        mergedConfig = MapMerger.merge(mergedConfig, roleVariant.getConfig());
+      }
+    }
+
+    // additionally set context variables
+    mergedConfig.putAll(environmentContextProperties);
+    mergedConfig.putAll(ContextPropertiesBuilder.buildCurrentContextVariables(node, nodeRole));
+
+    return mergedConfig;
+  }
+
+  /**
+   * Planning pass that collects the URLs of all URL-based files of all nodes and resolves or downloads them
+   * concurrently, so file generation only has to copy them from local sources.
+   * Files for which the URL cannot be resolved in this phase are skipped - they are resolved (and errors reported)
+   * when they are generated.
+   */
+  private void prefetchUrlFiles() {
+    Set<String> urls = new LinkedHashSet<>();
+    for (Node node : getSelectedNodes()) {
+      for (NodeRole nodeRole : node.getRoles()) {
+        if (!filter.isNodeRoleSelected(nodeRole.getRole(), nodeRole.getAggregatedVariants())) {
+          continue;
+        }
+        try {
+          Map<String, Role> resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles);
+          for (Map.Entry<String, Role> resolvedRole : resolvedRoles.entrySet()) {
+            collectUrls(node, nodeRole, resolvedRole.getKey(), resolvedRole.getValue(), urls);
+          }
+        }
+        /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
+          // ignore - errors are reported when the files are generated
+        }
+      }
+    }
+    if (!urls.isEmpty()) {
+      log.debug("Prefetch {} URL files with {} threads", urls.size(), options.getUrlFilePrefetchThreads());
+      urlFileManager.prefetch(urls, options.getUrlFilePrefetchThreads());
+    }
+  }
+
+  /**
+   * Collects all variables referencing value providers in the environment-wide configuration, the nodes selected
+   * by the generation filter and the roles assigned to them, and resolves them with one call per value provider,
+   * with different value providers resolved concurrently. Only value providers with a cache scope are prefetched.
+   * Errors are ignored in this phase - they are reported when the variables are resolved.
+   */
+  private void prefetchValueProviderValues() {
+    Map<String, Set<String>> variables = collectValueProviderVariables();
+    variables.keySet().removeIf(valueProviderName -> {
+      try {
+        return variableResolver.getValueCache(valueProviderName) == null;
+      }
+      catch (IllegalArgumentException ex) {
+        return true;
+      }
+    });
+    if (variables.isEmpty()) {
+      return;
+    }
+    log.debug("Prefetch values from {} value providers with {} threads", variables.size(), options.getValueProviderPrefetchThreads());
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(options.getValueProviderPrefetchThreads(), variables.size())));
+    try {
+      variables.forEach((valueProviderName, variableNames) -> executor.execute(() -> {
+        try {
+          variableResolver.prefetch(valueProviderName, variableNames);
+        }
+        /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
+          log.debug("Unable to prefetch values from value provider " + valueProviderName, ex);
+        }
+      }));
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Map<String, Set<String>> collectValueProviderVariables() {
+    ValueProviderVariableCollector collector = new ValueProviderVariableCollector();
+    Map<String, Set<String>> variables = new TreeMap<>();
+    collector.collectValues(environment.getConfig(), variables);
+    collector.collect(environment.getRoleConfig(), variables);
+    collector.collect(environment.getTenants(), variables);
+    Set<String> collectedRoles = new HashSet<>();
+    for (Node node : getSelectedNodes()) {
+      collector.collect(node, variables);
+      for (NodeRole nodeRole : node.getRoles()) {
+        if (!filter.isNodeRoleSelected(nodeRole.getRole(), nodeRole.getAggregatedVariants())) {
+          continue;
+        }
+        try {
+          RoleUtil.resolveRole(nodeRole.getRole(), environmentName + "/" + node.getNode(), roles).forEach((roleName, role) -> {
+            if (collectedRoles.add(roleName)) {
+              collector.collectRole(role, variables);
+            }
+          });
+        }
+        catch (GeneratorException ex) {
+          // ignore - errors are reported when the files are generated
+        }
+      }
+    }
+    return variables;
+  }
+
+  private void collectUrls(Node node, NodeRole nodeRole, String roleName, Role role, Set<String> urls) {
+    Map<String, Object> mergedConfig = null;
+    File nodeDir = new File(destDir, node.getNode());
+    for (RoleFile roleFile : getSelectedRoleFiles(nodeRole, roleName, role, nodeDir)) {
+      if (StringUtils.isEmpty(roleFile.getUrl())) {
+        continue;
+      }
+      if (mergedConfig == null) {
+        mergedConfig = buildMergedConfig(node, nodeRole, roleName, role);
+      }
+      for (Map<String, Object> muliplyConfig : getMultiplyPlugin(roleFile).multiply(buildMultiplyContext(role, roleFile, mergedConfig))) {
+        try {
+          // resolve condition and paths the same way as when the file is generated
+          LazyVariableMap resolvedConfig = variableMapResolver.resolveLazy(muliplyConfig);
+          if (!isSkipped(roleFile, resolvedConfig)) {
+            String dir = variableStringResolver.resolveString(roleFile.getDir(), resolvedConfig);
+            String file = variableStringResolver.resolveString(roleFile.getFile(), resolvedConfig);
+            String url = variableStringResolver.resolveString(roleFile.getUrl(), resolvedConfig);
+            if (isFileSelected(nodeDir, dir, file, url)) {
+              urls.add(url);
+            }
+          }
+        }
+        /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
+          // ignore - errors are reported when the file is generated
+        }
+      }
+    }
+  }
+
+  private List<Node> getSelectedNodes() {
+    if (!filter.isNodeFilterActive()) {
+      return environment.getNodes();
+    }
+    List<Node> nodes = new ArrayList<>();
+    for (Node node : environment.getNodes()) {
+      if (filter.isNodeSelected(node.getNode())) {
+        nodes.add(node);
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * Get role files matching the node role variants and the role filters. If the file path contains no variables
+   * the file filters are applied as well, otherwise they are applied after resolving the path.
+   * @param nodeRole Node role
+   * @param roleName Role name (node role or inherited role)
+   * @param role Resolved role
+   * @param nodeDir Node directory
+   * @return Role files
+   */
+  private List<RoleFile> getSelectedRoleFiles(NodeRole nodeRole, String roleName, Role role, File nodeDir) {
+    List<RoleFile> roleFiles = new ArrayList<>();
+    if (!filter.isRoleSelected(nodeRole.getRole(), roleName)) {
+      return roleFiles;
+    }
+    List<String> variants = nodeRole.getAggregatedVariants();
+    for (RoleFile roleFile : role.getFiles()) {
+      if (!RoleUtil.matchesRoleFile(roleFile, variants)) {
+        continue;
+      }
+      if (filter.isFileFilterActive() && StringUtils.isNotBlank(roleFile.getFile())
+          && !StringUtils.contains(roleFile.getDir(), "$") && !StringUtils.contains(roleFile.getFile(), "$")
+          && !isFileSelected(nodeDir, roleFile.getDir(), roleFile.getFile(), null)) {
+        continue;
+      }
+      roleFiles.add(roleFile);
+    }
+    return roleFiles;
+  }
+
+  private boolean isFileSelected(File nodeDir, String dir, String fileName, String url) {
+    if (!filter.isFileFilterActive()) {
+      return true;
+    }
+    return filter.isFileSelected(FileUtil.getRelativePath(nodeDir, getFile(nodeDir, dir, fileName, url)));
+  }
+
+  private Template compileHandlebarsTemplate(Role role, RoleFile roleFile, NodeRole nodeRole, File nodeDir, String roleName) {
+    try (Measurement measurement = metrics.start(GenerationPhase.TEMPLATE_COMPILE, environmentName, nodeDir.getName(), roleName, null)) {
+      return getHandlebarsTemplate(role, roleFile, nodeRole);
+    }
   }
 
   private RoleVariant getRoleVariant(Role role, String variant, String roleName, Node node) {
@@ -253,82 +705,140 @@ class EnvironmentGenerator {
     if (StringUtils.isNotEmpty(roleFile.getEscapingStrategy())) {
       return roleFile.getEscapingStrategy();
     }
-    String fileExtension = FilenameUtils.getExtension(roleFile.getFile());
+    // escaping strategy detection depends only on the file extension - detect it only once per extension
+    return escapingStrategyByFileExtension.computeIfAbsent(
+        StringUtils.defaultString(FilenameUtils.getExtension(roleFile.getFile())),
+        this::detectEscapingStrategy);
+  }
+
+  private String detectEscapingStrategy(String fileExtension) {
     EscapingStrategyContext context = new EscapingStrategyContext()
         .pluginContextOptions(this.pluginContextOptions);
-    return options.getPluginManager().getAll(EscapingStrategyPlugin.class).stream()
+    return options.getPluginManager().getAll(EscapingStrategyPlugin.class, fileExtension).stream()
         .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneEscapingStrategy.NAME))
         .filter(plugin -> plugin.accepts(fileExtension, context))
         .findFirst().orElse(options.getPluginManager().get(NoneEscapingStrategy.NAME, EscapingStrategyPlugin.class))
         .getName();
   }
 
-  private void multiplyFiles(Role role, RoleFile roleFile, Map<String, Object> config, File nodeDir, Template template,
+  private void multiplyFiles(Role role, RoleFile roleFile, NodeRole nodeRole, Map<String, Object> config, File nodeDir,
       String roleName, List<String> roleVariantNames, String templateName, List<GeneratedFileContext> generatedFiles) {
-    MultiplyPlugin multiplyPlugin = defaultMultiplyPlugin;
-    if (StringUtils.isNotEmpty(roleFile.getMultiply())) {
-      multiplyPlugin = options.getPluginManager().get(roleFile.getMultiply(), MultiplyPlugin.class);
+    Template fileTemplate = null;
+    boolean templateCompiled = false;
+    MultiplyPlugin multiplyPlugin = getMultiplyPlugin(roleFile);
+    MultiplyContext multiplyContext = buildMultiplyContext(role, roleFile, config);
+
+    List<Map<String, Object>> muliplyConfigs;
+    try (Measurement measurement = metrics.start(GenerationPhase.CONFIG_RESOLUTION, environmentName, nodeDir.getName(), roleName,
+        multiplyPlugin.getName())) {
+      muliplyConfigs = multiplyPlugin.multiply(multiplyContext);
     }
-
-    MultiplyContext multiplyContext = new MultiplyContext()
-        .pluginContextOptions(this.pluginContextOptions)
-        .role(role)
-        .roleFile(roleFile)
-        .environment(environment)
-        .config(config)
-        .variableStringResolver(variableStringResolver)
-        .variableMapResolver(variableMapResolver);
-
-    List<Map<String, Object>> muliplyConfigs = multiplyPlugin.multiply(multiplyContext);
     for (Map<String, Object> muliplyConfig : muliplyConfigs) {
 
-      // resolve variables
-      Map<String, Object> resolvedConfig = variableMapResolver.resolve(muliplyConfig, false);
+      // variables are resolved on demand - only those referenced by condition, path and template
+      LazyVariableMap resolvedConfig = variableMapResolver.resolveLazy(muliplyConfig);
 
-      // skip file if condition does not evaluate to a non-empty string or is "false"
-      boolean skip = false;
-      if (StringUtils.isNotEmpty(roleFile.getCondition())) {
-        String condition = variableStringResolver.resolveString(roleFile.getCondition(), resolvedConfig);
-        skip = StringUtils.isBlank(condition) || StringUtils.equalsIgnoreCase(condition, "false");
+      // resolve each distinct configuration completely once to report invalid variables not used by any file
+      if (options.isResolveAllVariables() && fullyResolvedConfigs.add(muliplyConfig)) {
+        resolvedConfig.resolveAll();
       }
 
-      if (!skip) {
+      if (!isSkipped(roleFile, resolvedConfig)) {
         // replace placeholders with context variables
         String dir = variableStringResolver.resolveString(roleFile.getDir(), resolvedConfig);
         String file = variableStringResolver.resolveString(roleFile.getFile(), resolvedConfig);
         String url = variableStringResolver.resolveString(roleFile.getUrl(), resolvedConfig);
+        if (!isFileSelected(nodeDir, dir, file, url)) {
+          continue;
+        }
+
+        // compile template only when a file passes the condition and the file filters
+        if (!templateCompiled) {
+          fileTemplate = compileHandlebarsTemplate(role, roleFile, nodeRole, nodeDir, roleName);
+          templateCompiled = true;
+        }
+
+        // resolve all variables referenced in the template with a single resolution pass
+        if (fileTemplate != null) {
+          try (Measurement measurement = metrics.start(GenerationPhase.CONFIG_RESOLUTION, environmentName, nodeDir.getName(), roleName, null);
+              FlightRecorderEvent event = FlightRecorderEvents.variableResolution(environmentName, nodeDir.getName(), roleName)) {
+            Set<String> variableNames = getTemplateVariableNames(fileTemplate);
+            resolvedConfig.resolve(variableNames);
+            event.size(variableNames.size());
+          }
+        }
 
         generatedFiles.addAll(generateFile(roleFile, dir, file, url,
-            resolvedConfig, nodeDir, template, roleName, roleVariantNames, templateName));
+            resolvedConfig, nodeDir, fileTemplate, roleName, roleVariantNames, templateName));
       }
     }
   }
 
+  /**
+   * Collects the names of all variables and helper parameters referenced in the template.
+   * The result may contain names that are not part of the configuration (e.g. helper names or variables relative
+   * to the current context) - they are ignored when resolving. Variables accessed by other means are resolved
+   * on demand when they are accessed.
+   * @param template Compiled template
+   * @return Variable names
+   */
+  private Set<String> getTemplateVariableNames(Template template) {
+    return templateVariableNames.computeIfAbsent(template, item -> {
+      Set<String> variableNames = new HashSet<>(item.collect(TagType.VAR, TagType.TRIPLE_VAR, TagType.SECTION, TagType.SUB_EXPRESSION));
+      variableNames.addAll(item.collectReferenceParameters());
+      return variableNames;
+    });
+  }
+
+  private MultiplyPlugin getMultiplyPlugin(RoleFile roleFile) {
+    if (StringUtils.isNotEmpty(roleFile.getMultiply())) {
+      return options.getPluginManager().get(roleFile.getMultiply(), MultiplyPlugin.class);
+    }
+    return defaultMultiplyPlugin;
+  }
+
+  private MultiplyContext buildMultiplyContext(Role role, RoleFile roleFile, Map<String, Object> config) {
+    return new MultiplyContext()
+        .pluginContextOptions(this.pluginContextOptions)
+        .role(role)
+        .roleFile(roleFile)
+        .environment(environment)
+        .config(config)
+        .variableStringResolver(variableStringResolver)
+        .variableMapResolver(variableMapResolver);
+  }
+
+  /**
+   * Skip file if condition does not evaluate to a non-empty string or is "false".
+   * @param roleFile Role file
+   * @param config Configuration
+   * @return true if file should be skipped
+   */
+  private boolean isSkipped(RoleFile roleFile, Map<String, Object> config) {
+    if (StringUtils.isNotEmpty(roleFile.getCondition())) {
+      String condition = variableStringResolver.resolveString(roleFile.getCondition(), config);
+      return StringUtils.isBlank(condition) || StringUtils.equalsIgnoreCase(condition, "false");
+    }
+    return false;
+  }
+
   private Collection<GeneratedFileContext> generateFile(RoleFile roleFile, String dir, String fileName, String url,
       Map<String, Object> config, File nodeDir, Template template,
       String roleName, List<String> roleVariantNames, String templateName) {
 
-    String generatedFileName = fileName;
-    if (StringUtils.isBlank(generatedFileName) && StringUtils.isNotBlank(url)) {
-      try {
-        generatedFileName = urlFileManager.getFileName(url);
-      }
-      catch (IOException ex) {
-        throw new GeneratorException("Unable to get file name from URL: " + url, ex);
-      }
-    }
-
-    File file = new File(nodeDir, dir != null ? FilenameUtils.concat(dir, generatedFileName) : generatedFileName);
+    FileGenerator fileGenerator = createFileGenerator(roleFile, dir, fileName, url, config, nodeDir, template,
+        roleName, roleVariantNames, templateName, getDependencyVersions());
+    File file = fileGenerator.getFile();
     if (file.exists()) {
       file.delete();
     }
 
-    FileGenerator fileGenerator = new FileGenerator(options, environmentName,
-        roleName, roleVariantNames, templateName,
-        nodeDir, file, url, roleFile, config, template,
-        variableMapResolver, urlFileManager, pluginContextOptions, dependencyVersions);
     try {
+      long startTime = System.nanoTime();
       Collection<GeneratedFileContext> generatedFiles = fileGenerator.generate();
+      if (generationTimings != null) {
+        generationTimings.put(fileGenerator.getOutputPath(), (System.nanoTime() - startTime) / 1000L);
+      }
 
       // check for path duplicates
       generatedFiles.forEach(generatedFileContext -> {
@@ -351,4 +861,30 @@ class EnvironmentGenerator {
     }
   }
 
+  private FileGenerator createFileGenerator(RoleFile roleFile, String dir, String fileName, String url,
+      Map<String, Object> config, File nodeDir, Template template,
+      String roleName, List<String> roleVariantNames, String templateName, Collection<String> fileHeaderDependencyVersions) {
+
+    File file = getFile(nodeDir, dir, fileName, url);
+
+    return new FileGenerator(options, environmentName,
+        roleName, roleVariantNames, templateName,
+        nodeDir, file, url, roleFile, config, template,
+        variableMapResolver, urlFileManager, pluginContextOptions, fileHeaderDependencyVersions,
+        outputSink, environmentName + "/" + nodeDir.getName());
+  }
+
+  private File getFile(File nodeDir, String dir, String fileName, String url) {
+    String generatedFileName = fileName;
+    if (StringUtils.isBlank(generatedFileName) && StringUtils.isNotBlank(url)) {
+      try {
+        generatedFileName = urlFileManager.getFileName(url);
+      }
+      catch (IOException ex) {
+        throw new GeneratorException("Unable to get file name from URL: " + url, ex);
+      }
+    }
+    return new File(nodeDir, dir != null ? FilenameUtils.concat(dir, generatedFileName) : generatedFileName);
+  }
+
 }
@@ -0,0 +1,191 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+
+import io.wcm.devops.conga.generator.handlebars.HandlebarsManager;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics.Measurement;
+import io.wcm.devops.conga.generator.metrics.GenerationPhase;
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+import io.wcm.devops.conga.generator.util.EnvironmentExpander;
+import io.wcm.devops.conga.generator.util.VariableStringResolver;
+import io.wcm.devops.conga.model.environment.Environment;
+import io.wcm.devops.conga.model.reader.RoleReader;
+import io.wcm.devops.conga.model.role.Role;
+import io.wcm.devops.conga.resource.ResourceCollection;
+import io.wcm.devops.conga.resource.ResourceLoader;
+
+/**
+ * Resources of an environment that are reused across generation runs of the same {@link GeneratorSession} instance:
+ * Resource class loader, role definitions, handlebars manager with compiled templates, the expanded environment
+ * and the environment context properties.
+ */
+final class EnvironmentResources implements Closeable {
+
+  private final String environmentName;
+  private final Environment environment;
+  private final GeneratorOptions options;
+  private final PluginContextOptions pluginContextOptions;
+  private final ClassLoader resourceClassLoader;
+  private final List<ResourceCollection> roleDirs;
+  private final HandlebarsManager handlebarsManager;
+  private volatile Map<String, Role> roles;
+  private volatile Environment expandedEnvironment;
+  private volatile Map<String, Object> environmentContextProperties;
+
+  EnvironmentResources(String environmentName, Environment environment, GeneratorOptions options) {
+    this.environmentName = environmentName;
+    this.environment = environment;
+    this.options = options;
+
+    this.pluginContextOptions = new PluginContextOptions()
+        .pluginManager(options.getPluginManager())
+        .valueProviderConfig(options.getValueProviderConfig())
+        .genericPluginConfig(options.getGenericPluginConfig())
+        .containerContext(options.getContainerContext())
+        .logger(options.getLogger());
+
+    // build resource loaded based on combined dependency lists of environment and container
+    VariableStringResolver variableStringResolver = new VariableStringResolver(new ValueProviderGlobalContext()
+        .pluginContextOptions(this.pluginContextOptions));
+    try (Measurement measurement = options.getGenerationMetrics().start(GenerationPhase.CLASSLOADER_BUILDING,
+        environmentName, null, null, null)) {
+      List<URL> combindedClasspathUrls = ResourceLoaderUtil.getEnvironmentClasspathUrls(environment.getDependencies(),
+          variableStringResolver, options);
+      this.resourceClassLoader = ResourceLoaderUtil.buildClassLoader(combindedClasspathUrls);
+    }
+    ResourceLoader resourceLoader = new ResourceLoader(resourceClassLoader);
+
+    // prepare template and role directories
+    List<ResourceCollection> templateDirs = ImmutableList.of(
+        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getTemplateDir()),
+        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_TEMPLATES_DIR));
+    this.roleDirs = ImmutableList.of(
+        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getRoleDir()),
+        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_ROLES_DIR));
+
+    this.handlebarsManager = new HandlebarsManager(templateDirs, this.pluginContextOptions);
+  }
+
+  public PluginContextOptions getPluginContextOptions() {
+    return this.pluginContextOptions;
+  }
+
+  public ClassLoader getResourceClassLoader() {
+    return this.resourceClassLoader;
+  }
+
+  public HandlebarsManager getHandlebarsManager() {
+    return this.handlebarsManager;
+  }
+
+  /**
+   * @return Role definitions, read on first access and after {@link #invalidateRoles()}
+   */
+  public Map<String, Role> getRoles() {
+    Map<String, Role> result = roles;
+    if (result == null) {
+      synchronized (this) {
+        result = roles;
+        if (result == null) {
+          try (Measurement measurement = options.getGenerationMetrics().start(GenerationPhase.MODEL_LOADING,
+              environmentName, null, null, null)) {
+            result = ResourceLoaderUtil.readModels(roleDirs, new RoleReader());
+          }
+          roles = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return Environment with nodes expanded to single node names, built on first access
+   */
+  public Environment getExpandedEnvironment() {
+    Environment result = expandedEnvironment;
+    if (result == null) {
+      synchronized (this) {
+        result = expandedEnvironment;
+        if (result == null) {
+          result = EnvironmentExpander.expandNodes(environment, environmentName);
+          expandedEnvironment = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the environment context properties resolved in a previous run, or builds them if there are none yet.
+   * @param builder Builds the environment context properties
+   * @return Environment context properties
+   */
+  public Map<String, Object> getEnvironmentContextProperties(Supplier<Map<String, Object>> builder) {
+    Map<String, Object> result = environmentContextProperties;
+    if (result == null) {
+      result = builder.get();
+      environmentContextProperties = result;
+    }
+    return result;
+  }
+
+  /**
+   * Stores the environment context properties resolved by a generation run for reuse by subsequent
+   * plan and render calls.
+   * @param value Environment context properties
+   */
+  public void setEnvironmentContextProperties(Map<String, Object> value) {
+    environmentContextProperties = value;
+  }
+
+  /**
+   * Forces re-reading the role definitions on next access.
+   */
+  public void invalidateRoles() {
+    roles = null;
+  }
+
+  /**
+   * Closes the resource class loader.
+   */
+  @Override
+  public void close() {
+    if (resourceClassLoader instanceof URLClassLoader) {
+      try {
+        ((URLClassLoader)resourceClassLoader).close();
+      }
+      catch (IOException ex) {
+        options.getLogger().warn("Unable to close resource class loader of environment " + environmentName, ex);
+      }
+    }
+  }
+
+}
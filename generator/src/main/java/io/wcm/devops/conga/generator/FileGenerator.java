@@ -23,9 +23,13 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
@@ -33,8 +37,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -42,11 +48,19 @@ import org.slf4j.Logger;
 import com.github.jknack.handlebars.Template;
 import com.google.common.collect.ImmutableList;
 
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvent;
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvents;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics.Measurement;
+import io.wcm.devops.conga.generator.metrics.GenerationPhase;
+import io.wcm.devops.conga.generator.output.OutputSink;
+import io.wcm.devops.conga.generator.plan.PlannedFile;
 import io.wcm.devops.conga.generator.plugins.fileheader.NoneFileHeader;
 import io.wcm.devops.conga.generator.plugins.validator.NoneValidator;
 import io.wcm.devops.conga.generator.spi.FileHeaderPlugin;
 import io.wcm.devops.conga.generator.spi.FilePlugin;
 import io.wcm.devops.conga.generator.spi.ImplicitApplyOptions;
+import io.wcm.devops.conga.generator.spi.Plugin;
 import io.wcm.devops.conga.generator.spi.PostProcessorPlugin;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -56,11 +70,11 @@ import io.wcm.devops.conga.generator.spi.context.PostProcessorContext;
 import io.wcm.devops.conga.generator.spi.context.ValidatorContext;
 import io.wcm.devops.conga.generator.spi.export.context.GeneratedFileContext;
 import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.generator.util.LazyVariableMap;
 import io.wcm.devops.conga.generator.util.LineEndingConverter;
 import io.wcm.devops.conga.generator.util.PluginManager;
 import io.wcm.devops.conga.generator.util.VariableMapResolver;
 import io.wcm.devops.conga.model.role.RoleFile;
-import io.wcm.devops.conga.model.util.MapMerger;
 
 /**
  * Generates file for one environment.
@@ -79,11 +93,14 @@ class FileGenerator {
   private final Template template;
   private final PluginManager pluginManager;
   private final UrlFileManager urlFileManager;
+  private final OutputSink outputSink;
+  private final String outputPath;
   private final Logger log;
   private final FileContext fileContext;
   private final FileHeaderContext fileHeaderContext;
   private final ValidatorContext validatorContext;
   private final PostProcessorContext postProcessorContext;
+  private final GenerationMetrics metrics;
 
   // match versions like 2.1.2-20180125.094723-16
   private static final Pattern SNAPSHOT_VERSION_PATTERN = Pattern.compile("(\\d+(\\.\\d+)*)-(\\d{8}\\.\\d{6}\\-\\d+)");
@@ -93,7 +110,7 @@ class FileGenerator {
       String roleName, List<String> roleVariantNames, String templateName,
       File nodeDir, File file, String url, RoleFile roleFile, Map<String, Object> config, Template template,
       VariableMapResolver variableMapResolver, UrlFileManager urlFileManager, PluginContextOptions pluginContextOptions,
-      Collection<String> dependencyVersions) {
+      Collection<String> dependencyVersions, OutputSink outputSink, String nodeOutputPath) {
     //CHECKSTYLE:ON
     this.environmentName = environmentName;
     this.roleName = roleName;
@@ -106,11 +123,14 @@ class FileGenerator {
     this.template = template;
     this.pluginManager = options.getPluginManager();
     this.urlFileManager = urlFileManager;
+    this.outputSink = outputSink;
     this.log = options.getLogger();
+    this.metrics = options.getGenerationMetrics();
     this.fileContext = new FileContext()
         .file(file)
         .charset(roleFile.getCharset())
         .modelOptions(roleFile.getModelOptions());
+    this.outputPath = nodeOutputPath + "/" + FilenameUtils.separatorsToUnix(getFilenameForLog(fileContext));
 
     // overlay logger in options with plugin-specific logger
     Logger pluginLogger = new MessagePrefixLoggerFacade(log, "    ");
@@ -123,15 +143,19 @@ class FileGenerator {
         .pluginContextOptions(pluginContextOptionsForPlugin)
         .commentLines(buildFileHeaderCommentLines(options.getVersion(), dependencyVersions));
 
+    // validator and post processor options and the de-escaped config are views on the lazily resolved config,
+    // they share its resolved values and merge, resolve and de-escape only the entries that are actually accessed
+    LazyVariableMap resolvedConfig = config instanceof LazyVariableMap
+        ? (LazyVariableMap)config : variableMapResolver.resolveLazy(config);
     this.validatorContext = new ValidatorContext()
         .pluginContextOptions(pluginContextOptionsForPlugin)
-        .options(variableMapResolver.resolve(MapMerger.merge(roleFile.getValidatorOptions(), config)));
+        .options(variableMapResolver.resolveMergedLazy(roleFile.getValidatorOptions(), resolvedConfig));
 
     this.postProcessorContext = new PostProcessorContext()
         .pluginContextOptions(pluginContextOptionsForPlugin)
-        .options(variableMapResolver.resolve(MapMerger.merge(roleFile.getPostProcessorOptions(), config)));
+        .options(variableMapResolver.resolveMergedLazy(roleFile.getPostProcessorOptions(), resolvedConfig));
 
-    this.config = variableMapResolver.deescape(config);
+    this.config = variableMapResolver.deescape(resolvedConfig);
   }
 
   /**
@@ -206,12 +230,56 @@ class FileGenerator {
     return formattedLines;
   }
 
+  /**
+   * @return File in destination directory
+   */
+  public File getFile() {
+    return this.file;
+  }
+
+  /**
+   * @return File path relative to destination directory (environment/node/path)
+   */
+  public String getOutputPath() {
+    return this.outputPath;
+  }
+
+  /**
+   * Describes the file that would be generated and the plugins that would be applied, without generating it.
+   * @param templatePath Template path or null if the file is copied from an URL
+   * @return Planned file
+   */
+  public PlannedFile plan(String templatePath) {
+    PlannedFile plannedFile = new PlannedFile()
+        .path(outputPath)
+        .environment(environmentName)
+        .node(nodeDir.getName())
+        .role(roleName)
+        .variants(roleVariantNames);
+    if (templatePath != null) {
+      plannedFile.template(templatePath)
+          .fileHeaders(collectFileHeaderPlugins(fileContext, roleFile.getFileHeader())
+              .map(Plugin::getName).collect(Collectors.toList()))
+          .validators(collectValidatorPlugins(fileContext, roleFile.getValidators())
+              .map(Plugin::getName).collect(Collectors.toList()));
+    }
+    else {
+      plannedFile.url(url);
+    }
+    return plannedFile.postProcessors(collectFilePlugins(PostProcessorPlugin.class, fileContext, postProcessorContext, roleFile.getPostProcessors())
+        .map(Plugin::getName).collect(Collectors.toList()));
+  }
+
   /**
    * Generate file(s).
    * @return List of files that where generated directly or indirectly (by post processors).
    * @throws IOException
    */
   public Collection<GeneratedFileContext> generate() throws IOException {
+    if (!outputSink.isDestinationDirectory() && !requiresMaterializedFile()) {
+      return generateToOutputSink();
+    }
+
     File dir = file.getParentFile();
     if (!dir.exists()) {
       dir.mkdirs();
@@ -244,17 +312,72 @@ class FileGenerator {
     return postProcessedFiles;
   }
 
+  /**
+   * Checks if any file header, validator or post processor plugin applies to the file - plugins work on real files.
+   * @return true if file has to be materialized in destination directory
+   */
+  private boolean requiresMaterializedFile() {
+    try {
+      if (template != null
+          && (collectFileHeaderPlugins(fileContext, roleFile.getFileHeader()).findAny().isPresent()
+          || collectValidatorPlugins(fileContext, roleFile.getValidators()).findAny().isPresent())) {
+        return true;
+      }
+      return collectFilePlugins(PostProcessorPlugin.class, fileContext, postProcessorContext, roleFile.getPostProcessors())
+          .findAny().isPresent();
+    }
+    /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
+      // plugin could not decide without file - materialize it to be safe
+      return true;
+    }
+  }
+
+  /**
+   * Generate file directly to output sink without writing it to the destination directory.
+   * @return Generated file
+   */
+  private Collection<GeneratedFileContext> generateToOutputSink() throws IOException {
+    if (template != null) {
+      log.info("Generate file {}", getFilenameForLog(fileContext));
+      try (OutputStream os = outputSink.openFile(outputPath);
+          Measurement measurement = measure(GenerationPhase.RENDER, null)) {
+        writeTemplate(os);
+      }
+    }
+    else if (StringUtils.isNotBlank(url)) {
+      log.info("Copy file {} from {}", getFilenameForLog(fileContext), url);
+      try (Measurement measurement = measure(GenerationPhase.URL_COPY, null);
+          OutputStream os = outputSink.openFile(outputPath);
+          InputStream is = urlFileManager.getFile(url)) {
+        IOUtils.copy(is, os);
+      }
+    }
+    else {
+      throw new IOException("No template and nor URL defined for file: " + FileUtil.getFileInfo(roleName, roleFile));
+    }
+    return ImmutableList.of(new GeneratedFileContext().fileContext(fileContext).outputSinkPath(outputPath));
+  }
+
   /**
    * Generate file with handlebars template.
    * Use unix file endings by default.
    */
   private void generateWithTemplate() throws IOException {
     try (FileOutputStream fos = new FileOutputStream(file);
-        Writer fileWriter = new OutputStreamWriter(fos, roleFile.getCharset())) {
+        Measurement measurement = measure(GenerationPhase.RENDER, null)) {
+      writeTemplate(fos);
+    }
+  }
+
+  private void writeTemplate(OutputStream os) throws IOException {
+    try (FlightRecorderEvent event = FlightRecorderEvents.render(environmentName, nodeDir.getName(), roleName, outputPath)) {
+      Writer fileWriter = new OutputStreamWriter(os, roleFile.getCharset());
       StringWriter stringWriter = new StringWriter();
       template.apply(config, stringWriter);
-      fileWriter.write(normalizeLineEndings(stringWriter.toString()));
+      String content = normalizeLineEndings(stringWriter.toString());
+      fileWriter.write(content);
       fileWriter.flush();
+      event.size(content.length());
     }
   }
 
@@ -262,10 +385,31 @@ class FileGenerator {
    * Generate file by downloading/copying from URL
    */
   private void generateFromUrlFile() throws IOException {
-    try (FileOutputStream fos = new FileOutputStream(file);
-        InputStream is = urlFileManager.getFile(url)) {
-      IOUtils.copy(is, fos);
-      fos.flush();
+    try (Measurement measurement = measure(GenerationPhase.URL_COPY, null)) {
+      copyFromUrlFile();
+    }
+  }
+
+  private void copyFromUrlFile() throws IOException {
+    Path localFile = urlFileManager.getLocalFile(url);
+    if (localFile != null) {
+      // let the OS copy the file data directly if the file is available in local filesystem
+      try (FileChannel source = FileChannel.open(localFile, StandardOpenOption.READ);
+          FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        long size = source.size();
+        long position = 0;
+        while (position < size) {
+          position += source.transferTo(position, size - position, target);
+        }
+      }
+    }
+    else {
+      try (FileOutputStream fos = new FileOutputStream(file);
+          InputStream is = urlFileManager.getFile(url)) {
+        IOUtils.copy(is, fos);
+        fos.flush();
+      }
     }
   }
 
@@ -289,10 +433,12 @@ class FileGenerator {
    */
   private <T, R, P extends FilePlugin<T, R>> Stream<P> collectFilePlugins(Class<P> pluginClass, FileContext fileItem, T contextObject,
       List<String> pluginNames) {
+    // only plugins that are candidates for the file extension need to be checked
+    List<P> candidates = getFilePluginCandidates(pluginClass, fileItem);
     Stream<P> plugins;
     if (pluginNames.isEmpty()) {
       // auto-detect matching plugins if none are defined
-      plugins = pluginManager.getAll(pluginClass).stream()
+      plugins = candidates.stream()
           .filter(plugin -> plugin.accepts(fileItem, contextObject))
           .filter(plugin -> plugin.implicitApply(fileItem, contextObject) == ImplicitApplyOptions.WHEN_UNCONFIGURED);
     }
@@ -302,35 +448,52 @@ class FileGenerator {
           .map(name -> pluginManager.get(name, pluginClass));
     }
     // add plugins that should always apply
-    return Stream.concat(plugins, pluginManager.getAll(pluginClass).stream()
+    return Stream.concat(plugins, candidates.stream()
           .filter(plugin -> plugin.accepts(fileItem, contextObject))
           .filter(plugin -> plugin.implicitApply(fileItem, contextObject) == ImplicitApplyOptions.ALWAYS));
   }
 
+  private <P extends Plugin> List<P> getFilePluginCandidates(Class<P> pluginClass, FileContext fileItem) {
+    return pluginManager.getAll(pluginClass, FilenameUtils.getExtension(fileItem.getFile().getName()));
+  }
+
   private void applyFileHeader(FileContext fileItem, String pluginName) {
+    collectFileHeaderPlugins(fileItem, pluginName)
+        .forEach(plugin -> applyFileHeader(fileItem, plugin));
+  }
+
+  private Stream<FileHeaderPlugin> collectFileHeaderPlugins(FileContext fileItem, String pluginName) {
     List<String> pluginNames = new ArrayList<>();
     if (!StringUtils.isEmpty(pluginName)) {
       pluginNames.add(pluginName);
     }
-    collectFilePlugins(FileHeaderPlugin.class, fileItem, fileHeaderContext, pluginNames)
-        .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneFileHeader.NAME))
-        .forEach(plugin -> applyFileHeader(fileItem, plugin));
+    return collectFilePlugins(FileHeaderPlugin.class, fileItem, fileHeaderContext, pluginNames)
+        .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneFileHeader.NAME));
   }
 
   private void applyFileHeader(FileContext fileItem, FileHeaderPlugin plugin) {
     log.debug("  Add {} file header to file {}", plugin.getName(), getFilenameForLog(fileItem));
-    plugin.apply(fileItem, fileHeaderContext);
+    try (Measurement measurement = measure(GenerationPhase.FILE_HEADER, plugin.getName())) {
+      plugin.apply(fileItem, fileHeaderContext);
+    }
   }
 
   private void applyValidation(FileContext fileItem, List<String> pluginNames) {
-    collectFilePlugins(ValidatorPlugin.class, fileItem, validatorContext, pluginNames)
-        .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneValidator.NAME))
+    collectValidatorPlugins(fileItem, pluginNames)
         .forEach(plugin -> applyValidation(fileItem, plugin));
   }
 
+  private Stream<ValidatorPlugin> collectValidatorPlugins(FileContext fileItem, List<String> pluginNames) {
+    return collectFilePlugins(ValidatorPlugin.class, fileItem, validatorContext, pluginNames)
+        .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneValidator.NAME));
+  }
+
   private void applyValidation(FileContext fileItem, ValidatorPlugin plugin) {
     log.info("  Validate {} for file {}", plugin.getName(), getFilenameForLog(fileItem));
-    plugin.apply(fileItem, validatorContext);
+    try (Measurement measurement = measure(GenerationPhase.VALIDATION, plugin.getName());
+        FlightRecorderEvent event = FlightRecorderEvents.validator(plugin.getName(), fileItem.getCanonicalPath())) {
+      plugin.apply(fileItem, validatorContext);
+    }
   }
 
   private Collection<GeneratedFileContext> applyPostProcessor(FileContext fileItem) {
@@ -380,7 +543,7 @@ class FileGenerator {
 
     // apply post processor configured as implicit ALWAYS
     consolidatedFiles.values().forEach(fileItem -> {
-      pluginManager.getAll(PostProcessorPlugin.class).stream()
+      getFilePluginCandidates(PostProcessorPlugin.class, fileItem.getFileContext()).stream()
           .filter(implicitPlugin -> implicitPlugin.accepts(fileItem.getFileContext(), postProcessorContext))
           .filter(implicitPlugin -> implicitPlugin.implicitApply(fileItem.getFileContext(), postProcessorContext) == ImplicitApplyOptions.ALWAYS)
           // do not apply post processor twice
@@ -411,7 +574,11 @@ class FileGenerator {
   private List<FileContext> applyPostProcessor(FileContext fileItem, PostProcessorPlugin plugin) {
     log.info("  Post-process {} for file {}", plugin.getName(), getFilenameForLog(fileItem));
 
-    List<FileContext> processedFiles = plugin.apply(fileItem, postProcessorContext);
+    List<FileContext> processedFiles;
+    try (Measurement measurement = measure(GenerationPhase.POST_PROCESSING, plugin.getName());
+        FlightRecorderEvent event = FlightRecorderEvents.postProcessor(plugin.getName(), fileItem.getCanonicalPath())) {
+      processedFiles = plugin.apply(fileItem, postProcessorContext);
+    }
 
     if (processedFiles != null) {
       // add file header, validate files
@@ -424,6 +591,10 @@ class FileGenerator {
     return processedFiles;
   }
 
+  private Measurement measure(GenerationPhase phase, String pluginName) {
+    return metrics.start(phase, environmentName, nodeDir.getName(), roleName, pluginName);
+  }
+
   private String getFilenameForLog(FileContext fileItem) {
     return StringUtils.substring(fileItem.getCanonicalPath(), FileUtil.getCanonicalPath(nodeDir).length() + 1);
   }
@@ -20,43 +20,27 @@
 package io.wcm.devops.conga.generator;
 
 import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
-
-import com.google.common.collect.ImmutableList;
-
-import io.wcm.devops.conga.generator.util.FileUtil;
-import io.wcm.devops.conga.model.environment.Environment;
-import io.wcm.devops.conga.model.reader.EnvironmentReader;
-import io.wcm.devops.conga.resource.ResourceCollection;
-import io.wcm.devops.conga.resource.ResourceLoader;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
 
 /**
  * Main entry point for CONGA generator.
+ * <p>
+ * Definitions are read once and kept across multiple generation runs of the same instance.
+ * Use {@link GeneratorSession} directly to generate from multiple threads or to invalidate cached definitions.
+ * </p>
  */
 public final class Generator {
 
-  private final GeneratorOptions options;
-  private final File destDir;
-  private final Map<String, Environment> environments;
+  private final GeneratorSession session;
 
   /**
    * @param options Generator options
    */
   public Generator(GeneratorOptions options) {
-    this.options = options;
-    this.destDir = FileUtil.ensureDirExistsAutocreate(options.getDestDir());
-
-    ClassLoader resourceClassLoader = ResourceLoaderUtil.buildClassLoader(options.getContainerClasspathUrls());
-    ResourceLoader resourceLoader = new ResourceLoader(resourceClassLoader);
-    List<ResourceCollection> environmentDirs = ImmutableList.of(
-        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getEnvironmentDir()),
-        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_ENVIRONMENTS_DIR));
-    this.environments = ResourceLoaderUtil.readModels(environmentDirs, new EnvironmentReader());
+    this.session = new GeneratorSession(options);
   }
 
   /**
@@ -64,37 +48,50 @@ public final class Generator {
    * @param environmentNames Environments to generate. If none specified all environments are generated.
    */
   public void generate(String... environmentNames) {
-    Map<String, Environment> selectedEnvironments = new HashMap<>();
-    if (environmentNames == null || environmentNames.length == 0) {
-      selectedEnvironments.putAll(environments);
-    }
-    else {
-      for (String environmentName : environmentNames) {
-        if (!environments.containsKey(environmentName)) {
-          throw new GeneratorException("Environment '" + environmentName + "' does not exist.");
-        }
-        selectedEnvironments.put(environmentName, environments.get(environmentName));
-      }
-    }
+    session.generate(environmentNames);
+  }
 
-    for (Map.Entry<String, Environment> entry : selectedEnvironments.entrySet()) {
-      File environmentDestDir = new File(destDir, entry.getKey());
-      // remove existing directory and it's content if it exists alreday
-      if (options.isDeleteBeforeGenerate() && environmentDestDir.exists()) {
-        try {
-          FileUtils.deleteDirectory(environmentDestDir);
-        }
-        catch (IOException ex) {
-          throw new GeneratorException("Unable to delete existing target directory: " + FileUtil.getCanonicalPath(environmentDestDir));
-        }
-      }
-      if (!environmentDestDir.exists()) {
-        environmentDestDir.mkdir();
-      }
+  /**
+   * Builds a plan listing all files that would be generated for the environment(s), without rendering templates,
+   * copying URL files or applying any plugins. If a generation timings file is configured the estimated generation
+   * times from the previous run are included.
+   * @param environmentNames Environments to plan. If none specified all environments are included.
+   * @return Generation plan
+   */
+  public GenerationPlan plan(String... environmentNames) {
+    return session.plan(environmentNames);
+  }
 
-      EnvironmentGenerator environmentGenerator = new EnvironmentGenerator(entry.getKey(), entry.getValue(), environmentDestDir, options);
-      environmentGenerator.generate();
-    }
+  /**
+   * Renders a single file of a node on demand and returns its content, without writing the environment to disk.
+   * @param environmentName Environment name
+   * @param nodeName Node name
+   * @param roleName Role name as assigned to the node (includes files of inherited roles), or null to search all roles
+   * @param path File path relative to the node directory, e.g. <code>conf/file.txt</code>
+   * @return File content
+   * @see GeneratorSession#render(String, String, String, String)
+   */
+  public byte[] render(String environmentName, String nodeName, String roleName, String path) {
+    return session.render(environmentName, nodeName, roleName, path);
+  }
+
+  /**
+   * Reloads definitions after the given files were modified, created or deleted, and returns the environments that
+   * have to be generated again.
+   * @param changedFiles Changed files
+   * @return Names of affected environments
+   * @see GeneratorSession#reload(Collection)
+   */
+  public Set<String> reload(Collection<File> changedFiles) {
+    return session.reload(changedFiles);
+  }
+
+  /**
+   * Discards all cached definitions, resource class loaders and compiled templates.
+   * @see GeneratorSession#invalidate()
+   */
+  public void invalidate() {
+    session.invalidate();
   }
 
 }
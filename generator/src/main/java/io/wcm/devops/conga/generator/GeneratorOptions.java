@@ -31,6 +31,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.wcm.devops.conga.generator.export.ModelExport;
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics;
+import io.wcm.devops.conga.generator.output.OutputSink;
 import io.wcm.devops.conga.generator.util.PluginManager;
 import io.wcm.devops.conga.model.environment.Environment;
 
@@ -59,6 +62,16 @@ public final class GeneratorOptions {
    */
   public static final String CLASSPATH_ENVIRONMENTS_DIR = CLASSPATH_PREFIX + "environments";
 
+  /**
+   * Default number of concurrent I/O operations when prefetching URL files (prefetching is disabled by default)
+   */
+  public static final int DEFAULT_URL_FILE_PREFETCH_THREADS = 0;
+
+  /**
+   * Default number of value providers resolving their prefetched values concurrently
+   */
+  public static final int DEFAULT_VALUE_PROVIDER_PREFETCH_THREADS = 4;
+
 
   private File baseDir;
   private File roleDir;
@@ -74,6 +87,13 @@ public final class GeneratorOptions {
   private List<URL> containerClasspathUrls = new ArrayList<>();
   private PluginManager pluginManager;
   private Function<Environment, Collection<String>> dependencyVersionBuilder;
+  private int urlFilePrefetchThreads = DEFAULT_URL_FILE_PREFETCH_THREADS;
+  private int valueProviderPrefetchThreads = DEFAULT_VALUE_PROVIDER_PREFETCH_THREADS;
+  private boolean resolveAllVariables = true;
+  private OutputSink outputSink;
+  private File generationTimingsFile;
+  private GenerationMetrics generationMetrics = GenerationMetrics.disabled();
+  private GenerationFilter generationFilter = new GenerationFilter();
   private Logger logger = LoggerFactory.getLogger(Generator.class);
 
   /**
@@ -309,6 +329,133 @@ public final class GeneratorOptions {
     return this;
   }
 
+  /**
+   * Number of concurrent I/O operations for resolving and downloading all URL files of an environment before
+   * the files are generated. Set to 0 to disable prefetching and resolve each URL file when it is generated.
+   * Prefetching is disabled by default.
+   * @return Number of threads
+   */
+  public int getUrlFilePrefetchThreads() {
+    return this.urlFilePrefetchThreads;
+  }
+
+  /**
+   * @param value Number of threads for prefetching URL files
+   * @return this
+   */
+  public GeneratorOptions urlFilePrefetchThreads(int value) {
+    this.urlFilePrefetchThreads = value;
+    return this;
+  }
+
+  /**
+   * Number of value providers that resolve all values referenced in an environment concurrently before the
+   * files are generated. Only value providers with a cache scope are prefetched.
+   * Set to 0 to disable prefetching and resolve each value when it is referenced.
+   * @return Number of threads
+   */
+  public int getValueProviderPrefetchThreads() {
+    return this.valueProviderPrefetchThreads;
+  }
+
+  /**
+   * @param value Number of threads for prefetching value provider values
+   * @return this
+   */
+  public GeneratorOptions valueProviderPrefetchThreads(int value) {
+    this.valueProviderPrefetchThreads = value;
+    return this;
+  }
+
+  /**
+   * If true the complete configuration of each node role and multiplied item is resolved once, so invalid variable
+   * references are reported even if no generated file uses them (default: true). If false only the variables
+   * referenced by the generated files are resolved.
+   * @return Resolve all variables
+   */
+  public boolean isResolveAllVariables() {
+    return this.resolveAllVariables;
+  }
+
+  /**
+   * @param value Resolve all variables
+   * @return this
+   */
+  public GeneratorOptions resolveAllVariables(boolean value) {
+    this.resolveAllVariables = value;
+    return this;
+  }
+
+  /**
+   * Output sink receiving the generated files. If not set, the files are generated in the destination directory.
+   * The sink is not closed by the generator.
+   * @return Output sink
+   */
+  public OutputSink getOutputSink() {
+    return this.outputSink;
+  }
+
+  /**
+   * @param value Output sink
+   * @return this
+   */
+  public GeneratorOptions outputSink(OutputSink value) {
+    this.outputSink = value;
+    return this;
+  }
+
+  /**
+   * @return File to store the generation time of each file. These timings are used to estimate the costs
+   *         in generation plans.
+   */
+  public File getGenerationTimingsFile() {
+    return this.generationTimingsFile;
+  }
+
+  /**
+   * @param value File to store the generation time of each file. These timings are used to estimate the costs
+   *          in generation plans.
+   * @return this
+   */
+  public GeneratorOptions generationTimingsFile(File value) {
+    this.generationTimingsFile = value;
+    return this;
+  }
+
+  /**
+   * @return Metrics collector for timing and allocation measurements of the generation phases
+   */
+  public GenerationMetrics getGenerationMetrics() {
+    return this.generationMetrics;
+  }
+
+  /**
+   * @param value Metrics collector for timing and allocation measurements of the generation phases.
+   *          Measurements are disabled by default.
+   * @return this
+   */
+  public GeneratorOptions generationMetrics(GenerationMetrics value) {
+    this.generationMetrics = value;
+    return this;
+  }
+
+  /**
+   * @return Filters for generating only selected nodes, roles, variants and files
+   */
+  public GenerationFilter getGenerationFilter() {
+    return this.generationFilter;
+  }
+
+  /**
+   * @param value Filters for generating only selected nodes, roles, variants and files.
+   *          If a filter is active the environment directories are not deleted before generation.
+   * @return this
+   */
+  public GeneratorOptions generationFilter(GenerationFilter value) {
+    this.generationFilter = value;
+    return this;
+  }
+
   /**
    * @return Logger
    */
@@ -0,0 +1,426 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.ImmutableList;
+
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics.Measurement;
+import io.wcm.devops.conga.generator.metrics.GenerationPhase;
+import io.wcm.devops.conga.generator.output.MemoryOutputSink;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
+import io.wcm.devops.conga.generator.plan.GenerationTimings;
+import io.wcm.devops.conga.generator.util.FileUtil;
+import io.wcm.devops.conga.generator.util.RoleUtil;
+import io.wcm.devops.conga.generator.util.ValueProviderCache;
+import io.wcm.devops.conga.model.environment.Environment;
+import io.wcm.devops.conga.model.environment.Node;
+import io.wcm.devops.conga.model.environment.NodeRole;
+import io.wcm.devops.conga.model.reader.EnvironmentReader;
+import io.wcm.devops.conga.model.role.Role;
+import io.wcm.devops.conga.model.role.RoleFile;
+import io.wcm.devops.conga.resource.ResourceCollection;
+import io.wcm.devops.conga.resource.ResourceLoader;
+
+/**
+ * Generator session that keeps environment definitions, resource class loaders, role definitions and compiled
+ * templates across multiple generation runs.
+ * <p>
+ * Changed definitions are picked up only after calling {@link #reload(Collection)} with the changed files
+ * or {@link #invalidate()}.
+ * </p>
+ * <p>
+ * The session is thread-safe: Different environments can be generated concurrently, generation runs for the same
+ * environment are serialized. Reloading and invalidation wait for running generations to finish. Please note that
+ * the configured {@link io.wcm.devops.conga.generator.output.OutputSink} has to be thread-safe as well when
+ * generating from multiple threads. All output sinks provided by CONGA are thread-safe.
+ * </p>
+ */
+public final class GeneratorSession implements Closeable {
+
+  private final GeneratorOptions options;
+  private final File destDir;
+  private final List<ResourceCollection> environmentDirs;
+  private volatile Map<String, Environment> environments;
+  private final ConcurrentMap<String, EnvironmentResources> environmentResources = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Lock> environmentLocks = new ConcurrentHashMap<>();
+  private final ReadWriteLock sessionLock = new ReentrantReadWriteLock();
+  private final GenerationTimings generationTimings;
+
+  /**
+   * @param options Generator options
+   */
+  public GeneratorSession(GeneratorOptions options) {
+    this.options = options;
+    this.destDir = FileUtil.ensureDirExistsAutocreate(options.getDestDir());
+
+    ClassLoader resourceClassLoader;
+    try (Measurement measurement = options.getGenerationMetrics().start(GenerationPhase.CLASSLOADER_BUILDING, null, null, null, null)) {
+      resourceClassLoader = ResourceLoaderUtil.buildClassLoader(options.getContainerClasspathUrls());
+    }
+    ResourceLoader resourceLoader = new ResourceLoader(resourceClassLoader);
+    this.environmentDirs = ImmutableList.of(
+        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + options.getEnvironmentDir()),
+        resourceLoader.getResourceCollection(ResourceLoader.CLASSPATH_PREFIX + GeneratorOptions.CLASSPATH_ENVIRONMENTS_DIR));
+    this.environments = readEnvironments();
+
+    this.generationTimings = options.getGenerationTimingsFile() != null
+        ? new GenerationTimings(options.getGenerationTimingsFile())
+        : null;
+  }
+
+  /**
+   * Generate files for environment(s).
+   * @param environmentNames Environments to generate. If none specified all environments are generated.
+   */
+  public void generate(String... environmentNames) {
+    sessionLock.readLock().lock();
+    try {
+      Map<String, Environment> selectedEnvironments = getSelectedEnvironments(environmentNames);
+      ValueProviderCache runValueCache = new ValueProviderCache();
+      for (Map.Entry<String, Environment> entry : selectedEnvironments.entrySet()) {
+        Lock environmentLock = environmentLocks.computeIfAbsent(entry.getKey(), key -> new ReentrantLock());
+        environmentLock.lock();
+        try {
+          generateEnvironment(entry.getKey(), entry.getValue(), runValueCache);
+        }
+        finally {
+          environmentLock.unlock();
+        }
+      }
+
+      if (generationTimings != null) {
+        try {
+          generationTimings.save();
+        }
+        catch (IOException ex) {
+          throw new GeneratorException("Unable to write generation timings: " + FileUtil.getCanonicalPath(options.getGenerationTimingsFile()), ex);
+        }
+      }
+    }
+    finally {
+      sessionLock.readLock().unlock();
+    }
+  }
+
+  private void generateEnvironment(String environmentName, Environment environment, ValueProviderCache runValueCache) {
+    File environmentDestDir = new File(destDir, environmentName);
+    // remove existing directory and it's content if it exists alreday - but keep files not selected by filters
+    if (options.isDeleteBeforeGenerate() && !options.getGenerationFilter().isActive() && environmentDestDir.exists()) {
+      try {
+        FileUtils.deleteDirectory(environmentDestDir);
+      }
+      catch (IOException ex) {
+        throw new GeneratorException("Unable to delete existing target directory: " + FileUtil.getCanonicalPath(environmentDestDir));
+      }
+    }
+    if (!environmentDestDir.exists()) {
+      environmentDestDir.mkdir();
+    }
+
+    // drop timings of files no longer generated - filtered runs only replace the timings of the generated files
+    if (generationTimings != null && !options.getGenerationFilter().isActive()) {
+      generationTimings.clearEnvironment(environmentName);
+    }
+    EnvironmentGenerator environmentGenerator = new EnvironmentGenerator(environmentName, environment, environmentDestDir, options,
+        getEnvironmentResources(environmentName, environment), generationTimings, runValueCache);
+    environmentGenerator.generate();
+  }
+
+  /**
+   * Builds a plan listing all files that would be generated for the environment(s), without rendering templates,
+   * copying URL files or applying any plugins. If a generation timings file is configured the estimated generation
+   * times from the previous run are included.
+   * @param environmentNames Environments to plan. If none specified all environments are included.
+   * @return Generation plan
+   */
+  public GenerationPlan plan(String... environmentNames) {
+    sessionLock.readLock().lock();
+    try {
+      Map<String, Environment> selectedEnvironments = getSelectedEnvironments(environmentNames);
+      GenerationPlan plan = new GenerationPlan();
+      ValueProviderCache runValueCache = new ValueProviderCache();
+      for (Map.Entry<String, Environment> entry : selectedEnvironments.entrySet()) {
+        File environmentDestDir = new File(destDir, entry.getKey());
+        EnvironmentGenerator environmentGenerator = new EnvironmentGenerator(entry.getKey(), entry.getValue(), environmentDestDir, options,
+            getEnvironmentResources(entry.getKey(), entry.getValue()), generationTimings, runValueCache);
+        environmentGenerator.plan(plan);
+      }
+      return plan;
+    }
+    finally {
+      sessionLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Renders a single file of a node on demand and returns its content, without writing anything to the destination
+   * directory or the configured output sink. The file goes through the same configuration merging, variable
+   * resolution, template rendering, file header, validator and post processor chain as in {@link #generate(String...)},
+   * but only the requested file is rendered.
+   * @param environmentName Environment name
+   * @param nodeName Node name
+   * @param roleName Role name as assigned to the node (includes files of inherited roles), or null to search all roles
+   * @param path File path relative to the node directory, e.g. <code>conf/file.txt</code>
+   * @return File content
+   */
+  public byte[] render(String environmentName, String nodeName, String roleName, String path) {
+    String normalizedPath = FilenameUtils.separatorsToUnix(path);
+    Map<String, byte[]> files = renderFiles(environmentName, nodeName, roleName, normalizedPath);
+    byte[] content = files.get(normalizedPath);
+    if (content == null) {
+      throw new GeneratorException("File '" + normalizedPath + "' was removed by post processors, generated files: " + files.keySet());
+    }
+    return content;
+  }
+
+  /**
+   * Renders a single file of a node on demand like {@link #render(String, String, String, String)}, and returns
+   * all files produced for it - the file itself and additional files created by post processors.
+   * @param environmentName Environment name
+   * @param nodeName Node name
+   * @param roleName Role name as assigned to the node (includes files of inherited roles), or null to search all roles
+   * @param path File path relative to the node directory, e.g. <code>conf/file.txt</code>
+   * @return File contents mapped by path relative to the node directory
+   */
+  public Map<String, byte[]> renderFiles(String environmentName, String nodeName, String roleName, String path) {
+    sessionLock.readLock().lock();
+    // directory is only created if files have to be materialized for post processors
+    File renderDir = new File(FileUtils.getTempDirectory(), "conga-render-" + UUID.randomUUID());
+    try {
+      Environment environment = getSelectedEnvironments(environmentName).get(environmentName);
+      MemoryOutputSink outputSink = new MemoryOutputSink();
+      EnvironmentGenerator environmentGenerator = new EnvironmentGenerator(environmentName, environment,
+          new File(renderDir, environmentName), options, getEnvironmentResources(environmentName, environment), null, null, outputSink);
+      environmentGenerator.render(nodeName, roleName, path);
+
+      String nodeOutputPath = environmentName + "/" + nodeName + "/";
+      Map<String, byte[]> files = new TreeMap<>();
+      outputSink.getFiles().forEach((outputPath, content) -> files.put(StringUtils.removeStart(outputPath, nodeOutputPath), content));
+      return files;
+    }
+    finally {
+      FileUtils.deleteQuietly(renderDir);
+      sessionLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return Names of all environments
+   */
+  public Set<String> getEnvironmentNames() {
+    return new TreeSet<>(environments.keySet());
+  }
+
+  /**
+   * Reloads definitions after the given files were modified, created or deleted, and returns the environments that
+   * have to be generated again. Resource class loaders, role definitions and compiled templates of environments
+   * that are not affected are kept.
+   * <ul>
+   * <li>Environment files: The environment is reloaded (including its dependencies).</li>
+   * <li>Role files: All environments using the role directly or via inheritance (before or after the change).</li>
+   * <li>Template files: All environments using a role that references the template. Templates that are not
+   * referenced by any role (e.g. partials) affect all environments.</li>
+   * </ul>
+   * Files outside the environment, role and template directories are ignored.
+   * @param changedFiles Changed files
+   * @return Names of affected environments
+   */
+  public Set<String> reload(Collection<File> changedFiles) {
+    sessionLock.writeLock().lock();
+    try {
+      return reloadInternal(changedFiles);
+    }
+    finally {
+      sessionLock.writeLock().unlock();
+    }
+  }
+
+  private Set<String> reloadInternal(Collection<File> changedFiles) {
+    Set<String> changedEnvironments = new TreeSet<>();
+    Set<String> changedRoles = new HashSet<>();
+    Set<String> changedTemplates = new HashSet<>();
+    for (File file : changedFiles) {
+      if (FileUtil.getRelativePath(options.getEnvironmentDir(), file) != null) {
+        changedEnvironments.add(FilenameUtils.getBaseName(file.getName()));
+      }
+      else if (FileUtil.getRelativePath(options.getRoleDir(), file) != null) {
+        changedRoles.add(FilenameUtils.getBaseName(file.getName()));
+      }
+      else {
+        String templatePath = FileUtil.getRelativePath(options.getTemplateDir(), file);
+        if (templatePath != null) {
+          changedTemplates.add(templatePath);
+        }
+      }
+    }
+
+    Set<String> affectedEnvironments = new TreeSet<>(changedEnvironments);
+
+    // collect environments using changed roles or templates before and after reloading the role definitions
+    if (!changedRoles.isEmpty() || !changedTemplates.isEmpty()) {
+      Set<String> referencedTemplates = new HashSet<>();
+      collectAffectedEnvironments(changedRoles, changedTemplates, affectedEnvironments, referencedTemplates);
+      if (!changedRoles.isEmpty()) {
+        environmentResources.values().forEach(EnvironmentResources::invalidateRoles);
+        collectAffectedEnvironments(changedRoles, changedTemplates, affectedEnvironments, referencedTemplates);
+      }
+      if (!changedTemplates.isEmpty()) {
+        environmentResources.values().forEach(resources -> resources.getHandlebarsManager().clearTemplateCache());
+        if (!referencedTemplates.containsAll(changedTemplates)) {
+          affectedEnvironments.addAll(environments.keySet());
+        }
+      }
+    }
+
+    // reload environments and drop resources of changed environments as the dependencies may have changed
+    if (!changedEnvironments.isEmpty()) {
+      environments = readEnvironments();
+      changedEnvironments.forEach(this::closeEnvironmentResources);
+      new HashSet<>(environmentResources.keySet()).stream()
+          .filter(name -> !environments.containsKey(name))
+          .forEach(this::closeEnvironmentResources);
+    }
+
+    affectedEnvironments.retainAll(environments.keySet());
+    return affectedEnvironments;
+  }
+
+  private void collectAffectedEnvironments(Set<String> changedRoles, Set<String> changedTemplates,
+      Set<String> affectedEnvironments, Set<String> referencedTemplates) {
+    for (Map.Entry<String, Environment> entry : environments.entrySet()) {
+      Map<String, Role> roles = getEnvironmentResources(entry.getKey(), entry.getValue()).getRoles();
+      for (Node node : entry.getValue().getNodes()) {
+        for (NodeRole nodeRole : node.getRoles()) {
+          Map<String, Role> resolvedRoles;
+          try {
+            resolvedRoles = RoleUtil.resolveRole(nodeRole.getRole(), entry.getKey(), roles);
+          }
+          catch (GeneratorException ex) {
+            // role is missing or invalid - regenerate environment to report the error
+            affectedEnvironments.add(entry.getKey());
+            continue;
+          }
+          for (Map.Entry<String, Role> resolvedRole : resolvedRoles.entrySet()) {
+            if (changedRoles.contains(resolvedRole.getKey())) {
+              affectedEnvironments.add(entry.getKey());
+            }
+            for (RoleFile roleFile : resolvedRole.getValue().getFiles()) {
+              String templatePath = FileUtil.getTemplatePath(resolvedRole.getValue(), roleFile);
+              if (templatePath != null) {
+                templatePath = FilenameUtils.separatorsToUnix(templatePath);
+                referencedTemplates.add(templatePath);
+                if (changedTemplates.contains(templatePath)) {
+                  affectedEnvironments.add(entry.getKey());
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Discards all cached definitions, resource class loaders and compiled templates. Environment definitions are
+   * re-read immediately, all other resources on next use.
+   */
+  public void invalidate() {
+    sessionLock.writeLock().lock();
+    try {
+      environments = readEnvironments();
+      new HashSet<>(environmentResources.keySet()).forEach(this::closeEnvironmentResources);
+    }
+    finally {
+      sessionLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Closes all resource class loaders. The session can still be used afterwards, resources are recreated on demand.
+   */
+  @Override
+  public void close() {
+    sessionLock.writeLock().lock();
+    try {
+      new HashSet<>(environmentResources.keySet()).forEach(this::closeEnvironmentResources);
+    }
+    finally {
+      sessionLock.writeLock().unlock();
+    }
+  }
+
+  private Map<String, Environment> readEnvironments() {
+    try (Measurement measurement = options.getGenerationMetrics().start(GenerationPhase.MODEL_LOADING, null, null, null, null)) {
+      return ResourceLoaderUtil.readModels(environmentDirs, new EnvironmentReader());
+    }
+  }
+
+  private EnvironmentResources getEnvironmentResources(String environmentName, Environment environment) {
+    return environmentResources.computeIfAbsent(environmentName,
+        name -> new EnvironmentResources(name, environment, options));
+  }
+
+  private void closeEnvironmentResources(String environmentName) {
+    EnvironmentResources resources = environmentResources.remove(environmentName);
+    if (resources != null) {
+      resources.close();
+    }
+  }
+
+  private Map<String, Environment> getSelectedEnvironments(String... environmentNames) {
+    Map<String, Environment> currentEnvironments = environments;
+    Map<String, Environment> selectedEnvironments = new TreeMap<>();
+    if (environmentNames == null || environmentNames.length == 0) {
+      selectedEnvironments.putAll(currentEnvironments);
+    }
+    else {
+      for (String environmentName : environmentNames) {
+        if (!currentEnvironments.containsKey(environmentName)) {
+          throw new GeneratorException("Environment '" + environmentName + "' does not exist.");
+        }
+        selectedEnvironments.put(environmentName, currentEnvironments.get(environmentName));
+      }
+    }
+    return selectedEnvironments;
+  }
+
+}
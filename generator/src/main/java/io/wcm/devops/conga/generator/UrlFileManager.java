@@ -19,14 +19,31 @@
  */
 package io.wcm.devops.conga.generator;
 
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvent;
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvents;
 import io.wcm.devops.conga.generator.plugins.urlfile.FilesystemUrlFilePlugin;
 import io.wcm.devops.conga.generator.spi.UrlFilePlugin;
 import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
@@ -35,11 +52,14 @@ import io.wcm.devops.conga.generator.util.PluginManager;
 /**
  * Manages copy/download of external files referenced in CONGA roles by URL, filesystem, classpath or Maven coordinates.
  */
-public final class UrlFileManager {
+public final class UrlFileManager implements Closeable {
 
   private final List<UrlFilePlugin> urlFilePlugins;
   private final UrlFilePlugin defaultUrlFilePlugin;
   private final UrlFilePluginContext context;
+  private final Map<String, String> prefetchedFileNames = new ConcurrentHashMap<>();
+  private final Map<String, File> prefetchedFiles = new ConcurrentHashMap<>();
+  private final Set<File> tempFiles = ConcurrentHashMap.newKeySet();
 
   private static final Pattern URL_WITH_PREFIX = Pattern.compile("^[a-zA-Z]+:.*$");
 
@@ -65,6 +85,11 @@ public final class UrlFileManager {
       throw new IllegalArgumentException("No URL given.");
     }
 
+    String prefetchedFileName = prefetchedFileNames.get(url);
+    if (prefetchedFileName != null) {
+      return prefetchedFileName;
+    }
+
     for (UrlFilePlugin plugin : urlFilePlugins) {
       if (plugin.accepts(url, context)) {
         return plugin.getFileName(url, context);
@@ -86,7 +111,33 @@ public final class UrlFileManager {
    * @throws IOException I/O exception
    */
   public InputStream getFile(String url) throws IOException {
-    return handleFile(url, plugin -> plugin.getFile(url, context));
+    File prefetchedFile = url != null ? prefetchedFiles.get(url) : null;
+    if (prefetchedFile != null) {
+      return new BufferedInputStream(new FileInputStream(prefetchedFile));
+    }
+    try (FlightRecorderEvent event = FlightRecorderEvents.urlFetch(url)) {
+      return handleFile(url, plugin -> plugin.getFile(url, context));
+    }
+  }
+
+  /**
+   * Get path to binary file if it is available in the local filesystem.
+   * @param url URL string
+   * @return Path to local file or null if the file is not available in the local filesystem
+   * @throws IOException I/O exception
+   */
+  public Path getLocalFile(String url) throws IOException {
+    File prefetchedFile = url != null ? prefetchedFiles.get(url) : null;
+    if (prefetchedFile != null) {
+      return prefetchedFile.toPath();
+    }
+    try (FlightRecorderEvent event = FlightRecorderEvents.urlFetch(url)) {
+      Path localFile = handleFile(url, plugin -> plugin.getLocalFile(url, context));
+      if (localFile != null) {
+        event.size(localFile.toFile().length());
+      }
+      return localFile;
+    }
   }
 
   /**
@@ -110,6 +161,78 @@ public final class UrlFileManager {
     return handleFile(url, plugin -> plugin.getFileUrlsWithDependencies(url, context));
   }
 
+  /**
+   * Resolves file names and downloads the binary data of the given URLs concurrently, so subsequent calls to
+   * {@link #getFileName(String)} and {@link #getFile(String)} are served from local files.
+   * URLs that fail to resolve are skipped - the error is reported when the file is accessed again.
+   * @param urls URL strings
+   * @param threads Maximum number of concurrent I/O operations
+   */
+  public void prefetch(Collection<String> urls, int threads) {
+    Collection<String> pendingUrls = new LinkedHashSet<>();
+    for (String url : urls) {
+      if (StringUtils.isNotBlank(url) && !prefetchedFileNames.containsKey(url)) {
+        pendingUrls.add(url);
+      }
+    }
+    if (pendingUrls.isEmpty()) {
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, pendingUrls.size())));
+    try {
+      pendingUrls.forEach(url -> executor.execute(() -> prefetch(url)));
+      executor.shutdown();
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void prefetch(String url) {
+    try (FlightRecorderEvent event = FlightRecorderEvents.urlFetch(url)) {
+      String fileName = getFileName(url);
+      URL fileUrl = getFileUrl(url);
+      if (StringUtils.equals(fileUrl.getProtocol(), "file")) {
+        // file is already available in local filesystem (e.g. resolved to local maven repository)
+        prefetchedFiles.put(url, new File(fileUrl.toURI()));
+      }
+      else if (!StringUtils.equals(fileUrl.getProtocol(), "jar")) {
+        // download remote file to temp file
+        File tempFile = File.createTempFile("conga-urlfile-", "-" + fileName);
+        tempFile.deleteOnExit();
+        tempFiles.add(tempFile);
+        try (InputStream is = handleFile(url, plugin -> plugin.getFile(url, context))) {
+          FileUtils.copyInputStreamToFile(is, tempFile);
+        }
+        event.size(tempFile.length());
+        prefetchedFiles.put(url, tempFile);
+      }
+      prefetchedFileNames.put(url, fileName);
+    }
+    catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+      // file is resolved again when it is generated, and the error is reported there
+      if (context.getLogger() != null) {
+        context.getLogger().debug("Unable to prefetch URL file " + url + ": " + ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Discards all prefetched files and deletes the files downloaded to temporary files.
+   */
+  @Override
+  public void close() {
+    prefetchedFileNames.clear();
+    prefetchedFiles.clear();
+    tempFiles.forEach(FileUtils::deleteQuietly);
+    tempFiles.clear();
+  }
+
   private <T> T handleFile(String url, FileHandler<T> fileHandler) throws IOException {
     if (StringUtils.isBlank(url)) {
       throw new IllegalArgumentException("No URL given.");
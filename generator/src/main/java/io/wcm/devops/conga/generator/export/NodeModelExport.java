@@ -37,6 +37,7 @@ import io.wcm.devops.conga.generator.util.VariableStringResolver;
 import io.wcm.devops.conga.model.environment.Environment;
 import io.wcm.devops.conga.model.environment.Node;
 import io.wcm.devops.conga.model.environment.Tenant;
+import io.wcm.devops.conga.model.util.ImmutableValue;
 import io.wcm.devops.conga.model.util.MapMerger;
 
 /**
@@ -44,6 +45,12 @@ import io.wcm.devops.conga.model.util.MapMerger;
  */
 public final class NodeModelExport {
 
+  // immutable values (e.g. environment context properties) are shared by reference when cloning the config
+  private static final Cloner CLONER = Cloner.standard();
+  static {
+    CLONER.dontCloneInstanceOf(ImmutableValue.class);
+  }
+
   private final File nodeDir;
   private final Node node;
   private final Environment environment;
@@ -98,7 +105,7 @@ public final class NodeModelExport {
     }
 
     // clone config to make sure it is not tampered by the plugin
-    Map<String, Object> clonedConfig = Cloner.standard().deepClone(config);
+    Map<String, Object> clonedConfig = CLONER.deepClone(config);
 
     // resolve variables in configuration, and remove context properties
     Map<String, Object> resolvedNodeConfig = variableMapResolver.resolve(clonedConfig, false);
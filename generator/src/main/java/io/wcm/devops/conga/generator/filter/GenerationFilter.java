@@ -0,0 +1,266 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Include/exclude filters for generating only a subset of the files of an environment.
+ * <p>
+ * Each filter is a list of patterns. A pattern is a glob pattern (<code>*</code> matches any characters except
+ * <code>/</code>, <code>**</code> any characters, <code>?</code> a single character except <code>/</code>) or a
+ * regular expression prefixed with <code>regex:</code>. An item is selected if no include patterns are defined or
+ * at least one include pattern matches, and no exclude pattern matches.
+ * </p>
+ * <ul>
+ * <li>Nodes: Matched against the node name.</li>
+ * <li>Roles: Matched against the role assigned to the node and the roles it inherits from.</li>
+ * <li>Variants: Matched against the variants assigned to the node role. With include patterns node roles without
+ * variants are not selected.</li>
+ * <li>Files: Matched against the path of the generated file relative to the node directory,
+ * e.g. <code>conf/*.xml</code>.</li>
+ * </ul>
+ */
+public final class GenerationFilter {
+
+  private static final String REGEX_PREFIX = "regex:";
+
+  private List<Pattern> includeNodes = new ArrayList<>();
+  private List<Pattern> excludeNodes = new ArrayList<>();
+  private List<Pattern> includeRoles = new ArrayList<>();
+  private List<Pattern> excludeRoles = new ArrayList<>();
+  private List<Pattern> includeVariants = new ArrayList<>();
+  private List<Pattern> excludeVariants = new ArrayList<>();
+  private List<Pattern> includeFiles = new ArrayList<>();
+  private List<Pattern> excludeFiles = new ArrayList<>();
+
+  /**
+   * @param patterns Node name patterns to include
+   * @return this
+   */
+  public GenerationFilter includeNodes(String... patterns) {
+    this.includeNodes = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns Node name patterns to exclude
+   * @return this
+   */
+  public GenerationFilter excludeNodes(String... patterns) {
+    this.excludeNodes = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns Role name patterns to include
+   * @return this
+   */
+  public GenerationFilter includeRoles(String... patterns) {
+    this.includeRoles = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns Role name patterns to exclude
+   * @return this
+   */
+  public GenerationFilter excludeRoles(String... patterns) {
+    this.excludeRoles = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns Variant name patterns to include
+   * @return this
+   */
+  public GenerationFilter includeVariants(String... patterns) {
+    this.includeVariants = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns Variant name patterns to exclude
+   * @return this
+   */
+  public GenerationFilter excludeVariants(String... patterns) {
+    this.excludeVariants = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns File path patterns to include
+   * @return this
+   */
+  public GenerationFilter includeFiles(String... patterns) {
+    this.includeFiles = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @param patterns File path patterns to exclude
+   * @return this
+   */
+  public GenerationFilter excludeFiles(String... patterns) {
+    this.excludeFiles = toPatterns(patterns);
+    return this;
+  }
+
+  /**
+   * @return true if any filter is defined
+   */
+  public boolean isActive() {
+    return isNodeFilterActive() || isRoleFilterActive() || isFileFilterActive();
+  }
+
+  /**
+   * @return true if node filters are defined
+   */
+  public boolean isNodeFilterActive() {
+    return !includeNodes.isEmpty() || !excludeNodes.isEmpty();
+  }
+
+  /**
+   * @return true if role or variant filters are defined
+   */
+  public boolean isRoleFilterActive() {
+    return !includeRoles.isEmpty() || !excludeRoles.isEmpty()
+        || !includeVariants.isEmpty() || !excludeVariants.isEmpty();
+  }
+
+  /**
+   * @return true if file filters are defined
+   */
+  public boolean isFileFilterActive() {
+    return !includeFiles.isEmpty() || !excludeFiles.isEmpty();
+  }
+
+  /**
+   * @param nodeName Node name
+   * @return true if the node is selected
+   */
+  public boolean isNodeSelected(String nodeName) {
+    return isSelected(nodeName, includeNodes, excludeNodes);
+  }
+
+  /**
+   * Checks the role assigned to a node before resolving the inherited roles.
+   * @param nodeRoleName Role assigned to the node
+   * @param variants Variants assigned to the node role
+   * @return false if the node role is excluded by role or variant filters
+   */
+  public boolean isNodeRoleSelected(String nodeRoleName, Collection<String> variants) {
+    if (matchesAny(nodeRoleName, excludeRoles)) {
+      return false;
+    }
+    if (!includeVariants.isEmpty() && variants.stream().noneMatch(variant -> matchesAny(variant, includeVariants))) {
+      return false;
+    }
+    return variants.stream().noneMatch(variant -> matchesAny(variant, excludeVariants));
+  }
+
+  /**
+   * @param nodeRoleName Role assigned to the node
+   * @param roleName Role name of the node role itself or a role it inherits from
+   * @return true if the files of the role are selected
+   */
+  public boolean isRoleSelected(String nodeRoleName, String roleName) {
+    if (matchesAny(nodeRoleName, excludeRoles) || matchesAny(roleName, excludeRoles)) {
+      return false;
+    }
+    return includeRoles.isEmpty() || matchesAny(nodeRoleName, includeRoles) || matchesAny(roleName, includeRoles);
+  }
+
+  /**
+   * @param path File path relative to the node directory
+   * @return true if the file is selected
+   */
+  public boolean isFileSelected(String path) {
+    return isSelected(path, includeFiles, excludeFiles);
+  }
+
+  private static boolean isSelected(String value, List<Pattern> includes, List<Pattern> excludes) {
+    return (includes.isEmpty() || matchesAny(value, includes)) && !matchesAny(value, excludes);
+  }
+
+  private static boolean matchesAny(String value, List<Pattern> patterns) {
+    if (value == null) {
+      return false;
+    }
+    for (Pattern pattern : patterns) {
+      if (pattern.matcher(value).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<Pattern> toPatterns(String... patterns) {
+    List<Pattern> result = new ArrayList<>();
+    if (patterns != null) {
+      for (String pattern : patterns) {
+        if (StringUtils.isNotBlank(pattern)) {
+          result.add(toPattern(StringUtils.trim(pattern)));
+        }
+      }
+    }
+    return result;
+  }
+
+  static Pattern toPattern(String pattern) {
+    if (StringUtils.startsWith(pattern, REGEX_PREFIX)) {
+      return Pattern.compile(StringUtils.substringAfter(pattern, REGEX_PREFIX));
+    }
+    StringBuilder regex = new StringBuilder();
+    StringBuilder literal = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '*' || c == '?') {
+        if (literal.length() > 0) {
+          regex.append(Pattern.quote(literal.toString()));
+          literal.setLength(0);
+        }
+        if (c == '?') {
+          regex.append("[^/]");
+        }
+        else if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '*') {
+          regex.append(".*");
+          i++;
+        }
+        else {
+          regex.append("[^/]*");
+        }
+      }
+      else {
+        literal.append(c);
+      }
+    }
+    if (literal.length() > 0) {
+      regex.append(Pattern.quote(literal.toString()));
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+}
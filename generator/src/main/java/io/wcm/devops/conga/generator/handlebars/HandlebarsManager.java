@@ -27,6 +27,7 @@ import com.github.jknack.handlebars.EscapingStrategy;
 import com.github.jknack.handlebars.Handlebars;
 import com.github.jknack.handlebars.Helper;
 import com.github.jknack.handlebars.Options;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
 import com.github.jknack.handlebars.io.TemplateLoader;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -67,6 +68,9 @@ public class HandlebarsManager {
             }
           });
 
+          // compile each template only once, recompile if the template file was modified
+          handlebars.with(new ConcurrentMapTemplateCache().setReload(true));
+
           // register helper plugins
           pluginManager.getAll(HelperPlugin.class)
               .forEach(plugin -> handlebars.registerHelper(plugin.getName(), new Helper<Object>() {
@@ -107,4 +111,12 @@ public class HandlebarsManager {
     }
   }
 
+  /**
+   * Removes all compiled templates from the template caches. Modified template files are detected automatically,
+   * this allows to force recompilation e.g. if file modification times are not reliable.
+   */
+  public void clearTemplateCache() {
+    handlebarsCache.asMap().values().forEach(handlebars -> handlebars.getCache().clear());
+  }
+
 }
@@ -0,0 +1,39 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.jfr;
+
+/**
+ * A started Java Flight Recorder event. Closing it commits the event with the elapsed duration.
+ */
+public interface FlightRecorderEvent extends AutoCloseable {
+
+  /**
+   * Set the size of the processed data (e.g. bytes or number of items - depending on event type).
+   * @param value Size
+   */
+  void size(long value);
+
+  /**
+   * Commits the event.
+   */
+  @Override
+  void close();
+
+}
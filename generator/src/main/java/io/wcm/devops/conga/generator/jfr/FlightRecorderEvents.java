@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.jfr;
+
+/**
+ * Emits Java Flight Recorder events for environments, nodes, template rendering, variable resolution,
+ * validators, post processors, URL file fetches and Maven artifact resolution.
+ * <p>
+ * Events are only created if the JVM supports the <code>jdk.jfr</code> API (Java 8u262+ or Java 11+) and a recording
+ * with the event type enabled is active. Otherwise a no-op event is returned.
+ * </p>
+ */
+public final class FlightRecorderEvents {
+
+  private static final FlightRecorderEvent NO_EVENT = new FlightRecorderEvent() {
+    @Override
+    public void size(long value) {
+      // ignore
+    }
+    @Override
+    public void close() {
+      // ignore
+    }
+  };
+
+  private static final boolean AVAILABLE = isFlightRecorderApiAvailable();
+
+  private FlightRecorderEvents() {
+    // static methods only
+  }
+
+  /**
+   * @param environment Environment name
+   * @return Started event
+   */
+  public static FlightRecorderEvent environment(String environment) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.environment(environment)) : NO_EVENT;
+  }
+
+  /**
+   * @param environment Environment name
+   * @param node Node name
+   * @return Started event
+   */
+  public static FlightRecorderEvent node(String environment, String node) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.node(environment, node)) : NO_EVENT;
+  }
+
+  /**
+   * Rendering of a template. Size: Number of generated characters.
+   * @param environment Environment name
+   * @param node Node name
+   * @param role Role name
+   * @param file File path
+   * @return Started event
+   */
+  public static FlightRecorderEvent render(String environment, String node, String role, String file) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.render(environment, node, role, file)) : NO_EVENT;
+  }
+
+  /**
+   * Resolution of variables in a configuration map. Size: Number of top-level configuration entries.
+   * @param environment Environment name
+   * @param node Node name
+   * @param role Role name
+   * @return Started event
+   */
+  public static FlightRecorderEvent variableResolution(String environment, String node, String role) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.variableResolution(environment, node, role)) : NO_EVENT;
+  }
+
+  /**
+   * @param plugin Validator plugin name
+   * @param file File path
+   * @return Started event
+   */
+  public static FlightRecorderEvent validator(String plugin, String file) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.validator(plugin, file)) : NO_EVENT;
+  }
+
+  /**
+   * @param plugin Post processor plugin name
+   * @param file File path
+   * @return Started event
+   */
+  public static FlightRecorderEvent postProcessor(String plugin, String file) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.postProcessor(plugin, file)) : NO_EVENT;
+  }
+
+  /**
+   * Resolving or downloading a URL file. Size: Number of bytes (if known).
+   * @param url URL
+   * @return Started event
+   */
+  public static FlightRecorderEvent urlFetch(String url) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.urlFetch(url)) : NO_EVENT;
+  }
+
+  /**
+   * Resolution of Maven artifacts. Size: Number of resolved artifacts.
+   * @param artifact Artifact coordinates
+   * @return Started event
+   */
+  public static FlightRecorderEvent artifactResolution(String artifact) {
+    return AVAILABLE ? orNoEvent(JfrEventFactory.artifactResolution(artifact)) : NO_EVENT;
+  }
+
+  private static FlightRecorderEvent orNoEvent(FlightRecorderEvent event) {
+    return event != null ? event : NO_EVENT;
+  }
+
+  private static boolean isFlightRecorderApiAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      // registers the event types
+      Class.forName(JfrEventFactory.class.getName());
+      return true;
+    }
+    catch (ClassNotFoundException | LinkageError ex) {
+      return false;
+    }
+  }
+
+}
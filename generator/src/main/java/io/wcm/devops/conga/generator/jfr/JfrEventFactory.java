@@ -0,0 +1,237 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.jfr;
+
+import java.util.function.LongConsumer;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Creates the JFR event instances. This class is only loaded if the <code>jdk.jfr</code> API is available.
+ */
+final class JfrEventFactory {
+
+  private static final String CATEGORY = "CONGA";
+
+  // event types are looked up once to check if they are enabled before allocating any event instance
+  private static final EventType ENVIRONMENT = EventType.getEventType(EnvironmentEvent.class);
+  private static final EventType NODE = EventType.getEventType(NodeEvent.class);
+  private static final EventType RENDER = EventType.getEventType(RenderEvent.class);
+  private static final EventType VARIABLE_RESOLUTION = EventType.getEventType(VariableResolutionEvent.class);
+  private static final EventType VALIDATOR = EventType.getEventType(ValidatorEvent.class);
+  private static final EventType POST_PROCESSOR = EventType.getEventType(PostProcessorEvent.class);
+  private static final EventType URL_FETCH = EventType.getEventType(UrlFetchEvent.class);
+  private static final EventType ARTIFACT_RESOLUTION = EventType.getEventType(ArtifactResolutionEvent.class);
+
+  private JfrEventFactory() {
+    // static methods only
+  }
+
+  static FlightRecorderEvent environment(String environment) {
+    if (!ENVIRONMENT.isEnabled()) {
+      return null;
+    }
+    EnvironmentEvent event = new EnvironmentEvent();
+    event.environment = environment;
+    return begin(event, null);
+  }
+
+  static FlightRecorderEvent node(String environment, String node) {
+    if (!NODE.isEnabled()) {
+      return null;
+    }
+    NodeEvent event = new NodeEvent();
+    event.environment = environment;
+    event.node = node;
+    return begin(event, null);
+  }
+
+  static FlightRecorderEvent render(String environment, String node, String role, String file) {
+    if (!RENDER.isEnabled()) {
+      return null;
+    }
+    RenderEvent event = new RenderEvent();
+    event.environment = environment;
+    event.node = node;
+    event.role = role;
+    event.file = file;
+    return begin(event, value -> event.characters = value);
+  }
+
+  static FlightRecorderEvent variableResolution(String environment, String node, String role) {
+    if (!VARIABLE_RESOLUTION.isEnabled()) {
+      return null;
+    }
+    VariableResolutionEvent event = new VariableResolutionEvent();
+    event.environment = environment;
+    event.node = node;
+    event.role = role;
+    return begin(event, value -> event.entries = value);
+  }
+
+  static FlightRecorderEvent validator(String plugin, String file) {
+    if (!VALIDATOR.isEnabled()) {
+      return null;
+    }
+    ValidatorEvent event = new ValidatorEvent();
+    event.plugin = plugin;
+    event.file = file;
+    return begin(event, null);
+  }
+
+  static FlightRecorderEvent postProcessor(String plugin, String file) {
+    if (!POST_PROCESSOR.isEnabled()) {
+      return null;
+    }
+    PostProcessorEvent event = new PostProcessorEvent();
+    event.plugin = plugin;
+    event.file = file;
+    return begin(event, null);
+  }
+
+  static FlightRecorderEvent urlFetch(String url) {
+    if (!URL_FETCH.isEnabled()) {
+      return null;
+    }
+    UrlFetchEvent event = new UrlFetchEvent();
+    event.url = url;
+    return begin(event, value -> event.bytes = value);
+  }
+
+  static FlightRecorderEvent artifactResolution(String artifact) {
+    if (!ARTIFACT_RESOLUTION.isEnabled()) {
+      return null;
+    }
+    ArtifactResolutionEvent event = new ArtifactResolutionEvent();
+    event.artifact = artifact;
+    return begin(event, value -> event.artifacts = value);
+  }
+
+  private static FlightRecorderEvent begin(Event event, LongConsumer sizeSetter) {
+    event.begin();
+    return new FlightRecorderEvent() {
+      @Override
+      public void size(long value) {
+        if (sizeSetter != null) {
+          sizeSetter.accept(value);
+        }
+      }
+      @Override
+      public void close() {
+        event.commit();
+      }
+    };
+  }
+
+  @Name("io.wcm.devops.conga.Environment")
+  @Label("Environment")
+  @Category(CATEGORY)
+  static final class EnvironmentEvent extends Event {
+    @Label("Environment")
+    String environment;
+  }
+
+  @Name("io.wcm.devops.conga.Node")
+  @Label("Node")
+  @Category(CATEGORY)
+  static final class NodeEvent extends Event {
+    @Label("Environment")
+    String environment;
+    @Label("Node")
+    String node;
+  }
+
+  @Name("io.wcm.devops.conga.Render")
+  @Label("Render Template")
+  @Category(CATEGORY)
+  static final class RenderEvent extends Event {
+    @Label("Environment")
+    String environment;
+    @Label("Node")
+    String node;
+    @Label("Role")
+    String role;
+    @Label("File")
+    String file;
+    @Label("Characters")
+    long characters;
+  }
+
+  @Name("io.wcm.devops.conga.VariableResolution")
+  @Label("Variable Resolution")
+  @Category(CATEGORY)
+  static final class VariableResolutionEvent extends Event {
+    @Label("Environment")
+    String environment;
+    @Label("Node")
+    String node;
+    @Label("Role")
+    String role;
+    @Label("Entries")
+    long entries;
+  }
+
+  @Name("io.wcm.devops.conga.Validator")
+  @Label("Validator")
+  @Category(CATEGORY)
+  static final class ValidatorEvent extends Event {
+    @Label("Plugin")
+    String plugin;
+    @Label("File")
+    String file;
+  }
+
+  @Name("io.wcm.devops.conga.PostProcessor")
+  @Label("Post Processor")
+  @Category(CATEGORY)
+  static final class PostProcessorEvent extends Event {
+    @Label("Plugin")
+    String plugin;
+    @Label("File")
+    String file;
+  }
+
+  @Name("io.wcm.devops.conga.UrlFetch")
+  @Label("URL File Fetch")
+  @Category(CATEGORY)
+  static final class UrlFetchEvent extends Event {
+    @Label("URL")
+    String url;
+    @Label("Size")
+    @DataAmount
+    long bytes;
+  }
+
+  @Name("io.wcm.devops.conga.ArtifactResolution")
+  @Label("Maven Artifact Resolution")
+  @Category(CATEGORY)
+  static final class ArtifactResolutionEvent extends Event {
+    @Label("Artifact")
+    String artifact;
+    @Label("Resolved Artifacts")
+    long artifacts;
+  }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Collects wall time and - if supported by the JVM - allocated bytes for the phases of a generator run,
+ * aggregated per phase, environment, node, role and plugin.
+ * All methods are thread-safe.
+ */
+public final class GenerationMetrics {
+
+  /**
+   * File name of JSON report.
+   */
+  public static final String REPORT_JSON_FILE = "conga-generation-report.json";
+
+  /**
+   * File name of CSV report.
+   */
+  public static final String REPORT_CSV_FILE = "conga-generation-report.csv";
+
+  private static final Measurement NO_MEASUREMENT = () -> {
+    // nothing to record
+  };
+
+  private static final com.sun.management.ThreadMXBean ALLOCATION_MX_BEAN = getAllocationMXBean();
+
+  private final boolean enabled;
+  private final ConcurrentMap<String, GenerationMetricsEntry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates an enabled metrics collector.
+   */
+  public GenerationMetrics() {
+    this(true);
+  }
+
+  private GenerationMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return Metrics instance that does not record anything.
+   */
+  public static GenerationMetrics disabled() {
+    return new GenerationMetrics(false);
+  }
+
+  /**
+   * A running measurement. Closing it records the elapsed time and allocated bytes.
+   */
+  @FunctionalInterface
+  public interface Measurement extends AutoCloseable {
+
+    @Override
+    void close();
+
+  }
+
+  /**
+   * Start measuring a phase in the current thread.
+   * @param phase Phase
+   * @param environment Environment name or null
+   * @param node Node name or null
+   * @param role Role name or null
+   * @param plugin Plugin name or null
+   * @return Measurement to be closed when the phase is finished
+   */
+  public Measurement start(GenerationPhase phase, String environment, String node, String role, String plugin) {
+    if (!enabled) {
+      return NO_MEASUREMENT;
+    }
+    long startNanos = System.nanoTime();
+    long startBytes = getAllocatedBytes();
+    return () -> {
+      long nanos = System.nanoTime() - startNanos;
+      long bytes = startBytes >= 0 ? Math.max(getAllocatedBytes() - startBytes, 0) : 0;
+      entries.computeIfAbsent(GenerationMetricsEntry.key(phase, environment, node, role, plugin),
+          key -> new GenerationMetricsEntry(phase, environment, node, role, plugin))
+          .add(nanos, bytes);
+    };
+  }
+
+  /**
+   * @return true if allocated bytes are measured
+   */
+  public boolean isAllocationSupported() {
+    return ALLOCATION_MX_BEAN != null;
+  }
+
+  /**
+   * @return All entries sorted by wall time descending
+   */
+  public List<GenerationMetricsEntry> getEntries() {
+    return entries.values().stream()
+        .sorted(Comparator.comparingLong(GenerationMetricsEntry::getNanos).reversed()
+            .thenComparing(GenerationMetricsEntry::getLabel))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return Sum of wall time in nanoseconds per phase
+   */
+  public Map<GenerationPhase, Long> getNanosPerPhase() {
+    Map<GenerationPhase, Long> result = new EnumMap<>(GenerationPhase.class);
+    for (GenerationMetricsEntry entry : entries.values()) {
+      result.merge(entry.getPhase(), entry.getNanos(), Long::sum);
+    }
+    return result;
+  }
+
+  /**
+   * Write JSON and CSV report to the given directory.
+   * @param directory Target directory
+   * @throws IOException I/O exception
+   */
+  public void writeReport(File directory) throws IOException {
+    if (!directory.exists()) {
+      directory.mkdirs();
+    }
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, REPORT_JSON_FILE)), StandardCharsets.UTF_8)) {
+      writeJson(writer);
+    }
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(directory, REPORT_CSV_FILE)), StandardCharsets.UTF_8)) {
+      writeCsv(writer);
+    }
+  }
+
+  /**
+   * Write report as JSON.
+   * @param writer Writer
+   * @throws IOException I/O exception
+   */
+  public void writeJson(Writer writer) throws IOException {
+    JsonObject json = new JsonObject();
+    JsonObject phases = new JsonObject();
+    getNanosPerPhase().forEach((phase, nanos) -> phases.addProperty(phase.name(), toMillis(nanos)));
+    json.add("phaseMillis", phases);
+
+    JsonArray items = new JsonArray();
+    for (GenerationMetricsEntry entry : getEntries()) {
+      JsonObject item = new JsonObject();
+      item.addProperty("phase", entry.getPhase().name());
+      item.addProperty("environment", entry.getEnvironment());
+      item.addProperty("node", entry.getNode());
+      item.addProperty("role", entry.getRole());
+      item.addProperty("plugin", entry.getPlugin());
+      item.addProperty("count", entry.getCount());
+      item.addProperty("millis", toMillis(entry.getNanos()));
+      if (isAllocationSupported()) {
+        item.addProperty("allocatedBytes", entry.getAllocatedBytes());
+      }
+      items.add(item);
+    }
+    json.add("entries", items);
+
+    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    gson.toJson(json, writer);
+    writer.flush();
+  }
+
+  /**
+   * Write report as CSV.
+   * @param writer Writer
+   * @throws IOException I/O exception
+   */
+  public void writeCsv(Writer writer) throws IOException {
+    writer.write("phase,environment,node,role,plugin,count,millis,allocatedBytes\n");
+    for (GenerationMetricsEntry entry : getEntries()) {
+      writer.write(entry.getPhase().name() + ","
+          + csv(entry.getEnvironment()) + ","
+          + csv(entry.getNode()) + ","
+          + csv(entry.getRole()) + ","
+          + csv(entry.getPlugin()) + ","
+          + entry.getCount() + ","
+          + toMillis(entry.getNanos()) + ","
+          + (isAllocationSupported() ? Long.toString(entry.getAllocatedBytes()) : "")
+          + "\n");
+    }
+    writer.flush();
+  }
+
+  /**
+   * Log the wall time per phase and the top N most expensive entries.
+   * @param log Logger
+   * @param topN Number of entries to log
+   */
+  public void logSummary(Logger log, int topN) {
+    log.info("");
+    log.info("===== Generation metrics =====");
+    getNanosPerPhase().forEach((phase, nanos) -> log.info("{}: {} ms", StringUtils.rightPad(phase.name(), 20), toMillis(nanos)));
+
+    List<GenerationMetricsEntry> topEntries = new ArrayList<>(getEntries());
+    if (topEntries.size() > topN) {
+      topEntries = topEntries.subList(0, topN);
+    }
+    if (!topEntries.isEmpty()) {
+      log.info("");
+      log.info("Top {}:", topEntries.size());
+      for (GenerationMetricsEntry entry : topEntries) {
+        if (isAllocationSupported()) {
+          log.info("{} ms, {} KB - {} ({}x)", toMillis(entry.getNanos()), entry.getAllocatedBytes() / 1024,
+              entry.getLabel(), entry.getCount());
+        }
+        else {
+          log.info("{} ms - {} ({}x)", toMillis(entry.getNanos()), entry.getLabel(), entry.getCount());
+        }
+      }
+    }
+    log.info("");
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (StringUtils.containsAny(value, ',', '"', '\n', '\r')) {
+      return "\"" + StringUtils.replace(value, "\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  private static long getAllocatedBytes() {
+    if (ALLOCATION_MX_BEAN == null) {
+      return -1;
+    }
+    return ALLOCATION_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean getAllocationMXBean() {
+    try {
+      ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+        if (allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+          return allocationMXBean;
+        }
+      }
+    }
+    /*CHECKSTYLE:OFF*/ catch (Throwable ex) { /*CHECKSTYLE:ON*/
+      // ignore - not supported by this JVM
+    }
+    return null;
+  }
+
+}
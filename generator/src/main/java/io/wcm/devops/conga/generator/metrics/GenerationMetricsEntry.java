@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.metrics;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Aggregated measurements of one phase for an environment, node, role and plugin combination.
+ */
+public final class GenerationMetricsEntry {
+
+  private final GenerationPhase phase;
+  private final String environment;
+  private final String node;
+  private final String role;
+  private final String plugin;
+  private long count;
+  private long nanos;
+  private long allocatedBytes;
+
+  GenerationMetricsEntry(GenerationPhase phase, String environment, String node, String role, String plugin) {
+    this.phase = phase;
+    this.environment = environment;
+    this.node = node;
+    this.role = role;
+    this.plugin = plugin;
+  }
+
+  synchronized void add(long durationNanos, long bytes) {
+    count++;
+    nanos += durationNanos;
+    allocatedBytes += bytes;
+  }
+
+  /**
+   * @return Phase
+   */
+  public GenerationPhase getPhase() {
+    return this.phase;
+  }
+
+  /**
+   * @return Environment name or null
+   */
+  public String getEnvironment() {
+    return this.environment;
+  }
+
+  /**
+   * @return Node name or null
+   */
+  public String getNode() {
+    return this.node;
+  }
+
+  /**
+   * @return Role name or null
+   */
+  public String getRole() {
+    return this.role;
+  }
+
+  /**
+   * @return Plugin name or null
+   */
+  public String getPlugin() {
+    return this.plugin;
+  }
+
+  /**
+   * @return Number of measurements
+   */
+  public synchronized long getCount() {
+    return this.count;
+  }
+
+  /**
+   * @return Sum of wall time in nanoseconds
+   */
+  public synchronized long getNanos() {
+    return this.nanos;
+  }
+
+  /**
+   * @return Sum of allocated bytes. 0 if allocation measurement is not supported by the JVM.
+   */
+  public synchronized long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  /**
+   * @return Human-readable label of the environment, node, role and plugin combination
+   */
+  public String getLabel() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(phase.name());
+    for (String part : Arrays.asList(environment, node, role)) {
+      if (part != null) {
+        sb.append(sb.length() == phase.name().length() ? " " : "/").append(part);
+      }
+    }
+    if (plugin != null) {
+      sb.append(" [").append(plugin).append("]");
+    }
+    return sb.toString();
+  }
+
+  static String key(GenerationPhase phase, String environment, String node, String role, String plugin) {
+    return phase.name() + "|" + Objects.toString(environment, "") + "|" + Objects.toString(node, "")
+        + "|" + Objects.toString(role, "") + "|" + Objects.toString(plugin, "");
+  }
+
+  @Override
+  public String toString() {
+    return getLabel();
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.metrics;
+
+/**
+ * Phases of a generator run that are measured by {@link GenerationMetrics}.
+ */
+public enum GenerationPhase {
+
+  /**
+   * Reading environment and role definitions.
+   */
+  MODEL_LOADING,
+
+  /**
+   * Resolving dependencies and building the resource class loader of an environment.
+   */
+  CLASSLOADER_BUILDING,
+
+  /**
+   * Resolving role inheritance.
+   */
+  ROLE_RESOLUTION,
+
+  /**
+   * Merging and resolving configuration of node roles and files.
+   */
+  CONFIG_RESOLUTION,
+
+  /**
+   * Compiling handlebars templates.
+   */
+  TEMPLATE_COMPILE,
+
+  /**
+   * Rendering handlebars templates.
+   */
+  RENDER,
+
+  /**
+   * Applying file header plugins.
+   */
+  FILE_HEADER,
+
+  /**
+   * Applying validator plugins.
+   */
+  VALIDATION,
+
+  /**
+   * Applying post processor plugins.
+   */
+  POST_PROCESSING,
+
+  /**
+   * Copying files from URLs.
+   */
+  URL_COPY,
+
+  /**
+   * Exporting node models.
+   */
+  MODEL_EXPORT
+
+}
@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.output;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Writes the generated files to a directory in the filesystem.
+ * If the directory is the generator destination directory (the default) the files are generated in place.
+ */
+public final class FileSystemOutputSink implements OutputSink {
+
+  private final File rootDir;
+  private final boolean destinationDirectory;
+
+  /**
+   * Sink for generating files in place in the generator destination directory.
+   * @param destDir Generator destination directory
+   */
+  public FileSystemOutputSink(File destDir) {
+    this(destDir, true);
+  }
+
+  /**
+   * @param rootDir Root directory
+   * @param destinationDirectory True if the root directory is the generator destination directory
+   */
+  public FileSystemOutputSink(File rootDir, boolean destinationDirectory) {
+    this.rootDir = rootDir;
+    this.destinationDirectory = destinationDirectory;
+  }
+
+  @Override
+  public boolean isDestinationDirectory() {
+    return destinationDirectory;
+  }
+
+  @Override
+  public OutputStream openFile(String path) throws IOException {
+    File file = new File(rootDir, FilenameUtils.separatorsToSystem(path));
+    File dir = file.getParentFile();
+    if (!dir.exists()) {
+      dir.mkdirs();
+    }
+    return new FileOutputStream(file);
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+/**
+ * Keeps the generated files in memory, e.g. for tests or for tools processing the files further.
+ */
+public final class MemoryOutputSink implements OutputSink {
+
+  private final SortedMap<String, byte[]> files = new TreeMap<>();
+
+  @Override
+  public boolean isDestinationDirectory() {
+    return false;
+  }
+
+  @Override
+  public OutputStream openFile(String path) {
+    return new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        synchronized (files) {
+          files.put(path, toByteArray());
+        }
+      }
+    };
+  }
+
+  /**
+   * @return Generated files mapped by path
+   */
+  public Map<String, byte[]> getFiles() {
+    synchronized (files) {
+      return ImmutableSortedMap.copyOfSorted(files);
+    }
+  }
+
+}
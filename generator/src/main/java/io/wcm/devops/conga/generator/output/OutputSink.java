@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.output;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * Receives the generated files.
+ * <p>
+ * Files that are not processed by any file header, validator or post processor plugin are written directly
+ * to the sink. Plugins work on real files - files processed by plugins are materialized in the generator
+ * destination directory first, and published to the sink after all files of a node are generated.
+ * </p>
+ * <p>
+ * All paths are relative to the output root, use forward slashes and start with the environment name,
+ * e.g. <code>env1/node1/conf/file.txt</code>.
+ * </p>
+ */
+public interface OutputSink extends Closeable {
+
+  /**
+   * @return true if the sink stores the files in the generator destination directory. In this case all files
+   *         are generated directly in the destination directory, and the sink is not called at all.
+   */
+  boolean isDestinationDirectory();
+
+  /**
+   * Opens a stream to write a generated file to the sink. The file is complete when the stream is closed.
+   * Each thread has only one stream open at a time. If environments are generated concurrently, streams are opened
+   * from multiple threads at the same time - the sink has to be thread-safe in this case.
+   * @param path Output path
+   * @return Output stream
+   * @throws IOException I/O exception
+   */
+  OutputStream openFile(String path) throws IOException;
+
+  /**
+   * Publishes a file that was materialized in the generator destination directory.
+   * @param path Output path
+   * @param file Materialized file
+   * @throws IOException I/O exception
+   */
+  default void publishFile(String path, File file) throws IOException {
+    try (OutputStream os = openFile(path)) {
+      Files.copy(file.toPath(), os);
+    }
+  }
+
+  @Override
+  default void close() throws IOException {
+    // nothing to do by default
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.output;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import io.wcm.devops.conga.generator.GeneratorException;
+
+/**
+ * Streams the generated files directly into a ZIP file.
+ * <p>
+ * The sink is thread-safe: Files written concurrently (e.g. when generating multiple environments in parallel)
+ * are serialized - opening a file waits until the file currently written by another thread is closed.
+ * Files cannot be replaced once written, generating the same path twice fails.
+ * </p>
+ */
+public final class ZipOutputSink implements OutputSink {
+
+  private final ZipOutputStream zipOutputStream;
+  private final Set<String> entryNames = new HashSet<>();
+  private Thread entryOwner;
+
+  /**
+   * @param zipFile ZIP file
+   * @throws IOException I/O exception
+   */
+  public ZipOutputSink(File zipFile) throws IOException {
+    this(new FileOutputStream(zipFile));
+  }
+
+  /**
+   * @param outputStream Output stream for the ZIP data. Is closed when the sink is closed.
+   */
+  public ZipOutputSink(OutputStream outputStream) {
+    this.zipOutputStream = new ZipOutputStream(new BufferedOutputStream(outputStream));
+  }
+
+  @Override
+  public boolean isDestinationDirectory() {
+    return false;
+  }
+
+  @Override
+  public synchronized OutputStream openFile(String path) throws IOException {
+    if (entryOwner == Thread.currentThread()) {
+      throw new IllegalStateException("Previous ZIP entry was not closed before opening " + path);
+    }
+    // wait until the entry written by another thread is closed
+    while (entryOwner != null) {
+      try {
+        wait();
+      }
+      catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting to write " + path);
+      }
+    }
+    if (!entryNames.add(path)) {
+      throw new GeneratorException("File was generated already, files in ZIP output cannot be replaced - "
+          + "check for file name clashes: " + path);
+    }
+    zipOutputStream.putNextEntry(new ZipEntry(path));
+    entryOwner = Thread.currentThread();
+    return new FilterOutputStream(zipOutputStream) {
+      private boolean closed;
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+      }
+      @Override
+      public void close() throws IOException {
+        if (!closed) {
+          closed = true;
+          closeEntry();
+        }
+      }
+    };
+  }
+
+  private synchronized void closeEntry() throws IOException {
+    try {
+      zipOutputStream.closeEntry();
+    }
+    finally {
+      entryOwner = null;
+      notifyAll();
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    zipOutputStream.close();
+  }
+
+}
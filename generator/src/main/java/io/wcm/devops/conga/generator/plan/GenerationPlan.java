@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.plan;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+/**
+ * List of all files a generator run would produce, with the template, URL and plugins used for each of them.
+ */
+public final class GenerationPlan {
+
+  private final List<PlannedFile> files = new ArrayList<>();
+
+  /**
+   * @return Planned files
+   */
+  public List<PlannedFile> getFiles() {
+    return this.files;
+  }
+
+  /**
+   * @param file Planned file
+   * @return this
+   */
+  public GenerationPlan file(PlannedFile file) {
+    this.files.add(file);
+    return this;
+  }
+
+  /**
+   * @return Sum of estimated generation times in microseconds of all files with known estimate
+   */
+  public long getEstimatedMicros() {
+    return files.stream()
+        .filter(file -> file.getEstimatedMicros() != null)
+        .mapToLong(PlannedFile::getEstimatedMicros)
+        .sum();
+  }
+
+  /**
+   * @return Sum of estimated generation times in milliseconds of all files with known estimate
+   */
+  public double getEstimatedMillis() {
+    return getEstimatedMicros() / 1000d;
+  }
+
+  /**
+   * Write plan as JSON.
+   * @param writer Writer
+   * @throws IOException I/O exception
+   */
+  public void writeJson(Writer writer) throws IOException {
+    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    JsonObject json = new JsonObject();
+    json.addProperty("fileCount", files.size());
+    json.addProperty("estimatedMillis", getEstimatedMillis());
+    json.add("files", gson.toJsonTree(files));
+    gson.toJson(json, writer);
+    writer.flush();
+  }
+
+}
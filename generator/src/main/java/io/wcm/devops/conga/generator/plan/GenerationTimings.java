@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.plan;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Generation times per file of a previous generator run, keyed by file path (environment/node/path).
+ * They are persisted in a properties file and used to estimate the costs in a {@link GenerationPlan}.
+ */
+public final class GenerationTimings {
+
+  private final File timingsFile;
+  private final Properties entries = new Properties();
+  private boolean dirty;
+
+  /**
+   * @param timingsFile File to persist timings. If null the timings are held only in memory.
+   */
+  public GenerationTimings(File timingsFile) {
+    this.timingsFile = timingsFile;
+    if (timingsFile != null && timingsFile.exists()) {
+      try (InputStream is = new FileInputStream(timingsFile)) {
+        entries.load(is);
+      }
+      catch (IOException ex) {
+        // ignore invalid timings file - it is rebuilt
+        entries.clear();
+      }
+    }
+  }
+
+  /**
+   * @param path File path
+   * @return Generation time in microseconds or null if unknown
+   */
+  public synchronized Long get(String path) {
+    String value = entries.getProperty(path);
+    if (value == null || !NumberUtils.isDigits(value)) {
+      return null;
+    }
+    return Long.parseLong(value);
+  }
+
+  /**
+   * @param path File path
+   * @param micros Generation time in microseconds
+   */
+  public synchronized void put(String path, long micros) {
+    entries.setProperty(path, Long.toString(micros));
+    dirty = true;
+  }
+
+  /**
+   * Removes all timings of the given environment, e.g. before all its files are generated again.
+   * @param environmentName Environment name
+   */
+  public synchronized void clearEnvironment(String environmentName) {
+    String prefix = environmentName + "/";
+    dirty |= entries.keySet().removeIf(key -> StringUtils.startsWith((String)key, prefix));
+  }
+
+  /**
+   * Persist timings if they were changed.
+   * @throws IOException If timings file could not be written
+   */
+  public synchronized void save() throws IOException {
+    if (timingsFile == null || !dirty) {
+      return;
+    }
+    File dir = timingsFile.getParentFile();
+    if (dir != null && !dir.exists()) {
+      dir.mkdirs();
+    }
+    try (OutputStream os = new FileOutputStream(timingsFile)) {
+      entries.store(os, "CONGA file generation timings");
+    }
+    dirty = false;
+  }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.plan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes a file that would be generated, and the plugins that would be applied to it.
+ */
+public final class PlannedFile {
+
+  private String path;
+  private String environment;
+  private String node;
+  private String role;
+  private List<String> variants = new ArrayList<>();
+  private String template;
+  private String url;
+  private List<String> fileHeaders = new ArrayList<>();
+  private List<String> validators = new ArrayList<>();
+  private List<String> postProcessors = new ArrayList<>();
+  private Long estimatedMicros;
+
+  /**
+   * @return File path relative to destination directory (environment/node/path)
+   */
+  public String getPath() {
+    return this.path;
+  }
+
+  /**
+   * @param value File path relative to destination directory (environment/node/path)
+   * @return this
+   */
+  public PlannedFile path(String value) {
+    this.path = value;
+    return this;
+  }
+
+  /**
+   * @return Environment name
+   */
+  public String getEnvironment() {
+    return this.environment;
+  }
+
+  /**
+   * @param value Environment name
+   * @return this
+   */
+  public PlannedFile environment(String value) {
+    this.environment = value;
+    return this;
+  }
+
+  /**
+   * @return Node name
+   */
+  public String getNode() {
+    return this.node;
+  }
+
+  /**
+   * @param value Node name
+   * @return this
+   */
+  public PlannedFile node(String value) {
+    this.node = value;
+    return this;
+  }
+
+  /**
+   * @return Role name
+   */
+  public String getRole() {
+    return this.role;
+  }
+
+  /**
+   * @param value Role name
+   * @return this
+   */
+  public PlannedFile role(String value) {
+    this.role = value;
+    return this;
+  }
+
+  /**
+   * @return Role variant names
+   */
+  public List<String> getVariants() {
+    return this.variants;
+  }
+
+  /**
+   * @param value Role variant names
+   * @return this
+   */
+  public PlannedFile variants(List<String> value) {
+    this.variants = new ArrayList<>(value);
+    return this;
+  }
+
+  /**
+   * @return Template path or null if file is copied from URL
+   */
+  public String getTemplate() {
+    return this.template;
+  }
+
+  /**
+   * @param value Template path
+   * @return this
+   */
+  public PlannedFile template(String value) {
+    this.template = value;
+    return this;
+  }
+
+  /**
+   * @return URL the file is copied from or null if it is generated from template
+   */
+  public String getUrl() {
+    return this.url;
+  }
+
+  /**
+   * @param value URL
+   * @return this
+   */
+  public PlannedFile url(String value) {
+    this.url = value;
+    return this;
+  }
+
+  /**
+   * @return File header plugin names
+   */
+  public List<String> getFileHeaders() {
+    return this.fileHeaders;
+  }
+
+  /**
+   * @param value File header plugin names
+   * @return this
+   */
+  public PlannedFile fileHeaders(List<String> value) {
+    this.fileHeaders = new ArrayList<>(value);
+    return this;
+  }
+
+  /**
+   * @return Validator plugin names
+   */
+  public List<String> getValidators() {
+    return this.validators;
+  }
+
+  /**
+   * @param value Validator plugin names
+   * @return this
+   */
+  public PlannedFile validators(List<String> value) {
+    this.validators = new ArrayList<>(value);
+    return this;
+  }
+
+  /**
+   * @return Post processor plugin names
+   */
+  public List<String> getPostProcessors() {
+    return this.postProcessors;
+  }
+
+  /**
+   * @param value Post processor plugin names
+   * @return this
+   */
+  public PlannedFile postProcessors(List<String> value) {
+    this.postProcessors = new ArrayList<>(value);
+    return this;
+  }
+
+  /**
+   * @return Estimated generation time in microseconds based on the previous run, or null if unknown
+   */
+  public Long getEstimatedMicros() {
+    return this.estimatedMicros;
+  }
+
+  /**
+   * @param value Estimated generation time in microseconds
+   * @return this
+   */
+  public PlannedFile estimatedMicros(Long value) {
+    this.estimatedMicros = value;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+
+}
@@ -19,6 +19,11 @@
  */
 package io.wcm.devops.conga.generator.plugins.fileheader;
 
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
 import io.wcm.devops.conga.generator.spi.context.FileHeaderContext;
 import io.wcm.devops.conga.generator.util.FileUtil;
@@ -26,7 +31,7 @@ import io.wcm.devops.conga.generator.util.FileUtil;
 /**
  * Adds file headers to .conf files (e.g. for Apache config files).
  */
-public final class ConfFileHeader extends AbstractFileHeader {
+public final class ConfFileHeader extends AbstractFileHeader implements FileExtensionAware {
 
   /**
    * Plugin name
@@ -40,6 +45,11 @@ public final class ConfFileHeader extends AbstractFileHeader {
     return NAME;
   }
 
+  @Override
+  public Set<String> getSupportedFileExtensions() {
+    return ImmutableSet.of(FILE_EXTENSION);
+  }
+
   @Override
   public boolean accepts(FileContext file, FileHeaderContext context) {
     return FileUtil.matchesExtension(file, FILE_EXTENSION);
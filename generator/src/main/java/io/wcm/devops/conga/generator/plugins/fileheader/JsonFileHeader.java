@@ -19,8 +19,13 @@
  */
 package io.wcm.devops.conga.generator.plugins.fileheader;
 
+import java.util.Set;
+
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.collect.ImmutableSet;
+
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
 import io.wcm.devops.conga.generator.spi.context.FileHeaderContext;
 import io.wcm.devops.conga.generator.util.FileUtil;
@@ -28,7 +33,7 @@ import io.wcm.devops.conga.generator.util.FileUtil;
 /**
  * Adds file headers to JSON files.
  */
-public final class JsonFileHeader extends AbstractFileHeader {
+public final class JsonFileHeader extends AbstractFileHeader implements FileExtensionAware {
 
   /**
    * Plugin name
@@ -42,6 +47,11 @@ public final class JsonFileHeader extends AbstractFileHeader {
     return NAME;
   }
 
+  @Override
+  public Set<String> getSupportedFileExtensions() {
+    return ImmutableSet.of(FILE_EXTENSION);
+  }
+
   @Override
   public boolean accepts(FileContext file, FileHeaderContext context) {
     return FileUtil.matchesExtension(file, FILE_EXTENSION);
@@ -21,6 +21,7 @@ package io.wcm.devops.conga.generator.plugins.fileheader;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -39,8 +40,10 @@ import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import io.wcm.devops.conga.generator.GeneratorException;
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.FileHeaderPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
 import io.wcm.devops.conga.generator.spi.context.FileHeaderContext;
@@ -49,7 +52,7 @@ import io.wcm.devops.conga.generator.util.FileUtil;
 /**
  * Adds file headers to XML files.
  */
-public final class XmlFileHeader implements FileHeaderPlugin {
+public final class XmlFileHeader implements FileHeaderPlugin, FileExtensionAware {
 
   private final DocumentBuilder documentBuilder;
   private final Transformer transformer;
@@ -81,6 +84,11 @@ public final class XmlFileHeader implements FileHeaderPlugin {
     return NAME;
   }
 
+  @Override
+  public Set<String> getSupportedFileExtensions() {
+    return ImmutableSet.of(FILE_EXTENSION);
+  }
+
   @Override
   public boolean accepts(FileContext file, FileHeaderContext context) {
     return FileUtil.matchesExtension(file, FILE_EXTENSION);
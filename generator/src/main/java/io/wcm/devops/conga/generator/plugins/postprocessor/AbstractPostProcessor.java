@@ -21,6 +21,7 @@ package io.wcm.devops.conga.generator.plugins.postprocessor;
 
 import java.util.Optional;
 
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import io.wcm.devops.conga.generator.plugins.fileheader.NoneFileHeader;
@@ -78,7 +79,7 @@ public abstract class AbstractPostProcessor implements PostProcessorPlugin {
   private FileHeaderPlugin detectFileHeaderPlugin(FileContext file, PostProcessorContext postProcessorContext) {
     FileHeaderContext dummyFileHeader = new FileHeaderContext();
     Optional<FileHeaderPlugin> fileHeaderPlugin = postProcessorContext.getPluginManager()
-        .getAll(FileHeaderPlugin.class).stream()
+        .getAll(FileHeaderPlugin.class, FilenameUtils.getExtension(file.getFile().getName())).stream()
         .filter(plugin -> plugin.accepts(file, dummyFileHeader))
         .filter(plugin -> !StringUtils.equals(plugin.getName(), NoneFileHeader.NAME))
         .findFirst();
@@ -26,6 +26,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -79,6 +80,15 @@ public class FilesystemUrlFilePlugin implements UrlFilePlugin {
     return file.toURI().toURL();
   }
 
+  @Override
+  public Path getLocalFile(String url, UrlFilePluginContext context) throws IOException {
+    File file = getFileInternal(url, context);
+    if (!file.exists()) {
+      throw new FileNotFoundException("File does not exist: " + FileUtil.getCanonicalPath(file));
+    }
+    return file.toPath();
+  }
+
   private static File getFileInternal(String url, UrlFilePluginContext context) {
     if (StringUtils.startsWith(url, PREFIX)) {
       String absoultePath = StringUtils.substringAfter(url, PREFIX);
@@ -26,11 +26,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.ValidationException;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -40,7 +43,7 @@ import io.wcm.devops.conga.generator.util.FileUtil;
 /**
  * Validates JSON syntax.
  */
-public final class JsonValidator implements ValidatorPlugin {
+public final class JsonValidator implements ValidatorPlugin, FileExtensionAware {
 
   private final JsonParser jsonParser;
 
@@ -63,6 +66,11 @@ public final class JsonValidator implements ValidatorPlugin {
     return NAME;
   }
 
+  @Override
+  public Set<String> getSupportedFileExtensions() {
+    return ImmutableSet.of(FILE_EXTENSION);
+  }
+
   @Override
   public boolean accepts(FileContext file, ValidatorContext context) {
     return FileUtil.matchesExtension(file, FILE_EXTENSION);
@@ -20,6 +20,7 @@
 package io.wcm.devops.conga.generator.plugins.validator;
 
 import java.io.IOException;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -27,7 +28,10 @@ import javax.xml.parsers.ParserConfigurationException;
 
 import org.xml.sax.SAXException;
 
+import com.google.common.collect.ImmutableSet;
+
 import io.wcm.devops.conga.generator.GeneratorException;
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.ValidationException;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -37,7 +41,7 @@ import io.wcm.devops.conga.generator.util.FileUtil;
 /**
  * Validates XML syntax.
  */
-public final class XmlValidator implements ValidatorPlugin {
+public final class XmlValidator implements ValidatorPlugin, FileExtensionAware {
 
   private final DocumentBuilder documentBuilder;
 
@@ -66,6 +70,11 @@ public final class XmlValidator implements ValidatorPlugin {
     return NAME;
   }
 
+  @Override
+  public Set<String> getSupportedFileExtensions() {
+    return ImmutableSet.of(FILE_EXTENSION);
+  }
+
   @Override
   public boolean accepts(FileContext file, ValidatorContext context) {
     return FileUtil.matchesExtension(file, FILE_EXTENSION);
@@ -0,0 +1,39 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.spi;
+
+import java.util.Set;
+
+/**
+ * Optional interface for file plugins and escaping strategy plugins that are only applicable to files with
+ * a fixed set of file extensions. The generator uses this information to pre-select the plugins that are
+ * candidates for a file by its file extension, and calls the plugin's <code>accepts</code> method only for
+ * files with one of the declared file extensions.
+ * Plugins not implementing this interface are candidates for all files.
+ */
+public interface FileExtensionAware {
+
+  /**
+   * @return File extensions (without leading dot, case-insensitive) the plugin may accept.
+   *         The plugin's <code>accepts</code> method has to return false for all other file extensions.
+   */
+  Set<String> getSupportedFileExtensions();
+
+}
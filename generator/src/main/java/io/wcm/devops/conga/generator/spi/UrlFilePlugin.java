@@ -22,6 +22,7 @@ package io.wcm.devops.conga.generator.spi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.List;
 
 import com.google.common.collect.ImmutableList;
@@ -59,6 +60,18 @@ public interface UrlFilePlugin extends Plugin {
    */
   InputStream getFile(String url, UrlFilePluginContext context) throws IOException;
 
+  /**
+   * Get path to external file if it is available in the local filesystem. This allows the generator to copy the file
+   * without streaming it through the heap.
+   * @param url URL string (including prefix)
+   * @param context Context objects
+   * @return Path to local file or null if the file is not available in the local filesystem
+   * @throws IOException If the access to the file failed
+   */
+  default Path getLocalFile(String url, UrlFilePluginContext context) throws IOException {
+    return null;
+  }
+
   /**
    * Get URL to external file.
    * @param url URL string (including prefix)
@@ -19,6 +19,10 @@
  */
 package io.wcm.devops.conga.generator.spi;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import io.wcm.devops.conga.generator.spi.context.ValueProviderContext;
 
 /**
@@ -34,4 +38,21 @@ public interface ValueProviderPlugin extends Plugin {
    */
   Object resolve(String variableName, ValueProviderContext context);
 
+  /**
+   * Gets multiple parameter values from value provider in one call. This is used to prefetch all values
+   * referenced in an environment before generating the files, if caching is enabled for the value provider.
+   * Value providers reading from external systems can override this method to fetch all values at once.
+   * The default implementation calls {@link #resolve(String, ValueProviderContext)} for each variable.
+   * @param variableNames Variable names
+   * @param context Context
+   * @return Parameter values mapped by variable name. Variables without value are omitted or mapped to null.
+   */
+  default Map<String, Object> resolve(Collection<String> variableNames, ValueProviderContext context) {
+    Map<String, Object> values = new HashMap<>();
+    for (String variableName : variableNames) {
+      values.put(variableName, resolve(variableName, context));
+    }
+    return values;
+  }
+
 }
@@ -23,12 +23,17 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import io.wcm.devops.conga.generator.util.ValueProviderCache;
+import io.wcm.devops.conga.generator.util.ValueProviderCacheScope;
+
 /**
  * Global context for all {@link io.wcm.devops.conga.generator.spi.ValueProviderPlugin} implementations.
  */
 public final class ValueProviderGlobalContext extends AbstractPluginContext<ValueProviderGlobalContext> {
 
-  private Map<String, Object> globalValueProviderCache = new HashMap<>();
+  private Map<String, Object> globalValueProviderCache = Collections.synchronizedMap(new HashMap<>());
+  private final ValueProviderCache environmentValueCache = new ValueProviderCache();
+  private ValueProviderCache runValueCache;
 
   /**
    * Parameter name in value provider configuration to specify the value provider plugin name.
@@ -36,6 +41,12 @@ public final class ValueProviderGlobalContext extends AbstractPluginContext<Valu
    */
   public static final String PARAM_PLUGIN_NAME = "_plugin_";
 
+  /**
+   * Parameter name in value provider configuration to specify the cache scope for the resolved values:
+   * "none" (default), "environment" or "run". See {@link ValueProviderCacheScope}.
+   */
+  public static final String PARAM_CACHE_SCOPE = "_cache_";
+
   /**
    * @return Configuration for value providers.
    *         The outer map uses the value provider plugin name as key, the inner map contain the config properties.
@@ -69,4 +80,32 @@ public final class ValueProviderGlobalContext extends AbstractPluginContext<Valu
     return globalValueProviderCache;
   }
 
+  /**
+   * @param value Cache shared by all environments of the same generation run
+   * @return this
+   */
+  public ValueProviderGlobalContext runValueCache(ValueProviderCache value) {
+    this.runValueCache = value;
+    return this;
+  }
+
+  /**
+   * Get cache for the values resolved by the given value provider, depending on the configured cache scope.
+   * If no run cache is set, values with run scope are cached for the lifetime of this context.
+   * @param valueProviderName Value provider name
+   * @return Value cache or null if values of this value provider are not cached
+   */
+  public ValueProviderCache getValueCache(String valueProviderName) {
+    Object scopeValue = getValueProviderConfig(valueProviderName).get(PARAM_CACHE_SCOPE);
+    ValueProviderCacheScope scope = ValueProviderCacheScope.fromString(scopeValue != null ? scopeValue.toString() : null);
+    switch (scope) {
+      case RUN:
+        return runValueCache != null ? runValueCache : environmentValueCache;
+      case ENVIRONMENT:
+        return environmentValueCache;
+      default:
+        return null;
+    }
+  }
+
 }
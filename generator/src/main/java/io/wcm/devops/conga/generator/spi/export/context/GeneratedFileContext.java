@@ -31,9 +31,11 @@ public final class GeneratedFileContext {
 
   private FileContext fileContext;
   private final Set<String> postProcessors = new LinkedHashSet<>();
+  private String outputSinkPath;
 
   /**
-   * @return File context
+   * @return File context. The file does not exist in the destination directory if it was written directly
+   *         to the output sink, see {@link #getOutputSinkPath()}.
    */
   public FileContext getFileContext() {
     return this.fileContext;
@@ -64,6 +66,24 @@ public final class GeneratedFileContext {
     return this;
   }
 
+  /**
+   * @return Output path if the file was written directly to the configured
+   *         {@link io.wcm.devops.conga.generator.output.OutputSink} without creating it in the destination
+   *         directory, or null if the file was generated in the destination directory.
+   */
+  public String getOutputSinkPath() {
+    return this.outputSinkPath;
+  }
+
+  /**
+   * @param value Output path in output sink
+   * @return this
+   */
+  public GeneratedFileContext outputSinkPath(String value) {
+    this.outputSinkPath = value;
+    return this;
+  }
+
   @Override
   public String toString() {
     return fileContext.toString();
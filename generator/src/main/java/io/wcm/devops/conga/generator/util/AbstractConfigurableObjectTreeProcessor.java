@@ -19,14 +19,21 @@
  */
 package io.wcm.devops.conga.generator.util;
 
-import java.lang.reflect.InvocationTargetException;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.commons.beanutils.BeanUtils;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import com.google.common.collect.ImmutableList;
+
 import io.wcm.devops.conga.model.shared.Configurable;
 
 /**
@@ -35,6 +42,14 @@ import io.wcm.devops.conga.model.shared.Configurable;
  */
 abstract class AbstractConfigurableObjectTreeProcessor<T> {
 
+  // class values do not prevent classes and their class loaders from being garbage collected
+  private static final ClassValue<List<MethodHandle>> NESTED_OBJECT_ACCESSORS = new ClassValue<List<MethodHandle>>() {
+    @Override
+    protected List<MethodHandle> computeValue(Class<?> type) {
+      return buildNestedObjectAccessors(type);
+    }
+  };
+
   /**
    * Iterator over object tree an visit all {@link Configurable} instances. Payload
    * can be inherited from down the hierarchy levels.
@@ -67,21 +82,73 @@ abstract class AbstractConfigurableObjectTreeProcessor<T> {
   }
 
   private void resolveNestedObjects(Object object, ConfigurableProcessor<T> processor, T parentPayload) {
-    if (object == null || object.getClass().isEnum()) {
+    if (object == null || isLeafType(object.getClass())) {
       return;
     }
+    for (MethodHandle accessor : getNestedObjectAccessors(object.getClass())) {
+      Object propertyValue;
+      try {
+        propertyValue = accessor.invoke(object);
+      }
+      /*CHECKSTYLE:OFF*/ catch (Throwable ex) { /*CHECKSTYLE:ON*/
+        throw new RuntimeException("Unable to get bean properties from '" + object.getClass().getName() + "'.", ex);
+      }
+      process(propertyValue, processor, parentPayload);
+    }
+  }
+
+  /**
+   * Get accessors for all readable properties of the given class that may contain nested {@link Configurable}
+   * instances. The accessors are looked up only once per class.
+   * @param clazz Bean class
+   * @return Getter method handles
+   */
+  private static List<MethodHandle> getNestedObjectAccessors(Class<?> clazz) {
+    return NESTED_OBJECT_ACCESSORS.get(clazz);
+  }
+
+  private static List<MethodHandle> buildNestedObjectAccessors(Class<?> clazz) {
     try {
-      Map<String, String> description = BeanUtils.describe(object);
-      for (String propertyName : description.keySet()) {
-        Object propertyValue = PropertyUtils.getProperty(object, propertyName);
-        if (!StringUtils.equals(propertyName, "class")) {
-          process(propertyValue, processor, parentPayload);
+      List<MethodHandle> accessors = new ArrayList<>();
+      for (PropertyDescriptor descriptor : Introspector.getBeanInfo(clazz, Object.class).getPropertyDescriptors()) {
+        Method readMethod = descriptor.getReadMethod();
+        if (readMethod == null || isLeafPropertyType(readMethod.getReturnType())) {
+          continue;
         }
+        accessors.add(unreflect(readMethod));
       }
+      return ImmutableList.copyOf(accessors);
     }
-    catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException ex) {
-      throw new RuntimeException("Unable to get bean properties from '" + object.getClass().getName() + "'.", ex);
+    catch (IntrospectionException | IllegalAccessException ex) {
+      throw new RuntimeException("Unable to get bean properties from '" + clazz.getName() + "'.", ex);
     }
   }
 
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return MethodHandles.publicLookup().unreflect(method);
+    }
+    catch (IllegalAccessException ex) {
+      // public getter declared in a non-public class
+      method.setAccessible(true);
+      return MethodHandles.lookup().unreflect(method);
+    }
+  }
+
+  /**
+   * Objects of these types never contain nested {@link Configurable} instances.
+   * JDK classes that are not maps or lists (handled separately) are not inspected.
+   */
+  private static boolean isLeafType(Class<?> clazz) {
+    return clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || StringUtils.startsWith(clazz.getName(), "java.");
+  }
+
+  /**
+   * Properties declared with these types can never hold nested {@link Configurable} instances.
+   * Non-final JDK types like {@link Object}, {@link Map} or {@link List} are still visited.
+   */
+  private static boolean isLeafPropertyType(Class<?> clazz) {
+    return isLeafType(clazz) && (clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || Modifier.isFinal(clazz.getModifiers()));
+  }
+
 }
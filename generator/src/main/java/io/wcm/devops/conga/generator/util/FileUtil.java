@@ -21,6 +21,7 @@ package io.wcm.devops.conga.generator.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -91,6 +92,24 @@ public final class FileUtil {
     return dir;
   }
 
+  /**
+   * Get path of a file relative to a directory.
+   * @param dir Directory
+   * @param file File (does not need to exist)
+   * @return Relative path with forward slashes, or null if the file is not located inside the directory
+   */
+  public static String getRelativePath(File dir, File file) {
+    if (dir == null || file == null) {
+      return null;
+    }
+    Path dirPath = dir.toPath().toAbsolutePath().normalize();
+    Path filePath = file.toPath().toAbsolutePath().normalize();
+    if (!filePath.startsWith(dirPath) || filePath.equals(dirPath)) {
+      return null;
+    }
+    return FilenameUtils.separatorsToUnix(dirPath.relativize(filePath).toString());
+  }
+
   /**
    * Checks file extension
    * @param fileExtension File extension of file to check
@@ -19,13 +19,16 @@
  */
 package io.wcm.devops.conga.generator.util;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.MapContext;
 
 import io.wcm.devops.conga.generator.GeneratorException;
@@ -53,4 +56,27 @@ final class JexlResolver {
     }
   }
 
+  /**
+   * Collects the variables referenced in the given expression. For each variable its full path and its
+   * first path segment is added (e.g. "a.b" and "a" for "a.b").
+   * @param expressionString Expression
+   * @param variableNames Set collecting the variable names
+   * @return false if the expression could not be parsed
+   */
+  public boolean collectVariableNames(String expressionString, Set<String> variableNames) {
+    try {
+      JexlScript script = jexl.createScript(expressionString);
+      for (List<String> variable : script.getVariables()) {
+        if (!variable.isEmpty()) {
+          variableNames.add(String.join(".", variable));
+          variableNames.add(variable.get(0));
+        }
+      }
+      return true;
+    }
+    catch (JexlException ex) {
+      return false;
+    }
+  }
+
 }
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.wcm.devops.conga.model.util.MapMerger;
+
+/**
+ * Read-only view on the deep merge of two maps as produced by {@link MapMerger#merge(Map, Map)}.
+ * Entries are merged on access, only iterating the map merges the complete maps.
+ * Instances are not thread-safe.
+ */
+final class LazyMergedMap extends AbstractMap<String, Object> {
+
+  private final Map<String, Object> map1;
+  private final Map<String, Object> map2;
+  private final Map<String, Object> mergedValues = new HashMap<>();
+  private Map<String, Object> merged;
+
+  /**
+   * @param map1 Map 1 (higher priority)
+   * @param map2 Map 2
+   */
+  LazyMergedMap(Map<String, Object> map1, Map<String, Object> map2) {
+    this.map1 = map1 != null ? map1 : Collections.emptyMap();
+    this.map2 = map2 != null ? map2 : Collections.emptyMap();
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (merged != null) {
+      return merged.get(key);
+    }
+    if (!map1.containsKey(key)) {
+      return map2.get(key);
+    }
+    return mergedValues.computeIfAbsent((String)key, item -> MapMerger.merge(
+        Collections.singletonMap(item, map1.get(item)),
+        Collections.singletonMap(item, map2.get(item))).get(item));
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map1.containsKey(key) || map2.containsKey(key);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    Set<String> keys = new HashSet<>(map1.keySet());
+    keys.addAll(map2.keySet());
+    return Collections.unmodifiableSet(keys);
+  }
+
+  @Override
+  public int size() {
+    return keySet().size();
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    if (merged == null) {
+      merged = Collections.unmodifiableMap(MapMerger.merge(map1, map2));
+    }
+    return merged.entrySet();
+  }
+
+}
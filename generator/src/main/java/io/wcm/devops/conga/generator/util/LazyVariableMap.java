@@ -0,0 +1,263 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.wcm.devops.conga.model.util.ImmutableValue;
+
+/**
+ * Read-only view on a configuration map with variables that are resolved on demand.
+ * When a key is accessed for the first time, only this key and all keys it references (transitively) are resolved,
+ * using the same resolution rules as {@link VariableMapResolver#resolve(Map, boolean)}.
+ * Iterating over the map resolves the complete map.
+ * Instances are not thread-safe.
+ */
+public final class LazyVariableMap extends AbstractMap<String, Object> {
+
+  private final VariableMapResolver variableMapResolver;
+  private final VariableStringResolver variableStringResolver;
+  private final Map<String, Object> config;
+  private final Map<String, Object> resolved = new HashMap<>();
+  private Map<String, Object> fullyResolved;
+  private Map<String, Object> deescaped;
+
+  LazyVariableMap(VariableMapResolver variableMapResolver, VariableStringResolver variableStringResolver,
+      Map<String, Object> config) {
+    this.variableMapResolver = variableMapResolver;
+    this.variableStringResolver = variableStringResolver;
+    this.config = config;
+  }
+
+  /**
+   * Resolves the given variables and all variables they reference with a single resolution pass.
+   * Variable names not matching any key are ignored.
+   * @param variableNames Variable names or paths
+   */
+  public void resolve(Collection<String> variableNames) {
+    if (fullyResolved != null) {
+      return;
+    }
+    Set<String> keys = new HashSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    for (String variableName : variableNames) {
+      addKeys(variableName, keys, pending);
+    }
+    while (!pending.isEmpty()) {
+      Set<String> referencedVariableNames = new HashSet<>();
+      if (!collectVariableNames(config.get(pending.pop()), referencedVariableNames)) {
+        // not all references could be analyzed - resolve complete map
+        resolveAll();
+        return;
+      }
+      for (String variableName : referencedVariableNames) {
+        addKeys(variableName, keys, pending);
+      }
+    }
+    if (resolved.keySet().containsAll(keys)) {
+      return;
+    }
+
+    // resolve the subset of the map with the existing resolution rules, reuse values that are already resolved
+    Map<String, Object> subset = new HashMap<>();
+    for (String key : keys) {
+      subset.put(key, resolved.containsKey(key) ? resolved.get(key) : config.get(key));
+    }
+    Map<String, Object> resolvedSubset;
+    try {
+      resolvedSubset = variableMapResolver.resolve(subset, false);
+    }
+    catch (IllegalArgumentException ex) {
+      // fallback to resolving the complete map to get the same result or error as without lazy resolution
+      resolveAll();
+      return;
+    }
+    for (String key : keys) {
+      resolved.put(key, resolvedSubset.get(key));
+    }
+  }
+
+  /**
+   * Adds the keys of the config map the variable name may refer to - see MapExpander#getDeep.
+   */
+  private void addKeys(String variableName, Set<String> keys, Deque<String> pending) {
+    addKey(variableName, keys, pending);
+    if (StringUtils.contains(variableName, ".")) {
+      addKey(StringUtils.substringBefore(variableName, "."), keys, pending);
+    }
+  }
+
+  private void addKey(String key, Set<String> keys, Deque<String> pending) {
+    if (config.containsKey(key) && keys.add(key) && !resolved.containsKey(key)) {
+      pending.push(key);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean collectVariableNames(Object value, Set<String> variableNames) {
+    if (value instanceof ImmutableValue) {
+      return true;
+    }
+    else if (value instanceof String) {
+      return variableStringResolver.collectVariableNames((String)value, variableNames);
+    }
+    else if (value instanceof List) {
+      for (Object item : (List<Object>)value) {
+        if (!collectVariableNames(item, variableNames)) {
+          return false;
+        }
+      }
+    }
+    else if (value instanceof Map) {
+      for (Object item : ((Map<String, Object>)value).values()) {
+        if (!collectVariableNames(item, variableNames)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Resolves the complete map. Errors in any configuration entry are reported, even if the entry is never accessed.
+   * @return Fully resolved map
+   */
+  public Map<String, Object> resolveAll() {
+    if (fullyResolved == null) {
+      Map<String, Object> merged = new HashMap<>(config);
+      merged.putAll(resolved);
+      fullyResolved = Collections.unmodifiableMap(variableMapResolver.resolve(merged, false));
+    }
+    return fullyResolved;
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (fullyResolved != null) {
+      return fullyResolved.get(key);
+    }
+    if (!containsKey(key)) {
+      return null;
+    }
+    if (!resolved.containsKey(key)) {
+      resolve(Collections.singleton((String)key));
+      if (fullyResolved != null) {
+        return fullyResolved.get(key);
+      }
+    }
+    return resolved.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (fullyResolved != null) {
+      return fullyResolved.containsKey(key);
+    }
+    return key instanceof String && config.containsKey(key)
+        && !StringUtils.equals((String)key, VariableMapResolver.LIST_VARIABLE_ITERATE);
+  }
+
+  @Override
+  public int size() {
+    if (fullyResolved != null) {
+      return fullyResolved.size();
+    }
+    return config.size() - (config.containsKey(VariableMapResolver.LIST_VARIABLE_ITERATE) ? 1 : 0);
+  }
+
+  @Override
+  public Set<String> keySet() {
+    if (fullyResolved != null) {
+      return fullyResolved.keySet();
+    }
+    Set<String> keys = new HashSet<>(config.keySet());
+    keys.remove(VariableMapResolver.LIST_VARIABLE_ITERATE);
+    return Collections.unmodifiableSet(keys);
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    return resolveAll().entrySet();
+  }
+
+  /**
+   * @return Read-only view on this map with all escaped variables de-escaped. The view is created only once,
+   *         so all callers share the de-escaped values.
+   */
+  Map<String, Object> deescaped() {
+    if (deescaped == null) {
+      deescaped = new DeescapedMap();
+    }
+    return deescaped;
+  }
+
+  /**
+   * De-escapes the values of the lazy variable map on demand.
+   */
+  private final class DeescapedMap extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> deescapedValues = new HashMap<>();
+    private Map<String, Object> fullyDeescaped;
+
+    @Override
+    public Object get(Object key) {
+      if (!LazyVariableMap.this.containsKey(key)) {
+        return null;
+      }
+      return deescapedValues.computeIfAbsent((String)key, item -> variableMapResolver.deescapeValue(LazyVariableMap.this.get(item)));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return LazyVariableMap.this.containsKey(key);
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return LazyVariableMap.this.keySet();
+    }
+
+    @Override
+    public int size() {
+      return LazyVariableMap.this.size();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+      if (fullyDeescaped == null) {
+        fullyDeescaped = Collections.unmodifiableMap(variableMapResolver.deescape(resolveAll()));
+      }
+      return fullyDeescaped.entrySet();
+    }
+
+  }
+
+}
@@ -21,8 +21,10 @@ package io.wcm.devops.conga.generator.util;
 
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.stream.Collectors;
 
 import io.wcm.devops.conga.generator.GeneratorException;
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.Plugin;
 
 /**
@@ -49,4 +51,20 @@ public interface PluginManager {
    */
   <T extends Plugin> List<T> getAll(Class<T> pluginClass) throws GeneratorException;
 
+  /**
+   * Get all plugin instances that are candidates for files with the given file extension.
+   * These are all plugins that either declare the file extension via {@link FileExtensionAware},
+   * or do not implement {@link FileExtensionAware} at all. The order is the same as for {@link #getAll(Class)}.
+   * @param pluginClass Plugin class
+   * @param fileExtension File extension
+   * @param <T> Plugin type
+   * @return Plugin instances.
+   * @throws GeneratorException When plugin could not be loaded.
+   */
+  default <T extends Plugin> List<T> getAll(Class<T> pluginClass, String fileExtension) throws GeneratorException {
+    return getAll(pluginClass).stream()
+        .filter(plugin -> PluginManagerImpl.isFileExtensionCandidate(plugin, fileExtension))
+        .collect(Collectors.toList());
+  }
+
 }
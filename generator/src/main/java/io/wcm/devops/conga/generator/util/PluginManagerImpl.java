@@ -20,17 +20,22 @@
 package io.wcm.devops.conga.generator.util;
 
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
+import org.apache.commons.lang3.StringUtils;
+
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 
 import io.wcm.devops.conga.generator.GeneratorException;
+import io.wcm.devops.conga.generator.spi.FileExtensionAware;
 import io.wcm.devops.conga.generator.spi.Plugin;
 
 /**
@@ -55,6 +60,17 @@ public final class PluginManagerImpl implements PluginManager {
         }
       });
 
+  private final LoadingCache<Class<Plugin>, List<Plugin>> pluginListCache =
+      CacheBuilder.newBuilder().build(new CacheLoader<Class<Plugin>, List<Plugin>>() {
+        @Override
+        public List<Plugin> load(Class<Plugin> pluginClass) throws Exception {
+          return ImmutableList.copyOf(pluginCache.get(pluginClass).values());
+        }
+      });
+
+  // dispatch index: plugin class -> lower-case file extension -> candidate plugins
+  private final Map<Class<?>, Map<String, List<Plugin>>> fileExtensionIndex = new ConcurrentHashMap<>();
+
   /**
    * Get plugin instance.
    * @param name Plugin name
@@ -89,11 +105,45 @@ public final class PluginManagerImpl implements PluginManager {
   @SuppressWarnings("unchecked")
   public <T extends Plugin> List<T> getAll(Class<T> pluginClass) throws GeneratorException {
     try {
-      return (List<T>)ImmutableList.copyOf(pluginCache.get((Class<Plugin>)pluginClass).values());
+      return (List<T>)pluginListCache.get((Class<Plugin>)pluginClass);
     }
     catch (ExecutionException ex) {
       throw new GeneratorException("Untable to build plugin cache for " + pluginClass.getName(), ex);
     }
   }
 
+  /**
+   * Get all plugin instances that are candidates for files with the given file extension.
+   * The candidate lists are computed only once per plugin class and file extension.
+   * @param pluginClass Plugin class
+   * @param fileExtension File extension
+   * @param <T> Plugin type
+   * @return Plugin instances.
+   * @throws GeneratorException When plugin could not be loaded.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends Plugin> List<T> getAll(Class<T> pluginClass, String fileExtension) throws GeneratorException {
+    List<Plugin> allPlugins = (List<Plugin>)getAll(pluginClass);
+    Map<String, List<Plugin>> extensionMap = fileExtensionIndex.computeIfAbsent(pluginClass, key -> new ConcurrentHashMap<>());
+    return (List<T>)extensionMap.computeIfAbsent(StringUtils.lowerCase(StringUtils.defaultString(fileExtension)),
+        extension -> ImmutableList.copyOf(allPlugins.stream()
+            .filter(plugin -> isFileExtensionCandidate(plugin, extension))
+            .iterator()));
+  }
+
+  /**
+   * Checks if the plugin is a candidate for files with the given extension.
+   * @param plugin Plugin
+   * @param fileExtension File extension
+   * @return true if the plugin does not declare any file extensions, or declares the given one.
+   */
+  static boolean isFileExtensionCandidate(Plugin plugin, String fileExtension) {
+    if (!(plugin instanceof FileExtensionAware)) {
+      return true;
+    }
+    return ((FileExtensionAware)plugin).getSupportedFileExtensions().stream()
+        .anyMatch(extension -> FileUtil.matchesExtension(fileExtension, extension));
+  }
+
 }
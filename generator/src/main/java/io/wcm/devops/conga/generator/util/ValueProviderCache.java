@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache for values resolved by value provider plugins. Variables without value are cached as well.
+ */
+public final class ValueProviderCache {
+
+  private static final Object NULL_VALUE = new Object();
+
+  private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<>();
+
+  /**
+   * Gets cached value, or resolves and caches it if it is not cached yet.
+   * @param valueProviderName Value provider name
+   * @param variableName Variable name
+   * @param resolver Resolves the value if it is not cached
+   * @return Value or null if the value provider has no value for the variable
+   */
+  public Object get(String valueProviderName, String variableName, Supplier<Object> resolver) {
+    Object value = values.get(toKey(valueProviderName, variableName));
+    if (value == null) {
+      value = values.computeIfAbsent(toKey(valueProviderName, variableName), key -> toCacheValue(resolver.get()));
+    }
+    return value == NULL_VALUE ? null : value;
+  }
+
+  /**
+   * @param valueProviderName Value provider name
+   * @param variableName Variable name
+   * @return true if a value (or the information that no value exists) is cached
+   */
+  public boolean contains(String valueProviderName, String variableName) {
+    return values.containsKey(toKey(valueProviderName, variableName));
+  }
+
+  /**
+   * @param valueProviderName Value provider name
+   * @param variableName Variable name
+   * @param value Value or null if the value provider has no value for the variable
+   */
+  public void put(String valueProviderName, String variableName, Object value) {
+    values.put(toKey(valueProviderName, variableName), toCacheValue(value));
+  }
+
+  /**
+   * Removes all cached values.
+   */
+  public void clear() {
+    values.clear();
+  }
+
+  private static String toKey(String valueProviderName, String variableName) {
+    return valueProviderName + "::" + variableName;
+  }
+
+  private static Object toCacheValue(Object value) {
+    return value != null ? value : NULL_VALUE;
+  }
+
+}
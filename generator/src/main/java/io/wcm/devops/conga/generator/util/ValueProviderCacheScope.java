@@ -0,0 +1,63 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Defines how long values resolved by a value provider are cached. Configured for each value provider via the
+ * {@link io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext#PARAM_CACHE_SCOPE} parameter
+ * in the value provider configuration.
+ */
+public enum ValueProviderCacheScope {
+
+  /**
+   * Values are not cached, the value provider is called for each variable reference.
+   */
+  NONE,
+
+  /**
+   * Values are cached during generation of a single environment.
+   */
+  ENVIRONMENT,
+
+  /**
+   * Values are cached for all environments generated in the same generation run.
+   */
+  RUN;
+
+  /**
+   * @param value Cache scope name (case-insensitive)
+   * @return Cache scope, {@link #NONE} if value is empty
+   * @throws IllegalArgumentException if the cache scope name is invalid
+   */
+  public static ValueProviderCacheScope fromString(String value) {
+    if (StringUtils.isBlank(value)) {
+      return NONE;
+    }
+    for (ValueProviderCacheScope scope : values()) {
+      if (StringUtils.equalsIgnoreCase(scope.name(), StringUtils.trim(value))) {
+        return scope;
+      }
+    }
+    throw new IllegalArgumentException("Invalid value provider cache scope: " + value);
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import io.wcm.devops.conga.model.role.Role;
+import io.wcm.devops.conga.model.role.RoleFile;
+import io.wcm.devops.conga.model.shared.Configurable;
+
+/**
+ * Iterates over all {@link Configurable} items in the object tree
+ * and collects all variables referencing value providers in their configuration.
+ */
+public final class ValueProviderVariableCollector extends AbstractConfigurableObjectTreeProcessor<Object> {
+
+  /**
+   * Collect value provider variables.
+   * @param object Model with {@link Configurable} instances at any nested level.
+   * @return Variable names mapped by value provider name
+   */
+  public Map<String, Set<String>> collect(Object object) {
+    Map<String, Set<String>> variables = new TreeMap<>();
+    collect(object, variables);
+    return variables;
+  }
+
+  /**
+   * Collect value provider variables and add them to the given map.
+   * @param object Model with {@link Configurable} instances at any nested level.
+   * @param variables Variable names mapped by value provider name
+   */
+  public void collect(Object object, Map<String, Set<String>> variables) {
+    process(object, (configurable, payload) -> {
+      collectValue(configurable.getConfig(), variables);
+      return null;
+    }, null);
+  }
+
+  /**
+   * Collect value provider variables from a configuration value (map, list or string) and add them to the given map.
+   * @param value Configuration value
+   * @param variables Variable names mapped by value provider name
+   */
+  public void collectValues(Object value, Map<String, Set<String>> variables) {
+    collectValue(value, variables);
+  }
+
+  /**
+   * Collect value provider variables of a role definition: Role and variant configuration, and paths, conditions
+   * and plugin options of the role files.
+   * @param role Role
+   * @param variables Variable names mapped by value provider name
+   */
+  public void collectRole(Role role, Map<String, Set<String>> variables) {
+    collect(role, variables);
+    for (RoleFile roleFile : role.getFiles()) {
+      collectValue(roleFile.getFile(), variables);
+      collectValue(roleFile.getDir(), variables);
+      collectValue(roleFile.getUrl(), variables);
+      collectValue(roleFile.getCondition(), variables);
+      collectValue(roleFile.getValidatorOptions(), variables);
+      collectValue(roleFile.getPostProcessorOptions(), variables);
+      collectValue(roleFile.getMultiplyOptions(), variables);
+      collectValue(roleFile.getModelOptions(), variables);
+    }
+  }
+
+  private static void collectValue(Object value, Map<String, Set<String>> variables) {
+    if (value instanceof Map) {
+      for (Object item : ((Map<?, ?>)value).values()) {
+        collectValue(item, variables);
+      }
+    }
+    else if (value instanceof List) {
+      for (Object item : (List<?>)value) {
+        collectValue(item, variables);
+      }
+    }
+    else if (value instanceof String) {
+      VariableStringResolver.collectValueProviderVariables((String)value, variables);
+    }
+  }
+
+}
@@ -32,6 +32,7 @@ import com.google.common.collect.ImmutableList;
 import com.rits.cloning.Cloner;
 
 import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+import io.wcm.devops.conga.model.util.ImmutableValue;
 
 /**
  * Resolve variables in a map referencing other entries from the same map.
@@ -57,6 +58,12 @@ public final class VariableMapResolver {
 
   private static final int REPLACEMENT_MAX_ITERATIONS = 20;
 
+  // immutable values are shared by reference when cloning variables
+  private static final Cloner CLONER = Cloner.standard();
+  static {
+    CLONER.dontCloneInstanceOf(ImmutableValue.class);
+  }
+
   private final VariableStringResolver variableStringResolver;
 
   /**
@@ -96,9 +103,48 @@ public final class VariableMapResolver {
    * @return Map with de-escaped variable references.
    */
   public Map<String, Object> deescape(Map<String, Object> config) {
+    if (config instanceof LazyVariableMap) {
+      return ((LazyVariableMap)config).deescaped();
+    }
     return deescapeMap(config);
   }
 
+  /**
+   * Returns a read-only view on the map that resolves the variable placeholders on demand. Only the entries that are
+   * accessed and the entries they reference are resolved. The resolved values are the same as
+   * returned by {@link #resolve(Map, boolean)} with de-escaping disabled.
+   * @param config Config map with values with variable placeholders
+   * @return Config map with values with variable placeholders resolved on access
+   */
+  public LazyVariableMap resolveLazy(Map<String, Object> config) {
+    return new LazyVariableMap(this, variableStringResolver, config);
+  }
+
+  /**
+   * Returns a read-only view on the deep merge of the given map and a lazily resolved config map
+   * (map has higher priority), with variable placeholders resolved and escaped variables de-escaped on demand.
+   * The values are the same as returned by {@link #resolve(Map)} for the merged map.
+   * Values taken from the config map are shared with the config map and not resolved again.
+   * @param map Map with values with variable placeholders
+   * @param config Lazily resolved config map
+   * @return Merged map with values with variable placeholders resolved on access
+   */
+  public Map<String, Object> resolveMergedLazy(Map<String, Object> map, LazyVariableMap config) {
+    if (map == null || map.isEmpty()) {
+      return config.deescaped();
+    }
+    return new LazyVariableMap(this, variableStringResolver, new LazyMergedMap(map, config)).deescaped();
+  }
+
+  /**
+   * De-escapes all escaped variables in the given value.
+   * @param value Value (string, list, map or any other object)
+   * @return Value with de-escaped variable references
+   */
+  Object deescapeValue(Object value) {
+    return deescapeAny(value);
+  }
+
   private Map<String, Object> resolve(Map<String, Object> config, boolean deescapeVariables, int iterationCount) {
     if (iterationCount >= REPLACEMENT_MAX_ITERATIONS) {
       throw new IllegalArgumentException("Cyclic dependencies in config map detected: " + config);
@@ -123,7 +169,11 @@ public final class VariableMapResolver {
 
   @SuppressWarnings("unchecked")
   private Object replaceAny(Object value, Map<String, Object> variables) {
-    if (value instanceof String) {
+    if (value instanceof ImmutableValue) {
+      // immutable values are already resolved
+      return value;
+    }
+    else if (value instanceof String) {
       return replaceObject((String)value, variables);
     }
     else if (value instanceof List) {
@@ -207,7 +257,7 @@ public final class VariableMapResolver {
       // allow to iterate over single values as well
       listObject = ImmutableList.of(listObject);
     }
-    Map<String, Object> variablesClone = new LinkedHashMap<>(Cloner.standard().deepClone(variables));
+    Map<String, Object> variablesClone = new LinkedHashMap<>(CLONER.deepClone(variables));
     List<Object> result = new ArrayList<>();
     int count = 0;
     for (Object item : (List<Object>)listObject) {
@@ -220,7 +270,10 @@ public final class VariableMapResolver {
 
   @SuppressWarnings("unchecked")
   private Object deescapeAny(Object value) {
-    if (value instanceof String) {
+    if (value instanceof ImmutableValue) {
+      return value;
+    }
+    else if (value instanceof String) {
       return deescapeString((String)value);
     }
     else if (value instanceof List) {
@@ -19,7 +19,11 @@
  */
 package io.wcm.devops.conga.generator.util;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -35,6 +39,7 @@ import io.wcm.devops.conga.model.util.MapExpander;
 public final class VariableResolver {
 
   private final ValueProviderGlobalContext valueProviderGlobalContext;
+  private final Map<String, ValueProviderPlugin> valueProviders = new ConcurrentHashMap<>();
 
   /**
    * @param context Value provider global context
@@ -61,15 +66,16 @@ public final class VariableResolver {
           .valueProviderGlobalContext(valueProviderGlobalContext)
           .valueProviderName(valueProviderName);
       ValueProviderPlugin valueProvider = getValueProvider(valueProviderContext);
+      ValueProviderCache valueCache = valueProviderGlobalContext.getValueCache(valueProviderName);
 
-      result = valueProvider.resolve(variable, valueProviderContext);
+      result = resolveValue(valueProvider, variable, valueProviderContext, valueCache);
 
       // if value provider was not able to resolve variable and variable contains dot try to resolve map
       if (result == null && StringUtils.contains(variable, ".")) {
         String variableWithoutNesting = StringUtils.substringBefore(variable, ".");
         String nestingVariables = StringUtils.substringAfter(variable, ".");
 
-        result = valueProvider.resolve(variableWithoutNesting, valueProviderContext);
+        result = resolveValue(valueProvider, variableWithoutNesting, valueProviderContext, valueCache);
 
         if (StringUtils.isNotBlank(nestingVariables) && result instanceof Map) {
           result = MapExpander.getDeep((Map)result, nestingVariables);
@@ -91,7 +97,62 @@ public final class VariableResolver {
     return result;
   }
 
+  /**
+   * Resolves all given variables of a value provider with a single call and stores them in the value cache,
+   * if caching is enabled for the value provider. Variables that are cached already are skipped.
+   * @param valueProviderName Value provider name
+   * @param variables Variable names
+   * @return Number of resolved variables
+   */
+  public int prefetch(String valueProviderName, Collection<String> variables) {
+    ValueProviderCache valueCache = valueProviderGlobalContext.getValueCache(valueProviderName);
+    if (valueCache == null) {
+      return 0;
+    }
+    Collection<String> uncachedVariables = variables.stream()
+        .filter(variable -> !valueCache.contains(valueProviderName, variable))
+        .collect(Collectors.toCollection(TreeSet::new));
+    if (uncachedVariables.isEmpty()) {
+      return 0;
+    }
+    ValueProviderContext valueProviderContext = new ValueProviderContext()
+        .valueProviderGlobalContext(valueProviderGlobalContext)
+        .valueProviderName(valueProviderName);
+    Map<String, Object> values = getValueProvider(valueProviderContext).resolve(uncachedVariables, valueProviderContext);
+    for (String variable : uncachedVariables) {
+      valueCache.put(valueProviderName, variable, values.get(variable));
+    }
+    return uncachedVariables.size();
+  }
+
+  /**
+   * @param valueProviderName Value provider name
+   * @return Value cache for the value provider, or null if caching is not enabled for it
+   * @throws IllegalArgumentException if the configured cache scope is invalid
+   */
+  public ValueProviderCache getValueCache(String valueProviderName) {
+    return valueProviderGlobalContext.getValueCache(valueProviderName);
+  }
+
+  private static Object resolveValue(ValueProviderPlugin valueProvider, String variable,
+      ValueProviderContext valueProviderContext, ValueProviderCache valueCache) {
+    if (valueCache == null) {
+      return valueProvider.resolve(variable, valueProviderContext);
+    }
+    return valueCache.get(valueProviderContext.getValueProviderName(), variable,
+        () -> valueProvider.resolve(variable, valueProviderContext));
+  }
+
   private ValueProviderPlugin getValueProvider(ValueProviderContext valueProviderContext) {
+    ValueProviderPlugin valueProvider = valueProviders.get(valueProviderContext.getValueProviderName());
+    if (valueProvider == null) {
+      valueProvider = lookupValueProvider(valueProviderContext);
+      valueProviders.put(valueProviderContext.getValueProviderName(), valueProvider);
+    }
+    return valueProvider;
+  }
+
+  private ValueProviderPlugin lookupValueProvider(ValueProviderContext valueProviderContext) {
     String valueProviderPluginName = (String)valueProviderContext.getValueProviderConfig(ValueProviderGlobalContext.PARAM_PLUGIN_NAME);
     if (StringUtils.isBlank(valueProviderPluginName)) {
       valueProviderPluginName = valueProviderContext.getValueProviderName();
@@ -20,6 +20,8 @@
 package io.wcm.devops.conga.generator.util;
 
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -272,6 +274,33 @@ public final class VariableStringResolver {
     }
   }
 
+  /**
+   * Collects the names of all variables from the variable map that are referenced in the given string,
+   * including variables referenced in expressions. Escaped variables and value provider variables are ignored.
+   * @param value Value with variable placeholders
+   * @param variableNames Set collecting the variable names
+   * @return false if the string contains an expression that could not be analyzed
+   */
+  boolean collectVariableNames(String value, Set<String> variableNames) {
+    Matcher matcher = MULTI_EXPRESSION_PATTERN.matcher(value);
+    while (matcher.find()) {
+      if (StringUtils.equals(matcher.group(EXPRESSION_POS_DOLLAR_SIGN), "\\$")) {
+        continue;
+      }
+      String expression = matcher.group(EXPRESSION_POS_EXPRESSION);
+      Matcher variableMatcher = VARIABLE_PATTERN.matcher(expression);
+      if (variableMatcher.matches()) {
+        if (variableMatcher.group(VARIABLE_POS_VALUE_PROVIDER_NAME) == null) {
+          variableNames.add(variableMatcher.group(VARIABLE_POS_VARIABLE));
+        }
+      }
+      else if (!jexlResolver.collectVariableNames(expression, variableNames)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * Checks if the given string contains any reference to a variable from a value provider.
    * @param value Value string
@@ -292,4 +321,25 @@ public final class VariableStringResolver {
     return false;
   }
 
+  /**
+   * Collects all variables referencing a value provider in the given string. Escaped variables are ignored.
+   * @param value Value with variable placeholders
+   * @param variables Map collecting the variable names per value provider name
+   */
+  public static void collectValueProviderVariables(String value, Map<String, Set<String>> variables) {
+    if (value == null) {
+      return;
+    }
+    Matcher matcher = MULTI_EXPRESSION_PATTERN.matcher(value);
+    while (matcher.find()) {
+      if (!StringUtils.equals(matcher.group(EXPRESSION_POS_DOLLAR_SIGN), "\\$")) {
+        Matcher variableMatcher = VARIABLE_PATTERN.matcher(matcher.group(EXPRESSION_POS_EXPRESSION));
+        if (variableMatcher.matches() && variableMatcher.group(VARIABLE_POS_VALUE_PROVIDER_NAME) != null) {
+          variables.computeIfAbsent(variableMatcher.group(VARIABLE_POS_VALUE_PROVIDER_NAME), key -> new TreeSet<>())
+              .add(variableMatcher.group(VARIABLE_POS_VARIABLE));
+        }
+      }
+    }
+  }
+
 }
@@ -49,6 +49,7 @@ import com.github.jknack.handlebars.Template;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import io.wcm.devops.conga.generator.output.FileSystemOutputSink;
 import io.wcm.devops.conga.generator.spi.FileHeaderPlugin;
 import io.wcm.devops.conga.generator.spi.ImplicitApplyOptions;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -84,6 +85,7 @@ public class FileGeneratorFileHeaderTest {
     UrlFilePluginContext urlFilePluginContext = new UrlFilePluginContext();
     urlFileManager = new UrlFileManager(pluginManager, urlFilePluginContext);
 
+    when(pluginManager.getAll(eq(FileHeaderPlugin.class), any())).thenCallRealMethod();
     when(pluginManager.getAll(FileHeaderPlugin.class)).thenAnswer(new Answer<List<FileHeaderPlugin>>() {
       @Override
       public List<FileHeaderPlugin> answer(InvocationOnMock invocation) throws Throwable {
@@ -114,7 +116,8 @@ public class FileGeneratorFileHeaderTest {
             "version2/2.0.0-SNAPSHOT",
             "version3/1.2.0-20180116.233128-5",
             "version4/2.1.2-20180125.094723-16/suffix"
-            ));
+            ),
+        new FileSystemOutputSink(destDir), "env1/node1");
   }
 
   @Test
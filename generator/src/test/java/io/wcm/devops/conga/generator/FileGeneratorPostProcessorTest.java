@@ -53,6 +53,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import io.wcm.devops.conga.generator.output.FileSystemOutputSink;
 import io.wcm.devops.conga.generator.spi.ImplicitApplyOptions;
 import io.wcm.devops.conga.generator.spi.PostProcessorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -90,6 +91,7 @@ public class FileGeneratorPostProcessorTest {
     UrlFilePluginContext urlFilePluginContext = new UrlFilePluginContext();
     urlFileManager = new UrlFileManager(pluginManager, urlFilePluginContext);
 
+    when(pluginManager.getAll(eq(PostProcessorPlugin.class), any())).thenCallRealMethod();
     when(pluginManager.getAll(PostProcessorPlugin.class)).thenAnswer(new Answer<List<PostProcessorPlugin>>() {
       @Override
       public List<PostProcessorPlugin> answer(InvocationOnMock invocation) throws Throwable {
@@ -115,7 +117,8 @@ public class FileGeneratorPostProcessorTest {
     underTest = new FileGenerator(options, "env1",
         "role1", ImmutableList.of("variant1"), "template1",
         destDir, file, null, roleFile, ImmutableMap.<String, Object>of(), template,
-        variableMapResolver, urlFileManager, pluginContextOptions, ImmutableList.of());
+        variableMapResolver, urlFileManager, pluginContextOptions, ImmutableList.of(),
+        new FileSystemOutputSink(destDir), "env1/node1");
   }
 
   @Test
@@ -48,6 +48,7 @@ import com.github.jknack.handlebars.Template;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
+import io.wcm.devops.conga.generator.output.FileSystemOutputSink;
 import io.wcm.devops.conga.generator.spi.ImplicitApplyOptions;
 import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 import io.wcm.devops.conga.generator.spi.context.FileContext;
@@ -85,6 +86,7 @@ public class FileGeneratorValidatorTest {
     UrlFilePluginContext urlFilePluginContext = new UrlFilePluginContext();
     urlFileManager = new UrlFileManager(pluginManager, urlFilePluginContext);
 
+    when(pluginManager.getAll(eq(ValidatorPlugin.class), any())).thenCallRealMethod();
     when(pluginManager.getAll(ValidatorPlugin.class)).thenAnswer(new Answer<List<ValidatorPlugin>>() {
       @Override
       public List<ValidatorPlugin> answer(InvocationOnMock invocation) throws Throwable {
@@ -110,7 +112,8 @@ public class FileGeneratorValidatorTest {
     underTest = new FileGenerator(options, "env1",
         "role1", ImmutableList.of("variant1"), "template1",
         destDir, file, null, roleFile, ImmutableMap.<String, Object>of(), template,
-        variableMapResolver, urlFileManager, pluginContextOptions, ImmutableList.of());
+        variableMapResolver, urlFileManager, pluginContextOptions, ImmutableList.of(),
+        new FileSystemOutputSink(destDir), "env1/node1");
   }
 
   @Test
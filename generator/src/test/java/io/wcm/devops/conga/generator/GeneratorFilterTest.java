@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static io.wcm.devops.conga.generator.TestUtils.assertFile;
+import static io.wcm.devops.conga.generator.TestUtils.assertNotFile;
+import static io.wcm.devops.conga.generator.TestUtils.setupGeneratorOptions;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
+
+public class GeneratorFilterTest {
+
+  private File destDir;
+
+  @Before
+  public void setUp() throws IOException {
+    destDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(destDir);
+  }
+
+  @Test
+  public void testNodeFilter() {
+    generate(new GenerationFilter().includeNodes("node?").excludeNodes("node2", "node3"));
+
+    assertFile(destDir, "env1/node1/json/test.json");
+    assertFile(destDir, "env1/node1/model.yaml");
+    assertFile(destDir, "env1/node4/xml/test.tenant2.tenantRole1.env1.xml");
+    assertFalse(new File(destDir, "env1/node2").exists());
+    assertFalse(new File(destDir, "env1/node3").exists());
+  }
+
+  @Test
+  public void testRoleFilter() {
+    generate(new GenerationFilter().includeNodes("node1").includeRoles("role2"));
+
+    assertFile(destDir, "env1/node1/json/test.json");
+    assertNotFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertNotFile(destDir, "env1/node1/text/test-superrole1.txt");
+    assertNotFile(destDir, "env1/node1/model.yaml");
+  }
+
+  @Test
+  public void testInheritedRoleFilter() {
+    generate(new GenerationFilter().includeNodes("node1").includeRoles("superrole1"));
+
+    assertFile(destDir, "env1/node1/text/test-superrole1.txt");
+    assertNotFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertNotFile(destDir, "env1/node1/json/test.json");
+  }
+
+  @Test
+  public void testVariantFilter() {
+    generate(new GenerationFilter().includeVariants("variant13"));
+
+    assertFile(destDir, "env1/node4/text/test-role1..env1.node4.txt");
+    assertNotFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertNotFile(destDir, "env1/node1/json/test.json");
+    assertNotFile(destDir, "env1/node2/text/test-superrole1.txt");
+  }
+
+  @Test
+  public void testFileFilter() {
+    generate(new GenerationFilter().includeNodes("node1").includeFiles("xml/*tenant1*.xml", "json/**").excludeFiles("json/test.json"));
+
+    assertFile(destDir, "env1/node1/xml/test.tenant1.tenantRole1,tenantRole2.env1.xml");
+    assertNotFile(destDir, "env1/node1/xml/test.tenant2.tenantRole1.env1.xml");
+    assertNotFile(destDir, "env1/node1/json/test.json");
+    assertNotFile(destDir, "env1/node1/text/test-superrole1.txt");
+    assertNotFile(destDir, "env1/node1/files/sample.txt");
+  }
+
+  @Test
+  public void testFilteredGenerationKeepsOtherFiles() {
+    new Generator(setupGeneratorOptions(destDir)).generate();
+    new Generator(setupGeneratorOptions(destDir)
+        .deleteBeforeGenerate(true)
+        .generationFilter(new GenerationFilter().includeNodes("node1").includeFiles("json/test.json")))
+        .generate();
+
+    assertFile(destDir, "env1/node1/json/test.json");
+    assertFile(destDir, "env1/node2/xml/test.tenant1.tenantRole1,tenantRole2.env1.xml");
+  }
+
+  @Test
+  public void testPlan() {
+    GenerationPlan plan = new Generator(setupGeneratorOptions(destDir)
+        .generationFilter(new GenerationFilter().includeNodes("node1").includeFiles("text/**")))
+        .plan();
+
+    assertFalse(plan.getFiles().isEmpty());
+    plan.getFiles().forEach(file -> assertTrue(file.getPath(), file.getPath().startsWith("env1/node1/text/")));
+  }
+
+  private void generate(GenerationFilter filter) {
+    new Generator(setupGeneratorOptions(destDir).generationFilter(filter)).generate();
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.wcm.devops.conga.generator.output.MemoryOutputSink;
+import io.wcm.devops.conga.generator.output.OutputSink;
+import io.wcm.devops.conga.generator.output.ZipOutputSink;
+import io.wcm.devops.conga.generator.util.FileUtil;
+
+public class GeneratorOutputSinkTest {
+
+  private File baseDir;
+  private SortedMap<String, byte[]> expectedFiles;
+
+  @Before
+  public void setUp() throws IOException {
+    baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(baseDir);
+
+    // generate to filesystem as reference
+    File destDir = new File(baseDir, "filesystem");
+    TestUtils.setupGenerator(destDir).generate();
+    expectedFiles = readFiles(destDir);
+  }
+
+  @Test
+  public void testMemoryOutputSink() {
+    File destDir = new File(baseDir, "memory");
+    MemoryOutputSink outputSink = new MemoryOutputSink();
+    generate(destDir, outputSink);
+
+    assertFiles(outputSink.getFiles());
+    assertFalse(destDir.exists() && destDir.list().length > 0);
+  }
+
+  @Test
+  public void testZipOutputSink() throws IOException {
+    File destDir = new File(baseDir, "zip");
+    File zipFile = new File(baseDir, "output.zip");
+    try (ZipOutputSink outputSink = new ZipOutputSink(zipFile)) {
+      generate(destDir, outputSink);
+    }
+
+    SortedMap<String, byte[]> files = new TreeMap<>();
+    try (ZipFile zip = new ZipFile(zipFile)) {
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        files.put(entry.getName(), IOUtils.toByteArray(zip.getInputStream(entry)));
+      }
+    }
+    assertFiles(files);
+  }
+
+  @Test
+  public void testZipOutputSink_ConcurrentWrites() throws Exception {
+    File zipFile = new File(baseDir, "concurrent.zip");
+    try (ZipOutputSink outputSink = new ZipOutputSink(zipFile)) {
+      OutputStream os1 = outputSink.openFile("env1/file1.txt");
+      os1.write("content1".getBytes(StandardCharsets.UTF_8));
+
+      // second thread waits until first file is closed
+      Thread thread = new Thread(() -> {
+        try (OutputStream os2 = outputSink.openFile("env2/file2.txt")) {
+          os2.write("content2".getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException ex) {
+          throw new RuntimeException(ex);
+        }
+      });
+      thread.start();
+      os1.write("-more".getBytes(StandardCharsets.UTF_8));
+      os1.close();
+      thread.join();
+    }
+
+    try (ZipFile zip = new ZipFile(zipFile)) {
+      assertEquals("content1-more", IOUtils.toString(zip.getInputStream(zip.getEntry("env1/file1.txt")), StandardCharsets.UTF_8));
+      assertEquals("content2", IOUtils.toString(zip.getInputStream(zip.getEntry("env2/file2.txt")), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testZipOutputSink_DuplicatePath() throws IOException {
+    try (ZipOutputSink outputSink = new ZipOutputSink(new File(baseDir, "duplicate.zip"))) {
+      outputSink.openFile("env1/file1.txt").close();
+      outputSink.openFile("env1/file1.txt").close();
+    }
+  }
+
+  private void generate(File destDir, OutputSink outputSink) {
+    new Generator(TestUtils.setupGeneratorOptions(destDir).outputSink(outputSink)).generate();
+  }
+
+  private void assertFiles(Map<String, byte[]> files) {
+    assertEquals(expectedFiles.keySet(), files.keySet());
+    for (Map.Entry<String, byte[]> entry : expectedFiles.entrySet()) {
+      assertArrayEquals(entry.getKey(), entry.getValue(), files.get(entry.getKey()));
+    }
+  }
+
+  private static SortedMap<String, byte[]> readFiles(File dir) throws IOException {
+    SortedMap<String, byte[]> files = new TreeMap<>();
+    String rootPath = FileUtil.getCanonicalPath(dir) + File.separator;
+    for (File file : FileUtils.listFiles(dir, null, true)) {
+      String path = FilenameUtils.separatorsToUnix(StringUtils.substringAfter(FileUtil.getCanonicalPath(file), rootPath));
+      files.put(path, FileUtils.readFileToByteArray(file));
+    }
+    return files;
+  }
+
+}
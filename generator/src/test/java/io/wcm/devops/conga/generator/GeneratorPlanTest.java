@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
+import io.wcm.devops.conga.generator.plan.PlannedFile;
+
+public class GeneratorPlanTest {
+
+  private File baseDir;
+
+  @Before
+  public void setUp() throws IOException {
+    baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(baseDir);
+  }
+
+  @Test
+  public void testPlanWithoutGeneration() {
+    File destDir = new File(baseDir, "plan");
+    GenerationPlan plan = TestUtils.setupGenerator(destDir).plan();
+
+    assertFalse(plan.getFiles().isEmpty());
+    assertEquals(0, destDir.list().length);
+
+    PlannedFile file = getFile(plan, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertEquals("env1", file.getEnvironment());
+    assertEquals("node1", file.getNode());
+    assertEquals("role1", file.getRole());
+    assertEquals("role1/test.txt.hbs", file.getTemplate());
+    assertNull(file.getUrl());
+    assertNull(file.getEstimatedMicros());
+
+    PlannedFile urlFile = getFile(plan, "env1/node1/files/sample.txt");
+    assertNull(urlFile.getTemplate());
+    assertNotNull(urlFile.getUrl());
+  }
+
+  @Test
+  public void testPlanMatchesGeneratedFiles() {
+    File destDir = new File(baseDir, "generate");
+    File timingsFile = new File(baseDir, "timings.properties");
+
+    new Generator(TestUtils.setupGeneratorOptions(destDir).generationTimingsFile(timingsFile)).generate();
+    GenerationPlan plan = new Generator(TestUtils.setupGeneratorOptions(destDir).generationTimingsFile(timingsFile)).plan();
+
+    for (PlannedFile file : plan.getFiles()) {
+      assertTrue("Planned file was generated: " + file.getPath(), new File(destDir, file.getPath()).exists());
+      assertNotNull("Estimate for " + file.getPath(), file.getEstimatedMicros());
+    }
+    assertTrue(plan.getEstimatedMicros() > 0);
+  }
+
+  @Test
+  public void testFilteredRunKeepsTimings() {
+    File destDir = new File(baseDir, "generate-filtered");
+    File timingsFile = new File(baseDir, "timings-filtered.properties");
+
+    new Generator(TestUtils.setupGeneratorOptions(destDir).generationTimingsFile(timingsFile)).generate();
+    new Generator(TestUtils.setupGeneratorOptions(destDir).generationTimingsFile(timingsFile)
+        .generationFilter(new GenerationFilter().includeNodes("node1"))).generate();
+    GenerationPlan plan = new Generator(TestUtils.setupGeneratorOptions(destDir).generationTimingsFile(timingsFile)).plan();
+
+    // files not selected by the filter keep their estimate from the previous run
+    assertTrue(plan.getFiles().stream().anyMatch(file -> "node2".equals(file.getNode())));
+    for (PlannedFile file : plan.getFiles()) {
+      assertNotNull("Estimate for " + file.getPath(), file.getEstimatedMicros());
+    }
+  }
+
+  @Test
+  public void testWriteJson() throws IOException {
+    GenerationPlan plan = TestUtils.setupGenerator(new File(baseDir, "json")).plan("env1");
+
+    StringWriter writer = new StringWriter();
+    plan.writeJson(writer);
+
+    JsonObject json = new JsonParser().parse(writer.toString()).getAsJsonObject();
+    assertEquals(plan.getFiles().size(), json.get("fileCount").getAsInt());
+    assertEquals(plan.getFiles().size(), json.getAsJsonArray("files").size());
+    assertEquals(plan.getFiles().get(0).getPath(),
+        json.getAsJsonArray("files").get(0).getAsJsonObject().get("path").getAsString());
+  }
+
+  private static PlannedFile getFile(GenerationPlan plan, String path) {
+    return plan.getFiles().stream()
+        .filter(file -> path.equals(file.getPath()))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("Planned file not found: " + path));
+  }
+
+}
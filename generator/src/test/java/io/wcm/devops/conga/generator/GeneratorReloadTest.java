@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static io.wcm.devops.conga.generator.TestUtils.assertFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class GeneratorReloadTest {
+
+  private File definitionsDir;
+  private File destDir;
+  private Generator underTest;
+
+  @Before
+  public void setUp() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    GeneratorOptions options = TestUtils.setupDefinitionsCopy(baseDir);
+    definitionsDir = new File(baseDir, "definitions");
+    destDir = options.getDestDir();
+
+    underTest = new Generator(options);
+    underTest.generate();
+  }
+
+  @Test
+  public void testEnvironmentChanged() {
+    assertEquals(ImmutableSet.of("env2"), underTest.reload(ImmutableList.of(file("environments/env2.yaml"))));
+  }
+
+  @Test
+  public void testRoleChanged() {
+    assertEquals(ImmutableSet.of("env1"), underTest.reload(ImmutableList.of(file("roles/role1.yaml"))));
+    assertEquals(ImmutableSet.of("env1", "env2"), underTest.reload(ImmutableList.of(file("roles/role2.yaml"))));
+  }
+
+  @Test
+  public void testSuperRoleChanged() {
+    assertEquals(ImmutableSet.of("env1"), underTest.reload(ImmutableList.of(file("roles/superrole1.yaml"))));
+  }
+
+  @Test
+  public void testTemplateChanged() {
+    assertEquals(ImmutableSet.of("env1"), underTest.reload(ImmutableList.of(file("templates/role1/test.txt.hbs"))));
+    assertEquals(ImmutableSet.of("env1", "env2"), underTest.reload(ImmutableList.of(file("templates/shared/test.json.hbs"))));
+  }
+
+  @Test
+  public void testUnreferencedTemplateChanged() {
+    // partials are not referenced by roles directly
+    assertEquals(ImmutableSet.of("env1", "env2"), underTest.reload(ImmutableList.of(file("templates/shared/test-partial.json.hbs"))));
+  }
+
+  @Test
+  public void testOtherFileChanged() {
+    assertTrue(underTest.reload(ImmutableList.of(new File(definitionsDir, "other.txt"))).isEmpty());
+  }
+
+  @Test
+  public void testEnvironmentRemoved() {
+    File envFile = file("environments/env2.yaml");
+    assertTrue(envFile.delete());
+    assertTrue(underTest.reload(ImmutableList.of(envFile)).isEmpty());
+    assertEquals(ImmutableSet.of("env1"), underTest.reload(ImmutableList.of(file("roles/role2.yaml"))));
+  }
+
+  @Test
+  public void testRegenerateWithChangedTemplateAndRole() throws IOException {
+    File template = file("templates/role1/test.txt.hbs");
+    FileUtils.write(template, "changed template {{var1}}", StandardCharsets.UTF_8);
+    File role = file("roles/role2.yaml");
+    FileUtils.write(role, FileUtils.readFileToString(role, StandardCharsets.UTF_8)
+        .replace("file: \"test.json\"", "file: \"test-changed.json\""), StandardCharsets.UTF_8);
+
+    String[] environments = underTest.reload(ImmutableList.of(template, role)).toArray(new String[0]);
+    underTest.generate(environments);
+
+    File textFile = assertFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertTrue(FileUtils.readFileToString(textFile, StandardCharsets.ISO_8859_1).contains("changed template v1-role1-variant11"));
+    assertFile(destDir, "env2/node1/json/test-changed.json");
+    assertFalse(new File(destDir, "env2/node1/json/test.json").exists());
+  }
+
+  private File file(String path) {
+    return new File(definitionsDir, path);
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static io.wcm.devops.conga.generator.TestUtils.setupGenerator;
+import static io.wcm.devops.conga.generator.TestUtils.setupGeneratorOptions;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.wcm.devops.conga.generator.plugins.valueprovider.DummyCountingValueProviderPlugin;
+
+public class GeneratorSessionRenderTest {
+
+  private File generatedDir;
+  private File renderDestDir;
+  private GeneratorSession underTest;
+
+  @Before
+  public void setUp() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(baseDir);
+    generatedDir = new File(baseDir, "generated");
+    renderDestDir = new File(baseDir, "render");
+
+    // generate complete environment for comparison
+    setupGenerator(generatedDir).generate();
+
+    underTest = new GeneratorSession(setupGeneratorOptions(renderDestDir));
+  }
+
+  @After
+  public void tearDown() {
+    underTest.close();
+  }
+
+  @Test
+  public void testRenderTemplateFile() throws IOException {
+    assertRendered("node1", "role1", "text/test-role1.variant11.env1.node1.txt");
+    assertRendered("node1", "role2", "json/test.json");
+  }
+
+  @Test
+  public void testRenderMultipliedFile() throws IOException {
+    assertRendered("node2", "role1", "xml/test.tenant1.tenantRole1,tenantRole2.env1.xml");
+    assertRendered("node4", "role1", "xml/test.tenant2.tenantRole1.env1.xml");
+  }
+
+  @Test
+  public void testRenderInheritedFile() throws IOException {
+    assertRendered("node1", "role1", "text/test-superrole1.txt");
+  }
+
+  @Test
+  public void testRenderUrlFile() throws IOException {
+    assertRendered("node1", "role1", "files/sample.txt");
+  }
+
+  @Test
+  public void testRenderAllRoles() throws IOException {
+    assertArrayEquals(FileUtils.readFileToByteArray(new File(generatedDir, "env1/node1/json/test.json")),
+        underTest.render("env1", "node1", null, "json/test.json"));
+  }
+
+  @Test
+  public void testRenderFiles() {
+    Map<String, byte[]> files = underTest.renderFiles("env1", "node1", "role1", "text/test-conditional-tenant1.txt");
+    assertTrue(files.containsKey("text/test-conditional-tenant1.txt"));
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testInvalidFile() {
+    underTest.render("env1", "node1", "role1", "text/unknown.txt");
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testInvalidRole() {
+    underTest.render("env1", "node1", "role2", "text/test-role1.variant11.env1.node1.txt");
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testInvalidNode() {
+    underTest.render("env1", "unknown", "role1", "text/test-role1.variant11.env1.node1.txt");
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testInvalidEnvironment() {
+    underTest.render("unknown", "node1", "role1", "text/test-role1.variant11.env1.node1.txt");
+  }
+
+  @Test
+  public void testRenderReusesEnvironment() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName() + "-reuse");
+    GeneratorOptions options = TestUtils.setupDefinitionsCopy(baseDir);
+    File definitionsDir = new File(baseDir, "definitions");
+
+    // value provider variable is resolved only when the environment context properties are built
+    FileUtils.write(new File(definitionsDir, "environments/env-render.yaml"),
+        "nodes:\n- node: node1\n  roles:\n  - role: role2\n"
+        + "- node: node2\n  config:\n    counted: ${" + DummyCountingValueProviderPlugin.NAME + "::renderEnvironment}\n"
+        + "  roles:\n  - role: role2\n", StandardCharsets.UTF_8);
+
+    try (GeneratorSession session = new GeneratorSession(options)) {
+      byte[] content = session.render("env-render", "node1", "role2", "json/test.json");
+      int lookups = DummyCountingValueProviderPlugin.getLookups("renderEnvironment");
+      assertTrue(lookups > 0);
+
+      // second render reuses expanded environment and environment context properties
+      assertArrayEquals(content, session.render("env-render", "node1", "role2", "json/test.json"));
+      assertEquals(lookups, DummyCountingValueProviderPlugin.getLookups("renderEnvironment"));
+
+      // invalidation drops them
+      session.invalidate();
+      session.render("env-render", "node1", "role2", "json/test.json");
+      assertEquals(2 * lookups, DummyCountingValueProviderPlugin.getLookups("renderEnvironment"));
+    }
+  }
+
+  private void assertRendered(String nodeName, String roleName, String path) throws IOException {
+    byte[] expected = FileUtils.readFileToByteArray(new File(generatedDir, "env1/" + nodeName + "/" + path));
+    assertArrayEquals(path, expected, underTest.render("env1", nodeName, roleName, path));
+    assertFalse("No files written to destination directory", new File(renderDestDir, "env1").exists());
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static io.wcm.devops.conga.generator.TestUtils.assertFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+public class GeneratorSessionTest {
+
+  private File definitionsDir;
+  private File destDir;
+  private GeneratorSession underTest;
+
+  @Before
+  public void setUp() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    GeneratorOptions options = TestUtils.setupDefinitionsCopy(baseDir);
+    definitionsDir = new File(baseDir, "definitions");
+    destDir = options.getDestDir();
+
+    underTest = new GeneratorSession(options);
+  }
+
+  @After
+  public void tearDown() {
+    underTest.close();
+  }
+
+  @Test
+  public void testEnvironmentNames() {
+    assertEquals(ImmutableSet.of("env1", "env2"), underTest.getEnvironmentNames());
+  }
+
+  @Test
+  public void testConcurrentGenerate() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        // same environment is generated concurrently as well
+        String environmentName = (i % 2 == 0) ? "env1" : "env2";
+        futures.add(executor.submit(() -> underTest.generate(environmentName)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+
+    assertFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertFile(destDir, "env2/node1/json/test.json");
+  }
+
+  @Test
+  public void testInvalidate() throws IOException {
+    underTest.generate("env1");
+
+    File template = new File(definitionsDir, "templates/role1/test.txt.hbs");
+    FileUtils.write(template, "changed template {{var1}}", StandardCharsets.UTF_8);
+    FileUtils.write(new File(definitionsDir, "environments/env3.yaml"),
+        "nodes:\n- node: node1\n  roles:\n  - role: role2\n", StandardCharsets.UTF_8);
+
+    underTest.invalidate();
+    assertEquals(ImmutableSet.of("env1", "env2", "env3"), underTest.getEnvironmentNames());
+
+    underTest.generate("env1", "env3");
+    File textFile = assertFile(destDir, "env1/node1/text/test-role1.variant11.env1.node1.txt");
+    assertTrue(FileUtils.readFileToString(textFile, StandardCharsets.ISO_8859_1).contains("changed template v1-role1-variant11"));
+    assertFile(destDir, "env3/node1/json/test.json");
+  }
+
+  @Test
+  public void testGenerateAfterClose() {
+    underTest.generate("env2");
+    underTest.close();
+    underTest.generate("env2");
+    assertFile(destDir, "env2/node1/json/test.json");
+  }
+
+  @Test(expected = GeneratorException.class)
+  public void testInvalidEnvironment() {
+    underTest.generate("unknown");
+  }
+
+}
@@ -25,6 +25,7 @@ import static io.wcm.devops.conga.generator.TestUtils.assertDirectory;
 import static io.wcm.devops.conga.generator.TestUtils.assertFile;
 import static io.wcm.devops.conga.generator.TestUtils.assertNotFile;
 import static io.wcm.devops.conga.generator.TestUtils.setupGenerator;
+import static io.wcm.devops.conga.generator.TestUtils.setupGeneratorOptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -141,4 +142,15 @@ public class GeneratorTest {
 
   }
 
+  @Test
+  public void testUrlFilePrefetch() throws IOException {
+    File prefetchDestDir = new File(destDir.getPath() + "-prefetch");
+    FileUtils.deleteDirectory(prefetchDestDir);
+    new Generator(setupGeneratorOptions(prefetchDestDir).urlFilePrefetchThreads(2)).generate("env1");
+
+    File node1Dir = assertDirectory(prefetchDestDir, "env1/node1");
+    assertContains(assertFile(node1Dir, "files/sample.txt"), "This is an example text file: äöüß€");
+    assertContains(assertFile(node1Dir, "files/sample-filesystem.txt"), "This is an example text file: äöüß€");
+  }
+
 }
@@ -0,0 +1,71 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GeneratorUnusedVariableTest {
+
+  private File definitionsDir;
+  private File destDir;
+  private GeneratorOptions options;
+
+  @Before
+  public void setUp() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    options = TestUtils.setupDefinitionsCopy(baseDir);
+    definitionsDir = new File(baseDir, "definitions");
+    destDir = options.getDestDir();
+
+    // role with an invalid variable reference in a configuration parameter no file uses
+    FileUtils.write(new File(definitionsDir, "roles/role-unused.yaml"),
+        "files:\n- file: test.json\n  dir: json\n  template: shared/test.json.hbs\n"
+        + "config:\n  unusedParam: ${notExisting}\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(definitionsDir, "environments/env-unused.yaml"),
+        "nodes:\n- node: node1\n  roles:\n  - role: role-unused\n", StandardCharsets.UTF_8);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnusedInvalidVariable_ResolveAll() {
+    generate(true);
+  }
+
+  @Test
+  public void testUnusedInvalidVariable_ResolveReferencedOnly() {
+    generate(false);
+    assertTrue(new File(destDir, "env-unused/node1/json/test.json").exists());
+  }
+
+  private void generate(boolean resolveAllVariables) {
+    new Generator(options
+        .modelExport(null)
+        .resolveAllVariables(resolveAllVariables))
+        .generate(new String[] { "env-unused" });
+  }
+
+}
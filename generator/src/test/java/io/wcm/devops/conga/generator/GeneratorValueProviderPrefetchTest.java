@@ -0,0 +1,99 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.plugins.valueprovider.DummyCountingValueProviderPlugin;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+
+public class GeneratorValueProviderPrefetchTest {
+
+  private static final String PROVIDER = DummyCountingValueProviderPlugin.NAME;
+
+  private File definitionsDir;
+  private GeneratorOptions options;
+
+  @Before
+  public void setUp() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    options = TestUtils.setupDefinitionsCopy(baseDir);
+    definitionsDir = new File(baseDir, "definitions");
+  }
+
+  @Test
+  public void testPrefetchSelectedNodesAndRoles() throws IOException {
+    writeDefinitions("generate");
+    try (GeneratorSession session = new GeneratorSession(options()
+        .generationFilter(new GenerationFilter().includeNodes("node1")))) {
+      session.generate("env-prefetch");
+    }
+
+    assertEquals(1, DummyCountingValueProviderPlugin.getBatchLookups("generateNode1"));
+    assertEquals(1, DummyCountingValueProviderPlugin.getBatchLookups("generateRoleConfig"));
+    assertEquals(1, DummyCountingValueProviderPlugin.getBatchLookups("generateRoleFile"));
+
+    // nodes not selected by the generation filter are not prefetched
+    assertEquals(0, DummyCountingValueProviderPlugin.getBatchLookups("generateNode2"));
+  }
+
+  @Test
+  public void testNoPrefetchForPlan() throws IOException {
+    writeDefinitions("plan");
+    try (GeneratorSession session = new GeneratorSession(options())) {
+      session.plan("env-prefetch");
+    }
+
+    assertEquals(0, DummyCountingValueProviderPlugin.getBatchLookups("planNode1"));
+    assertEquals(0, DummyCountingValueProviderPlugin.getBatchLookups("planRoleConfig"));
+    assertEquals(0, DummyCountingValueProviderPlugin.getBatchLookups("planRoleFile"));
+  }
+
+  private GeneratorOptions options() {
+    return options
+        .valueProviderConfig(ImmutableMap.of(PROVIDER,
+            ImmutableMap.of(ValueProviderGlobalContext.PARAM_CACHE_SCOPE, "environment")))
+        .valueProviderPrefetchThreads(2);
+  }
+
+  private void writeDefinitions(String prefix) throws IOException {
+    FileUtils.write(new File(definitionsDir, "roles/role-prefetch.yaml"),
+        "files:\n- file: test.json\n  dir: json\n  template: shared/test.json.hbs\n"
+        + "  validatorOptions:\n    option1: ${" + PROVIDER + "::" + prefix + "RoleFile}\n"
+        + "config:\n  roleParam: ${" + PROVIDER + "::" + prefix + "RoleConfig}\n", StandardCharsets.UTF_8);
+    FileUtils.write(new File(definitionsDir, "environments/env-prefetch.yaml"),
+        "nodes:\n"
+        + "- node: node1\n  config:\n    nodeParam: ${" + PROVIDER + "::" + prefix + "Node1}\n  roles:\n  - role: role-prefetch\n"
+        + "- node: node2\n  config:\n    nodeParam: ${" + PROVIDER + "::" + prefix + "Node2}\n  roles:\n  - role: role-prefetch\n",
+        StandardCharsets.UTF_8);
+  }
+
+}
@@ -45,6 +45,10 @@ public final class TestUtils {
   }
 
   public static Generator setupGenerator(File destDir) {
+    return new Generator(setupGeneratorOptions(destDir));
+  }
+
+  public static GeneratorOptions setupGeneratorOptions(File destDir) {
     GeneratorOptions options = new GeneratorOptions()
         .baseDir(new File("."))
         .roleDir(new File("src/test/definitions/roles"))
@@ -58,7 +62,31 @@ public final class TestUtils {
     modelExport.setNode(ImmutableList.of("yaml"));
     options.modelExport(modelExport);
 
-    return new Generator(options);
+    return options;
+  }
+
+  /**
+   * Copies the test definitions to <code>definitions</code> below the given base directory, adds a second
+   * environment <code>env2</code> using only role2 and sets up generator options reading the copied definitions.
+   * Files are generated to <code>output</code> below the base directory.
+   * @param baseDir Base directory, deleted before copying
+   * @return Generator options
+   * @throws IOException I/O exception
+   */
+  public static GeneratorOptions setupDefinitionsCopy(File baseDir) throws IOException {
+    FileUtils.deleteDirectory(baseDir);
+    File definitionsDir = new File(baseDir, "definitions");
+    FileUtils.copyDirectory(new File("src/test/definitions"), definitionsDir);
+
+    // second environment using only role2
+    FileUtils.write(new File(definitionsDir, "environments/env2.yaml"),
+        "nodes:\n- node: node1\n  roles:\n  - role: role2\n", StandardCharsets.UTF_8);
+
+    return setupGeneratorOptions(new File(baseDir, "output"))
+        .roleDir(new File(definitionsDir, "roles"))
+        .templateDir(new File(definitionsDir, "templates"))
+        .environmentDir(new File(definitionsDir, "environments"))
+        .deleteBeforeGenerate(true);
   }
 
   public static File assertDirectory(File assertBaseDir, String path) {
@@ -19,6 +19,7 @@
  */
 package io.wcm.devops.conga.generator;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -31,6 +32,8 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
 
@@ -107,4 +110,28 @@ public class UrlFileManagerTest {
     underTest.getFileUrl("other:/x/y/z");
   }
 
+  @Test
+  public void testPrefetch() throws Exception {
+    File file = new File("src/test/resources/validators/json/noJson.txt");
+    underTest.prefetch(ImmutableList.of(
+        "file:" + file.getAbsolutePath(),
+        "classpath:/validators/json/noJson.txt",
+        "other:/x/y/z"), 2);
+
+    assertEquals("noJson.txt", underTest.getFileName("file:" + file.getAbsolutePath()));
+    try (InputStream is = underTest.getFile("file:" + file.getAbsolutePath())) {
+      assertTrue(IOUtils.toByteArray(is).length > 0);
+    }
+    assertEquals("noJson.txt", underTest.getFileName("classpath:/validators/json/noJson.txt"));
+    try (InputStream is = underTest.getFile("classpath:/validators/json/noJson.txt")) {
+      assertTrue(IOUtils.toByteArray(is).length > 0);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testPrefetch_Invalid() throws Exception {
+    underTest.prefetch(ImmutableList.of("other:/x/y/z"), 2);
+    underTest.getFile("other:/x/y/z");
+  }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.filter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class GenerationFilterTest {
+
+  @Test
+  public void testInactive() {
+    GenerationFilter underTest = new GenerationFilter();
+    assertFalse(underTest.isActive());
+    assertTrue(underTest.isNodeSelected("node1"));
+    assertTrue(underTest.isNodeRoleSelected("role1", ImmutableList.of()));
+    assertTrue(underTest.isRoleSelected("role1", "superrole1"));
+    assertTrue(underTest.isFileSelected("conf/file.txt"));
+  }
+
+  @Test
+  public void testNodes() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeNodes("node*", "regex:host[0-9]+")
+        .excludeNodes("node3");
+    assertTrue(underTest.isActive());
+    assertTrue(underTest.isNodeSelected("node1"));
+    assertTrue(underTest.isNodeSelected("host12"));
+    assertFalse(underTest.isNodeSelected("node3"));
+    assertFalse(underTest.isNodeSelected("hostA"));
+  }
+
+  @Test
+  public void testRoles() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeRoles("superrole1", "role2")
+        .excludeRoles("role3");
+    assertTrue(underTest.isRoleSelected("role1", "superrole1"));
+    assertFalse(underTest.isRoleSelected("role1", "role1"));
+    assertTrue(underTest.isRoleSelected("role2", "superrole2"));
+    assertFalse(underTest.isRoleSelected("role3", "superrole1"));
+    assertFalse(underTest.isNodeRoleSelected("role3", ImmutableList.of()));
+    assertTrue(underTest.isNodeRoleSelected("role1", ImmutableList.of()));
+  }
+
+  @Test
+  public void testVariants() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeVariants("variant1?")
+        .excludeVariants("variant13");
+    assertTrue(underTest.isNodeRoleSelected("role1", ImmutableList.of("variant11")));
+    assertFalse(underTest.isNodeRoleSelected("role1", ImmutableList.of("variant11", "variant13")));
+    assertFalse(underTest.isNodeRoleSelected("role1", ImmutableList.of("variant2")));
+    assertFalse(underTest.isNodeRoleSelected("role1", ImmutableList.of()));
+  }
+
+  @Test
+  public void testFiles() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeFiles("xml/*.xml", "conf/**")
+        .excludeFiles("**/ignore.*");
+    assertTrue(underTest.isFileFilterActive());
+    assertTrue(underTest.isFileSelected("xml/test.xml"));
+    assertFalse(underTest.isFileSelected("xml/sub/test.xml"));
+    assertTrue(underTest.isFileSelected("conf/sub/test.txt"));
+    assertFalse(underTest.isFileSelected("conf/sub/ignore.txt"));
+    assertFalse(underTest.isFileSelected("text/test.txt"));
+  }
+
+  @Test
+  public void testGlobSpecialCharacters() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeFiles("xml/test.tenant1.tenantRole1,tenantRole2.*.xml");
+    assertTrue(underTest.isFileSelected("xml/test.tenant1.tenantRole1,tenantRole2.env1.xml"));
+    assertFalse(underTest.isFileSelected("xml/testXtenant1.tenantRole1,tenantRole2.env1.xml"));
+  }
+
+  @Test
+  public void testEmptyPatterns() {
+    GenerationFilter underTest = new GenerationFilter()
+        .includeNodes((String[])null)
+        .includeRoles("", " ");
+    assertFalse(underTest.isActive());
+  }
+
+}
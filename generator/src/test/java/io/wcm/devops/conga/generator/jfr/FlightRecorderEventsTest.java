@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import io.wcm.devops.conga.generator.TestUtils;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest {
+
+  @Test
+  public void testNoRecording() {
+    try (FlightRecorderEvent event = FlightRecorderEvents.render("env1", "node1", "role1", "file1")) {
+      event.size(10);
+    }
+  }
+
+  @Test
+  public void testGeneratorEvents() throws IOException {
+    File baseDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(baseDir);
+    File recordingFile = new File(baseDir, "recording.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording.enable("io.wcm.devops.conga.Environment");
+      recording.enable("io.wcm.devops.conga.Node");
+      recording.enable("io.wcm.devops.conga.Render");
+      recording.enable("io.wcm.devops.conga.VariableResolution");
+      recording.start();
+
+      TestUtils.setupGenerator(new File(baseDir, "output")).generate("env1");
+
+      recording.stop();
+      recording.dump(recordingFile.toPath());
+    }
+
+    // ignore events of generator runs from other tests running in parallel
+    String threadName = Thread.currentThread().getName();
+    List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile.toPath()).stream()
+        .filter(event -> event.getThread() != null && threadName.equals(event.getThread().getJavaName()))
+        .collect(Collectors.toList());
+    List<RecordedEvent> environmentEvents = getEvents(events, "io.wcm.devops.conga.Environment");
+    assertEquals(1, environmentEvents.size());
+    assertEquals("env1", environmentEvents.get(0).getString("environment"));
+
+    assertFalse(getEvents(events, "io.wcm.devops.conga.Node").isEmpty());
+    assertFalse(getEvents(events, "io.wcm.devops.conga.VariableResolution").isEmpty());
+
+    List<RecordedEvent> renderEvents = getEvents(events, "io.wcm.devops.conga.Render");
+    assertTrue(renderEvents.stream()
+        .anyMatch(event -> "env1/node1/text/test-role1.variant11.env1.node1.txt".equals(event.getString("file"))
+            && event.getLong("characters") > 0));
+  }
+
+  private static List<RecordedEvent> getEvents(List<RecordedEvent> events, String name) {
+    return events.stream()
+        .filter(event -> name.equals(event.getEventType().getName()))
+        .collect(Collectors.toList());
+  }
+
+}
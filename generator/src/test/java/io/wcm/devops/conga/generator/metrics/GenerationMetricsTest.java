@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import io.wcm.devops.conga.generator.Generator;
+import io.wcm.devops.conga.generator.TestUtils;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics.Measurement;
+
+public class GenerationMetricsTest {
+
+  @Test
+  public void testAggregation() {
+    GenerationMetrics underTest = new GenerationMetrics();
+    for (int i = 0; i < 3; i++) {
+      try (Measurement measurement = underTest.start(GenerationPhase.VALIDATION, "env1", "node1", "role1", "xml")) {
+        // measure nothing
+      }
+    }
+    try (Measurement measurement = underTest.start(GenerationPhase.RENDER, "env1", "node1", "role1", null)) {
+      // measure nothing
+    }
+
+    List<GenerationMetricsEntry> entries = underTest.getEntries();
+    assertEquals(2, entries.size());
+    GenerationMetricsEntry validation = entries.stream()
+        .filter(entry -> entry.getPhase() == GenerationPhase.VALIDATION)
+        .findFirst().get();
+    assertEquals(3, validation.getCount());
+    assertEquals("VALIDATION env1/node1/role1 [xml]", validation.getLabel());
+  }
+
+  @Test
+  public void testDisabled() {
+    GenerationMetrics underTest = GenerationMetrics.disabled();
+    try (Measurement measurement = underTest.start(GenerationPhase.RENDER, "env1", null, null, null)) {
+      // measure nothing
+    }
+    assertTrue(underTest.getEntries().isEmpty());
+  }
+
+  @Test
+  public void testCsv() throws IOException {
+    GenerationMetrics underTest = new GenerationMetrics();
+    try (Measurement measurement = underTest.start(GenerationPhase.CONFIG_RESOLUTION, "env,1", null, null, null)) {
+      // measure nothing
+    }
+
+    StringWriter writer = new StringWriter();
+    underTest.writeCsv(writer);
+    String[] lines = writer.toString().split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[1], lines[1].startsWith("CONFIG_RESOLUTION,\"env,1\",,,,1,"));
+  }
+
+  @Test
+  public void testGeneratorRun() throws IOException {
+    File destDir = new File("target/generation-test/" + getClass().getSimpleName());
+    FileUtils.deleteDirectory(destDir);
+
+    GenerationMetrics underTest = new GenerationMetrics();
+    new Generator(TestUtils.setupGeneratorOptions(destDir).generationMetrics(underTest)).generate();
+
+    Map<GenerationPhase, Long> phases = underTest.getNanosPerPhase();
+    assertTrue(phases.containsKey(GenerationPhase.MODEL_LOADING));
+    assertTrue(phases.containsKey(GenerationPhase.ROLE_RESOLUTION));
+    assertTrue(phases.containsKey(GenerationPhase.CONFIG_RESOLUTION));
+    assertTrue(phases.containsKey(GenerationPhase.TEMPLATE_COMPILE));
+    assertTrue(phases.containsKey(GenerationPhase.RENDER));
+    assertTrue(phases.containsKey(GenerationPhase.FILE_HEADER));
+    assertTrue(phases.containsKey(GenerationPhase.URL_COPY));
+    assertTrue(phases.containsKey(GenerationPhase.MODEL_EXPORT));
+
+    File reportDir = new File(destDir, "report");
+    underTest.writeReport(reportDir);
+    String json = FileUtils.readFileToString(new File(reportDir, GenerationMetrics.REPORT_JSON_FILE), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"phase\": \"RENDER\""));
+    assertTrue(new File(reportDir, GenerationMetrics.REPORT_CSV_FILE).exists());
+  }
+
+}
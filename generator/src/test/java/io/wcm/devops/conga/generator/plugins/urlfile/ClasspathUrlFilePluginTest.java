@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -79,4 +80,11 @@ public class ClasspathUrlFilePluginTest {
     underTest.getFileUrl("classpath:/non-exixting-file", context);
   }
 
+  @Test
+  public void testGetLocalFile() throws Exception {
+    Path path = underTest.getLocalFile("classpath:/validators/json/noJson.txt", context);
+    assertNotNull(path);
+    assertTrue(path.toFile().exists());
+  }
+
 }
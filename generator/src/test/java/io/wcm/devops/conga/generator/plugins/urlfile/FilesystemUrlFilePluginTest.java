@@ -19,6 +19,7 @@
  */
 package io.wcm.devops.conga.generator.plugins.urlfile;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -27,6 +28,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
@@ -90,4 +92,16 @@ public class FilesystemUrlFilePluginTest {
     underTest.getFileUrl("file:non-existing-file", context);
   }
 
+  @Test
+  public void testGetLocalFile() throws Exception {
+    File file = new File("src/test/resources/validators/json/noJson.txt");
+    Path path = underTest.getLocalFile("file:" + file.getAbsolutePath(), context);
+    assertEquals(file.getCanonicalFile(), path.toFile().getCanonicalFile());
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void testGetLocalFile_NonExisting() throws Exception {
+    underTest.getLocalFile("file:non-existing-file", context);
+  }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.plugins.valueprovider;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.wcm.devops.conga.generator.spi.ValueProviderPlugin;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderContext;
+
+/**
+ * Dummy value provider plugin that counts the lookups per variable name.
+ * Variables starting with "unknown" have no value.
+ */
+public class DummyCountingValueProviderPlugin implements ValueProviderPlugin {
+
+  /**
+   * Plugin name
+   */
+  public static final String NAME = "dummy-counting";
+
+  private static final Map<String, AtomicInteger> LOOKUPS = new ConcurrentHashMap<>();
+  private static final Map<String, AtomicInteger> BATCH_LOOKUPS = new ConcurrentHashMap<>();
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public Object resolve(String variableName, ValueProviderContext context) {
+    LOOKUPS.computeIfAbsent(variableName, key -> new AtomicInteger()).incrementAndGet();
+    return getValue(variableName);
+  }
+
+  @Override
+  public Map<String, Object> resolve(Collection<String> variableNames, ValueProviderContext context) {
+    Map<String, Object> values = new ConcurrentHashMap<>();
+    for (String variableName : variableNames) {
+      BATCH_LOOKUPS.computeIfAbsent(variableName, key -> new AtomicInteger()).incrementAndGet();
+      Object value = getValue(variableName);
+      if (value != null) {
+        values.put(variableName, value);
+      }
+    }
+    return values;
+  }
+
+  private static Object getValue(String variableName) {
+    if (StringUtils.startsWith(variableName, "unknown")) {
+      return null;
+    }
+    return "value-" + variableName;
+  }
+
+  /**
+   * @param variableName Variable name
+   * @return Number of single lookups for the variable
+   */
+  public static int getLookups(String variableName) {
+    AtomicInteger count = LOOKUPS.get(variableName);
+    return count != null ? count.get() : 0;
+  }
+
+  /**
+   * @param variableName Variable name
+   * @return Number of batch lookups for the variable
+   */
+  public static int getBatchLookups(String variableName) {
+    AtomicInteger count = BATCH_LOOKUPS.get(variableName);
+    return count != null ? count.get() : 0;
+  }
+
+}
@@ -0,0 +1,201 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.wcm.devops.conga.generator.util.testmodel.SimpleConf;
+import io.wcm.devops.conga.model.environment.Environment;
+import io.wcm.devops.conga.model.environment.Node;
+import io.wcm.devops.conga.model.environment.NodeRole;
+import io.wcm.devops.conga.model.environment.RoleConfig;
+import io.wcm.devops.conga.model.environment.Tenant;
+import io.wcm.devops.conga.model.shared.Configurable;
+
+public class AbstractConfigurableObjectTreeProcessorTest {
+
+  @Test
+  public void testModelClasses() {
+    NodeRole nodeRole1 = new NodeRole();
+    NodeRole nodeRole2 = new NodeRole();
+    Node node = new Node();
+    node.setRoles(ImmutableList.of(nodeRole1, nodeRole2));
+    RoleConfig roleConfig = new RoleConfig();
+    Tenant tenant = new Tenant();
+    Environment environment = new Environment();
+    environment.setNodes(ImmutableList.of(node));
+    environment.setRoleConfig(ImmutableList.of(roleConfig));
+    environment.setTenants(ImmutableList.of(tenant));
+
+    assertVisited(collect(environment), environment, node, nodeRole1, nodeRole2, roleConfig, tenant);
+  }
+
+  @Test
+  public void testGenericPropertyTypes() {
+    SimpleConf object = new SimpleConf();
+    SimpleConf mapValue = new SimpleConf();
+    SimpleConf listValue = new SimpleConf();
+    SimpleConf nestedValue = new SimpleConf();
+    GenericBean bean = new GenericBean();
+    bean.setObject(object);
+    bean.setMap(ImmutableMap.of("key1", mapValue, "key2", ImmutableList.of("value", 5)));
+    bean.setList(ImmutableList.of(ImmutableMap.of("key1", listValue), "value"));
+    GenericBean nested = new GenericBean();
+    nested.setObject(nestedValue);
+    bean.setNested(nested);
+
+    assertVisited(collect(bean), object, mapValue, listValue, nestedValue);
+  }
+
+  @Test
+  public void testNonPublicClass() {
+    SimpleConf child = new SimpleConf();
+    NonPublicBean bean = new NonPublicBean();
+    bean.setChild(child);
+
+    assertVisited(collect(ImmutableList.of(bean)), child);
+  }
+
+  @Test
+  public void testLeafPropertiesNotAccessed() {
+    SimpleConf child = new SimpleConf();
+    LeafBean bean = new LeafBean();
+    bean.setChild(child);
+
+    // getters of string, number, enum and array properties would fail if they were accessed
+    assertVisited(collect(bean), child);
+  }
+
+  private static List<Configurable> collect(Object object) {
+    List<Configurable> visited = new ArrayList<>();
+    new AbstractConfigurableObjectTreeProcessor<Object>() {
+      void run() {
+        process(object, (configurable, payload) -> {
+          visited.add(configurable);
+          return null;
+        }, null);
+      }
+    }.run();
+    return visited;
+  }
+
+  private static void assertVisited(List<Configurable> visited, Configurable... expected) {
+    assertEquals(expected.length, visited.size());
+    for (Configurable item : expected) {
+      assertTrue("Not visited: " + item, visited.stream().anyMatch(visitedItem -> visitedItem == item));
+    }
+  }
+
+  public static class GenericBean {
+
+    private Object object;
+    private Map<String, Object> map;
+    private List<Object> list;
+    private GenericBean nested;
+
+    public Object getObject() {
+      return this.object;
+    }
+
+    public void setObject(Object object) {
+      this.object = object;
+    }
+
+    public Map<String, Object> getMap() {
+      return this.map;
+    }
+
+    public void setMap(Map<String, Object> map) {
+      this.map = map;
+    }
+
+    public List<Object> getList() {
+      return this.list;
+    }
+
+    public void setList(List<Object> list) {
+      this.list = list;
+    }
+
+    public GenericBean getNested() {
+      return this.nested;
+    }
+
+    public void setNested(GenericBean nested) {
+      this.nested = nested;
+    }
+
+  }
+
+  static class NonPublicBean {
+
+    private SimpleConf child;
+
+    public SimpleConf getChild() {
+      return this.child;
+    }
+
+    public void setChild(SimpleConf child) {
+      this.child = child;
+    }
+
+  }
+
+  public static class LeafBean {
+
+    private SimpleConf child;
+
+    public SimpleConf getChild() {
+      return this.child;
+    }
+
+    public void setChild(SimpleConf child) {
+      this.child = child;
+    }
+
+    public String getString() {
+      throw new UnsupportedOperationException();
+    }
+
+    public Integer getNumber() {
+      throw new UnsupportedOperationException();
+    }
+
+    public Thread.State getEnum() {
+      throw new UnsupportedOperationException();
+    }
+
+    public byte[] getArray() {
+      throw new UnsupportedOperationException();
+    }
+
+  }
+
+}
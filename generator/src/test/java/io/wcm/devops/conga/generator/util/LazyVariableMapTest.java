@@ -0,0 +1,181 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import static io.wcm.devops.conga.generator.util.VariableMapResolver.ITEM_VARIABLE;
+import static io.wcm.devops.conga.generator.util.VariableMapResolver.LIST_VARIABLE_ITERATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+import io.wcm.devops.conga.model.util.MapMerger;
+
+public class LazyVariableMapTest {
+
+  private VariableMapResolver resolver;
+
+  @Before
+  public void setUp() {
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(new PluginManagerImpl());
+    ValueProviderGlobalContext context = new ValueProviderGlobalContext()
+        .pluginContextOptions(pluginContextOptions);
+    resolver = new VariableMapResolver(context);
+  }
+
+  @Test
+  public void testResolveOnlyAccessedKeys() {
+    Map<String, Object> map = ImmutableMap.of(
+        "key1", "The ${nested.var1} and ${var2}",
+        "nested", ImmutableMap.of("var1", "${var3}v1"),
+        "var2", "v2",
+        "var3", "v3",
+        "invalid", "${unknown}");
+
+    LazyVariableMap underTest = resolver.resolveLazy(map);
+    assertEquals("The v3v1 and v2", underTest.get("key1"));
+    assertEquals(ImmutableMap.of("var1", "v3v1"), underTest.get("nested"));
+    assertTrue(underTest.containsKey("invalid"));
+    assertFalse(underTest.containsKey("unknown"));
+    assertNull(underTest.get("unknown"));
+    assertEquals(5, underTest.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownVariableOnAccess() {
+    Map<String, Object> map = ImmutableMap.of("var1", "v1", "invalid", "${unknown}");
+
+    LazyVariableMap underTest = resolver.resolveLazy(map);
+    assertEquals("v1", underTest.get("var1"));
+    underTest.get("invalid");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownVariableOnIteration() {
+    Map<String, Object> map = ImmutableMap.of("var1", "v1", "invalid", "${unknown}");
+
+    new HashMap<>(resolver.resolveLazy(map));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCyclicReference() {
+    Map<String, Object> map = ImmutableMap.of("var1", "${var2}", "var2", "${var1}", "var3", "v3");
+
+    LazyVariableMap underTest = resolver.resolveLazy(map);
+    assertEquals("v3", underTest.get("var3"));
+    underTest.get("var1");
+  }
+
+  @Test
+  public void testExpression() {
+    Map<String, Object> map = ImmutableMap.of("var1", 5, "var2", 3,
+        "key1", "${var1 + var2}", "invalid", "${unknown}");
+
+    LazyVariableMap underTest = resolver.resolveLazy(map);
+    assertEquals(8L, ((Number)underTest.get("key1")).longValue());
+  }
+
+  @Test
+  public void testSameResultAsFullResolution() {
+    Map<String, Object> map = ImmutableMap.<String, Object>builder()
+        .put("var1", "v1")
+        .put("var2", "${var1}v2")
+        .put("escaped", "\\${var1}")
+        .put("list", ImmutableList.of("${var1}", ImmutableMap.of("item", "${var2}")))
+        .put("iterate", ImmutableMap.of(LIST_VARIABLE_ITERATE, ImmutableList.of("a", "b"), "value", "${" + ITEM_VARIABLE + "}${var1}"))
+        .put("expr", "${var1 == 'v1' ? var2 : 'none'}")
+        .build();
+
+    Map<String, Object> expected = resolver.resolve(map, false);
+
+    // access each key separately
+    LazyVariableMap underTest = resolver.resolveLazy(map);
+    for (String key : map.keySet()) {
+      assertEquals(key, expected.get(key), underTest.get(key));
+    }
+
+    // resolve template variables first, then the complete map
+    underTest = resolver.resolveLazy(map);
+    underTest.resolve(ImmutableList.of("list", "expr.unused", "notexisting"));
+    assertEquals(expected, new HashMap<>(underTest));
+  }
+
+  @Test
+  public void testDeescape() {
+    Map<String, Object> map = ImmutableMap.of("var1", "v1", "escaped", "\\${var1} ${var1}", "invalid", "${unknown}");
+
+    Map<String, Object> underTest = resolver.deescape(resolver.resolveLazy(map));
+    assertEquals("${var1} v1", underTest.get("escaped"));
+  }
+
+  @Test
+  public void testResolveMergedLazy() {
+    Map<String, Object> config = ImmutableMap.of("var1", "v1", "var2", "${var1}v2",
+        "nested", ImmutableMap.of("key1", "c1", "key2", "c2"),
+        "escaped", "\\${var1}");
+    Map<String, Object> options = ImmutableMap.of("opt1", "${var2}o1",
+        "nested", ImmutableMap.of("key1", "${var1}o2"));
+
+    Map<String, Object> expected = resolver.resolve(MapMerger.merge(options, resolver.resolve(config, false)));
+
+    // access each key separately
+    Map<String, Object> underTest = resolver.resolveMergedLazy(options, resolver.resolveLazy(config));
+    for (String key : expected.keySet()) {
+      assertEquals(key, expected.get(key), underTest.get(key));
+    }
+
+    underTest = resolver.resolveMergedLazy(options, resolver.resolveLazy(config));
+    assertEquals(expected, new HashMap<>(underTest));
+  }
+
+  @Test
+  public void testResolveMergedLazyUnusedInvalidEntry() {
+    Map<String, Object> config = ImmutableMap.of("var1", "v1", "invalid", "${unknown}");
+    Map<String, Object> options = ImmutableMap.of("opt1", "${var1}o1");
+
+    Map<String, Object> underTest = resolver.resolveMergedLazy(options, resolver.resolveLazy(config));
+    assertEquals("v1o1", underTest.get("opt1"));
+    assertEquals(ImmutableSet.of("var1", "invalid", "opt1"), underTest.keySet());
+  }
+
+  @Test
+  public void testResolveMergedLazySharesConfig() {
+    LazyVariableMap config = resolver.resolveLazy(ImmutableMap.of("var1", "v1"));
+
+    Map<String, Object> deescaped = resolver.deescape(config);
+    assertSame(deescaped, resolver.resolveMergedLazy(ImmutableMap.of(), config));
+    assertSame(deescaped, resolver.resolveMergedLazy(null, config));
+  }
+
+}
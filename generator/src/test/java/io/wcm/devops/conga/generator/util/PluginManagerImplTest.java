@@ -20,6 +20,7 @@
 package io.wcm.devops.conga.generator.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
@@ -30,7 +31,11 @@ import org.junit.Test;
 import io.wcm.devops.conga.generator.GeneratorException;
 import io.wcm.devops.conga.generator.plugins.multiply.NoneMultiply;
 import io.wcm.devops.conga.generator.plugins.multiply.TenantMultiply;
+import io.wcm.devops.conga.generator.plugins.validator.JsonValidator;
+import io.wcm.devops.conga.generator.plugins.validator.NoneValidator;
+import io.wcm.devops.conga.generator.plugins.validator.XmlValidator;
 import io.wcm.devops.conga.generator.spi.MultiplyPlugin;
+import io.wcm.devops.conga.generator.spi.ValidatorPlugin;
 
 public class PluginManagerImplTest {
 
@@ -61,4 +66,31 @@ public class PluginManagerImplTest {
     assertTrue(plugins.get(1) instanceof TenantMultiply);
   }
 
+  @Test
+  public void testGetAllByFileExtension() {
+    List<ValidatorPlugin> plugins = underTest.getAll(ValidatorPlugin.class, "json");
+    assertEquals(2, plugins.size());
+    assertTrue(plugins.get(0) instanceof JsonValidator);
+    assertTrue(plugins.get(1) instanceof NoneValidator);
+
+    plugins = underTest.getAll(ValidatorPlugin.class, "XML");
+    assertEquals(2, plugins.size());
+    assertTrue(plugins.get(0) instanceof NoneValidator);
+    assertTrue(plugins.get(1) instanceof XmlValidator);
+
+    plugins = underTest.getAll(ValidatorPlugin.class, "txt");
+    assertEquals(1, plugins.size());
+    assertTrue(plugins.get(0) instanceof NoneValidator);
+
+    plugins = underTest.getAll(ValidatorPlugin.class, null);
+    assertEquals(1, plugins.size());
+    assertTrue(plugins.get(0) instanceof NoneValidator);
+  }
+
+  @Test
+  public void testGetAllByFileExtensionCached() {
+    assertSame(underTest.getAll(ValidatorPlugin.class, "json"), underTest.getAll(ValidatorPlugin.class, "JSON"));
+    assertSame(underTest.getAll(ValidatorPlugin.class), underTest.getAll(ValidatorPlugin.class));
+  }
+
 }
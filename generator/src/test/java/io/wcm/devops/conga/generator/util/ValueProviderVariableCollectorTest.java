@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import io.wcm.devops.conga.generator.util.testmodel.ConfScope1;
+import io.wcm.devops.conga.generator.util.testmodel.ConfScope2;
+import io.wcm.devops.conga.generator.util.testmodel.Root;
+import io.wcm.devops.conga.model.role.Role;
+import io.wcm.devops.conga.model.role.RoleFile;
+import io.wcm.devops.conga.model.role.RoleVariant;
+
+public class ValueProviderVariableCollectorTest {
+
+  @Test
+  public void testCollect() {
+    Root root = new Root();
+    ConfScope1 scope1 = new ConfScope1();
+    ConfScope2 scope21 = new ConfScope2();
+    ConfScope2 scope22 = new ConfScope2();
+    scope1.setScope2(ImmutableList.of(scope21, scope22));
+    root.setScope1(scope1);
+
+    scope1.setConfig(ImmutableMap.of(
+        "var1", "${provider1::name1}",
+        "var2", "${var1} and ${provider1::name2:default}",
+        "escaped", "\\${provider1::escaped}"));
+    scope21.setConfig(ImmutableMap.of(
+        "nested", ImmutableMap.of("list", ImmutableList.of("${provider2::name3}", "${var1}"))));
+    scope22.setConfig(ImmutableMap.of(
+        "var3", "${provider1::name1}"));
+
+    assertEquals(ImmutableMap.of(
+        "provider1", ImmutableSet.of("name1", "name2"),
+        "provider2", ImmutableSet.of("name3")),
+        new ValueProviderVariableCollector().collect(root));
+  }
+
+  @Test
+  public void testCollectRole() {
+    Role role = new Role();
+    role.setConfig(ImmutableMap.of("var1", "${provider1::roleConfig}"));
+    RoleVariant variant = new RoleVariant();
+    variant.setConfig(ImmutableMap.of("var2", "${provider1::variantConfig}"));
+    role.setVariants(ImmutableList.of(variant));
+    RoleFile roleFile = new RoleFile();
+    roleFile.setDir("${provider2::dir}");
+    roleFile.setCondition("${provider2::condition}");
+    roleFile.setValidatorOptions(ImmutableMap.of("option1", "${provider2::validatorOption}"));
+    roleFile.setPostProcessorOptions(ImmutableMap.of("option1", ImmutableList.of("${provider2::postProcessorOption}")));
+    role.setFiles(ImmutableList.of(roleFile));
+
+    Map<String, Set<String>> variables = new TreeMap<>();
+    ValueProviderVariableCollector underTest = new ValueProviderVariableCollector();
+    underTest.collectValues(ImmutableMap.of("var3", "${provider1::environmentConfig}"), variables);
+    underTest.collectRole(role, variables);
+
+    assertEquals(ImmutableMap.of(
+        "provider1", ImmutableSet.of("environmentConfig", "roleConfig", "variantConfig"),
+        "provider2", ImmutableSet.of("dir", "condition", "validatorOption", "postProcessorOption")),
+        variables);
+  }
+
+}
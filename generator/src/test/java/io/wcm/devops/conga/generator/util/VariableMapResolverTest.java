@@ -22,7 +22,9 @@ package io.wcm.devops.conga.generator.util;
 import static io.wcm.devops.conga.generator.util.VariableMapResolver.ITEM_VARIABLE;
 import static io.wcm.devops.conga.generator.util.VariableMapResolver.LIST_VARIABLE_ITERATE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -33,6 +35,7 @@ import com.google.common.collect.ImmutableMap;
 
 import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
 import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+import io.wcm.devops.conga.model.util.ImmutableValue;
 
 public class VariableMapResolverTest {
 
@@ -167,4 +170,14 @@ public class VariableMapResolverTest {
         underTest.resolve(map));
   }
 
+  @Test
+  public void testImmutableValue() {
+    List<Object> immutableList = ImmutableValue.list(ImmutableList.of("${unknown}", "\\${var1}"));
+    Map<String, Object> map = ImmutableMap.of("var1", "v1", "key1", "${var1}", "immutable", immutableList);
+
+    Map<String, Object> resolved = underTest.resolve(map);
+    assertEquals("v1", resolved.get("key1"));
+    assertSame(immutableList, resolved.get("immutable"));
+  }
+
 }
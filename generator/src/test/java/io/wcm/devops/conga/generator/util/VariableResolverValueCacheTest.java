@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.generator.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import io.wcm.devops.conga.generator.plugins.valueprovider.DummyCountingValueProviderPlugin;
+import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
+import io.wcm.devops.conga.generator.spi.context.ValueProviderGlobalContext;
+
+public class VariableResolverValueCacheTest {
+
+  private static final String PROVIDER = DummyCountingValueProviderPlugin.NAME;
+
+  private final PluginManager pluginManager = new PluginManagerImpl();
+
+  @Test
+  public void testNoCache() {
+    VariableResolver underTest = new VariableResolver(globalContext(null));
+    assertEquals("value-noCache1", underTest.resolve(PROVIDER, "noCache1", null, ImmutableMap.of()));
+    assertEquals("value-noCache1", underTest.resolve(PROVIDER, "noCache1", null, ImmutableMap.of()));
+    assertEquals(2, DummyCountingValueProviderPlugin.getLookups("noCache1"));
+  }
+
+  @Test
+  public void testEnvironmentScope() {
+    ValueProviderGlobalContext context = globalContext("environment");
+    VariableResolver underTest = new VariableResolver(context);
+    assertEquals("value-env1", underTest.resolve(PROVIDER, "env1", null, ImmutableMap.of()));
+    assertEquals("value-env1", new VariableResolver(context).resolve(PROVIDER, "env1", null, ImmutableMap.of()));
+    assertEquals(1, DummyCountingValueProviderPlugin.getLookups("env1"));
+
+    // new context for next environment
+    assertEquals("value-env1", new VariableResolver(globalContext("environment")).resolve(PROVIDER, "env1", null, ImmutableMap.of()));
+    assertEquals(2, DummyCountingValueProviderPlugin.getLookups("env1"));
+  }
+
+  @Test
+  public void testRunScope() {
+    ValueProviderCache runValueCache = new ValueProviderCache();
+    assertEquals("value-run1", new VariableResolver(globalContext("run").runValueCache(runValueCache))
+        .resolve(PROVIDER, "run1", null, ImmutableMap.of()));
+    assertEquals("value-run1", new VariableResolver(globalContext("run").runValueCache(runValueCache))
+        .resolve(PROVIDER, "run1", null, ImmutableMap.of()));
+    assertEquals(1, DummyCountingValueProviderPlugin.getLookups("run1"));
+  }
+
+  @Test
+  public void testCacheMissingValue() {
+    VariableResolver underTest = new VariableResolver(globalContext("environment"));
+    assertEquals("def", underTest.resolve(PROVIDER, "unknownCache1", "def", ImmutableMap.of()));
+    assertNull(underTest.resolve(PROVIDER, "unknownCache1", null, ImmutableMap.of()));
+    assertEquals(1, DummyCountingValueProviderPlugin.getLookups("unknownCache1"));
+  }
+
+  @Test
+  public void testPrefetch() {
+    VariableResolver underTest = new VariableResolver(globalContext("environment"));
+    assertEquals(3, underTest.prefetch(PROVIDER, ImmutableList.of("prefetch1", "prefetch2", "unknownPrefetch3")));
+    assertEquals(0, underTest.prefetch(PROVIDER, ImmutableList.of("prefetch1")));
+
+    assertEquals("value-prefetch1", underTest.resolve(PROVIDER, "prefetch1", null, ImmutableMap.of()));
+    assertEquals("value-prefetch2", underTest.resolve(PROVIDER, "prefetch2", null, ImmutableMap.of()));
+    assertNull(underTest.resolve(PROVIDER, "unknownPrefetch3", null, ImmutableMap.of()));
+
+    assertEquals(1, DummyCountingValueProviderPlugin.getBatchLookups("prefetch1"));
+    assertEquals(0, DummyCountingValueProviderPlugin.getLookups("prefetch1"));
+    assertEquals(0, DummyCountingValueProviderPlugin.getLookups("prefetch2"));
+    assertEquals(0, DummyCountingValueProviderPlugin.getLookups("unknownPrefetch3"));
+  }
+
+  @Test
+  public void testPrefetchWithoutCache() {
+    VariableResolver underTest = new VariableResolver(globalContext("none"));
+    assertEquals(0, underTest.prefetch(PROVIDER, ImmutableList.of("prefetchNoCache1")));
+    assertEquals(0, DummyCountingValueProviderPlugin.getBatchLookups("prefetchNoCache1"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidScope() {
+    new VariableResolver(globalContext("invalid")).resolve(PROVIDER, "invalid1", null, ImmutableMap.of());
+  }
+
+  private ValueProviderGlobalContext globalContext(String cacheScope) {
+    PluginContextOptions pluginContextOptions = new PluginContextOptions()
+        .pluginManager(pluginManager);
+    if (cacheScope != null) {
+      pluginContextOptions.valueProviderConfig(ImmutableMap.of(PROVIDER,
+          ImmutableMap.of(ValueProviderGlobalContext.PARAM_CACHE_SCOPE, cacheScope)));
+    }
+    return new ValueProviderGlobalContext()
+        .pluginContextOptions(pluginContextOptions);
+  }
+
+}
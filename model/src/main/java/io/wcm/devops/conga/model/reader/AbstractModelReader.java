@@ -23,10 +23,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
+import org.apache.commons.lang3.reflect.TypeUtils;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.Tag;
 
 import com.google.common.collect.ImmutableSet;
 
@@ -41,12 +46,26 @@ public abstract class AbstractModelReader<T> implements ModelReader<T> {
   private static final Set<String> SUPPORTED_EXTENSIONS = ImmutableSet.of(YAML_EXTENSION);
 
   private final Yaml yaml;
+  private final ComposedNodeConstructor constructor;
 
   /**
+   * Reading from composed YAML nodes via {@link #read(Node)} constructs the model class declared as type argument
+   * of the reader class - type descriptions configured in the given YAML instance are not taken into account.
    * @param yaml YAML
+   * @deprecated Use {@link #AbstractModelReader(Class)}
    */
+  @Deprecated
   public AbstractModelReader(Yaml yaml) {
     this.yaml = yaml;
+    this.constructor = new ComposedNodeConstructor(getModelClass(getClass()));
+  }
+
+  /**
+   * @param modelClass Model class
+   */
+  protected AbstractModelReader(Class<T> modelClass) {
+    this.constructor = new ComposedNodeConstructor(modelClass);
+    this.yaml = new Yaml(constructor);
   }
 
   @Override
@@ -72,4 +91,70 @@ public abstract class AbstractModelReader<T> implements ModelReader<T> {
     return (T)yaml.load(reader);
   }
 
+  /**
+   * Read model from an already composed YAML node tree, e.g. to construct both the model and the raw
+   * YAML tree from a single parse. Construction may adjust the types of nested nodes, so construct the raw tree
+   * via {@link #readRaw(Node)} first when both are needed.
+   * @param node Root node
+   * @return Model object
+   */
+  @SuppressWarnings("unchecked")
+  public final T read(Node node) {
+    return (T)constructor.construct(node, constructor.getRootTag());
+  }
+
+  /**
+   * Read raw YAML tree (maps, lists and scalar values) from an already composed YAML node tree.
+   * @param node Root node
+   * @return Raw YAML object tree
+   */
+  public final Object readRaw(Node node) {
+    return new ComposedNodeConstructor(Object.class).construct(node, null);
+  }
+
+  /**
+   * Gets the model class declared as type argument of the given reader class.
+   * @param readerClass Reader class
+   * @return Model class, or {@link Object} if it cannot be detected
+   */
+  private static Class<?> getModelClass(Class<?> readerClass) {
+    Type modelType = TypeUtils.getTypeArguments(readerClass, AbstractModelReader.class)
+        .get(AbstractModelReader.class.getTypeParameters()[0]);
+    if (modelType instanceof Class) {
+      return (Class<?>)modelType;
+    }
+    return Object.class;
+  }
+
+  /**
+   * Constructs objects from an already composed YAML node tree.
+   */
+  private static final class ComposedNodeConstructor extends Constructor {
+
+    private final Tag rootTag;
+
+    ComposedNodeConstructor(Class<?> rootType) {
+      super(rootType);
+      this.rootTag = new Tag(rootType);
+    }
+
+    Tag getRootTag() {
+      return rootTag;
+    }
+
+    Object construct(Node node, Tag tag) {
+      Tag originalTag = node.getTag();
+      try {
+        if (tag != null) {
+          node.setTag(tag);
+        }
+        return constructDocument(node);
+      }
+      finally {
+        node.setTag(originalTag);
+      }
+    }
+
+  }
+
 }
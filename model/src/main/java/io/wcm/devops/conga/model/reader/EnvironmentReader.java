@@ -19,9 +19,6 @@
  */
 package io.wcm.devops.conga.model.reader;
 
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-
 import io.wcm.devops.conga.model.environment.Environment;
 
 /**
@@ -33,12 +30,7 @@ public final class EnvironmentReader extends AbstractModelReader<Environment> {
    * Constructor
    */
   public EnvironmentReader() {
-    super(getYaml());
-  }
-
-  private static Yaml getYaml() {
-    Constructor constructor = new Constructor(Environment.class);
-    return new Yaml(constructor);
+    super(Environment.class);
   }
 
 }
@@ -19,9 +19,6 @@
  */
 package io.wcm.devops.conga.model.reader;
 
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
-
 import io.wcm.devops.conga.model.role.Role;
 
 /**
@@ -33,12 +30,7 @@ public final class RoleReader extends AbstractModelReader<Role> {
    * Constructor
    */
   public RoleReader() {
-    super(getYaml());
-  }
-
-  private static Yaml getYaml() {
-    Constructor constructor = new Constructor(Role.class);
-    return new Yaml(constructor);
+    super(Role.class);
   }
 
 }
@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.model.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marker interface for immutable configuration values that are shared by reference, e.g. context properties that
+ * are resolved only once per environment. {@link MapMerger} takes such values as they are without copying
+ * or merging them if the value they are merged with is absent or immutable as well, and the generator excludes them from variable resolution, de-escaping and deep cloning.
+ */
+public interface ImmutableValue {
+
+  /**
+   * Creates an immutable list marked as {@link ImmutableValue}.
+   * @param list List
+   * @param <T> Item type
+   * @return Immutable list with the same items
+   */
+  static <T> List<T> list(List<T> list) {
+    return new ImmutableValueList<>(list);
+  }
+
+  /**
+   * Creates an immutable map marked as {@link ImmutableValue}, preserving the iteration order of the given map.
+   * @param map Map
+   * @param <K> Key type
+   * @param <V> Value type
+   * @return Immutable map with the same entries
+   */
+  static <K, V> Map<K, V> map(Map<K, V> map) {
+    return new ImmutableValueMap<>(map);
+  }
+
+}
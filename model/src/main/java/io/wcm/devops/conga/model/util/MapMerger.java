@@ -68,7 +68,11 @@ public final class MapMerger {
     for (K key : allKeys) {
       Object v1 = map1.get(key);
       Object v2 = map2.get(key);
-      if (v1 instanceof Map || v2 instanceof Map) {
+      if (isShareable(v1, v2)) {
+        // immutable values are shared by reference
+        merged.put(key, v1 != null ? v1 : v2);
+      }
+      else if (v1 instanceof Map || v2 instanceof Map) {
         Map<K, Object> m1 = v1 instanceof Map ? (Map<K, Object>)v1 : null;
         Map<K, Object> m2 = v2 instanceof Map ? (Map<K, Object>)v2 : null;
         merged.put(key, merge(m1, m2));
@@ -103,6 +107,22 @@ public final class MapMerger {
     return merged;
   }
 
+  /**
+   * Immutable values are taken by reference if the other value is absent or immutable as well. Immutable lists
+   * containing merge entries are still merged to remove them.
+   * @param v1 Value 1
+   * @param v2 Value 2
+   * @return true if the value with higher priority can be taken as it is
+   */
+  @SuppressWarnings("unchecked")
+  private static boolean isShareable(Object v1, Object v2) {
+    Object value = v1 != null ? v1 : v2;
+    if (!(value instanceof ImmutableValue) || (v1 != null && v2 != null && !(v2 instanceof ImmutableValue))) {
+      return false;
+    }
+    return !(value instanceof List && isMergeable((List<Object>)value));
+  }
+
   private static boolean isMergeable(List<Object> list) {
     return (list instanceof MergingList && ((MergingList)list).hasMergePosition())
         || list.contains(LIST_MERGE_ENTRY);
@@ -26,11 +26,17 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.nodes.Node;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -134,4 +140,37 @@ public class RoleReaderTest {
     assertEquals(ImmutableMap.of("modelOption1", "value1"), file.getModelOptions());
   }
 
+  @Test
+  public void testReadComposedNode() throws IOException {
+    RoleReader reader = new RoleReader();
+    Node node;
+    try (Reader is = new InputStreamReader(getClass().getResourceAsStream("/role.yaml"), StandardCharsets.UTF_8)) {
+      node = new Yaml().compose(is);
+    }
+
+    Map rawTree = (Map)reader.readRaw(node);
+    assertEquals("tomcat-services", rawTree.get("templateDir"));
+
+    Role nodeRole = reader.read(node);
+    assertEquals("tomcat-services", nodeRole.getTemplateDir());
+    assertEquals(6, nodeRole.getFiles().size());
+    assertEquals(role.getConfig(), nodeRole.getConfig());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testReadComposedNode_LegacyYamlConstructor() throws IOException {
+    AbstractModelReader<Role> reader = new AbstractModelReader<Role>(new Yaml(new Constructor(Role.class))) {
+      // reader using YAML instance
+    };
+    Node node;
+    try (Reader is = new InputStreamReader(getClass().getResourceAsStream("/role.yaml"), StandardCharsets.UTF_8)) {
+      node = new Yaml().compose(is);
+    }
+
+    Role nodeRole = reader.read(node);
+    assertEquals("tomcat-services", nodeRole.getTemplateDir());
+    assertEquals(role.getConfig(), nodeRole.getConfig());
+  }
+
 }
@@ -22,6 +22,7 @@ package io.wcm.devops.conga.model.util;
 import static io.wcm.devops.conga.model.util.MapMerger.LIST_MERGE_ENTRY;
 import static io.wcm.devops.conga.model.util.MapMerger.merge;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -270,6 +271,36 @@ public class MapMergerTest {
     return ImmutableList.copyOf(items);
   }
 
+  @Test
+  public void testImmutableValue() {
+    List<Object> immutableList = ImmutableValue.list(list("i1"));
+    Map<String, Object> immutableMap = ImmutableValue.map(map("k1", "v1"));
+
+    // shared by reference if other value is absent
+    Map<String, Object> merged = merge(map("k1", "v1"), map("list", immutableList, "map", immutableMap));
+    assertSame(immutableList, merged.get("list"));
+    assertSame(immutableMap, merged.get("map"));
+
+    // shared by reference if other value is immutable as well
+    merged = merge(map("list", immutableList, "map", immutableMap),
+        map("list", ImmutableValue.list(list("i2")), "map", ImmutableValue.map(map("k2", "v2"))));
+    assertSame(immutableList, merged.get("list"));
+    assertSame(immutableMap, merged.get("map"));
+
+    // merged with mutable values of both higher and lower priority
+    assertEquals(map("map", map("k1", "v1", "k2", "v2")), merge(map("map", immutableMap), map("map", map("k2", "v2"))));
+    assertEquals(map("map", map("k1", "v1", "k2", "v2")), merge(map("map", map("k2", "v2")), map("map", immutableMap)));
+  }
+
+  @Test
+  public void testImmutableValueListMergeEntry() {
+    List<Object> immutableList = ImmutableValue.list(list("i1", LIST_MERGE_ENTRY));
+
+    // merge entries are removed
+    assertEquals(map("k1", "v1", "list", list("i1")), merge(map("k1", "v1"), map("list", immutableList)));
+    assertEquals(map("list", list("i1", "i2")), merge(map("list", immutableList), map("list", list("i2"))));
+  }
+
   private static Map<String, Object> map(Object... items) {
     Map<String, Object> map = new HashMap<>();
     if (items.length % 2 != 0) {
@@ -20,15 +20,25 @@
 package io.wcm.devops.conga.tooling.cli;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.google.common.collect.ImmutableList;
 
 import io.wcm.devops.conga.generator.Generator;
 import io.wcm.devops.conga.generator.GeneratorOptions;
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
 
 /**
@@ -46,9 +56,25 @@ public final class CongaCli {
     CLI_OPTIONS.addOption("environmentDir", true, "Source path with environment definitions.");
     CLI_OPTIONS.addOption("target", true, "Target path for the generated configuration files.");
     CLI_OPTIONS.addOption("environments", true, "Selected environments to generate (separated by ',').");
+    CLI_OPTIONS.addOption("includeNodes", true, "Generate only nodes matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("excludeNodes", true, "Skip nodes matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("includeRoles", true, "Generate only files of roles matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("excludeRoles", true, "Skip files of roles matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("includeVariants", true, "Generate only node roles with variants matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("excludeVariants", true, "Skip node roles with variants matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("includeFiles", true, "Generate only files with node-relative paths matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("excludeFiles", true, "Skip files with node-relative paths matching these glob patterns or 'regex:' expressions (separated by ',').");
+    CLI_OPTIONS.addOption("urlFilePrefetchThreads", true, "Number of concurrent I/O operations for prefetching URL files (0 = disabled).");
+    CLI_OPTIONS.addOption("plan", true, "Do not generate files, but write a JSON generation plan to the given file.");
+    CLI_OPTIONS.addOption("timingsFile", true, "File to store generation timings of each file, used for cost estimates in generation plans.");
+    CLI_OPTIONS.addOption("report", false, "Write report with timing and allocation metrics of the generation phases to the target path.");
+    CLI_OPTIONS.addOption("watch", false, "Keep running after generation, watch definitions and regenerate affected environments on changes.");
+    CLI_OPTIONS.addOption("watchDebounce", true, "Time in ms to wait for further file changes before regenerating in watch mode.");
     CLI_OPTIONS.addOption("?", false, "Print usage help.");
   }
 
+  private static final long DEFAULT_WATCH_DEBOUNCE_MILLIS = 300;
+
   private CongaCli() {
     // static methods only
   }
@@ -76,6 +102,10 @@ public final class CongaCli {
     File environmentDir = new File(commandLine.getOptionValue("environmentDir", "environments"));
     File targetDir = new File(commandLine.getOptionValue("target", "target"));
     String[] environments = StringUtils.split(commandLine.getOptionValue("environments", null), ",");
+    int urlFilePrefetchThreads = NumberUtils.toInt(commandLine.getOptionValue("urlFilePrefetchThreads"),
+        GeneratorOptions.DEFAULT_URL_FILE_PREFETCH_THREADS);
+    String planFile = commandLine.getOptionValue("plan", null);
+    String timingsFile = commandLine.getOptionValue("timingsFile", null);
 
     GeneratorOptions options = new GeneratorOptions()
         .baseDir(baseDir)
@@ -84,10 +114,44 @@ public final class CongaCli {
         .environmentDir(environmentDir)
         .destDir(targetDir)
         .deleteBeforeGenerate(true)
+        .urlFilePrefetchThreads(urlFilePrefetchThreads)
+        .generationFilter(new GenerationFilter()
+            .includeNodes(StringUtils.split(commandLine.getOptionValue("includeNodes", null), ","))
+            .excludeNodes(StringUtils.split(commandLine.getOptionValue("excludeNodes", null), ","))
+            .includeRoles(StringUtils.split(commandLine.getOptionValue("includeRoles", null), ","))
+            .excludeRoles(StringUtils.split(commandLine.getOptionValue("excludeRoles", null), ","))
+            .includeVariants(StringUtils.split(commandLine.getOptionValue("includeVariants", null), ","))
+            .excludeVariants(StringUtils.split(commandLine.getOptionValue("excludeVariants", null), ","))
+            .includeFiles(StringUtils.split(commandLine.getOptionValue("includeFiles", null), ","))
+            .excludeFiles(StringUtils.split(commandLine.getOptionValue("excludeFiles", null), ",")))
+        .generationTimingsFile(timingsFile != null ? new File(timingsFile) : null)
         .pluginManager(new PluginManagerImpl());
 
+    if (commandLine.hasOption("report")) {
+      options.generationMetrics(new GenerationMetrics());
+    }
+
     Generator generator = new Generator(options);
-    generator.generate(environments);
+    if (planFile != null) {
+      GenerationPlan plan = generator.plan(environments);
+      try (Writer writer = new OutputStreamWriter(new FileOutputStream(planFile), StandardCharsets.UTF_8)) {
+        plan.writeJson(writer);
+      }
+    }
+    else {
+      generator.generate(environments);
+      if (commandLine.hasOption("report")) {
+        options.getGenerationMetrics().writeReport(targetDir);
+        options.getGenerationMetrics().logSummary(options.getLogger(), 10);
+      }
+      if (commandLine.hasOption("watch")) {
+        long debounceMillis = NumberUtils.toLong(commandLine.getOptionValue("watchDebounce"), DEFAULT_WATCH_DEBOUNCE_MILLIS);
+        try (DefinitionWatcher watcher = new DefinitionWatcher(generator, ImmutableList.of(roleDir, templateDir, environmentDir),
+            environments, debounceMillis, options.getLogger())) {
+          watcher.run();
+        }
+      }
+    }
   }
 
 }
@@ -0,0 +1,227 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+
+import io.wcm.devops.conga.generator.Generator;
+
+/**
+ * Watches the role, template and environment directories and regenerates the affected environments on changes.
+ * The generator instance is kept, so resource class loaders, role definitions and compiled templates of unchanged
+ * definitions stay warm. Rapid sequences of file events are collected until no further event arrives within the
+ * debounce interval and are then processed as one batch.
+ */
+final class DefinitionWatcher implements Closeable {
+
+  private final Generator generator;
+  private final List<File> dirs;
+  private final Set<String> selectedEnvironments;
+  private final long debounceMillis;
+  private final Logger log;
+  private final WatchService watchService;
+  private final Map<WatchKey, Path> watchKeys = new HashMap<>();
+
+  /**
+   * @param generator Generator
+   * @param dirs Directories to watch (including subdirectories)
+   * @param selectedEnvironments Environments to regenerate, or empty for all environments
+   * @param debounceMillis Debounce interval
+   * @param log Logger
+   * @throws IOException I/O exception
+   */
+  DefinitionWatcher(Generator generator, List<File> dirs, String[] selectedEnvironments, long debounceMillis, Logger log)
+      throws IOException {
+    this.generator = generator;
+    this.dirs = dirs;
+    this.selectedEnvironments = selectedEnvironments != null ? new TreeSet<>(Arrays.asList(selectedEnvironments)) : new TreeSet<>();
+    this.debounceMillis = debounceMillis;
+    this.log = log;
+    this.watchService = FileSystems.getDefault().newWatchService();
+  }
+
+  /**
+   * Watches for changes until the thread is interrupted.
+   * @throws IOException I/O exception
+   */
+  public void run() throws IOException {
+    for (File dir : dirs) {
+      if (dir.isDirectory()) {
+        register(dir.toPath());
+      }
+    }
+    log.info("Watching {} for changes...", dirs);
+
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<File> changedFiles = new LinkedHashSet<>();
+        boolean overflow = processEvents(watchService.take(), changedFiles);
+
+        // collect further events until no event arrived within the debounce interval
+        WatchKey key;
+        while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          overflow |= processEvents(key, changedFiles);
+        }
+
+        if (overflow || !changedFiles.isEmpty()) {
+          regenerate(changedFiles, overflow);
+        }
+      }
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean processEvents(WatchKey key, Set<File> changedFiles) throws IOException {
+    boolean overflow = false;
+    Path dir = watchKeys.get(key);
+    if (dir != null) {
+      overflow = processEvents(dir, key.pollEvents(), changedFiles);
+    }
+    if (!key.reset()) {
+      watchKeys.remove(key);
+    }
+    return overflow;
+  }
+
+  /**
+   * Collects the changed files from the events of a watched directory.
+   * @param dir Watched directory
+   * @param events File system events
+   * @param changedFiles Set to add changed files to
+   * @return true if events were lost, so all changed files cannot be detected
+   * @throws IOException I/O exception
+   */
+  boolean processEvents(Path dir, List<WatchEvent<?>> events, Set<File> changedFiles) throws IOException {
+    boolean overflow = false;
+    for (WatchEvent<?> event : events) {
+      if (event.kind() == OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      Path path = dir.resolve((Path)event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        register(path);
+        addFiles(path, changedFiles);
+      }
+      else if (!Files.isDirectory(path) && !isIgnored(path)) {
+        changedFiles.add(path.toFile());
+      }
+    }
+    return overflow;
+  }
+
+  /**
+   * Reloads the changed definitions and regenerates the affected environments.
+   * @param changedFiles Changed files
+   * @param overflow If true events were lost - all definitions are reloaded and all selected environments regenerated
+   */
+  void regenerate(Set<File> changedFiles, boolean overflow) {
+    long start = System.currentTimeMillis();
+    try {
+      if (overflow) {
+        log.warn("File system events were lost, regenerating all environments.");
+        generator.invalidate();
+        generator.generate(selectedEnvironments.toArray(new String[selectedEnvironments.size()]));
+        log.info("Regenerated {} in {} ms.", selectedEnvironments.isEmpty() ? "all environments" : selectedEnvironments,
+            System.currentTimeMillis() - start);
+        return;
+      }
+      Set<String> environments = generator.reload(changedFiles);
+      if (!selectedEnvironments.isEmpty()) {
+        environments.retainAll(selectedEnvironments);
+      }
+      if (environments.isEmpty()) {
+        log.info("{} file(s) changed, no environment affected.", changedFiles.size());
+        return;
+      }
+      generator.generate(environments.toArray(new String[environments.size()]));
+      log.info("{} file(s) changed, regenerated {} in {} ms.", changedFiles.size(), environments, System.currentTimeMillis() - start);
+    }
+    /*CHECKSTYLE:OFF*/ catch (RuntimeException ex) { /*CHECKSTYLE:ON*/
+      // keep watching - the definitions can be fixed and are reloaded on next change
+      log.error("Generation failed: " + ex.getMessage(), ex);
+    }
+  }
+
+  private void register(Path dir) throws IOException {
+    Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) throws IOException {
+        watchKeys.put(path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private static void addFiles(Path dir, Set<File> changedFiles) throws IOException {
+    Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+        if (!isIgnored(path)) {
+          changedFiles.add(path.toFile());
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Ignore hidden files and backup files created by editors.
+   */
+  private static boolean isIgnored(Path path) {
+    String name = path.getFileName().toString();
+    return StringUtils.startsWith(name, ".") || StringUtils.endsWith(name, "~");
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+}
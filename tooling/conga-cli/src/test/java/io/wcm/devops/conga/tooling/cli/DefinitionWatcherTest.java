@@ -0,0 +1,175 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.cli;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.wcm.devops.conga.generator.Generator;
+import io.wcm.devops.conga.generator.GeneratorOptions;
+import io.wcm.devops.conga.generator.util.PluginManagerImpl;
+
+public class DefinitionWatcherTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File roleDir;
+  private File templateDir;
+  private File environmentDir;
+  private File destDir;
+  private Generator generator;
+  private DefinitionWatcher underTest;
+
+  @Before
+  public void setUp() throws IOException {
+    roleDir = tempFolder.newFolder("roles");
+    templateDir = tempFolder.newFolder("templates");
+    environmentDir = tempFolder.newFolder("environments");
+    destDir = tempFolder.newFolder("output");
+
+    write(roleDir, "role1.yaml", "files:\n- file: test.txt\n  template: role1/test.txt.hbs\n");
+    write(templateDir, "role1/test.txt.hbs", "template1");
+    write(environmentDir, "env1.yaml", "nodes:\n- node: node1\n  roles:\n  - role: role1\n");
+    write(environmentDir, "env2.yaml", "nodes:\n- node: node1\n  roles:\n  - role: role1\n");
+
+    generator = new Generator(new GeneratorOptions()
+        .baseDir(tempFolder.getRoot())
+        .roleDir(roleDir)
+        .templateDir(templateDir)
+        .environmentDir(environmentDir)
+        .destDir(destDir)
+        .pluginManager(new PluginManagerImpl()));
+    generator.generate();
+    assertOutput("env1", "template1");
+    assertOutput("env2", "template1");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    if (underTest != null) {
+      underTest.close();
+    }
+  }
+
+  @Test
+  public void testModifiedTemplate() throws IOException {
+    underTest = watcher();
+    write(templateDir, "role1/test.txt.hbs", "template2");
+
+    Set<File> changedFiles = new LinkedHashSet<>();
+    assertFalse(underTest.processEvents(new File(templateDir, "role1").toPath(),
+        ImmutableList.of(event(ENTRY_MODIFY, "test.txt.hbs"), event(ENTRY_MODIFY, ".test.txt.hbs.swp")), changedFiles));
+    assertEquals(ImmutableSet.of(new File(templateDir, "role1/test.txt.hbs")), changedFiles);
+
+    underTest.regenerate(changedFiles, false);
+    assertOutput("env1", "template2");
+    assertOutput("env2", "template2");
+  }
+
+  @Test
+  public void testCreatedSubdirectory() throws IOException {
+    underTest = watcher();
+    write(templateDir, "role1new/sub/test.txt.hbs", "template2");
+    write(roleDir, "role1.yaml", "files:\n- file: test.txt\n  template: role1new/sub/test.txt.hbs\n");
+
+    Set<File> changedFiles = new LinkedHashSet<>();
+    assertFalse(underTest.processEvents(templateDir.toPath(), ImmutableList.of(event(ENTRY_CREATE, "role1new")), changedFiles));
+    assertFalse(underTest.processEvents(roleDir.toPath(), ImmutableList.of(event(ENTRY_MODIFY, "role1.yaml")), changedFiles));
+    assertEquals(ImmutableSet.of(new File(templateDir, "role1new/sub/test.txt.hbs"), new File(roleDir, "role1.yaml")), changedFiles);
+
+    underTest.regenerate(changedFiles, false);
+    assertOutput("env1", "template2");
+    assertOutput("env2", "template2");
+  }
+
+  @Test
+  public void testOverflow() throws IOException {
+    underTest = watcher("env1");
+    write(templateDir, "role1/test.txt.hbs", "template2");
+
+    // change events for template are lost
+    Set<File> changedFiles = new LinkedHashSet<>();
+    assertTrue(underTest.processEvents(templateDir.toPath(), ImmutableList.of(event(OVERFLOW, null)), changedFiles));
+    assertTrue(changedFiles.isEmpty());
+
+    underTest.regenerate(changedFiles, true);
+    assertOutput("env1", "template2");
+    assertOutput("env2", "template1");
+  }
+
+  private DefinitionWatcher watcher(String... selectedEnvironments) throws IOException {
+    return new DefinitionWatcher(generator, ImmutableList.of(roleDir, templateDir, environmentDir), selectedEnvironments, 0,
+        LoggerFactory.getLogger(DefinitionWatcherTest.class));
+  }
+
+  private void assertOutput(String environment, String expectedContent) throws IOException {
+    File file = new File(destDir, environment + "/node1/test.txt");
+    assertTrue("File does not exist: " + file.getPath(), file.exists());
+    assertEquals(expectedContent, FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+  }
+
+  private static void write(File dir, String path, String content) throws IOException {
+    FileUtils.write(new File(dir, path), content, StandardCharsets.UTF_8);
+  }
+
+  private static WatchEvent<?> event(WatchEvent.Kind<?> kind, String context) {
+    Path path = context != null ? new File(context).toPath() : null;
+    return new WatchEvent<Object>() {
+      @SuppressWarnings("unchecked")
+      @Override
+      public Kind<Object> kind() {
+        return (Kind<Object>)kind;
+      }
+      @Override
+      public int count() {
+        return 1;
+      }
+      @Override
+      public Object context() {
+        return path;
+      }
+    };
+  }
+
+}
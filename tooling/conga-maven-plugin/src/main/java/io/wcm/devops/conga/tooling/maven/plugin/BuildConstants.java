@@ -67,6 +67,21 @@ public final class BuildConstants {
    */
   public static final String FILE_VERSION_INFO = "version.properties";
 
+  /**
+   * Properties file in build directory caching which dependency JAR files contain CONGA definitions.
+   */
+  public static final String FILE_CONGA_DEFINITIONS_CACHE = "conga-definitions-cache.properties";
+
+  /**
+   * Properties file in build directory with fingerprints of successfully validated definition and template files.
+   */
+  public static final String FILE_VALIDATION_CACHE = "conga-validation-cache.properties";
+
+  /**
+   * Properties file in build directory with the generation time of each file of the last generation run.
+   */
+  public static final String FILE_GENERATION_TIMINGS = "conga-generation-timings.properties";
+
   /**
    * CONGA maven plugin key.
    */
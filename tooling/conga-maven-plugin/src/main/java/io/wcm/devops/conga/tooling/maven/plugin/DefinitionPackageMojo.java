@@ -28,12 +28,15 @@ import static io.wcm.devops.conga.tooling.maven.plugin.BuildConstants.PACKAGING_
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedSet;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.archiver.MavenArchiveConfiguration;
 import org.apache.maven.archiver.MavenArchiver;
@@ -75,6 +78,13 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
   @Parameter
   private MavenArchiveConfiguration archive = new MavenArchiveConfiguration();
 
+  /**
+   * If set to true the definition files are added directly from the source directories to the JAR file
+   * instead of copying them to the definition target directory first.
+   */
+  @Parameter(defaultValue = "false", property = "conga.archiveDefinitionsDirectly")
+  private boolean archiveDefinitionsDirectly;
+
   @Parameter(property = "project", required = true, readonly = true)
   private MavenProject project;
 
@@ -90,8 +100,14 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
 
-    // copy definitions to classes dir
-    File definitionDir = copyDefinitions();
+    File definitionDir;
+    if (archiveDefinitionsDirectly) {
+      definitionDir = new File(definitionTarget);
+    }
+    else {
+      // copy definitions to classes dir
+      definitionDir = copyDefinitions();
+    }
 
     // build JAR artifact
     File outputFile = buildJarFile(definitionDir);
@@ -120,7 +136,23 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
     archive.setForced(true);
 
     // include definitions
-    archiver.getArchiver().addDirectory(contentDirectory);
+    if (archiveDefinitionsDirectly) {
+      addDefinitionDirectory(archiver.getArchiver(), getRoleDir(), CLASSPATH_ROLES_DIR);
+      addDefinitionDirectory(archiver.getArchiver(), getTemplateDir(), CLASSPATH_TEMPLATES_DIR);
+      addDefinitionDirectory(archiver.getArchiver(), getEnvironmentDir(), CLASSPATH_ENVIRONMENTS_DIR);
+
+      // include other files like version info, but no definition copies from previous builds
+      if (contentDirectory.exists()) {
+        archiver.getArchiver().addDirectory(contentDirectory, null, new String[] {
+            CLASSPATH_ROLES_DIR + "/**",
+            CLASSPATH_TEMPLATES_DIR + "/**",
+            CLASSPATH_ENVIRONMENTS_DIR + "/**"
+        });
+      }
+    }
+    else {
+      archiver.getArchiver().addDirectory(contentDirectory);
+    }
 
     // include resources
     for (org.apache.maven.model.Resource resource : project.getResources()) {
@@ -141,6 +173,13 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
     return jarFile;
   }
 
+  private void addDefinitionDirectory(Archiver jarArchiver, File sourceDir, String dirName) {
+    if (sourceDir.exists() && sourceDir.isDirectory()) {
+      getLog().info("Include " + dirName);
+      jarArchiver.addDirectory(sourceDir, dirName + "/");
+    }
+  }
+
   private String[] toArray(List<String> values) {
     if (values == null || values.isEmpty()) {
       return null;
@@ -160,6 +199,7 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
 
   /**
    * Copy definitions and template files to classes folder to include them in JAR artifact.
+   * Files that are unchanged since the last build are not copied again, files no longer present are removed.
    * @throws MojoExecutionException
    */
   private File copyDefinitions() throws MojoExecutionException {
@@ -187,31 +227,55 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
   }
 
   private void copyDefinitions(ResourceCollection sourceDir, File rootOutputDir, File parentTargetDir, String dirName) throws IOException {
-    if (!sourceDir.exists()) {
-      return;
-    }
-    SortedSet<Resource> files = sourceDir.getResources();
-    SortedSet<ResourceCollection> dirs = sourceDir.getResourceCollections();
+    File targetDir = new File(parentTargetDir, dirName);
+
+    // remove previous copy if source directory was removed or is empty now
+    SortedSet<Resource> files = sourceDir.exists() ? sourceDir.getResources() : Collections.emptySortedSet();
+    SortedSet<ResourceCollection> dirs = sourceDir.exists() ? sourceDir.getResourceCollections() : Collections.emptySortedSet();
     if (files.isEmpty() && dirs.isEmpty()) {
+      removeStale(rootOutputDir, targetDir);
       return;
     }
 
-    File targetDir = new File(parentTargetDir, dirName);
+    if (targetDir.isFile()) {
+      removeStale(rootOutputDir, targetDir);
+    }
     if (!targetDir.exists()) {
       targetDir.mkdirs();
     }
 
+    Set<String> fileNames = new HashSet<>();
     for (Resource file : files) {
+      File sourceFile = new File(file.getCanonicalPath());
       File targetFile = new File(targetDir, file.getName());
+      fileNames.add(file.getName());
 
       getLog().info("Include " + getPathForLog(rootOutputDir, targetFile));
 
-      if (targetFile.exists()) {
-        targetFile.delete();
+      if (targetFile.isDirectory()) {
+        removeStale(rootOutputDir, targetFile);
       }
-      try (InputStream is = file.getInputStream()) {
-        byte[] data = IOUtils.toByteArray(is);
-        FileUtils.writeByteArrayToFile(targetFile, data);
+      else if (isUnchanged(sourceFile, targetFile)) {
+        continue;
+      }
+      Files.copy(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+    }
+
+    Set<String> dirNames = new HashSet<>();
+    for (ResourceCollection dir : dirs) {
+      dirNames.add(dir.getName());
+    }
+
+    // remove files and directories that were removed from source directory
+    File[] targetFiles = targetDir.listFiles();
+    if (targetFiles != null) {
+      for (File targetFile : targetFiles) {
+        boolean stale = targetFile.isDirectory()
+            ? !dirNames.contains(targetFile.getName())
+            : !fileNames.contains(targetFile.getName());
+        if (stale) {
+          removeStale(rootOutputDir, targetFile);
+        }
       }
     }
 
@@ -220,6 +284,32 @@ public class DefinitionPackageMojo extends AbstractCongaMojo {
     }
   }
 
+  private void removeStale(File rootOutputDir, File targetFile) throws IOException {
+    if (targetFile.exists()) {
+      getLog().debug("Remove " + getPathForLog(rootOutputDir, targetFile));
+      FileUtils.forceDelete(targetFile);
+    }
+  }
+
+  /**
+   * Checks if the target file is an unchanged copy of the source file. Copies keep the modification date of the
+   * source file, so files with same size and modification date are considered unchanged without reading them.
+   * The content is only compared if the modification date differs.
+   * @param sourceFile Source file
+   * @param targetFile Target file
+   * @return true if the target file does not need to be copied again
+   * @throws IOException
+   */
+  private boolean isUnchanged(File sourceFile, File targetFile) throws IOException {
+    if (!targetFile.isFile() || targetFile.length() != sourceFile.length()) {
+      return false;
+    }
+    if (targetFile.lastModified() == sourceFile.lastModified()) {
+      return true;
+    }
+    return FileUtils.contentEquals(sourceFile, targetFile);
+  }
+
   private String getPathForLog(File rootOutputDir, File file) throws IOException {
     String path = unifySlashes(file.getCanonicalPath());
     String rootPath = unifySlashes(rootOutputDir.getCanonicalPath()) + "/";
@@ -19,26 +19,24 @@
  */
 package io.wcm.devops.conga.tooling.maven.plugin;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.List;
 import java.util.TreeSet;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Dependency;
 import org.eclipse.aether.artifact.Artifact;
 
 import io.wcm.devops.conga.generator.GeneratorException;
-import io.wcm.devops.conga.generator.GeneratorOptions;
 import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
 import io.wcm.devops.conga.generator.util.FileUtil;
 import io.wcm.devops.conga.model.environment.Environment;
+import io.wcm.devops.conga.tooling.maven.plugin.util.CongaDefinitionsCache;
 import io.wcm.devops.conga.tooling.maven.plugin.util.MavenArtifactHelper;
 import io.wcm.devops.conga.tooling.maven.plugin.util.MavenContext;
 
@@ -46,10 +44,13 @@ class DependencyVersionBuilder implements Function<Environment, Collection<Strin
 
   private final MavenContext mavenContext;
   private final PluginContextOptions pluginContextOptions;
+  private final CongaDefinitionsCache congaDefinitionsCache;
+  private List<Artifact> compileDependencyArtifacts;
 
-  DependencyVersionBuilder(PluginContextOptions pluginContextOptions) {
+  DependencyVersionBuilder(PluginContextOptions pluginContextOptions, File congaDefinitionsCacheFile) {
     this.mavenContext = (MavenContext)pluginContextOptions.getContainerContext();
     this.pluginContextOptions = pluginContextOptions;
+    this.congaDefinitionsCache = new CongaDefinitionsCache(congaDefinitionsCacheFile);
   }
 
   @Override
@@ -61,31 +62,40 @@ class DependencyVersionBuilder implements Function<Environment, Collection<Strin
       dependencyArtifacts.addAll(getCompileDependencyArtifacts(mavenArtifactHelper));
       dependencyArtifacts.addAll(getEnvironmentDependencyArtifacts(environment, mavenArtifactHelper));
 
-      return new TreeSet<>(
+      Collection<String> result = new TreeSet<>(
           dependencyArtifacts.stream()
               // include only dependencies with a CONGA-INF/ directory
               .filter(this::hasCongaDefinitions)
               // transform to string
               .map(this::toArtifactCoordsPaxUrlStyle)
               .collect(Collectors.toSet()));
+
+      congaDefinitionsCache.save();
+      return result;
     }
     catch (IOException ex) {
       throw new GeneratorException(ex.getMessage(), ex);
     }
   }
 
+  /**
+   * Compile dependencies do not depend on the environment - resolve them only once.
+   */
   @SuppressWarnings("deprecation")
-  private List<Artifact> getCompileDependencyArtifacts(MavenArtifactHelper mavenArtifactHelper) throws IOException {
-    List<Artifact> artifacts = new ArrayList<>();
-    for (Dependency dependency : mavenContext.getProject().getCompileDependencies()) {
-      artifacts.add(mavenArtifactHelper.resolveArtifact(
-          dependency.getGroupId(),
-          dependency.getArtifactId(),
-          dependency.getType(),
-          dependency.getClassifier(),
-          dependency.getVersion()));
+  private synchronized List<Artifact> getCompileDependencyArtifacts(MavenArtifactHelper mavenArtifactHelper) throws IOException {
+    if (compileDependencyArtifacts == null) {
+      List<Artifact> artifacts = new ArrayList<>();
+      for (Dependency dependency : mavenContext.getProject().getCompileDependencies()) {
+        artifacts.add(mavenArtifactHelper.resolveArtifact(
+            dependency.getGroupId(),
+            dependency.getArtifactId(),
+            dependency.getType(),
+            dependency.getClassifier(),
+            dependency.getVersion()));
+      }
+      compileDependencyArtifacts = artifacts;
     }
-    return artifacts;
+    return compileDependencyArtifacts;
   }
 
   private List<Artifact> getEnvironmentDependencyArtifacts(Environment environment, MavenArtifactHelper mavenArtifactHelper) throws IOException {
@@ -101,23 +111,12 @@ class DependencyVersionBuilder implements Function<Environment, Collection<Strin
     if (!StringUtils.equalsAny(artifact.getExtension(), "jar")) {
       return false;
     }
-    String fileInfo = artifact.toString();
     try {
-      fileInfo = FileUtil.getCanonicalPath(artifact.getFile());
-      try (ZipFile zipFile = new ZipFile(artifact.getFile())) {
-        Enumeration<? extends ZipEntry> entries = zipFile.entries();
-        while (entries.hasMoreElements()) {
-          ZipEntry entry = entries.nextElement();
-          if (StringUtils.startsWith(entry.getName(), GeneratorOptions.CLASSPATH_PREFIX)) {
-            return true;
-          }
-        }
-      }
+      return congaDefinitionsCache.hasCongaDefinitions(artifact.getFile());
     }
     catch (IOException ex) {
-      throw new GeneratorException("Unable to read from JAR file: " + fileInfo, ex);
+      throw new GeneratorException("Unable to read from JAR file: " + FileUtil.getCanonicalPath(artifact.getFile()), ex);
     }
-    return false;
   }
 
   /**
@@ -19,6 +19,12 @@
  */
 package io.wcm.devops.conga.tooling.maven.plugin;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.apache.maven.plugin.MojoExecutionException;
@@ -35,6 +41,9 @@ import org.eclipse.aether.repository.RemoteRepository;
 
 import io.wcm.devops.conga.generator.Generator;
 import io.wcm.devops.conga.generator.GeneratorOptions;
+import io.wcm.devops.conga.generator.filter.GenerationFilter;
+import io.wcm.devops.conga.generator.metrics.GenerationMetrics;
+import io.wcm.devops.conga.generator.plan.GenerationPlan;
 import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
 import io.wcm.devops.conga.generator.util.PluginManager;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
@@ -54,12 +63,106 @@ public class GenerateMojo extends AbstractCongaMojo {
   @Parameter(property = "conga.environments")
   private String[] environments;
 
+  /**
+   * Generate only nodes matching these glob patterns (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.includeNodes")
+  private String[] includeNodes;
+
+  /**
+   * Skip nodes matching these glob patterns (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.excludeNodes")
+  private String[] excludeNodes;
+
+  /**
+   * Generate only files of roles matching these glob patterns (or regular expressions with "regex:" prefix).
+   * Patterns are matched against the roles assigned to the nodes and the roles they inherit from.
+   */
+  @Parameter(property = "conga.includeRoles")
+  private String[] includeRoles;
+
+  /**
+   * Skip files of roles matching these glob patterns (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.excludeRoles")
+  private String[] excludeRoles;
+
+  /**
+   * Generate only node roles with a variant matching these glob patterns (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.includeVariants")
+  private String[] includeVariants;
+
+  /**
+   * Skip node roles with a variant matching these glob patterns (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.excludeVariants")
+  private String[] excludeVariants;
+
+  /**
+   * Generate only files with a path relative to the node directory matching these glob patterns
+   * (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.includeFiles")
+  private String[] includeFiles;
+
+  /**
+   * Skip files with a path relative to the node directory matching these glob patterns
+   * (or regular expressions with "regex:" prefix).
+   */
+  @Parameter(property = "conga.excludeFiles")
+  private String[] excludeFiles;
+
   /**
    * Delete folders of environments before generating the new files.
+   * Folders are not deleted if any node, role, variant or file filter is defined.
    */
   @Parameter(defaultValue = "false")
   private boolean deleteBeforeGenerate;
 
+  /**
+   * Number of concurrent I/O operations for resolving and downloading URL files (e.g. Maven artifacts) of an
+   * environment before generating the files. Set to 0 to disable prefetching.
+   */
+  @Parameter(property = "conga.urlFilePrefetchThreads", defaultValue = "0")
+  private int urlFilePrefetchThreads;
+
+  /**
+   * If set to true the complete configuration of each node role is resolved, so invalid variable references
+   * are reported even if no generated file uses them. If set to false only the variables referenced by the
+   * generated files are resolved.
+   */
+  @Parameter(property = "conga.resolveAllVariables", defaultValue = "true")
+  private boolean resolveAllVariables;
+
+  /**
+   * If set to true no files are generated. Instead a JSON file is written to planFile listing all files
+   * that would be generated, with the templates, URLs and plugins used for them and the estimated costs
+   * based on the previous generation run.
+   */
+  @Parameter(property = "conga.plan", defaultValue = "false")
+  private boolean plan;
+
+  /**
+   * JSON file the generation plan is written to if plan is set to true.
+   */
+  @Parameter(property = "conga.planFile", defaultValue = "${project.build.directory}/conga-plan.json")
+  private File planFile;
+
+  /**
+   * If set to true wall time and allocated bytes of each generation phase are measured, aggregated per environment,
+   * node, role and plugin and written as JSON and CSV report to the build directory.
+   */
+  @Parameter(property = "conga.generationReport", defaultValue = "false")
+  private boolean generationReport;
+
+  /**
+   * Number of most expensive entries from the generation report that are logged.
+   */
+  @Parameter(property = "conga.generationReportTopN", defaultValue = "10")
+  private int generationReportTopN;
+
   @Parameter(property = "project", required = true, readonly = true)
   private MavenProject project;
 
@@ -103,11 +206,58 @@ public class GenerateMojo extends AbstractCongaMojo {
         .containerContext(mavenContext)
         .containerClasspathUrls(ClassLoaderUtil.getMavenProjectClasspathUrls(project))
         .pluginManager(pluginManager)
-        .dependencyVersionBuilder(new DependencyVersionBuilder(pluginContextOptions))
+        .dependencyVersionBuilder(new DependencyVersionBuilder(pluginContextOptions,
+            new File(project.getBuild().getDirectory(), BuildConstants.FILE_CONGA_DEFINITIONS_CACHE)))
+        .urlFilePrefetchThreads(urlFilePrefetchThreads)
+        .resolveAllVariables(resolveAllVariables)
+        .generationFilter(new GenerationFilter()
+            .includeNodes(includeNodes)
+            .excludeNodes(excludeNodes)
+            .includeRoles(includeRoles)
+            .excludeRoles(excludeRoles)
+            .includeVariants(includeVariants)
+            .excludeVariants(excludeVariants)
+            .includeFiles(includeFiles)
+            .excludeFiles(excludeFiles))
+        .generationTimingsFile(new File(project.getBuild().getDirectory(), BuildConstants.FILE_GENERATION_TIMINGS))
         .logger(new MavenSlf4jLogFacade(getLog()));
+    if (generationReport) {
+      options.generationMetrics(new GenerationMetrics());
+    }
 
     Generator generator = new Generator(options);
-    generator.generate(environments);
+    if (plan) {
+      writePlan(generator.plan(environments));
+    }
+    else {
+      generator.generate(environments);
+      if (generationReport) {
+        writeGenerationReport(options.getGenerationMetrics());
+      }
+    }
+  }
+
+  private void writeGenerationReport(GenerationMetrics metrics) throws MojoExecutionException {
+    File reportDir = new File(project.getBuild().getDirectory());
+    try {
+      metrics.writeReport(reportDir);
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to write generation report to " + reportDir.getPath(), ex);
+    }
+    metrics.logSummary(new MavenSlf4jLogFacade(getLog()), generationReportTopN);
+  }
+
+  private void writePlan(GenerationPlan generationPlan) throws MojoExecutionException {
+    planFile.getParentFile().mkdirs();
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(planFile), StandardCharsets.UTF_8)) {
+      generationPlan.writeJson(writer);
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException("Unable to write generation plan: " + planFile.getPath(), ex);
+    }
+    getLog().info("Generation plan with " + generationPlan.getFiles().size() + " files "
+        + "(estimated " + String.format("%.1f", generationPlan.getEstimatedMillis()) + " ms) written to " + planFile.getPath());
   }
 
 }
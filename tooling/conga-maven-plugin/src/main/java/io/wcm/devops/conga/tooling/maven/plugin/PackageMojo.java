@@ -26,8 +26,14 @@ import static io.wcm.devops.conga.tooling.maven.plugin.BuildConstants.PACKAGING_
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -44,8 +50,12 @@ import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
 import org.codehaus.plexus.archiver.zip.ZipArchiver;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import io.wcm.devops.conga.tooling.maven.plugin.util.ParallelZipArchiver;
+
 /**
  * Packages the generated configurations in a ZIP file.
  */
@@ -65,6 +75,27 @@ public class PackageMojo extends AbstractCongaMojo {
   @Parameter(defaultValue = "true")
   private boolean artifactPerEnvironment;
 
+  /**
+   * If set to true the ZIP entries are compressed in parallel, and per-environment ZIP files are built concurrently.
+   * Entries are added in alphabetical order with a fixed timestamp, so identical generated files result in
+   * byte-identical ZIP files.
+   */
+  @Parameter(property = "conga.parallelPackaging", defaultValue = "false")
+  private boolean parallelPackaging;
+
+  /**
+   * Number of threads used for parallel packaging.
+   */
+  @Parameter(property = "conga.packagingThreads", defaultValue = "4")
+  private int packagingThreads;
+
+  /**
+   * File extensions of files that are stored in the ZIP file without compression, e.g. already compressed files
+   * downloaded via URL like "zip" or "jar". Applies only to parallel packaging.
+   */
+  @Parameter
+  private String[] storeOnlyFileExtensions;
+
   @Parameter(property = "project", required = true, readonly = true)
   private MavenProject project;
 
@@ -96,6 +127,7 @@ public class PackageMojo extends AbstractCongaMojo {
 
     if (artifactPerEnvironment) {
       // generate an ZIP artifact with generated configurations for each environment
+      Map<File, String> classifiers = new LinkedHashMap<>();
       for (File environmentDir : environmentDirs) {
 
         // classifier is environment name
@@ -105,13 +137,15 @@ public class PackageMojo extends AbstractCongaMojo {
           classifier = CLASSIFIER_CONFIGURATION + "-" + classifier;
         }
         validateClassifier(classifier);
+        classifiers.put(environmentDir, classifier);
+      }
 
-        // build ZIP artifact
-        File outputFile = buildZipFile(environmentDir, classifier);
-
-        // attach ZIP artifact
-        projectHelper.attachArtifact(project, outputFile, classifier);
+      // build ZIP artifacts
+      Map<File, File> outputFiles = buildZipFiles(classifiers);
 
+      // attach ZIP artifacts
+      for (Map.Entry<File, String> entry : classifiers.entrySet()) {
+        projectHelper.attachArtifact(project, outputFiles.get(entry.getKey()), entry.getValue());
       }
     }
     else {
@@ -122,7 +156,8 @@ public class PackageMojo extends AbstractCongaMojo {
       }
       validateClassifier(classifier);
 
-      File outputFile = buildZipFile(configRootDir, classifier);
+      File outputFile = buildZipFiles(ImmutableMap.of(configRootDir, StringUtils.defaultString(classifier)))
+          .get(configRootDir);
       // set or attach ZIP artifact
       if (StringUtils.equals(project.getPackaging(), PACKAGING_CONFIGURATION)) {
         project.getArtifact().setFile(outputFile);
@@ -135,9 +170,61 @@ public class PackageMojo extends AbstractCongaMojo {
   }
 
   /**
-   * Build JAR file with definitions.
-   * @param contentDirectory Content directory for JAR file
-   * @return JAR file
+   * Build ZIP files for the given content directories.
+   * @param classifiers Maps content directories to classifiers
+   * @return Maps content directories to ZIP files
+   * @throws MojoExecutionException
+   */
+  private Map<File, File> buildZipFiles(Map<File, String> classifiers) throws MojoExecutionException {
+    Map<File, File> outputFiles = new LinkedHashMap<>();
+    if (!parallelPackaging) {
+      for (Map.Entry<File, String> entry : classifiers.entrySet()) {
+        outputFiles.put(entry.getKey(), buildZipFile(entry.getKey(), entry.getValue()));
+      }
+      return outputFiles;
+    }
+
+    int threads = Math.max(1, packagingThreads);
+    ExecutorService entryExecutor = Executors.newFixedThreadPool(threads);
+    ExecutorService archiveExecutor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, classifiers.size())));
+    try {
+      ParallelZipArchiver parallelZipArchiver = new ParallelZipArchiver(entryExecutor, threads,
+          storeOnlyFileExtensions != null ? Arrays.asList(storeOnlyFileExtensions) : ImmutableList.of());
+
+      Map<File, Future<File>> futures = new LinkedHashMap<>();
+      for (Map.Entry<File, String> entry : classifiers.entrySet()) {
+        File zipFile = new File(project.getBuild().getDirectory(), buildZipFileName(entry.getValue()));
+        futures.put(entry.getKey(), archiveExecutor.submit(() -> {
+          parallelZipArchiver.createArchive(entry.getKey(), zipFile);
+          return zipFile;
+        }));
+      }
+
+      for (Map.Entry<File, Future<File>> entry : futures.entrySet()) {
+        try {
+          outputFiles.put(entry.getKey(), entry.getValue().get());
+        }
+        catch (ExecutionException ex) {
+          throw new MojoExecutionException("Unable to build ZIP file for " + entry.getKey().getPath() + ": "
+              + ex.getCause().getMessage(), ex.getCause());
+        }
+        catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new MojoExecutionException("Interrupted while building ZIP files.", ex);
+        }
+      }
+    }
+    finally {
+      archiveExecutor.shutdownNow();
+      entryExecutor.shutdownNow();
+    }
+    return outputFiles;
+  }
+
+  /**
+   * Build ZIP file with generated configuration.
+   * @param contentDirectory Content directory for ZIP file
+   * @return ZIP file
    * @throws MojoExecutionException
    */
   private File buildZipFile(File contentDirectory, String classifier) throws MojoExecutionException {
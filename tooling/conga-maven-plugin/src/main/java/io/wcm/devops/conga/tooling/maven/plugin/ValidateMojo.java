@@ -19,16 +19,25 @@
  */
 package io.wcm.devops.conga.tooling.maven.plugin;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
-import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -52,6 +61,7 @@ import io.wcm.devops.conga.generator.UrlFileManager;
 import io.wcm.devops.conga.generator.handlebars.HandlebarsManager;
 import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
 import io.wcm.devops.conga.generator.spi.context.UrlFilePluginContext;
+import io.wcm.devops.conga.generator.util.FileUtil;
 import io.wcm.devops.conga.generator.util.PluginManager;
 import io.wcm.devops.conga.generator.util.PluginManagerImpl;
 import io.wcm.devops.conga.model.environment.Environment;
@@ -66,10 +76,15 @@ import io.wcm.devops.conga.tooling.maven.plugin.util.MavenContext;
 import io.wcm.devops.conga.tooling.maven.plugin.util.PathUtil;
 import io.wcm.devops.conga.tooling.maven.plugin.util.VersionInfoUtil;
 import io.wcm.devops.conga.tooling.maven.plugin.validation.DefinitionValidator;
+import io.wcm.devops.conga.tooling.maven.plugin.validation.IncrementalDefinitionValidator;
 import io.wcm.devops.conga.tooling.maven.plugin.validation.ModelValidator;
 import io.wcm.devops.conga.tooling.maven.plugin.validation.NoValueProviderInRoleValidator;
+import io.wcm.devops.conga.tooling.maven.plugin.validation.ParsedDefinition;
+import io.wcm.devops.conga.tooling.maven.plugin.validation.ParsedDefinitionValidatorChain;
 import io.wcm.devops.conga.tooling.maven.plugin.validation.RoleTemplateFileValidator;
+import io.wcm.devops.conga.tooling.maven.plugin.validation.TemplateFingerprints;
 import io.wcm.devops.conga.tooling.maven.plugin.validation.TemplateValidator;
+import io.wcm.devops.conga.tooling.maven.plugin.validation.ValidationCache;
 
 /**
  * Validates definitions by trying to parse them with model reader or compile them via handlebars.
@@ -90,6 +105,20 @@ public class ValidateMojo extends AbstractCongaMojo {
   @Parameter(property = "project.remoteProjectRepositories", readonly = true)
   private List<RemoteRepository> remoteRepos;
 
+  /**
+   * Number of threads for validating definition files and templates in parallel.
+   */
+  @Parameter(property = "conga.validationThreads", defaultValue = "4")
+  private int validationThreads;
+
+  /**
+   * Validate only templates and role definitions that changed since the last validation (or reference changed
+   * templates). Fingerprints of validated files are stored in the build directory. All files are validated
+   * again if the CONGA plugin versions or the project classpath changes.
+   */
+  @Parameter(property = "conga.incrementalValidation", defaultValue = "true")
+  private boolean incrementalValidation;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     List<URL> mavenProjectClasspathUrls = ClassLoaderUtil.getMavenProjectClasspathUrls(project);
@@ -100,9 +129,6 @@ public class ValidateMojo extends AbstractCongaMojo {
     ResourceCollection templateDir = mavenProjectResourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + getTemplateDir());
     ResourceCollection environmentDir = mavenProjectResourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + getEnvironmentDir());
 
-    // validate role definition syntax
-    validateFiles(roleDir, roleDir, new ModelValidator<Role>("Role", new RoleReader()));
-
     PluginManager pluginManager = new PluginManagerImpl();
 
     MavenContext mavenContext = new MavenContext()
@@ -127,18 +153,65 @@ public class ValidateMojo extends AbstractCongaMojo {
         .containerContext(mavenContext)
         .logger(new MavenSlf4jLogFacade(getLog()));
 
-    // validate that all templates can be compiled
     HandlebarsManager handlebarsManager = new HandlebarsManager(ImmutableList.of(templateDir), pluginContextOptions);
-    validateFiles(templateDir, templateDir, new TemplateValidator(templateDir, handlebarsManager));
-
-    // validate that roles reference existing templates
-    validateFiles(roleDir, roleDir, new RoleTemplateFileValidator(handlebarsManager));
 
-    // validate that no value providers are used in role files - they should be only used in environment
-    validateFiles(roleDir, roleDir, new NoValueProviderInRoleValidator());
+    // validate that all templates can be compiled
+    DefinitionValidator<Void> templateValidator = new TemplateValidator(templateDir, handlebarsManager);
+
+    // validate role definition syntax - each role file is parsed only once and then validated
+    // that roles reference existing templates and that no value providers are used in role files
+    // (they should be only used in environment)
+    DefinitionValidator<ParsedDefinition<Role>> roleValidator = new ParsedDefinitionValidatorChain<>(
+        new ModelValidator<>("Role", RoleReader::new),
+        ImmutableList.of(new RoleTemplateFileValidator(handlebarsManager), new NoValueProviderInRoleValidator()));
+
+    // skip validation of unchanged files
+    ValidationCache validationCache = null;
+    if (incrementalValidation) {
+      validationCache = new ValidationCache(new File(project.getBuild().getDirectory(), BuildConstants.FILE_VALIDATION_CACHE),
+          getVersionFingerprint(mavenProjectClasspathUrls),
+          new TemplateFingerprints(mavenProjectResourceLoader, templateDir));
+      // templates may include partials from anywhere in the template dir - revalidate all if any template changed
+      templateValidator = new IncrementalDefinitionValidator<>(validationCache, "template:", templateValidator,
+          result -> ImmutableList.of(TemplateFingerprints.ALL_TEMPLATES));
+      roleValidator = new IncrementalDefinitionValidator<>(validationCache, "role:", roleValidator,
+          ValidateMojo::getReferencedTemplates);
+    }
 
     // validate environment definition syntax
-    List<Environment> environments = validateFiles(environmentDir, environmentDir, new ModelValidator<Environment>("Environment", new EnvironmentReader()));
+    // environments are always parsed because the models are needed for version info validation
+    DefinitionValidator<ParsedDefinition<Environment>> environmentValidator = new ModelValidator<>("Environment", EnvironmentReader::new);
+
+    // validate all files in parallel, and report all failures at once
+    List<Environment> environments;
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, validationThreads));
+    try {
+      List<Future<ParsedDefinition<Role>>> roleResults = validateFiles(roleDir, roleValidator, executor);
+      List<Future<Void>> templateResults = validateFiles(templateDir, templateValidator, executor);
+      List<Future<ParsedDefinition<Environment>>> environmentResults = validateFiles(environmentDir, environmentValidator, executor);
+
+      List<String> failures = new ArrayList<>();
+      getResults(roleResults, failures);
+      getResults(templateResults, failures);
+      environments = getResults(environmentResults, failures).stream()
+          .map(ParsedDefinition::getModel)
+          .collect(Collectors.toList());
+
+      if (validationCache != null) {
+        saveValidationCache(validationCache);
+      }
+
+      if (!failures.isEmpty()) {
+        if (failures.size() == 1) {
+          throw new MojoFailureException(failures.get(0));
+        }
+        throw new MojoFailureException(failures.size() + " definitions are invalid:\n\n"
+            + StringUtils.join(failures, "\n\n"));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
 
     // validate version information - for each environment separately
     for (Environment environment : environments) {
@@ -159,27 +232,87 @@ public class ValidateMojo extends AbstractCongaMojo {
 
   // ===== FILE VALIDATION =====
 
-  private <T> List<T> validateFiles(ResourceCollection sourceDir, ResourceCollection rootSourceDir, DefinitionValidator<T> validator)
-      throws MojoFailureException {
+  private <T> List<Future<T>> validateFiles(ResourceCollection rootSourceDir, DefinitionValidator<T> validator,
+      ExecutorService executor) {
+    List<Resource> files = new ArrayList<>();
+    collectFiles(rootSourceDir, files);
+    return files.stream()
+        .map(file -> executor.submit(() -> validator.validate(file, getPathForLog(rootSourceDir, file))))
+        .collect(Collectors.toList());
+  }
+
+  private static void collectFiles(ResourceCollection sourceDir, List<Resource> files) {
     if (!sourceDir.exists()) {
-      return ImmutableList.of();
+      return;
     }
-    SortedSet<Resource> files = sourceDir.getResources();
-    SortedSet<ResourceCollection> dirs = sourceDir.getResourceCollections();
-    if (files.isEmpty() && dirs.isEmpty()) {
-      return ImmutableList.of();
+    files.addAll(sourceDir.getResources());
+    for (ResourceCollection dir : sourceDir.getResourceCollections()) {
+      collectFiles(dir, files);
     }
+  }
 
+  private static <T> List<T> getResults(List<Future<T>> futures, List<String> failures) throws MojoExecutionException {
     List<T> result = new ArrayList<>();
-    for (Resource file : files) {
-      result.add(validator.validate(file, getPathForLog(rootSourceDir, file)));
-    }
-    for (ResourceCollection dir : dirs) {
-      result.addAll(validateFiles(dir, rootSourceDir, validator));
+    for (Future<T> future : futures) {
+      try {
+        result.add(future.get());
+      }
+      catch (ExecutionException ex) {
+        if (ex.getCause() instanceof MojoFailureException) {
+          failures.add(ex.getCause().getMessage());
+        }
+        else {
+          throw new MojoExecutionException("Validation failed: " + ex.getCause().getMessage(), ex.getCause());
+        }
+      }
+      catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new MojoExecutionException("Validation interrupted.", ex);
+      }
     }
     return result;
   }
 
+  private static Collection<String> getReferencedTemplates(ParsedDefinition<Role> definition) {
+    Role role = definition.getModel();
+    return role.getFiles().stream()
+        .map(roleFile -> FileUtil.getTemplatePath(role, roleFile))
+        .filter(StringUtils::isNotEmpty)
+        .map(PathUtil::unifySlashes)
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  /**
+   * Fingerprint of everything that affects validation results of all files: CONGA plugin versions and
+   * the project classpath (may contain additional handlebars plugins).
+   */
+  private String getVersionFingerprint(List<URL> mavenProjectClasspathUrls) {
+    StringBuilder fingerprint = new StringBuilder();
+    new TreeMap<>(VersionInfoUtil.getVersionInfoProperties(project)).forEach((key, value) -> {
+      fingerprint.append(key).append('=').append(value).append('\n');
+    });
+    for (URL url : mavenProjectClasspathUrls) {
+      fingerprint.append(url.toExternalForm());
+      if (StringUtils.equals(url.getProtocol(), "file")) {
+        File file = FileUtils.toFile(url);
+        if (file.isFile()) {
+          fingerprint.append(':').append(file.lastModified()).append(':').append(file.length());
+        }
+      }
+      fingerprint.append('\n');
+    }
+    return ValidationCache.fingerprint(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void saveValidationCache(ValidationCache validationCache) {
+    try {
+      validationCache.save();
+    }
+    catch (IOException ex) {
+      getLog().warn("Unable to write validation cache: " + ex.getMessage());
+    }
+  }
+
   private static String getPathForLog(ResourceCollection rootSourceDir, Resource file) {
     String path = PathUtil.unifySlashes(file.getCanonicalPath());
     String rootPath = PathUtil.unifySlashes(rootSourceDir.getCanonicalPath()) + "/";
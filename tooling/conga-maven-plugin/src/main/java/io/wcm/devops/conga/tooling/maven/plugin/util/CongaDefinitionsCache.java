@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.wcm.devops.conga.generator.GeneratorOptions;
+import io.wcm.devops.conga.generator.util.FileUtil;
+
+/**
+ * Remembers which JAR files contain CONGA definitions (a <code>CONGA-INF/</code> directory).
+ * The results are keyed by file path and validated against last modification date and file size,
+ * and persisted in a properties file to be reused in subsequent builds.
+ */
+public final class CongaDefinitionsCache {
+
+  private final File cacheFile;
+  private final Properties entries = new Properties();
+  private boolean dirty;
+
+  /**
+   * @param cacheFile File to persist cache entries. If null the cache is held only in memory.
+   */
+  public CongaDefinitionsCache(File cacheFile) {
+    this.cacheFile = cacheFile;
+    if (cacheFile != null && cacheFile.exists()) {
+      try (InputStream is = new FileInputStream(cacheFile)) {
+        entries.load(is);
+      }
+      catch (IOException ex) {
+        // ignore invalid cache file - it is rebuilt
+        entries.clear();
+      }
+    }
+  }
+
+  /**
+   * Checks if the given JAR file has a CONGA-INF/ directory.
+   * @param jarFile JAR file
+   * @return true if configuration definitions found
+   * @throws IOException If JAR file could not be read
+   */
+  public synchronized boolean hasCongaDefinitions(File jarFile) throws IOException {
+    String key = FileUtil.getCanonicalPath(jarFile);
+    String fingerprint = jarFile.lastModified() + ":" + jarFile.length() + ":";
+
+    String entry = entries.getProperty(key);
+    if (StringUtils.startsWith(entry, fingerprint)) {
+      return Boolean.parseBoolean(StringUtils.substringAfter(entry, fingerprint));
+    }
+
+    boolean result = readCongaDefinitions(jarFile);
+    entries.setProperty(key, fingerprint + result);
+    dirty = true;
+    return result;
+  }
+
+  private static boolean readCongaDefinitions(File jarFile) throws IOException {
+    try (ZipFile zipFile = new ZipFile(jarFile)) {
+      Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+      while (zipEntries.hasMoreElements()) {
+        ZipEntry zipEntry = zipEntries.nextElement();
+        if (StringUtils.startsWith(zipEntry.getName(), GeneratorOptions.CLASSPATH_PREFIX)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Persist cache entries if they were changed.
+   * @throws IOException If cache file could not be written
+   */
+  public synchronized void save() throws IOException {
+    if (cacheFile == null || !dirty) {
+      return;
+    }
+    File dir = cacheFile.getParentFile();
+    if (dir != null && !dir.exists()) {
+      dir.mkdirs();
+    }
+    try (OutputStream os = new FileOutputStream(cacheFile)) {
+      entries.store(os, "CONGA definitions in dependency JAR files");
+    }
+    dirty = false;
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.artifact.Artifact;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Caches results of artifact resolution, artifact version lookups and transitive dependency resolution.
+ * A single instance is shared by all CONGA Mojos and plugins within the same Maven session.
+ */
+public final class MavenArtifactCache {
+
+  private static final Object SESSION_DATA_KEY = MavenArtifactCache.class.getName();
+
+  /**
+   * Marker for artifact versions that could not be found.
+   */
+  static final String NO_VERSION = "";
+
+  private final Map<String, Artifact> artifacts = new ConcurrentHashMap<>();
+  private final Map<String, String> artifactVersions = new ConcurrentHashMap<>();
+  private final Map<String, List<Artifact>> transitiveDependencies = new ConcurrentHashMap<>();
+
+  /**
+   * Get artifact cache for the given repository session. If none exists yet it is created.
+   * @param repoSession Repository session (may be null)
+   * @return Artifact cache
+   */
+  public static MavenArtifactCache forSession(RepositorySystemSession repoSession) {
+    if (repoSession == null || repoSession.getData() == null) {
+      return new MavenArtifactCache();
+    }
+    SessionData data = repoSession.getData();
+    MavenArtifactCache cache = (MavenArtifactCache)data.get(SESSION_DATA_KEY);
+    while (cache == null) {
+      MavenArtifactCache newCache = new MavenArtifactCache();
+      if (data.set(SESSION_DATA_KEY, null, newCache)) {
+        cache = newCache;
+      }
+      else {
+        cache = (MavenArtifactCache)data.get(SESSION_DATA_KEY);
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * @param artifact Unresolved artifact
+   * @return Resolved artifact or null if not cached
+   */
+  public Artifact getArtifact(Artifact artifact) {
+    return artifacts.get(artifact.toString());
+  }
+
+  /**
+   * @param artifact Unresolved artifact
+   * @param resolvedArtifact Resolved artifact
+   */
+  public void putArtifact(Artifact artifact, Artifact resolvedArtifact) {
+    artifacts.put(artifact.toString(), resolvedArtifact);
+  }
+
+  /**
+   * @param key Artifact key without version
+   * @return Version, {@link #NO_VERSION} if version lookup was not successful, or null if not cached
+   */
+  public String getArtifactVersion(String key) {
+    return artifactVersions.get(key);
+  }
+
+  /**
+   * @param key Artifact key without version
+   * @param version Version or null if version lookup was not successful
+   */
+  public void putArtifactVersion(String key, String version) {
+    artifactVersions.put(key, version != null ? version : NO_VERSION);
+  }
+
+  /**
+   * @param artifacts Set of root artifacts
+   * @return Root artifacts with transitive dependencies or null if not cached
+   */
+  public List<Artifact> getTransitiveDependencies(Collection<Artifact> artifacts) {
+    return transitiveDependencies.get(toKey(artifacts));
+  }
+
+  /**
+   * @param artifacts Set of root artifacts
+   * @param dependencies Root artifacts with transitive dependencies
+   */
+  public void putTransitiveDependencies(Collection<Artifact> artifacts, List<Artifact> dependencies) {
+    transitiveDependencies.put(toKey(artifacts), ImmutableList.copyOf(dependencies));
+  }
+
+  private static String toKey(Collection<Artifact> artifacts) {
+    return artifacts.stream()
+        .map(Artifact::toString)
+        .collect(Collectors.joining(","));
+  }
+
+}
@@ -35,17 +35,19 @@ import org.eclipse.aether.RepositorySystemSession;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.ArtifactType;
 import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.graph.Dependency;
 import org.eclipse.aether.repository.RemoteRepository;
-import org.eclipse.aether.resolution.ArtifactDescriptorException;
-import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
-import org.eclipse.aether.resolution.ArtifactDescriptorResult;
 import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
 
 import com.google.common.collect.ImmutableList;
 
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvent;
+import io.wcm.devops.conga.generator.jfr.FlightRecorderEvents;
 import io.wcm.devops.conga.generator.spi.context.PluginContextOptions;
 import io.wcm.devops.conga.model.environment.Environment;
 import io.wcm.devops.conga.tooling.maven.plugin.urlfile.MavenUrlFilePlugin;
@@ -62,6 +64,7 @@ public class MavenArtifactHelper {
   private final Map<String, String> artifactTypeMappings;
   private final List<String> environmentDependencyUrls;
   private final PluginContextOptions pluginContextOptions;
+  private final MavenArtifactCache artifactCache;
 
   /**
    * @param environment CONGA environment
@@ -76,6 +79,7 @@ public class MavenArtifactHelper {
     this.artifactTypeMappings = mavenContext.getArtifactTypeMappings();
     this.environmentDependencyUrls = environment != null ? environment.getDependencies() : ImmutableList.of();
     this.pluginContextOptions = pluginContextOptions;
+    this.artifactCache = mavenContext.getArtifactCache();
   }
 
   /**
@@ -117,22 +121,8 @@ public class MavenArtifactHelper {
    * @throws IOException If artifact resolution was not successful
    */
   public List<Artifact> getTransitiveDependencies(Artifact artifact) throws IOException {
-    List<Artifact> dependencies = new ArrayList<>();
-    ArtifactDescriptorRequest descriptorRequest = new ArtifactDescriptorRequest();
-    descriptorRequest.setArtifact(artifact);
-    descriptorRequest.setRepositories(remoteRepos);
-    try {
-      ArtifactDescriptorResult result = repoSystem.readArtifactDescriptor(repoSession, descriptorRequest);
-      for (Dependency dependency : result.getDependencies()) {
-        if (StringUtils.equals(dependency.getScope(), SCOPE_COMPILE)) {
-          Artifact resolvedArtifact = resolveArtifact(dependency.getArtifact());
-          dependencies.add(resolvedArtifact);
-        }
-      }
-    }
-    catch (ArtifactDescriptorException ex) {
-      throw new IOException("Unable to get artifact descriptor for: '" + artifact + "': " + ex.getMessage(), ex);
-    }
+    List<Artifact> dependencies = new ArrayList<>(resolveWithTransitiveDependencies(ImmutableList.of(artifact)));
+    dependencies.removeIf(dependency -> artifactEquals(dependency, artifact));
     return dependencies;
   }
 
@@ -145,18 +135,55 @@ public class MavenArtifactHelper {
    */
   public List<Artifact> dependencyUrlsToArtifactsWithTransitiveDependencies(Collection<String> dependencyUrls) throws IOException {
     List<Artifact> artifacts = new ArrayList<>();
-    for (String dependencyUrl : environmentDependencyUrls) {
+    for (String dependencyUrl : dependencyUrls) {
       String resolvedDependencyUrl = ClassLoaderUtil.resolveDependencyUrl(dependencyUrl, pluginContextOptions);
       if (!StringUtils.startsWith(resolvedDependencyUrl, MavenUrlFilePlugin.PREFIX)) {
         continue;
       }
 
       String mavenCoords = MavenUrlFilePlugin.getMavenCoords(resolvedDependencyUrl);
-      Artifact artifact = resolveArtifact(mavenCoords);
-      artifacts.add(artifact);
-      artifacts.addAll(getTransitiveDependencies(artifact));
+      artifacts.add(resolveArtifact(mavenCoords));
     }
-    return artifacts;
+    return resolveWithTransitiveDependencies(artifacts);
+  }
+
+  /**
+   * Resolves the given artifacts and their transitive compile dependencies with a single collect request,
+   * allowing the repository system to deduplicate the dependency graph and to download artifacts in parallel.
+   * @param artifacts Artifacts
+   * @return Resolved artifacts including the given artifacts
+   * @throws IOException If dependency resolution fails
+   */
+  private List<Artifact> resolveWithTransitiveDependencies(List<Artifact> artifacts) throws IOException {
+    if (artifacts.isEmpty()) {
+      return ImmutableList.of();
+    }
+    List<Artifact> cachedArtifacts = artifactCache.getTransitiveDependencies(artifacts);
+    if (cachedArtifacts != null) {
+      return cachedArtifacts;
+    }
+
+    CollectRequest collectRequest = new CollectRequest();
+    for (Artifact artifact : artifacts) {
+      collectRequest.addDependency(new Dependency(artifact, SCOPE_COMPILE));
+    }
+    collectRequest.setRepositories(remoteRepos);
+    DependencyRequest dependencyRequest = new DependencyRequest(collectRequest,
+        (node, parents) -> node.getDependency() == null || StringUtils.equals(node.getDependency().getScope(), SCOPE_COMPILE));
+
+    List<Artifact> result = new ArrayList<>();
+    try (FlightRecorderEvent event = FlightRecorderEvents.artifactResolution(artifacts.toString())) {
+      for (ArtifactResult artifactResult : repoSystem.resolveDependencies(repoSession, dependencyRequest).getArtifactResults()) {
+        result.add(artifactResult.getArtifact());
+      }
+      event.size(result.size());
+    }
+    catch (DependencyResolutionException ex) {
+      throw new IOException("Unable to resolve dependencies for: " + artifacts + ": " + ex.getMessage(), ex);
+    }
+
+    artifactCache.putTransitiveDependencies(artifacts, result);
+    return result;
   }
 
   /**
@@ -254,11 +281,18 @@ public class MavenArtifactHelper {
   }
 
   private Artifact resolveArtifact(Artifact artifact) throws IOException {
+    Artifact cachedArtifact = artifactCache.getArtifact(artifact);
+    if (cachedArtifact != null) {
+      return cachedArtifact;
+    }
+
     ArtifactRequest artifactRequest = new ArtifactRequest();
     artifactRequest.setArtifact(artifact);
     artifactRequest.setRepositories(remoteRepos);
-    try {
+    try (FlightRecorderEvent event = FlightRecorderEvents.artifactResolution(artifact.toString())) {
       ArtifactResult result = repoSystem.resolveArtifact(repoSession, artifactRequest);
+      event.size(1);
+      artifactCache.putArtifact(artifact, result.getArtifact());
       return result.getArtifact();
     }
     catch (final ArtifactResolutionException ex) {
@@ -267,10 +301,19 @@ public class MavenArtifactHelper {
   }
 
   private String resolveArtifactVersion(String groupId, String artifactId, String type, String classifier) throws IOException {
+    // version lookup depends on maven project and environment dependencies
+    String cacheKey = project.getId() + "|" + environmentDependencyUrls + "|"
+        + groupId + ":" + artifactId + ":" + type + ":" + StringUtils.defaultString(classifier);
+    String cachedVersion = artifactCache.getArtifactVersion(cacheKey);
+    if (cachedVersion != null) {
+      return StringUtils.defaultIfEmpty(cachedVersion, null);
+    }
+
     String version = findVersionInMavenProject(groupId, artifactId, type, classifier);
     if (version == null) {
       version = findVersionInEnvironmentDependencies(groupId, artifactId, type, classifier);
     }
+    artifactCache.putArtifactVersion(cacheKey, version);
     return version;
   }
 
@@ -305,6 +348,10 @@ public class MavenArtifactHelper {
     return null;
   }
 
+  private boolean artifactEquals(Artifact dependency, Artifact artifact) {
+    return artifactEquals(dependency, artifact.getGroupId(), artifact.getArtifactId(), artifact.getExtension(), artifact.getClassifier());
+  }
+
   private boolean artifactEquals(Artifact dependency, String groupId, String artifactId, String type, String classifier) {
     return StringUtils.equals(dependency.getGroupId(), groupId)
         && StringUtils.equals(dependency.getArtifactId(), artifactId)
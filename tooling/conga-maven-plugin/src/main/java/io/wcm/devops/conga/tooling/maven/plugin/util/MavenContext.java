@@ -37,6 +37,7 @@ public final class MavenContext {
   private RepositorySystemSession repoSession;
   private List<RemoteRepository> remoteRepos;
   private Map<String, String> artifactTypeMappings;
+  private MavenArtifactCache artifactCache;
 
   /**
    * @return Maven project
@@ -118,4 +119,14 @@ public final class MavenContext {
     return this;
   }
 
+  /**
+   * @return Artifact resolution cache shared within the repository session
+   */
+  public MavenArtifactCache getArtifactCache() {
+    if (this.artifactCache == null) {
+      this.artifactCache = MavenArtifactCache.forSession(this.repoSession);
+    }
+    return this.artifactCache;
+  }
+
 }
@@ -0,0 +1,228 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.Zip64Mode;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Builds ZIP files from a directory, compressing the entries in parallel (scatter) and writing them to the
+ * ZIP file in alphabetical order (gather).
+ * All entries get the same fixed timestamp, so identical input files always result in byte-identical ZIP files.
+ */
+public final class ParallelZipArchiver {
+
+  /**
+   * Fixed timestamp for all ZIP entries. Built in local time zone because ZIP entries store local DOS time.
+   */
+  private static final long ENTRY_TIME = new GregorianCalendar(2000, 0, 1).getTimeInMillis();
+
+  /**
+   * Files larger than this are not compressed in memory, but streamed directly to the ZIP file.
+   */
+  private static final long MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+
+  private static final int FILE_MODE = 0644;
+  private static final int EXECUTABLE_FILE_MODE = 0755;
+  private static final int DIR_MODE = 0755;
+
+  private final ExecutorService executor;
+  private final int maxPendingEntries;
+  private final Set<String> storeOnlyFileExtensions;
+
+  /**
+   * @param executor Executor for compressing ZIP entries
+   * @param threads Number of threads of the executor
+   * @param storeOnlyFileExtensions File extensions of files that are stored without compression
+   */
+  public ParallelZipArchiver(ExecutorService executor, int threads, Collection<String> storeOnlyFileExtensions) {
+    this.executor = executor;
+    // limit number of compressed entries kept in memory
+    this.maxPendingEntries = Math.max(1, threads) * 4;
+    this.storeOnlyFileExtensions = ImmutableSet.copyOf(storeOnlyFileExtensions.stream()
+        .map(StringUtils::lowerCase)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Builds ZIP file with all files and directories in the given content directory.
+   * @param contentDirectory Content directory
+   * @param zipFile ZIP file
+   * @throws IOException I/O exception
+   */
+  public void createArchive(File contentDirectory, File zipFile) throws IOException {
+    List<String> paths = new ArrayList<>(collectPaths(contentDirectory, ""));
+
+    if (zipFile.exists()) {
+      Files.delete(zipFile.toPath());
+    }
+    try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(zipFile)) {
+      zos.setUseZip64(Zip64Mode.AsNeeded);
+
+      Deque<Future<CompressedEntry>> pending = new ArrayDeque<>();
+      int next = 0;
+      while (next < paths.size() || !pending.isEmpty()) {
+        // scatter: compress next entries in parallel
+        while (next < paths.size() && pending.size() < maxPendingEntries) {
+          String path = paths.get(next++);
+          File file = new File(contentDirectory, path);
+          pending.add(executor.submit(() -> compress(path, file)));
+        }
+        // gather: write entries in order
+        writeEntry(zos, getResult(pending.removeFirst()));
+      }
+    }
+  }
+
+  private static Collection<String> collectPaths(File dir, String prefix) {
+    Set<String> paths = new TreeSet<>();
+    File[] files = dir.listFiles();
+    if (files == null) {
+      return paths;
+    }
+    for (File file : files) {
+      String path = prefix + file.getName();
+      if (file.isDirectory()) {
+        paths.add(path + "/");
+        paths.addAll(collectPaths(file, path + "/"));
+      }
+      else {
+        paths.add(path);
+      }
+    }
+    return paths;
+  }
+
+  private CompressedEntry compress(String path, File file) throws IOException {
+    ZipArchiveEntry entry = new ZipArchiveEntry(path);
+    entry.setTime(ENTRY_TIME);
+
+    if (entry.isDirectory()) {
+      entry.setUnixMode(DIR_MODE);
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(0);
+      entry.setCompressedSize(0);
+      entry.setCrc(0);
+      return new CompressedEntry(entry, new byte[0], null);
+    }
+
+    entry.setUnixMode(file.canExecute() ? EXECUTABLE_FILE_MODE : FILE_MODE);
+    boolean storeOnly = storeOnlyFileExtensions.contains(StringUtils.lowerCase(FilenameUtils.getExtension(path)));
+    entry.setMethod(storeOnly ? ZipEntry.STORED : ZipEntry.DEFLATED);
+
+    // stream large files directly when writing the ZIP file
+    if (file.length() > MAX_IN_MEMORY_SIZE) {
+      return new CompressedEntry(entry, null, file);
+    }
+
+    byte[] data = Files.readAllBytes(file.toPath());
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    entry.setCrc(crc.getValue());
+    entry.setSize(data.length);
+
+    if (!storeOnly) {
+      Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 2 + 64);
+      try (DeflaterOutputStream dos = new DeflaterOutputStream(bos, deflater)) {
+        dos.write(data);
+      }
+      finally {
+        deflater.end();
+      }
+      data = bos.toByteArray();
+    }
+    entry.setCompressedSize(data.length);
+    return new CompressedEntry(entry, data, null);
+  }
+
+  private static void writeEntry(ZipArchiveOutputStream zos, CompressedEntry compressedEntry) throws IOException {
+    if (compressedEntry.data != null) {
+      zos.addRawArchiveEntry(compressedEntry.entry, new ByteArrayInputStream(compressedEntry.data));
+    }
+    else {
+      zos.putArchiveEntry(compressedEntry.entry);
+      try (InputStream is = Files.newInputStream(compressedEntry.file.toPath())) {
+        IOUtils.copy(is, zos);
+      }
+      zos.closeArchiveEntry();
+    }
+  }
+
+  private static CompressedEntry getResult(Future<CompressedEntry> future) throws IOException {
+    try {
+      return future.get();
+    }
+    catch (ExecutionException ex) {
+      if (ex.getCause() instanceof IOException) {
+        throw (IOException)ex.getCause();
+      }
+      throw new IOException(ex.getCause().getMessage(), ex.getCause());
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while building ZIP file.", ex);
+    }
+  }
+
+  private static final class CompressedEntry {
+
+    private final ZipArchiveEntry entry;
+    private final byte[] data;
+    private final File file;
+
+    CompressedEntry(ZipArchiveEntry entry, byte[] data, File file) {
+      this.entry = entry;
+      this.data = data;
+      this.file = file;
+    }
+
+  }
+
+}
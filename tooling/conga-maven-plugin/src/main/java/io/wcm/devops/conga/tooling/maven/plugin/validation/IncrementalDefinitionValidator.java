@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.function.Function;
+
+import org.apache.maven.plugin.MojoFailureException;
+
+import io.wcm.devops.conga.resource.Resource;
+
+/**
+ * Skips validation of files that were validated successfully before and did not change since.
+ * Returns null for skipped files.
+ * @param <T> Return value
+ */
+public final class IncrementalDefinitionValidator<T> implements DefinitionValidator<T> {
+
+  private final ValidationCache validationCache;
+  private final String keyPrefix;
+  private final DefinitionValidator<T> delegate;
+  private final Function<T, Collection<String>> dependencies;
+
+  /**
+   * @param validationCache Validation cache
+   * @param keyPrefix Prefix for cache keys
+   * @param delegate Validator
+   * @param dependencies Returns the paths of dependencies for a validation result
+   */
+  public IncrementalDefinitionValidator(ValidationCache validationCache, String keyPrefix,
+      DefinitionValidator<T> delegate, Function<T, Collection<String>> dependencies) {
+    this.validationCache = validationCache;
+    this.keyPrefix = keyPrefix;
+    this.delegate = delegate;
+    this.dependencies = dependencies;
+  }
+
+  @Override
+  public T validate(Resource resource, String pathForLog) throws MojoFailureException {
+    String key = keyPrefix + pathForLog;
+    String fingerprint;
+    try {
+      fingerprint = ValidationCache.fingerprint(resource);
+    }
+    catch (IOException ex) {
+      // let the validator report the problem
+      return delegate.validate(resource, pathForLog);
+    }
+    if (validationCache.isValid(key, fingerprint)) {
+      return null;
+    }
+    T result = delegate.validate(resource, pathForLog);
+    validationCache.putValid(key, fingerprint, dependencies.apply(result));
+    return result;
+  }
+
+}
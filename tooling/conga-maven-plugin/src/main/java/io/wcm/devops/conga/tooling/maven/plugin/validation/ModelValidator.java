@@ -19,37 +19,54 @@
  */
 package io.wcm.devops.conga.tooling.maven.plugin.validation;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
 import org.apache.maven.plugin.MojoFailureException;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.Node;
 
-import io.wcm.devops.conga.model.reader.ModelReader;
+import io.wcm.devops.conga.model.reader.AbstractModelReader;
 import io.wcm.devops.conga.resource.Resource;
 
 /**
- * Validates YAML model file against it's reader.
+ * Validates YAML model file by parsing it into the model class using the model reader.
+ * The YAML file is parsed only once, both the model and the raw YAML tree are constructed from the parsed nodes.
+ * This class is thread-safe.
  * @param <T> Model class
  */
-public final class ModelValidator<T> implements DefinitionValidator<T> {
+public final class ModelValidator<T> implements DefinitionValidator<ParsedDefinition<T>> {
 
   private final String modelName;
-  private final ModelReader<T> modelReader;
+  private final Supplier<AbstractModelReader<T>> modelReaderFactory;
 
   /**
    * @param modelName Model name (for log message)
-   * @param modelReader Model reader implementation
+   * @param modelReaderFactory Creates a model reader instance (model readers are not thread-safe)
    */
-  public ModelValidator(String modelName, ModelReader<T> modelReader) {
+  public ModelValidator(String modelName, Supplier<AbstractModelReader<T>> modelReaderFactory) {
     this.modelName = modelName;
-    this.modelReader = modelReader;
+    this.modelReaderFactory = modelReaderFactory;
   }
 
   @Override
-  public T validate(Resource resource, String pathForLog) throws MojoFailureException {
-    try {
-      return modelReader.read(resource);
+  public ParsedDefinition<T> validate(Resource resource, String pathForLog) throws MojoFailureException {
+    try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+      Node node = new Yaml().compose(reader);
+      if (node == null) {
+        return new ParsedDefinition<>(resource, pathForLog, null, null);
+      }
+      // construct raw tree first - constructing the model may adjust the nested nodes
+      AbstractModelReader<T> modelReader = modelReaderFactory.get();
+      Object rawTree = modelReader.readRaw(node);
+      T model = modelReader.read(node);
+      return new ParsedDefinition<>(resource, pathForLog, model, rawTree);
     }
     /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
       throw new MojoFailureException(modelName + " definition " + pathForLog + " is invalid:\n" + ex.getMessage());
     }
   }
 
-}
\ No newline at end of file
+}
@@ -23,31 +23,24 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.plugin.MojoFailureException;
-import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.Constructor;
 
 import io.wcm.devops.conga.generator.util.VariableStringResolver;
-import io.wcm.devops.conga.model.reader.AbstractModelReader;
-import io.wcm.devops.conga.model.reader.ModelReader;
-import io.wcm.devops.conga.resource.Resource;
+import io.wcm.devops.conga.model.role.Role;
 
 /**
  * Ensures that nor value providers are used in role models. They should only be used in environments.
  */
-public final class NoValueProviderInRoleValidator implements DefinitionValidator<Void> {
-
-  private final ModelReader<Map> mapReader = new MapReader();
+public final class NoValueProviderInRoleValidator implements ParsedDefinitionValidator<Role> {
 
   @Override
-  public Void validate(Resource resource, String pathForLog) throws MojoFailureException {
+  public void validate(ParsedDefinition<Role> definition) throws MojoFailureException {
     try {
-      // iterate over whole value and validate all string values that are found
-      process(mapReader.read(resource));
+      // iterate over whole raw YAML tree and validate all string values that are found
+      process(definition.getRawTree());
     }
     /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
-      throw new MojoFailureException("Role definition " + pathForLog + " is invalid:\n" + ex.getMessage());
+      throw new MojoFailureException("Role definition " + definition.getPathForLog() + " is invalid:\n" + ex.getMessage());
     }
-    return null;
   }
 
   @SuppressWarnings("unchecked")
@@ -69,15 +62,4 @@ public final class NoValueProviderInRoleValidator implements DefinitionValidator
     }
   }
 
-  private static class MapReader extends AbstractModelReader<Map> {
-    MapReader() {
-      super(getYaml());
-    }
-    private static Yaml getYaml() {
-      Constructor constructor = new Constructor(Map.class);
-      return new Yaml(constructor);
-    }
-  }
-
-
-}
\ No newline at end of file
+}
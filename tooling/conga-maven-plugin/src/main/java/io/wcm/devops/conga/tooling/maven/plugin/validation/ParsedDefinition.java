@@ -0,0 +1,76 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import io.wcm.devops.conga.resource.Resource;
+
+/**
+ * Definition file that was parsed once into it's model and raw YAML tree, shared by all validators.
+ * @param <T> Model class
+ */
+public final class ParsedDefinition<T> {
+
+  private final Resource resource;
+  private final String pathForLog;
+  private final T model;
+  private final Object rawTree;
+
+  /**
+   * @param resource Definition file
+   * @param pathForLog Path for log message
+   * @param model Model
+   * @param rawTree Raw YAML tree (maps, lists and scalar values)
+   */
+  public ParsedDefinition(Resource resource, String pathForLog, T model, Object rawTree) {
+    this.resource = resource;
+    this.pathForLog = pathForLog;
+    this.model = model;
+    this.rawTree = rawTree;
+  }
+
+  /**
+   * @return Definition file
+   */
+  public Resource getResource() {
+    return this.resource;
+  }
+
+  /**
+   * @return Path for log message
+   */
+  public String getPathForLog() {
+    return this.pathForLog;
+  }
+
+  /**
+   * @return Model
+   */
+  public T getModel() {
+    return this.model;
+  }
+
+  /**
+   * @return Raw YAML tree (maps, lists and scalar values)
+   */
+  public Object getRawTree() {
+    return this.rawTree;
+  }
+
+}
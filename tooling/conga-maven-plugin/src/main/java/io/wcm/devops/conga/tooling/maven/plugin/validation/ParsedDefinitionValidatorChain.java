@@ -0,0 +1,69 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoFailureException;
+
+import io.wcm.devops.conga.resource.Resource;
+
+/**
+ * Parses a definition file once and applies all given validators to the parsed definition.
+ * Failures of all validators are reported together.
+ * @param <T> Model class
+ */
+public final class ParsedDefinitionValidatorChain<T> implements DefinitionValidator<ParsedDefinition<T>> {
+
+  private final ModelValidator<T> modelValidator;
+  private final List<ParsedDefinitionValidator<T>> validators;
+
+  /**
+   * @param modelValidator Model validator for parsing the definition file
+   * @param validators Validators to apply to the parsed definition
+   */
+  public ParsedDefinitionValidatorChain(ModelValidator<T> modelValidator, List<ParsedDefinitionValidator<T>> validators) {
+    this.modelValidator = modelValidator;
+    this.validators = validators;
+  }
+
+  @Override
+  public ParsedDefinition<T> validate(Resource resource, String pathForLog) throws MojoFailureException {
+    ParsedDefinition<T> definition = modelValidator.validate(resource, pathForLog);
+
+    List<String> failures = new ArrayList<>();
+    for (ParsedDefinitionValidator<T> validator : validators) {
+      try {
+        validator.validate(definition);
+      }
+      catch (MojoFailureException ex) {
+        failures.add(ex.getMessage());
+      }
+    }
+    if (!failures.isEmpty()) {
+      throw new MojoFailureException(StringUtils.join(failures, "\n"));
+    }
+
+    return definition;
+  }
+
+}
@@ -27,18 +27,13 @@ import com.github.jknack.handlebars.Handlebars;
 import io.wcm.devops.conga.generator.handlebars.HandlebarsManager;
 import io.wcm.devops.conga.generator.plugins.handlebars.escaping.NoneEscapingStrategy;
 import io.wcm.devops.conga.generator.util.FileUtil;
-import io.wcm.devops.conga.model.reader.ModelReader;
-import io.wcm.devops.conga.model.reader.RoleReader;
 import io.wcm.devops.conga.model.role.Role;
 import io.wcm.devops.conga.model.role.RoleFile;
-import io.wcm.devops.conga.resource.Resource;
 
 /**
  * Ensures that all template files references in role definitions point to an existing template.
  */
-public final class RoleTemplateFileValidator implements DefinitionValidator<Void> {
-
-  private final ModelReader<Role> modelReader = new RoleReader();
+public final class RoleTemplateFileValidator implements ParsedDefinitionValidator<Role> {
 
   private final HandlebarsManager handlebarsManager;
 
@@ -50,9 +45,9 @@ public final class RoleTemplateFileValidator implements DefinitionValidator<Void
   }
 
   @Override
-  public Void validate(Resource resource, String pathForLog) throws MojoFailureException {
+  public void validate(ParsedDefinition<Role> definition) throws MojoFailureException {
     try {
-      Role role = modelReader.read(resource);
+      Role role = definition.getModel();
       for (RoleFile roleFile : role.getFiles()) {
 
         // validate template file
@@ -65,9 +60,8 @@ public final class RoleTemplateFileValidator implements DefinitionValidator<Void
       }
     }
     /*CHECKSTYLE:OFF*/ catch (Exception ex) { /*CHECKSTYLE:ON*/
-      throw new MojoFailureException("Role definition " + pathForLog + " is invalid:\n" + ex.getMessage());
+      throw new MojoFailureException("Role definition " + definition.getPathForLog() + " is invalid:\n" + ex.getMessage());
     }
-    return null;
   }
 
 }
\ No newline at end of file
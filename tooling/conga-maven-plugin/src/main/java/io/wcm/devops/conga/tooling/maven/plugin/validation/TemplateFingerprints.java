@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.wcm.devops.conga.resource.Resource;
+import io.wcm.devops.conga.resource.ResourceCollection;
+import io.wcm.devops.conga.resource.ResourceLoader;
+import io.wcm.devops.conga.tooling.maven.plugin.util.PathUtil;
+
+/**
+ * Lazily calculates and caches fingerprints of template files for the {@link ValidationCache}.
+ * The special path {@link #ALL_TEMPLATES} stands for all files in the template directory - use it as dependency
+ * for template validations, as templates may include partials from anywhere in the template directory.
+ * This class is thread-safe.
+ */
+public final class TemplateFingerprints implements Function<String, String> {
+
+  /**
+   * Dependency path standing for all files in the template directory.
+   */
+  public static final String ALL_TEMPLATES = "*";
+
+  private final ResourceLoader resourceLoader;
+  private final ResourceCollection templateDir;
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+  /**
+   * @param resourceLoader Resource loader
+   * @param templateDir Template directory
+   */
+  public TemplateFingerprints(ResourceLoader resourceLoader, ResourceCollection templateDir) {
+    this.resourceLoader = resourceLoader;
+    this.templateDir = templateDir;
+  }
+
+  @Override
+  public String apply(String templatePath) {
+    return fingerprints.computeIfAbsent(templatePath, path -> {
+      if (StringUtils.equals(path, ALL_TEMPLATES)) {
+        return getAllTemplatesFingerprint();
+      }
+      return getFingerprint(resourceLoader.getResource(templateDir, path));
+    });
+  }
+
+  private String getAllTemplatesFingerprint() {
+    Map<String, Resource> files = new TreeMap<>();
+    String rootPath = PathUtil.unifySlashes(templateDir.getCanonicalPath()) + "/";
+    collectFiles(templateDir, rootPath, files);
+    StringBuilder fingerprint = new StringBuilder();
+    files.forEach((path, file) -> fingerprint.append(path).append('=').append(getFingerprint(file)).append('\n'));
+    return ValidationCache.fingerprint(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void collectFiles(ResourceCollection dir, String rootPath, Map<String, Resource> files) {
+    if (!dir.exists()) {
+      return;
+    }
+    for (Resource file : dir.getResources()) {
+      files.put(StringUtils.substringAfter(PathUtil.unifySlashes(file.getCanonicalPath()), rootPath), file);
+    }
+    for (ResourceCollection childDir : dir.getResourceCollections()) {
+      collectFiles(childDir, rootPath, files);
+    }
+  }
+
+  private static String getFingerprint(Resource resource) {
+    try {
+      return ValidationCache.fingerprint(resource);
+    }
+    catch (IOException ex) {
+      return "";
+    }
+  }
+
+}
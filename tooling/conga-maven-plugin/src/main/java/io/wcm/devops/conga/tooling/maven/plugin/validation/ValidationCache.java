@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import io.wcm.devops.conga.resource.Resource;
+
+/**
+ * Remembers fingerprints of definition and template files that were validated successfully.
+ * Unchanged files do not need to be validated again in subsequent builds. For each validated file the fingerprints
+ * of the files it depends on (e.g. templates referenced by a role) are stored as well, and are checked again.
+ * The whole cache is discarded if the version fingerprint (e.g. CONGA plugin versions) changes.
+ * This class is thread-safe.
+ */
+public final class ValidationCache {
+
+  private static final String VERSION_KEY = "_version";
+  private static final String SEPARATOR = "|";
+  private static final String DEPENDENCY_SEPARATOR = "=";
+
+  private final File cacheFile;
+  private final String versionFingerprint;
+  private final Function<String, String> dependencyFingerprints;
+  private final Properties previousEntries = new Properties();
+  private final Map<String, String> currentEntries = new ConcurrentHashMap<>();
+
+  /**
+   * @param cacheFile File to persist cache entries
+   * @param versionFingerprint Fingerprint of everything that affects all validations (e.g. plugin versions)
+   * @param dependencyFingerprints Returns the current fingerprint for a dependency path
+   */
+  public ValidationCache(File cacheFile, String versionFingerprint, Function<String, String> dependencyFingerprints) {
+    this.cacheFile = cacheFile;
+    this.versionFingerprint = versionFingerprint;
+    this.dependencyFingerprints = dependencyFingerprints;
+
+    if (cacheFile.exists()) {
+      try (InputStream is = new FileInputStream(cacheFile)) {
+        previousEntries.load(is);
+      }
+      catch (IOException ex) {
+        // ignore invalid cache file - all files are validated again
+        previousEntries.clear();
+      }
+      if (!StringUtils.equals(previousEntries.getProperty(VERSION_KEY), versionFingerprint)) {
+        previousEntries.clear();
+      }
+    }
+  }
+
+  /**
+   * Checks if the given file was validated successfully before, and neither it nor its dependencies changed since.
+   * @param key Cache key
+   * @param fingerprint Current fingerprint of the file
+   * @return true if validation can be skipped
+   */
+  public boolean isValid(String key, String fingerprint) {
+    String entry = previousEntries.getProperty(key);
+    if (entry == null) {
+      return false;
+    }
+    String[] parts = StringUtils.split(entry, SEPARATOR);
+    if (!StringUtils.equals(parts[0], fingerprint)) {
+      return false;
+    }
+    for (int i = 1; i < parts.length; i++) {
+      String dependencyPath = StringUtils.substringBeforeLast(parts[i], DEPENDENCY_SEPARATOR);
+      String dependencyFingerprint = StringUtils.substringAfterLast(parts[i], DEPENDENCY_SEPARATOR);
+      if (!StringUtils.equals(dependencyFingerprints.apply(dependencyPath), dependencyFingerprint)) {
+        return false;
+      }
+    }
+    currentEntries.put(key, entry);
+    return true;
+  }
+
+  /**
+   * Records a successful validation.
+   * @param key Cache key
+   * @param fingerprint Fingerprint of the file
+   * @param dependencies Paths of dependencies the validation result depends on
+   */
+  public void putValid(String key, String fingerprint, Collection<String> dependencies) {
+    StringBuilder entry = new StringBuilder(fingerprint);
+    for (String dependency : dependencies) {
+      entry.append(SEPARATOR).append(dependency).append(DEPENDENCY_SEPARATOR).append(dependencyFingerprints.apply(dependency));
+    }
+    currentEntries.put(key, entry.toString());
+  }
+
+  /**
+   * Persists all entries that were validated or confirmed in this run.
+   * @throws IOException If cache file could not be written
+   */
+  public void save() throws IOException {
+    Properties props = new Properties();
+    props.putAll(currentEntries);
+    props.setProperty(VERSION_KEY, versionFingerprint);
+    File dir = cacheFile.getParentFile();
+    if (dir != null && !dir.exists()) {
+      dir.mkdirs();
+    }
+    try (OutputStream os = new FileOutputStream(cacheFile)) {
+      props.store(os, "CONGA validation cache");
+    }
+  }
+
+  /**
+   * Builds a content fingerprint for the given resource.
+   * @param resource Resource
+   * @return Fingerprint or empty string if resource does not exist
+   * @throws IOException If resource could not be read
+   */
+  public static String fingerprint(Resource resource) throws IOException {
+    if (!resource.exists()) {
+      return "";
+    }
+    try (InputStream is = resource.getInputStream()) {
+      return fingerprint(ByteStreams.toByteArray(is));
+    }
+  }
+
+  /**
+   * Builds a content fingerprint for the given data.
+   * @param data Data
+   * @return Fingerprint
+   */
+  public static String fingerprint(byte[] data) {
+    return Hashing.sha256().hashBytes(data).toString();
+  }
+
+}
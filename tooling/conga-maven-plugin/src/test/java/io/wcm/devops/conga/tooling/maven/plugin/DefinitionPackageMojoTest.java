@@ -0,0 +1,241 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin;
+
+import static io.wcm.devops.conga.generator.GeneratorOptions.CLASSPATH_PREFIX;
+import static io.wcm.devops.conga.tooling.maven.plugin.BuildConstants.PACKAGING_DEFINITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.archiver.MavenArchiveConfiguration;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+import org.codehaus.plexus.archiver.jar.JarArchiver;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DefinitionPackageMojoTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File srcDir;
+  private File targetDir;
+  private File definitionTarget;
+
+  @Before
+  public void setUp() throws IOException {
+    srcDir = tempFolder.newFolder("src");
+    targetDir = tempFolder.newFolder("target");
+    definitionTarget = new File(targetDir, "definitions");
+
+    write("roles/role1.yaml", "role1");
+    write("templates/role1/file1.hbs", "file1");
+    write("templates/role1/sub/file2.hbs", "file2");
+    write("environments/env1.yaml", "env1");
+  }
+
+  @Test
+  public void testCopyDefinitions() throws Exception {
+    File jarFile = execute(false);
+
+    assertEquals("file1", read("templates/role1/file1.hbs"));
+    assertEquals(set("roles/role1.yaml", "templates/role1/file1.hbs", "templates/role1/sub/file2.hbs", "environments/env1.yaml"),
+        getDefinitionEntries(jarFile));
+  }
+
+  @Test
+  public void testUnchangedFile() throws Exception {
+    execute(false);
+    File targetFile = targetFile("templates/role1/file1.hbs");
+    long lastModified = targetFile.lastModified() - 60000L;
+    targetFile.setLastModified(lastModified);
+
+    execute(false);
+
+    // unchanged file is not copied again
+    assertEquals(lastModified, targetFile.lastModified());
+  }
+
+  @Test
+  public void testCopyKeepsDate() throws Exception {
+    execute(false);
+
+    assertEquals(new File(srcDir, "templates/role1/file1.hbs").lastModified(), targetFile("templates/role1/file1.hbs").lastModified());
+  }
+
+  @Test
+  public void testChangedFileSameSize() throws Exception {
+    execute(false);
+    File sourceFile = new File(srcDir, "templates/role1/file1.hbs");
+    long lastModified = sourceFile.lastModified();
+    write("templates/role1/file1.hbs", "fileX");
+    sourceFile.setLastModified(lastModified + 60000L);
+
+    execute(false);
+
+    assertEquals("fileX", read("templates/role1/file1.hbs"));
+  }
+
+  @Test
+  public void testSameSizeAndDateNotCompared() throws Exception {
+    execute(false);
+    File sourceFile = new File(srcDir, "templates/role1/file1.hbs");
+    long lastModified = sourceFile.lastModified();
+    write("templates/role1/file1.hbs", "fileX");
+    sourceFile.setLastModified(lastModified);
+
+    execute(false);
+
+    // file with same size and modification date as its copy is not read again
+    assertEquals("file1", read("templates/role1/file1.hbs"));
+  }
+
+  @Test
+  public void testRemovedFile() throws Exception {
+    execute(false);
+    FileUtils.forceDelete(new File(srcDir, "templates/role1/file1.hbs"));
+
+    File jarFile = execute(false);
+
+    assertFalse(targetFile("templates/role1/file1.hbs").exists());
+    assertEquals(set("roles/role1.yaml", "templates/role1/sub/file2.hbs", "environments/env1.yaml"),
+        getDefinitionEntries(jarFile));
+  }
+
+  @Test
+  public void testRemovedDirectory() throws Exception {
+    execute(false);
+    FileUtils.deleteDirectory(new File(srcDir, "templates/role1/sub"));
+    FileUtils.deleteDirectory(new File(srcDir, "environments"));
+    FileUtils.cleanDirectory(new File(srcDir, "roles"));
+
+    File jarFile = execute(false);
+
+    assertFalse(targetFile("templates/role1/sub").exists());
+    assertFalse(targetFile("environments").exists());
+    assertFalse(targetFile("roles").exists());
+    assertEquals(set("templates/role1/file1.hbs"), getDefinitionEntries(jarFile));
+  }
+
+  @Test
+  public void testArchiveDefinitionsDirectly() throws Exception {
+    // definition copies and other files from a previous build
+    execute(false);
+    FileUtils.forceDelete(new File(srcDir, "environments/env1.yaml"));
+    write("environments/env2.yaml", "env2");
+    FileUtils.write(targetFile("other.txt"), "other", StandardCharsets.UTF_8);
+
+    File jarFile = execute(true);
+
+    assertEquals(set("roles/role1.yaml", "templates/role1/file1.hbs", "templates/role1/sub/file2.hbs", "environments/env2.yaml",
+        "other.txt"), getDefinitionEntries(jarFile));
+  }
+
+  private File execute(boolean archiveDefinitionsDirectly) throws Exception {
+    MavenProject project = new MavenProject();
+    project.setGroupId("group1");
+    project.setArtifactId("artifact1");
+    project.setVersion("1.0.0");
+    project.setPackaging(PACKAGING_DEFINITION);
+    project.getBuild().setDirectory(targetDir.getPath());
+    project.getBuild().setFinalName("artifact1");
+    project.setArtifact(new DefaultArtifact("group1", "artifact1", "1.0.0", null, PACKAGING_DEFINITION, null,
+        new DefaultArtifactHandler(PACKAGING_DEFINITION)));
+
+    MavenArchiveConfiguration archive = new MavenArchiveConfiguration();
+    archive.setAddMavenDescriptor(false);
+
+    MavenSession mavenSession = mock(MavenSession.class);
+    when(mavenSession.getExecutionProperties()).thenReturn(new Properties());
+
+    JarArchiver jarArchiver = new JarArchiver();
+    jarArchiver.enableLogging(new ConsoleLogger(Logger.LEVEL_ERROR, "test"));
+
+    DefinitionPackageMojo mojo = new DefinitionPackageMojo();
+    FieldUtils.writeField(mojo, "roleDir", new File(srcDir, "roles"), true);
+    FieldUtils.writeField(mojo, "templateDir", new File(srcDir, "templates"), true);
+    FieldUtils.writeField(mojo, "environmentDir", new File(srcDir, "environments"), true);
+    FieldUtils.writeField(mojo, "definitionTarget", definitionTarget.getPath(), true);
+    FieldUtils.writeField(mojo, "archiveDefinitionsDirectly", archiveDefinitionsDirectly, true);
+    FieldUtils.writeField(mojo, "archive", archive, true);
+    FieldUtils.writeField(mojo, "project", project, true);
+    FieldUtils.writeField(mojo, "mavenSession", mavenSession, true);
+    FieldUtils.writeField(mojo, "projectHelper", mock(MavenProjectHelper.class), true);
+    FieldUtils.writeField(mojo, "jarArchiver", jarArchiver, true);
+    mojo.execute();
+
+    File jarFile = project.getArtifact().getFile();
+    assertTrue(jarFile.exists());
+    return jarFile;
+  }
+
+  private void write(String path, String content) throws IOException {
+    FileUtils.write(new File(srcDir, path), content, StandardCharsets.UTF_8);
+  }
+
+  private File targetFile(String path) {
+    return new File(definitionTarget, CLASSPATH_PREFIX + path);
+  }
+
+  private String read(String path) throws IOException {
+    return FileUtils.readFileToString(targetFile(path), StandardCharsets.UTF_8);
+  }
+
+  private static Set<String> set(String... definitionPaths) {
+    Set<String> result = new TreeSet<>();
+    for (String path : definitionPaths) {
+      result.add(CLASSPATH_PREFIX + path);
+    }
+    return result;
+  }
+
+  private static Set<String> getDefinitionEntries(File jarFile) throws IOException {
+    Set<String> names = new TreeSet<>();
+    try (ZipFile zip = new ZipFile(jarFile)) {
+      Collections.list(zip.entries()).stream()
+          .filter(entry -> !entry.isDirectory() && !entry.getName().startsWith("META-INF/"))
+          .forEach(entry -> names.add(entry.getName()));
+    }
+    return names;
+  }
+
+}
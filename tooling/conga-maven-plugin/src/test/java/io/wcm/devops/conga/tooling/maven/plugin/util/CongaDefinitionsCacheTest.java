@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CongaDefinitionsCacheTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testHasCongaDefinitions() throws IOException {
+    File definitionJar = createJar("definitions.jar", "CONGA-INF/roles/role1.yaml");
+    File otherJar = createJar("other.jar", "META-INF/MANIFEST.MF");
+    File cacheFile = new File(tempFolder.getRoot(), "cache.properties");
+
+    CongaDefinitionsCache underTest = new CongaDefinitionsCache(cacheFile);
+    assertTrue(underTest.hasCongaDefinitions(definitionJar));
+    assertFalse(underTest.hasCongaDefinitions(otherJar));
+    underTest.save();
+    assertTrue(cacheFile.exists());
+
+    // cached result is used as long as the JAR file is unchanged
+    CongaDefinitionsCache underTest2 = new CongaDefinitionsCache(cacheFile);
+    assertTrue(underTest2.hasCongaDefinitions(definitionJar));
+    assertFalse(underTest2.hasCongaDefinitions(otherJar));
+
+    // changed JAR file is re-read
+    createJar("other.jar", "CONGA-INF/templates/template1.hbs", "META-INF/MANIFEST.MF");
+    assertTrue(otherJar.setLastModified(otherJar.lastModified() + 2000));
+    assertTrue(underTest2.hasCongaDefinitions(otherJar));
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidJar() throws IOException {
+    File file = tempFolder.newFile("invalid.jar");
+    new CongaDefinitionsCache(null).hasCongaDefinitions(file);
+  }
+
+  private File createJar(String fileName, String... entryNames) throws IOException {
+    File file = new File(tempFolder.getRoot(), fileName);
+    try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+      for (String entryName : entryNames) {
+        zos.putNextEntry(new ZipEntry(entryName));
+        zos.closeEntry();
+      }
+    }
+    return file;
+  }
+
+}
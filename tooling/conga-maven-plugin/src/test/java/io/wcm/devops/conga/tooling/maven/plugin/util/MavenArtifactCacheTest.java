@@ -0,0 +1,74 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class MavenArtifactCacheTest {
+
+  @Test
+  public void testForSession() {
+    RepositorySystemSession session1 = new DefaultRepositorySystemSession();
+    RepositorySystemSession session2 = new DefaultRepositorySystemSession();
+
+    assertSame(MavenArtifactCache.forSession(session1), MavenArtifactCache.forSession(session1));
+    assertNotSame(MavenArtifactCache.forSession(session1), MavenArtifactCache.forSession(session2));
+    assertNotSame(MavenArtifactCache.forSession(null), MavenArtifactCache.forSession(null));
+  }
+
+  @Test
+  public void testArtifacts() {
+    MavenArtifactCache underTest = new MavenArtifactCache();
+    Artifact artifact = new DefaultArtifact("group1:artifact1:jar:1.0");
+    Artifact dependency = new DefaultArtifact("group1:artifact2:jar:1.0");
+
+    assertNull(underTest.getArtifact(artifact));
+    underTest.putArtifact(artifact, artifact);
+    assertSame(artifact, underTest.getArtifact(new DefaultArtifact("group1:artifact1:jar:1.0")));
+
+    assertNull(underTest.getTransitiveDependencies(ImmutableList.of(artifact)));
+    underTest.putTransitiveDependencies(ImmutableList.of(artifact), ImmutableList.of(artifact, dependency));
+    assertEquals(ImmutableList.of(artifact, dependency), underTest.getTransitiveDependencies(ImmutableList.of(artifact)));
+    assertNull(underTest.getTransitiveDependencies(ImmutableList.of(artifact, dependency)));
+  }
+
+  @Test
+  public void testArtifactVersions() {
+    MavenArtifactCache underTest = new MavenArtifactCache();
+
+    assertNull(underTest.getArtifactVersion("key1"));
+    underTest.putArtifactVersion("key1", "1.0");
+    underTest.putArtifactVersion("key2", null);
+    assertEquals("1.0", underTest.getArtifactVersion("key1"));
+    assertEquals(MavenArtifactCache.NO_VERSION, underTest.getArtifactVersion("key2"));
+  }
+
+}
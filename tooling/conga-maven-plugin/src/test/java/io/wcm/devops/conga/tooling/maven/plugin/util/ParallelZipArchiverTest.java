@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+public class ParallelZipArchiverTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private ExecutorService executor;
+  private ParallelZipArchiver underTest;
+  private File contentDir;
+
+  @Before
+  public void setUp() throws IOException {
+    executor = Executors.newFixedThreadPool(4);
+    underTest = new ParallelZipArchiver(executor, 4, ImmutableList.of("jar"));
+
+    contentDir = tempFolder.newFolder("content");
+    for (int i = 0; i < 50; i++) {
+      FileUtils.write(new File(contentDir, "dir" + (i % 5) + "/file" + i + ".txt"), "content " + i, StandardCharsets.UTF_8);
+    }
+    FileUtils.write(new File(contentDir, "download/lib.jar"), "binary", StandardCharsets.UTF_8);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testCreateArchive() throws IOException {
+    File zipFile = new File(tempFolder.getRoot(), "test.zip");
+    underTest.createArchive(contentDir, zipFile);
+
+    try (ZipFile zip = new ZipFile(zipFile)) {
+      List<String> names = new ArrayList<>();
+      Collections.list(zip.entries()).forEach(entry -> names.add(entry.getName()));
+      List<String> sortedNames = new ArrayList<>(names);
+      Collections.sort(sortedNames);
+      assertEquals(sortedNames, names);
+      assertEquals(50 + 5 + 1 + 1, names.size());
+
+      ZipEntry textEntry = zip.getEntry("dir2/file7.txt");
+      assertEquals(ZipEntry.DEFLATED, textEntry.getMethod());
+      assertEquals("content 7", IOUtils.toString(zip.getInputStream(textEntry), StandardCharsets.UTF_8));
+
+      ZipEntry jarEntry = zip.getEntry("download/lib.jar");
+      assertEquals(ZipEntry.STORED, jarEntry.getMethod());
+      assertEquals("binary", IOUtils.toString(zip.getInputStream(jarEntry), StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void testDeterministic() throws IOException {
+    File zipFile1 = new File(tempFolder.getRoot(), "test1.zip");
+    underTest.createArchive(contentDir, zipFile1);
+
+    // touch files - timestamps must not affect ZIP file
+    for (File file : FileUtils.listFiles(contentDir, null, true)) {
+      file.setLastModified(file.lastModified() - 100000);
+    }
+    File zipFile2 = new File(tempFolder.getRoot(), "test2.zip");
+    underTest.createArchive(contentDir, zipFile2);
+
+    assertArrayEquals(FileUtils.readFileToByteArray(zipFile1), FileUtils.readFileToByteArray(zipFile2));
+  }
+
+}
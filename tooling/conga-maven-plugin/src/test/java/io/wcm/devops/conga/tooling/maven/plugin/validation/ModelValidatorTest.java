@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.wcm.devops.conga.model.reader.RoleReader;
+import io.wcm.devops.conga.model.role.Role;
+import io.wcm.devops.conga.resource.Resource;
+import io.wcm.devops.conga.resource.ResourceLoader;
+
+public class ModelValidatorTest {
+
+  private final ResourceLoader resourceLoader = new ResourceLoader();
+  private final ModelValidator<Role> underTest = new ModelValidator<>("Role", RoleReader::new);
+
+  @Test
+  public void testValid() throws Exception {
+    ParsedDefinition<Role> definition = underTest.validate(getResource("role-valid.yaml"), "role-valid.yaml");
+
+    Role role = definition.getModel();
+    assertEquals("test.txt", role.getFiles().get(0).getFile());
+    assertEquals("value1", role.getConfig().get("param1"));
+
+    Map rawTree = (Map)definition.getRawTree();
+    assertEquals(ImmutableList.of("variants", "files", "config"), ImmutableList.copyOf(rawTree.keySet()));
+  }
+
+  @Test(expected = MojoFailureException.class)
+  public void testInvalid() throws Exception {
+    underTest.validate(getResource("role-invalid.yaml"), "role-invalid.yaml");
+  }
+
+  @Test
+  public void testValidatorChain_ValueProvider() throws Exception {
+    ParsedDefinitionValidatorChain<Role> chain = new ParsedDefinitionValidatorChain<>(underTest,
+        ImmutableList.of(new NoValueProviderInRoleValidator()));
+    chain.validate(getResource("role-valid.yaml"), "role-valid.yaml");
+    try {
+      chain.validate(getResource("role-valueprovider.yaml"), "role-valueprovider.yaml");
+    }
+    catch (MojoFailureException ex) {
+      assertTrue(ex.getMessage().contains("role-valueprovider.yaml"));
+      return;
+    }
+    throw new AssertionError("MojoFailureException expected");
+  }
+
+  private Resource getResource(String fileName) {
+    return resourceLoader.getResource(ResourceLoader.CLASSPATH_PREFIX + "validation/" + fileName);
+  }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.wcm.devops.conga.resource.ResourceLoader;
+
+public class TemplateFingerprintsTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private final ResourceLoader resourceLoader = new ResourceLoader();
+  private File templateDir;
+
+  @Before
+  public void setUp() throws IOException {
+    templateDir = tempFolder.newFolder("templates");
+    write("role1/template1.hbs", "{{> shared/partial1.hbs}}");
+    write("shared/partial1.hbs", "partial1");
+  }
+
+  @Test
+  public void testTemplateFingerprint() throws IOException {
+    String fingerprint = newFingerprints().apply("role1/template1.hbs");
+    assertEquals(fingerprint, newFingerprints().apply("role1/template1.hbs"));
+    assertEquals("", newFingerprints().apply("role1/not-existing.hbs"));
+
+    write("role1/template1.hbs", "changed");
+    assertNotEquals(fingerprint, newFingerprints().apply("role1/template1.hbs"));
+  }
+
+  @Test
+  public void testAllTemplatesFingerprint_ChangedPartial() throws IOException {
+    String fingerprint = newFingerprints().apply(TemplateFingerprints.ALL_TEMPLATES);
+    assertEquals(fingerprint, newFingerprints().apply(TemplateFingerprints.ALL_TEMPLATES));
+
+    write("shared/partial1.hbs", "partial1-changed");
+    assertNotEquals(fingerprint, newFingerprints().apply(TemplateFingerprints.ALL_TEMPLATES));
+  }
+
+  @Test
+  public void testAllTemplatesFingerprint_AddedTemplate() throws IOException {
+    String fingerprint = newFingerprints().apply(TemplateFingerprints.ALL_TEMPLATES);
+
+    write("shared/partial2.hbs", "partial2");
+    assertNotEquals(fingerprint, newFingerprints().apply(TemplateFingerprints.ALL_TEMPLATES));
+  }
+
+  private TemplateFingerprints newFingerprints() {
+    return new TemplateFingerprints(resourceLoader,
+        resourceLoader.getResourceCollection(ResourceLoader.FILE_PREFIX + templateDir.getPath()));
+  }
+
+  private void write(String path, String content) throws IOException {
+    FileUtils.write(new File(templateDir, path), content, StandardCharsets.UTF_8);
+  }
+
+}
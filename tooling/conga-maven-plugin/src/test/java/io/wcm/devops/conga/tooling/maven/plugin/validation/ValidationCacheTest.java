@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * wcm.io
+ * %%
+ * Copyright (C) 2018 wcm.io
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package io.wcm.devops.conga.tooling.maven.plugin.validation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+
+public class ValidationCacheTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File cacheFile;
+  private final Map<String, String> dependencyFingerprints = new HashMap<>();
+
+  @Before
+  public void setUp() {
+    cacheFile = new File(tempFolder.getRoot(), "cache.properties");
+    dependencyFingerprints.put("template1.hbs", "t1");
+  }
+
+  @Test
+  public void testValidationCache() throws IOException {
+    ValidationCache underTest = newCache("v1");
+    assertFalse(underTest.isValid("role:role1.yaml", "r1"));
+    underTest.putValid("role:role1.yaml", "r1", ImmutableList.of("template1.hbs"));
+    underTest.putValid("role:role2.yaml", "r2", ImmutableList.of());
+    underTest.save();
+
+    underTest = newCache("v1");
+    assertTrue(underTest.isValid("role:role1.yaml", "r1"));
+    assertFalse(underTest.isValid("role:role2.yaml", "r2-changed"));
+    underTest.save();
+
+    // entries not confirmed in last run are removed
+    underTest = newCache("v1");
+    assertTrue(underTest.isValid("role:role1.yaml", "r1"));
+    assertFalse(underTest.isValid("role:role2.yaml", "r2"));
+  }
+
+  @Test
+  public void testChangedDependency() throws IOException {
+    ValidationCache underTest = newCache("v1");
+    underTest.putValid("role:role1.yaml", "r1", ImmutableList.of("template1.hbs"));
+    underTest.save();
+
+    dependencyFingerprints.put("template1.hbs", "t1-changed");
+    underTest = newCache("v1");
+    assertFalse(underTest.isValid("role:role1.yaml", "r1"));
+  }
+
+  @Test
+  public void testChangedVersion() throws IOException {
+    ValidationCache underTest = newCache("v1");
+    underTest.putValid("role:role1.yaml", "r1", ImmutableList.of());
+    underTest.save();
+
+    underTest = newCache("v2");
+    assertFalse(underTest.isValid("role:role1.yaml", "r1"));
+  }
+
+  private ValidationCache newCache(String versionFingerprint) {
+    return new ValidationCache(cacheFile, versionFingerprint, dependencyFingerprints::get);
+  }
+
+}